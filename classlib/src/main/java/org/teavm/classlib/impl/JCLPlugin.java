@@ -29,6 +29,7 @@ import org.teavm.classlib.impl.currency.CurrencyHelper;
 import org.teavm.classlib.impl.lambda.LambdaMetafactorySubstitutor;
 import org.teavm.classlib.impl.record.ObjectMethodsSubstitutor;
 import org.teavm.classlib.impl.reflection.ReflectionTransformer;
+import org.teavm.classlib.impl.regex.ConstantPatternTransformer;
 import org.teavm.classlib.impl.string.DefaultStringTransformer;
 import org.teavm.classlib.impl.string.JSStringConstructorGenerator;
 import org.teavm.classlib.impl.string.JSStringInjector;
@@ -36,6 +37,7 @@ import org.teavm.classlib.impl.string.JSStringTransformer;
 import org.teavm.classlib.impl.tz.DateTimeZoneProvider;
 import org.teavm.classlib.impl.tz.DateTimeZoneProviderIntrinsic;
 import org.teavm.classlib.impl.tz.DateTimeZoneProviderPatch;
+import org.teavm.classlib.impl.tz.TimeZoneFilterCheck;
 import org.teavm.classlib.impl.tz.TimeZoneGenerator;
 import org.teavm.classlib.impl.unicode.AvailableLocalesMetadataGenerator;
 import org.teavm.classlib.impl.unicode.CLDRHelper;
@@ -154,6 +156,7 @@ public class JCLPlugin implements TeaVMPlugin {
         if (!isBootstrap()) {
             host.add(new ScalaHacks());
             host.add(new KotlinHacks());
+            host.add(new ConstantPatternTransformer(host.getExtension(TeaVMJavaScriptHost.class) != null));
         }
 
         host.add(new NumericClassTransformer());
@@ -198,7 +201,9 @@ public class JCLPlugin implements TeaVMPlugin {
             js.add(new MethodReference(String.class, "<init>", Object.class, void.class),
                     new JSStringConstructorGenerator());
         } else {
-            host.add(new DefaultStringTransformer());
+            boolean compactStrings = Boolean.parseBoolean(
+                    host.getProperties().getProperty("java.lang.String.compact", "false"));
+            host.add(new DefaultStringTransformer(compactStrings));
         }
     }
 
@@ -208,6 +213,7 @@ public class JCLPlugin implements TeaVMPlugin {
         if (!autodetect) {
             host.add(new DateTimeZoneProviderPatch());
         }
+        host.add(new TimeZoneFilterCheck(host.getProperties()));
     }
 
     private void installMetadata(MetadataRegistration reg) {
@@ -0,0 +1,263 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.teavm.model.AccessLevel;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformer;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.GetFieldInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.PutFieldInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+
+/**
+ * Finds regular expression usages with constant patterns ({@code Pattern.compile}, {@code Pattern.matches}
+ * and regex-based methods of {@code String}) and makes each call site compile its pattern only once,
+ * caching it in a synthetic static field of the enclosing class. The cached pattern is still executed by
+ * the regular backtracking matcher; no matcher is generated at build time.
+ * When generating JavaScript, {@code Pattern.matches} and {@code String.matches} with patterns that
+ * {@link JSRegExpTranslator} can express use native {@code RegExp} instead.
+ */
+public class ConstantPatternTransformer implements ClassHolderTransformer {
+    private static final ValueType STRING = ValueType.object("java.lang.String");
+    private static final ValueType CHAR_SEQUENCE = ValueType.object("java.lang.CharSequence");
+    private static final ValueType PATTERN = ValueType.object("java.util.regex.Pattern");
+    private static final ValueType JS_PATTERN = ValueType.object(JSPattern.class.getName());
+    private static final ValueType STRING_ARRAY = ValueType.arrayOf(STRING);
+
+    private static final MethodReference PATTERN_COMPILE = new MethodReference("java.util.regex.Pattern",
+            "compile", STRING, PATTERN);
+    private static final MethodReference PATTERN_COMPILE_WITH_FLAGS = new MethodReference("java.util.regex.Pattern",
+            "compile", STRING, ValueType.INTEGER, PATTERN);
+    private static final MethodReference PATTERN_MATCHES = new MethodReference("java.util.regex.Pattern",
+            "matches", STRING, CHAR_SEQUENCE, ValueType.BOOLEAN);
+    private static final MethodReference STRING_MATCHES = new MethodReference("java.lang.String",
+            "matches", STRING, ValueType.BOOLEAN);
+    private static final MethodReference STRING_REPLACE_ALL = new MethodReference("java.lang.String",
+            "replaceAll", STRING, STRING, STRING);
+    private static final MethodReference STRING_REPLACE_FIRST = new MethodReference("java.lang.String",
+            "replaceFirst", STRING, STRING, STRING);
+    private static final MethodReference STRING_SPLIT = new MethodReference("java.lang.String",
+            "split", STRING, STRING_ARRAY);
+    private static final MethodReference STRING_SPLIT_WITH_LIMIT = new MethodReference("java.lang.String",
+            "split", STRING, ValueType.INTEGER, STRING_ARRAY);
+
+    private static final String HELPERS = ConstantPatterns.class.getName();
+    private static final MethodReference COMPILE = new MethodReference(HELPERS, "compile",
+            PATTERN, STRING, ValueType.INTEGER, PATTERN);
+    private static final MethodReference MATCHES_SEQUENCE = new MethodReference(HELPERS, "matches",
+            PATTERN, CHAR_SEQUENCE, ValueType.BOOLEAN);
+    private static final MethodReference MATCHES_STRING = new MethodReference(HELPERS, "matches",
+            PATTERN, STRING, ValueType.BOOLEAN);
+    private static final MethodReference REPLACE_ALL = new MethodReference(HELPERS, "replaceAll",
+            PATTERN, STRING, STRING, STRING);
+    private static final MethodReference REPLACE_FIRST = new MethodReference(HELPERS, "replaceFirst",
+            PATTERN, STRING, STRING, STRING);
+    private static final MethodReference SPLIT = new MethodReference(HELPERS, "split",
+            PATTERN, STRING, STRING_ARRAY);
+    private static final MethodReference SPLIT_WITH_LIMIT = new MethodReference(HELPERS, "split",
+            PATTERN, STRING, ValueType.INTEGER, STRING_ARRAY);
+
+    private static final MethodReference JS_COMPILE = new MethodReference(JSPattern.class.getName(), "compile",
+            JS_PATTERN, STRING, JS_PATTERN);
+    private static final MethodReference JS_MATCHES = new MethodReference(JSPattern.class.getName(), "matches",
+            JS_PATTERN, CHAR_SEQUENCE, ValueType.BOOLEAN);
+
+    private boolean nativeRegExp;
+    private ClassHolder currentClass;
+    private int fieldIndex;
+    private Instruction[] definitions;
+
+    public ConstantPatternTransformer(boolean nativeRegExp) {
+        this.nativeRegExp = nativeRegExp;
+    }
+
+    @Override
+    public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
+        if (cls.hasModifier(ElementModifier.INTERFACE)) {
+            return;
+        }
+        currentClass = cls;
+        fieldIndex = 0;
+        for (MethodHolder method : cls.getMethods()) {
+            if (method.getProgram() != null) {
+                transformProgram(method.getProgram());
+            }
+        }
+        currentClass = null;
+        definitions = null;
+    }
+
+    private void transformProgram(Program program) {
+        List<InvokeInstruction> candidates = new ArrayList<>();
+        definitions = new Instruction[program.variableCount()];
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (insn instanceof StringConstantInstruction) {
+                    definitions[((StringConstantInstruction) insn).getReceiver().getIndex()] = insn;
+                } else if (insn instanceof IntegerConstantInstruction) {
+                    definitions[((IntegerConstantInstruction) insn).getReceiver().getIndex()] = insn;
+                } else if (insn instanceof InvokeInstruction) {
+                    InvokeInstruction invoke = (InvokeInstruction) insn;
+                    if (invoke.getMethod().getClassName().equals("java.util.regex.Pattern")
+                            || invoke.getMethod().getClassName().equals("java.lang.String")) {
+                        candidates.add(invoke);
+                    }
+                }
+            }
+        }
+        for (InvokeInstruction invoke : candidates) {
+            transformInvocation(invoke);
+        }
+    }
+
+    private void transformInvocation(InvokeInstruction invoke) {
+        MethodReference method = invoke.getMethod();
+        List<? extends Variable> arguments = invoke.getArguments();
+        MethodReference helper;
+        Variable[] helperArguments;
+        if (method.equals(PATTERN_COMPILE) || method.equals(PATTERN_COMPILE_WITH_FLAGS)) {
+            helper = null;
+            helperArguments = null;
+        } else if (method.equals(PATTERN_MATCHES)) {
+            helper = MATCHES_SEQUENCE;
+            helperArguments = new Variable[] { null, arguments.get(1) };
+        } else if (invoke.getInstance() == null) {
+            return;
+        } else if (method.equals(STRING_MATCHES)) {
+            helper = MATCHES_STRING;
+            helperArguments = new Variable[] { null, invoke.getInstance() };
+        } else if (method.equals(STRING_REPLACE_ALL)) {
+            helper = REPLACE_ALL;
+            helperArguments = new Variable[] { null, invoke.getInstance(), arguments.get(1) };
+        } else if (method.equals(STRING_REPLACE_FIRST)) {
+            helper = REPLACE_FIRST;
+            helperArguments = new Variable[] { null, invoke.getInstance(), arguments.get(1) };
+        } else if (method.equals(STRING_SPLIT)) {
+            helper = SPLIT;
+            helperArguments = new Variable[] { null, invoke.getInstance() };
+        } else if (method.equals(STRING_SPLIT_WITH_LIMIT)) {
+            helper = SPLIT_WITH_LIMIT;
+            helperArguments = new Variable[] { null, invoke.getInstance(), arguments.get(1) };
+        } else {
+            return;
+        }
+
+        String regex = stringConstant(arguments.get(0));
+        if (regex == null) {
+            return;
+        }
+        if (method.equals(PATTERN_COMPILE_WITH_FLAGS) && !isIntegerConstant(arguments.get(1))) {
+            return;
+        }
+
+        String jsSource = null;
+        if (nativeRegExp && (helper == MATCHES_SEQUENCE || helper == MATCHES_STRING)) {
+            jsSource = JSRegExpTranslator.translate(regex);
+        }
+
+        Program program = invoke.getProgram();
+        List<Instruction> instructions = new ArrayList<>();
+
+        FieldHolder field = new FieldHolder("$$pattern$$" + fieldIndex++);
+        field.setType(jsSource != null ? JS_PATTERN : PATTERN);
+        field.setLevel(AccessLevel.PRIVATE);
+        field.getModifiers().add(ElementModifier.STATIC);
+        currentClass.addField(field);
+
+        GetFieldInstruction getCached = new GetFieldInstruction();
+        getCached.setField(field.getReference());
+        getCached.setFieldType(field.getType());
+        getCached.setReceiver(program.createVariable());
+        instructions.add(getCached);
+
+        InvokeInstruction compile = new InvokeInstruction();
+        compile.setType(InvocationType.SPECIAL);
+        compile.setReceiver(helper == null && invoke.getReceiver() != null
+                ? invoke.getReceiver()
+                : program.createVariable());
+        if (jsSource != null) {
+            StringConstantInstruction source = new StringConstantInstruction();
+            source.setConstant(jsSource);
+            source.setReceiver(program.createVariable());
+            instructions.add(source);
+            compile.setMethod(JS_COMPILE);
+            compile.setArguments(getCached.getReceiver(), source.getReceiver());
+        } else {
+            Variable flags;
+            if (method.equals(PATTERN_COMPILE_WITH_FLAGS)) {
+                flags = arguments.get(1);
+            } else {
+                IntegerConstantInstruction noFlags = new IntegerConstantInstruction();
+                noFlags.setReceiver(program.createVariable());
+                instructions.add(noFlags);
+                flags = noFlags.getReceiver();
+            }
+            compile.setMethod(COMPILE);
+            compile.setArguments(getCached.getReceiver(), arguments.get(0), flags);
+        }
+        instructions.add(compile);
+
+        PutFieldInstruction putCached = new PutFieldInstruction();
+        putCached.setField(field.getReference());
+        putCached.setFieldType(field.getType());
+        putCached.setValue(compile.getReceiver());
+        instructions.add(putCached);
+
+        for (Instruction insn : instructions) {
+            insn.setLocation(invoke.getLocation());
+        }
+        invoke.insertPreviousAll(instructions);
+
+        if (helper == null) {
+            invoke.delete();
+        } else {
+            helperArguments[0] = compile.getReceiver();
+            InvokeInstruction call = new InvokeInstruction();
+            call.setType(InvocationType.SPECIAL);
+            call.setMethod(jsSource != null ? JS_MATCHES : helper);
+            call.setArguments(helperArguments);
+            call.setReceiver(invoke.getReceiver());
+            call.setLocation(invoke.getLocation());
+            invoke.replace(call);
+        }
+    }
+
+    private String stringConstant(Variable variable) {
+        Instruction definition = definitions[variable.getIndex()];
+        return definition instanceof StringConstantInstruction
+                ? ((StringConstantInstruction) definition).getConstant()
+                : null;
+    }
+
+    private boolean isIntegerConstant(Variable variable) {
+        return definitions[variable.getIndex()] instanceof IntegerConstantInstruction;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.regex;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Runtime part of {@link ConstantPatternTransformer}. Each rewritten call site passes its own cache field,
+ * so a constant regular expression is compiled only once.
+ */
+public final class ConstantPatterns {
+    private ConstantPatterns() {
+    }
+
+    public static Pattern compile(Pattern cached, String regex, int flags) {
+        return cached != null ? cached : Pattern.compile(regex, flags);
+    }
+
+    public static boolean matches(Pattern pattern, CharSequence input) {
+        return pattern.matcher(input).matches();
+    }
+
+    public static boolean matches(Pattern pattern, String input) {
+        return pattern.matcher(Objects.requireNonNull(input)).matches();
+    }
+
+    public static String replaceAll(Pattern pattern, String input, String replacement) {
+        return pattern.matcher(Objects.requireNonNull(input)).replaceAll(replacement);
+    }
+
+    public static String replaceFirst(Pattern pattern, String input, String replacement) {
+        return pattern.matcher(Objects.requireNonNull(input)).replaceFirst(replacement);
+    }
+
+    public static String[] split(Pattern pattern, String input) {
+        return pattern.split(Objects.requireNonNull(input));
+    }
+
+    public static String[] split(Pattern pattern, String input, int limit) {
+        return pattern.split(Objects.requireNonNull(input), limit);
+    }
+}
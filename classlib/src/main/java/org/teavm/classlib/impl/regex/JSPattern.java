@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.regex;
+
+import org.teavm.jso.core.JSRegExp;
+
+/**
+ * Native JavaScript replacement of constant patterns used for whole-input matching.
+ * Sources are produced by {@link JSRegExpTranslator} at build time.
+ */
+public final class JSPattern {
+    private JSRegExp regExp;
+
+    private JSPattern(JSRegExp regExp) {
+        this.regExp = regExp;
+    }
+
+    public static JSPattern compile(JSPattern cached, String source) {
+        return cached != null ? cached : new JSPattern(new JSRegExp(source, "u"));
+    }
+
+    public static boolean matches(JSPattern pattern, CharSequence input) {
+        return pattern.regExp.test(input.toString());
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.regex;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Translates a subset of Java regular expressions into sources of equivalent JavaScript regular expressions
+ * (with {@code u} flag) that match the whole input, i.e. behave as {@link java.util.regex.Matcher#matches()}.
+ * Any construct whose semantics may differ between Java and JavaScript is rejected.
+ */
+final class JSRegExpTranslator {
+    private static final String SYNTAX_CHARACTERS = "^$\\.*+?()[]{}|/";
+    private static final String CLASS_SYNTAX_CHARACTERS = "\\]^-[";
+    private static final String LINE_TERMINATORS = "\\n\\r\\u{85}\\u{2028}\\u{2029}";
+    private static final String DIGITS = "0-9";
+    private static final String WORD = "a-zA-Z_0-9";
+    private static final String SPACE = " \\t\\n\\u{b}\\f\\r";
+
+    private String regex;
+    private int index;
+    private StringBuilder sb = new StringBuilder();
+
+    private JSRegExpTranslator(String regex) {
+        this.regex = regex;
+    }
+
+    static String translate(String regex) {
+        try {
+            Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+        var translator = new JSRegExpTranslator(regex);
+        if (!translator.alternatives(0) || translator.index < regex.length()) {
+            return null;
+        }
+        return "^(?:" + translator.sb + ")$";
+    }
+
+    private boolean alternatives(int depth) {
+        if (!sequence(depth)) {
+            return false;
+        }
+        while (index < regex.length() && regex.charAt(index) == '|') {
+            sb.append('|');
+            index++;
+            if (!sequence(depth)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sequence(int depth) {
+        while (index < regex.length()) {
+            char c = regex.charAt(index);
+            if (c == '|' || c == ')') {
+                return c == '|' || depth > 0;
+            }
+            var kind = atom(depth);
+            if (kind == AtomKind.UNSUPPORTED) {
+                return false;
+            }
+            if (index < regex.length() && "*+?{".indexOf(regex.charAt(index)) >= 0) {
+                if (kind != AtomKind.QUANTIFIABLE || !quantifier()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean quantifier() {
+        char c = regex.charAt(index++);
+        if (c == '{') {
+            int start = index;
+            int min = digits();
+            if (min < 0) {
+                return false;
+            }
+            if (index < regex.length() && regex.charAt(index) == ',') {
+                index++;
+                if (index < regex.length() && regex.charAt(index) != '}') {
+                    int max = digits();
+                    if (max < min) {
+                        return false;
+                    }
+                }
+            }
+            if (index >= regex.length() || regex.charAt(index) != '}') {
+                return false;
+            }
+            index++;
+            sb.append('{').append(regex, start, index);
+        } else {
+            sb.append(c);
+        }
+        if (index < regex.length()) {
+            switch (regex.charAt(index)) {
+                case '?':
+                    sb.append('?');
+                    index++;
+                    break;
+                case '+':
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits() {
+        int start = index;
+        while (index < regex.length() && regex.charAt(index) >= '0' && regex.charAt(index) <= '9') {
+            index++;
+        }
+        if (index == start || index - start > 9) {
+            return -1;
+        }
+        return Integer.parseInt(regex.substring(start, index));
+    }
+
+    private AtomKind atom(int depth) {
+        int c = regex.codePointAt(index);
+        switch (c) {
+            case '(':
+                return group(depth);
+            case '[':
+                return charClass() ? AtomKind.QUANTIFIABLE : AtomKind.UNSUPPORTED;
+            case '.':
+                index++;
+                sb.append("[^").append(LINE_TERMINATORS).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case '^':
+                index++;
+                sb.append('^');
+                return AtomKind.ANCHOR;
+            case '$':
+                // Java's $ also matches before a trailing line terminator, which is only equivalent
+                // to JavaScript when it's the last thing to match
+                index++;
+                return depth == 0 && index == regex.length() ? AtomKind.ANCHOR : AtomKind.UNSUPPORTED;
+            case '\\':
+                index++;
+                return escape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                return AtomKind.UNSUPPORTED;
+            default:
+                index += Character.charCount(c);
+                return literal(c) ? AtomKind.QUANTIFIABLE : AtomKind.UNSUPPORTED;
+        }
+    }
+
+    private AtomKind group(int depth) {
+        index++;
+        var kind = AtomKind.QUANTIFIABLE;
+        if (regex.startsWith("?", index)) {
+            if (regex.startsWith("?:", index)) {
+                sb.append("(?:");
+            } else if (regex.startsWith("?=", index)) {
+                sb.append("(?=");
+                kind = AtomKind.ANCHOR;
+            } else if (regex.startsWith("?!", index)) {
+                sb.append("(?!");
+                kind = AtomKind.ANCHOR;
+            } else {
+                return AtomKind.UNSUPPORTED;
+            }
+            index += 2;
+        } else {
+            sb.append('(');
+        }
+        if (!alternatives(depth + 1) || index >= regex.length() || regex.charAt(index) != ')') {
+            return AtomKind.UNSUPPORTED;
+        }
+        index++;
+        sb.append(')');
+        return kind;
+    }
+
+    private AtomKind escape() {
+        if (index >= regex.length()) {
+            return AtomKind.UNSUPPORTED;
+        }
+        char c = regex.charAt(index);
+        switch (c) {
+            case 'd':
+                index++;
+                sb.append('[').append(DIGITS).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case 'D':
+                index++;
+                sb.append("[^").append(DIGITS).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case 'w':
+                index++;
+                sb.append('[').append(WORD).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case 'W':
+                index++;
+                sb.append("[^").append(WORD).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case 's':
+                index++;
+                sb.append('[').append(SPACE).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case 'S':
+                index++;
+                sb.append("[^").append(SPACE).append(']');
+                return AtomKind.QUANTIFIABLE;
+            case 'Q': {
+                index++;
+                int end = regex.indexOf("\\E", index);
+                if (end < 0) {
+                    end = regex.length();
+                }
+                while (index < end) {
+                    int cp = regex.codePointAt(index);
+                    index += Character.charCount(cp);
+                    if (!literal(cp)) {
+                        return AtomKind.UNSUPPORTED;
+                    }
+                }
+                index = Math.min(regex.length(), end + 2);
+                return AtomKind.QUANTIFIABLE;
+            }
+            default: {
+                int cp = escapedCodePoint();
+                return cp >= 0 && literal(cp) ? AtomKind.QUANTIFIABLE : AtomKind.UNSUPPORTED;
+            }
+        }
+    }
+
+    private int escapedCodePoint() {
+        char c = regex.charAt(index++);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return 7;
+            case 'e':
+                return 27;
+            case '0':
+                return octal();
+            case 'x':
+                if (regex.startsWith("{", index)) {
+                    int end = regex.indexOf('}', index);
+                    if (end < 0) {
+                        return -1;
+                    }
+                    int cp = hex(index + 1, end);
+                    index = end + 1;
+                    return cp;
+                } else {
+                    return fixedHex(2);
+                }
+            case 'u':
+                return fixedHex(4);
+            default:
+                if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+                    return -1;
+                }
+                return c;
+        }
+    }
+
+    private int octal() {
+        int start = index;
+        int maxLength = index < regex.length() && regex.charAt(index) <= '3' ? 3 : 2;
+        while (index < regex.length() && index - start < maxLength
+                && regex.charAt(index) >= '0' && regex.charAt(index) <= '7') {
+            index++;
+        }
+        return index > start ? Integer.parseInt(regex.substring(start, index), 8) : -1;
+    }
+
+    private int fixedHex(int length) {
+        if (index + length > regex.length()) {
+            return -1;
+        }
+        int cp = hex(index, index + length);
+        index += length;
+        return cp;
+    }
+
+    private int hex(int start, int end) {
+        if (start == end || end - start > 6) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < end; ++i) {
+            int digit = Character.digit(regex.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            result = result * 16 + digit;
+        }
+        return result <= Character.MAX_CODE_POINT ? result : -1;
+    }
+
+    private boolean literal(int cp) {
+        if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT && Character.isSurrogate((char) cp)) {
+            return false;
+        }
+        if (cp < 128 && SYNTAX_CHARACTERS.indexOf(cp) >= 0) {
+            sb.append('\\').append((char) cp);
+        } else {
+            appendCodePoint(cp);
+        }
+        return true;
+    }
+
+    private boolean charClass() {
+        index++;
+        sb.append('[');
+        if (regex.startsWith("^", index)) {
+            sb.append('^');
+            index++;
+        }
+        if (regex.startsWith("]", index)) {
+            return false;
+        }
+        while (index < regex.length()) {
+            char c = regex.charAt(index);
+            if (c == ']') {
+                index++;
+                sb.append(']');
+                return true;
+            }
+            if (c == '[' || regex.startsWith("&&", index)) {
+                return false;
+            }
+            int first = classAtom();
+            if (first == -1) {
+                return false;
+            }
+            if (first == -2) {
+                continue;
+            }
+            if (regex.startsWith("-", index) && index + 1 < regex.length() && regex.charAt(index + 1) != ']') {
+                index++;
+                if (regex.charAt(index) == '[') {
+                    return false;
+                }
+                int last = classAtom();
+                if (last < first) {
+                    return false;
+                }
+                appendClassCodePoint(first);
+                sb.append('-');
+                appendClassCodePoint(last);
+            } else {
+                appendClassCodePoint(first);
+            }
+        }
+        return false;
+    }
+
+    // Returns code point, -1 for unsupported construct and -2 when a predefined class was written
+    private int classAtom() {
+        int c = regex.codePointAt(index);
+        if (c != '\\') {
+            index += Character.charCount(c);
+            return c < Character.MIN_SUPPLEMENTARY_CODE_POINT && Character.isSurrogate((char) c) ? -1 : c;
+        }
+        index++;
+        if (index >= regex.length()) {
+            return -1;
+        }
+        switch (regex.charAt(index)) {
+            case 'd':
+                index++;
+                sb.append(DIGITS);
+                return -2;
+            case 'w':
+                index++;
+                sb.append(WORD);
+                return -2;
+            case 's':
+                index++;
+                sb.append(SPACE);
+                return -2;
+            default: {
+                int cp = escapedCodePoint();
+                return cp < Character.MIN_SUPPLEMENTARY_CODE_POINT && cp >= 0 && Character.isSurrogate((char) cp)
+                        ? -1
+                        : cp;
+            }
+        }
+    }
+
+    private void appendClassCodePoint(int cp) {
+        if (cp < 128 && CLASS_SYNTAX_CHARACTERS.indexOf(cp) >= 0) {
+            sb.append('\\').append((char) cp);
+        } else {
+            appendCodePoint(cp);
+        }
+    }
+
+    private void appendCodePoint(int cp) {
+        if (cp < ' ' || cp == 127 || cp == 0x85 || cp == 0x2028 || cp == 0x2029) {
+            sb.append("\\u{").append(Integer.toHexString(cp)).append('}');
+        } else {
+            sb.appendCodePoint(cp);
+        }
+    }
+
+    private enum AtomKind {
+        QUANTIFIABLE,
+        ANCHOR,
+        UNSUPPORTED
+    }
+}
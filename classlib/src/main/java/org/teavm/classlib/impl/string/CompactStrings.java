@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import org.teavm.interop.Address;
+
+public final class CompactStrings {
+    public static final byte LATIN1 = 0;
+    public static final byte UTF16 = 1;
+    public static final byte[] EMPTY = new byte[0];
+
+    private CompactStrings() {
+    }
+
+    public static byte coderOf(char[] chars) {
+        return coderOf(chars, 0, chars.length);
+    }
+
+    public static byte coderOf(char[] chars, int offset, int count) {
+        for (var i = 0; i < count; ++i) {
+            if (chars[offset + i] > 0xFF) {
+                return UTF16;
+            }
+        }
+        return LATIN1;
+    }
+
+    public static byte coderOf(byte[] bytes, byte coder, int begin, int end) {
+        if (coder == LATIN1) {
+            return LATIN1;
+        }
+        for (var i = begin; i < end; ++i) {
+            if (charAt(bytes, coder, i) > 0xFF) {
+                return UTF16;
+            }
+        }
+        return LATIN1;
+    }
+
+    public static byte[] encode(char[] chars, byte coder) {
+        return encode(chars, 0, chars.length, coder);
+    }
+
+    public static byte[] encode(char[] chars, int offset, int count, byte coder) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        if (coder == LATIN1) {
+            var result = new byte[count];
+            for (var i = 0; i < count; ++i) {
+                result[i] = (byte) chars[offset + i];
+            }
+            return result;
+        } else {
+            var result = new byte[count * 2];
+            var address = Address.ofData(result);
+            for (var i = 0; i < count; ++i) {
+                address.putChar(chars[offset + i]);
+                address = address.add(2);
+            }
+            return result;
+        }
+    }
+
+    public static byte[] allocate(int length) {
+        return new byte[length * 2];
+    }
+
+    public static int length(byte[] bytes, byte coder) {
+        return bytes.length >> coder;
+    }
+
+    public static char charAt(byte[] bytes, byte coder, int index) {
+        if (coder == LATIN1) {
+            return (char) (bytes[index] & 0xFF);
+        }
+        return Address.ofData(bytes).add(index * 2).getChar();
+    }
+
+    public static void getChars(byte[] bytes, byte coder, int begin, char[] dst, int dstBegin, int length) {
+        if (coder == LATIN1) {
+            for (var i = 0; i < length; ++i) {
+                dst[dstBegin + i] = (char) (bytes[begin + i] & 0xFF);
+            }
+        } else {
+            var address = Address.ofData(bytes).add(begin * 2);
+            for (var i = 0; i < length; ++i) {
+                dst[dstBegin + i] = address.getChar();
+                address = address.add(2);
+            }
+        }
+    }
+
+    public static byte[] substring(byte[] bytes, byte coder, int begin, int end, byte resultCoder) {
+        if (coder == resultCoder) {
+            var result = new byte[(end - begin) << coder];
+            System.arraycopy(bytes, begin << coder, result, 0, result.length);
+            return result;
+        }
+        var result = new byte[end - begin];
+        for (var i = 0; i < result.length; ++i) {
+            result[i] = (byte) charAt(bytes, coder, begin + i);
+        }
+        return result;
+    }
+
+    public static char[] toChars(byte[] bytes, byte coder) {
+        var result = new char[length(bytes, coder)];
+        getChars(bytes, coder, 0, result, 0, result.length);
+        return result;
+    }
+
+    public static byte[] concat(byte[] first, byte firstCoder, byte[] second, byte secondCoder) {
+        if (firstCoder == secondCoder) {
+            var result = new byte[first.length + second.length];
+            System.arraycopy(first, 0, result, 0, first.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+        var firstLength = length(first, firstCoder);
+        var secondLength = length(second, secondCoder);
+        var result = new byte[(firstLength + secondLength) * 2];
+        var address = Address.ofData(result);
+        for (var i = 0; i < firstLength; ++i) {
+            address.putChar(charAt(first, firstCoder, i));
+            address = address.add(2);
+        }
+        for (var i = 0; i < secondLength; ++i) {
+            address.putChar(charAt(second, secondCoder, i));
+            address = address.add(2);
+        }
+        return result;
+    }
+
+    public static boolean equals(byte[] first, byte firstCoder, byte[] second, byte secondCoder) {
+        if (firstCoder == secondCoder) {
+            if (first.length != second.length) {
+                return false;
+            }
+            for (var i = 0; i < first.length; ++i) {
+                if (first[i] != second[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        var length = length(first, firstCoder);
+        if (length != length(second, secondCoder)) {
+            return false;
+        }
+        for (var i = 0; i < length; ++i) {
+            if (charAt(first, firstCoder, i) != charAt(second, secondCoder, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -25,18 +25,45 @@ import org.teavm.model.FieldReference;
 import org.teavm.model.MethodReference;
 import org.teavm.model.Program;
 import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
 import org.teavm.model.instructions.ArrayElementType;
 import org.teavm.model.instructions.ArrayLengthInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
 import org.teavm.model.instructions.ConstructArrayInstruction;
 import org.teavm.model.instructions.GetElementInstruction;
 import org.teavm.model.instructions.GetFieldInstruction;
 import org.teavm.model.instructions.IntegerConstantInstruction;
 import org.teavm.model.instructions.InvocationType;
 import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.NumericOperandType;
 import org.teavm.model.instructions.PutFieldInstruction;
 import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.optimization.ConstantConditionElimination;
+import org.teavm.model.optimization.GlobalValueNumbering;
+import org.teavm.model.optimization.UnreachableBasicBlockEliminator;
 
 public class DefaultStringTransformer implements ClassHolderTransformer {
+    private static final FieldReference CHARACTERS = new FieldReference("java.lang.String", "characters");
+    private static final FieldReference CODER = new FieldReference("java.lang.String", "coder");
+    private static final ValueType BYTES = ValueType.arrayOf(ValueType.BYTE);
+    private static final MethodReference COMPACT_STRINGS_MARKER = new MethodReference("java.lang.String",
+            "compactStrings", ValueType.BOOLEAN);
+    private boolean compact;
+
+    public DefaultStringTransformer() {
+        this(false);
+    }
+
+    /**
+     * @param compact when set, strings keep their content in a byte array, one byte per character when all
+     *                characters fit into Latin-1 and two bytes per character otherwise. The {@code coder} field
+     *                tells which of these encodings is used, see {@link CompactStrings}.
+     */
+    public DefaultStringTransformer(boolean compact) {
+        this.compact = compact;
+    }
+
     @Override
     public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
         if (cls.getName().equals("java.lang.String")) {
@@ -51,7 +78,7 @@ public class DefaultStringTransformer implements ClassHolderTransformer {
         }
 
         var charactersField = new FieldHolder("characters");
-        charactersField.setType(ValueType.arrayOf(ValueType.CHARACTER));
+        charactersField.setType(compact ? BYTES : ValueType.arrayOf(ValueType.CHARACTER));
         charactersField.setLevel(AccessLevel.PRIVATE);
         cls.addField(charactersField);
 
@@ -59,11 +86,57 @@ public class DefaultStringTransformer implements ClassHolderTransformer {
             cls.addField(field);
         }
 
+        if (compact) {
+            var coderField = new FieldHolder("coder");
+            coderField.setType(ValueType.BYTE);
+            coderField.setLevel(AccessLevel.PRIVATE);
+            cls.addField(coderField);
+        }
+
         for (var method : cls.getMethods()) {
             if (method.getProgram() != null) {
-                transformProgram(method.getProgram());
+                foldCompactStringsMarker(method.getReference(), method.getProgram());
+                if (compact) {
+                    transformCompactProgram(method.getProgram());
+                } else {
+                    transformProgram(method.getProgram());
+                }
+            }
+        }
+    }
+
+    private void foldCompactStringsMarker(MethodReference method, Program program) {
+        var hasChanges = false;
+        for (var block : program.getBasicBlocks()) {
+            for (var instruction : block) {
+                if (!(instruction instanceof InvokeInstruction)) {
+                    continue;
+                }
+                var invoke = (InvokeInstruction) instruction;
+                if (!invoke.getMethod().equals(COMPACT_STRINGS_MARKER)) {
+                    continue;
+                }
+                hasChanges = true;
+                if (invoke.getReceiver() == null) {
+                    invoke.delete();
+                } else {
+                    var constant = new IntegerConstantInstruction();
+                    constant.setConstant(compact ? 1 : 0);
+                    constant.setReceiver(invoke.getReceiver());
+                    constant.setLocation(invoke.getLocation());
+                    invoke.replace(constant);
+                }
             }
         }
+
+        if (hasChanges) {
+            boolean changed;
+            do {
+                changed = new GlobalValueNumbering(true).optimize(program)
+                        | new ConstantConditionElimination().optimize(method.getDescriptor(), program);
+                new UnreachableBasicBlockEliminator().optimize(program);
+            } while (changed);
+        }
     }
 
     private void transformProgram(Program program) {
@@ -277,4 +350,242 @@ public class DefaultStringTransformer implements ClassHolderTransformer {
         getField.setLocation(invoke.getLocation());
         invoke.replace(getField);
     }
+
+    private void transformCompactProgram(Program program) {
+        for (var block : program.getBasicBlocks()) {
+            for (var instruction : block) {
+                if (!(instruction instanceof InvokeInstruction)) {
+                    continue;
+                }
+                var invoke = (InvokeInstruction) instruction;
+                if (!invoke.getMethod().getClassName().equals("java.lang.String")) {
+                    continue;
+                }
+                switch (invoke.getMethod().getName()) {
+                    case "initWithEmptyChars":
+                        replaceCompactInitWithEmptyChars(invoke);
+                        break;
+                    case "borrowChars":
+                        replaceCompactBorrowChars(invoke);
+                        break;
+                    case "initWithCharArray":
+                        replaceCompactInitWithCharArray(invoke);
+                        break;
+                    case "takeCharArray":
+                        replaceCompactTakeCharArray(invoke);
+                        break;
+                    case "allocateChars":
+                        replaceCompactAllocateChars(invoke);
+                        break;
+                    case "initWithConcatenation":
+                        replaceCompactInitWithConcatenation(invoke);
+                        break;
+                    case "initWithSubstring":
+                        replaceCompactInitWithSubstring(invoke);
+                        break;
+                    case "charactersLength":
+                        replaceWithCompactCall(invoke, "length", int.class);
+                        break;
+                    case "charactersGet":
+                        replaceWithCompactCall(invoke, "charAt", int.class, char.class);
+                        break;
+                    case "charactersEquals":
+                        replaceCompactCharactersEquals(invoke);
+                        break;
+                    case "copyCharsToArray":
+                        replaceWithCompactCall(invoke, "getChars", int.class, char[].class, int.class, int.class,
+                                void.class);
+                        break;
+                    case "fastCharArray":
+                        replaceWithCompactCall(invoke, "toChars", char[].class);
+                        break;
+                }
+            }
+        }
+    }
+
+    private void replaceCompactInitWithEmptyChars(InvokeInstruction invoke) {
+        var program = invoke.getProgram();
+
+        var getEmpty = new GetFieldInstruction();
+        getEmpty.setField(new FieldReference(CompactStrings.class.getName(), "EMPTY"));
+        getEmpty.setFieldType(BYTES);
+        getEmpty.setReceiver(program.createVariable());
+        getEmpty.setLocation(invoke.getLocation());
+        invoke.insertPrevious(getEmpty);
+
+        putCompactFields(invoke, getEmpty.getReceiver(), coderConstant(invoke, CompactStrings.LATIN1));
+        invoke.delete();
+    }
+
+    private void replaceCompactBorrowChars(InvokeInstruction invoke) {
+        var other = invoke.getArguments().get(0);
+        var bytes = getField(invoke, other, CHARACTERS, BYTES);
+        var coder = getField(invoke, other, CODER, ValueType.BYTE);
+        putCompactFields(invoke, bytes, coder);
+        invoke.delete();
+    }
+
+    private void replaceCompactInitWithCharArray(InvokeInstruction invoke) {
+        var program = invoke.getProgram();
+        var chars = invoke.getArguments().get(0);
+        var offset = invoke.getArguments().get(1);
+        var count = invoke.getArguments().get(2);
+
+        var coderOf = invokeStatic(invoke, new MethodReference(CompactStrings.class, "coderOf", char[].class,
+                int.class, int.class, byte.class), chars, offset, count);
+        coderOf.setReceiver(program.createVariable());
+        var encode = invokeStatic(invoke, new MethodReference(CompactStrings.class, "encode", char[].class,
+                int.class, int.class, byte.class, byte[].class), chars, offset, count, coderOf.getReceiver());
+        encode.setReceiver(program.createVariable());
+
+        putCompactFields(invoke, encode.getReceiver(), coderOf.getReceiver());
+        invoke.delete();
+    }
+
+    private void replaceCompactTakeCharArray(InvokeInstruction invoke) {
+        var program = invoke.getProgram();
+        var chars = invoke.getArguments().get(0);
+
+        var coderOf = invokeStatic(invoke, new MethodReference(CompactStrings.class, "coderOf", char[].class,
+                byte.class), chars);
+        coderOf.setReceiver(program.createVariable());
+        var encode = invokeStatic(invoke, new MethodReference(CompactStrings.class, "encode", char[].class,
+                byte.class, byte[].class), chars, coderOf.getReceiver());
+        encode.setReceiver(program.createVariable());
+
+        putCompactFields(invoke, encode.getReceiver(), coderOf.getReceiver());
+        invoke.delete();
+    }
+
+    private void replaceCompactAllocateChars(InvokeInstruction invoke) {
+        var allocate = invokeStatic(invoke, new MethodReference(CompactStrings.class, "allocate", int.class,
+                byte[].class), invoke.getArguments().get(0));
+        allocate.setReceiver(invoke.getProgram().createVariable());
+        putCompactFields(invoke, allocate.getReceiver(), coderConstant(invoke, CompactStrings.UTF16));
+        invoke.delete();
+    }
+
+    private void replaceCompactInitWithConcatenation(InvokeInstruction invoke) {
+        var program = invoke.getProgram();
+        var first = invoke.getArguments().get(0);
+        var second = invoke.getArguments().get(1);
+        var firstBytes = getField(invoke, first, CHARACTERS, BYTES);
+        var firstCoder = getField(invoke, first, CODER, ValueType.BYTE);
+        var secondBytes = getField(invoke, second, CHARACTERS, BYTES);
+        var secondCoder = getField(invoke, second, CODER, ValueType.BYTE);
+
+        var concat = invokeStatic(invoke, new MethodReference(CompactStrings.class, "concat", byte[].class,
+                byte.class, byte[].class, byte.class, byte[].class), firstBytes, firstCoder, secondBytes, secondCoder);
+        concat.setReceiver(program.createVariable());
+
+        var coder = new BinaryInstruction(BinaryOperation.OR, NumericOperandType.INT);
+        coder.setFirstOperand(firstCoder);
+        coder.setSecondOperand(secondCoder);
+        coder.setReceiver(program.createVariable());
+        coder.setLocation(invoke.getLocation());
+        invoke.insertPrevious(coder);
+
+        putCompactFields(invoke, concat.getReceiver(), coder.getReceiver());
+        invoke.delete();
+    }
+
+    private void replaceCompactInitWithSubstring(InvokeInstruction invoke) {
+        var program = invoke.getProgram();
+        var source = invoke.getArguments().get(0);
+        var begin = invoke.getArguments().get(1);
+        var end = invoke.getArguments().get(2);
+        var sourceBytes = getField(invoke, source, CHARACTERS, BYTES);
+        var sourceCoder = getField(invoke, source, CODER, ValueType.BYTE);
+
+        var coderOf = invokeStatic(invoke, new MethodReference(CompactStrings.class, "coderOf", byte[].class,
+                byte.class, int.class, int.class, byte.class), sourceBytes, sourceCoder, begin, end);
+        coderOf.setReceiver(program.createVariable());
+        var substring = invokeStatic(invoke, new MethodReference(CompactStrings.class, "substring", byte[].class,
+                byte.class, int.class, int.class, byte.class, byte[].class), sourceBytes, sourceCoder, begin, end,
+                coderOf.getReceiver());
+        substring.setReceiver(program.createVariable());
+
+        putCompactFields(invoke, substring.getReceiver(), coderOf.getReceiver());
+        invoke.delete();
+    }
+
+    private void replaceCompactCharactersEquals(InvokeInstruction invoke) {
+        var other = invoke.getArguments().get(0);
+        var bytes = getField(invoke, invoke.getInstance(), CHARACTERS, BYTES);
+        var coder = getField(invoke, invoke.getInstance(), CODER, ValueType.BYTE);
+        var otherBytes = getField(invoke, other, CHARACTERS, BYTES);
+        var otherCoder = getField(invoke, other, CODER, ValueType.BYTE);
+        var equals = invokeStatic(invoke, new MethodReference(CompactStrings.class, "equals", byte[].class,
+                byte.class, byte[].class, byte.class, boolean.class), bytes, coder, otherBytes, otherCoder);
+        equals.setReceiver(invoke.getReceiver());
+        invoke.delete();
+    }
+
+    private void replaceWithCompactCall(InvokeInstruction invoke, String methodName, Class<?>... signature) {
+        var bytes = getField(invoke, invoke.getInstance(), CHARACTERS, BYTES);
+        var coder = getField(invoke, invoke.getInstance(), CODER, ValueType.BYTE);
+
+        var fullSignature = new Class<?>[signature.length + 2];
+        fullSignature[0] = byte[].class;
+        fullSignature[1] = byte.class;
+        System.arraycopy(signature, 0, fullSignature, 2, signature.length);
+        var arguments = new Variable[invoke.getArguments().size() + 2];
+        arguments[0] = bytes;
+        arguments[1] = coder;
+        for (var i = 0; i < invoke.getArguments().size(); ++i) {
+            arguments[i + 2] = invoke.getArguments().get(i);
+        }
+
+        var call = invokeStatic(invoke, new MethodReference(CompactStrings.class, methodName, fullSignature),
+                arguments);
+        call.setReceiver(invoke.getReceiver());
+        invoke.delete();
+    }
+
+    private Variable coderConstant(InvokeInstruction invoke, byte coder) {
+        var constant = new IntegerConstantInstruction();
+        constant.setConstant(coder);
+        constant.setReceiver(invoke.getProgram().createVariable());
+        constant.setLocation(invoke.getLocation());
+        invoke.insertPrevious(constant);
+        return constant.getReceiver();
+    }
+
+    private void putCompactFields(InvokeInstruction invoke, Variable bytes, Variable coder) {
+        putField(invoke, invoke.getInstance(), CHARACTERS, BYTES, bytes);
+        putField(invoke, invoke.getInstance(), CODER, ValueType.BYTE, coder);
+    }
+
+    private Variable getField(InvokeInstruction invoke, Variable instance, FieldReference field, ValueType type) {
+        var getField = new GetFieldInstruction();
+        getField.setField(field);
+        getField.setFieldType(type);
+        getField.setInstance(instance);
+        getField.setReceiver(invoke.getProgram().createVariable());
+        getField.setLocation(invoke.getLocation());
+        invoke.insertPrevious(getField);
+        return getField.getReceiver();
+    }
+
+    private void putField(InvokeInstruction invoke, Variable instance, FieldReference field, ValueType type,
+            Variable value) {
+        var putField = new PutFieldInstruction();
+        putField.setField(field);
+        putField.setFieldType(type);
+        putField.setInstance(instance);
+        putField.setValue(value);
+        putField.setLocation(invoke.getLocation());
+        invoke.insertPrevious(putField);
+    }
+
+    private InvokeInstruction invokeStatic(InvokeInstruction invoke, MethodReference method, Variable... arguments) {
+        var call = new InvokeInstruction();
+        call.setType(InvocationType.SPECIAL);
+        call.setMethod(method);
+        call.setArguments(arguments);
+        call.setLocation(invoke.getLocation());
+        invoke.insertPrevious(call);
+        return call;
+    }
 }
@@ -17,6 +17,7 @@ package org.teavm.classlib.impl.string;
 
 import java.util.function.Function;
 import org.teavm.backend.javascript.ProviderContext;
+import org.teavm.backend.javascript.rendering.Precedence;
 import org.teavm.backend.javascript.spi.Injector;
 import org.teavm.backend.javascript.spi.InjectorContext;
 import org.teavm.model.FieldReference;
@@ -44,6 +45,12 @@ public class JSStringInjector implements Injector, Function<ProviderContext, Inj
             case "stripJS":
             case "stripLeadingJS":
             case "stripTrailingJS":
+            case "emptyJS":
+            case "concatJS":
+            case "concatCharJS":
+            case "concatIntJS":
+            case "lengthJS":
+            case "charAtJS":
                 return this;
         }
         return null;
@@ -100,6 +107,24 @@ public class JSStringInjector implements Injector, Function<ProviderContext, Inj
             case "stripTrailingJS":
                 stripTrailingJS(context);
                 break;
+            case "emptyJS":
+                context.getWriter().append("\"\"");
+                break;
+            case "concatJS":
+                concatJS(context, false);
+                break;
+            case "concatCharJS":
+                concatJS(context, true);
+                break;
+            case "concatIntJS":
+                concatJS(context, false);
+                break;
+            case "lengthJS":
+                lengthJS(context);
+                break;
+            case "charAtJS":
+                charAtJS(context);
+                break;
         }
     }
 
@@ -254,4 +279,38 @@ public class JSStringInjector implements Injector, Function<ProviderContext, Inj
         context.writeExpr(context.getArgument(0));
         writer.append(".trimEnd()");
     }
+
+    private void concatJS(InjectorContext context, boolean charCode) {
+        var writer = context.getWriter();
+        boolean needsParentheses = context.getPrecedence().ordinal() > Precedence.ADDITION.ordinal();
+        if (needsParentheses) {
+            writer.append("(");
+        }
+        context.writeExpr(context.getArgument(0), Precedence.ADDITION);
+        writer.ws().append("+").ws();
+        if (charCode) {
+            writer.append("String.fromCharCode(");
+            context.writeExpr(context.getArgument(1), Precedence.min());
+            writer.append(")");
+        } else {
+            context.writeExpr(context.getArgument(1), Precedence.ADDITION.next());
+        }
+        if (needsParentheses) {
+            writer.append(")");
+        }
+    }
+
+    private void lengthJS(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0), Precedence.MEMBER_ACCESS);
+        writer.append(".length");
+    }
+
+    private void charAtJS(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0), Precedence.MEMBER_ACCESS);
+        writer.append(".charCodeAt(");
+        context.writeExpr(context.getArgument(1), Precedence.min());
+        writer.append(")");
+    }
 }
@@ -67,6 +67,11 @@ public final class CachedDateTimeZone extends StorableDateTimeZone {
         iZone.write(sb);
     }
 
+    @Override
+    public void write(StringBuilder sb, long startTime) {
+        iZone.write(sb, startTime);
+    }
+
     /**
      * Returns the DateTimeZone being wrapped.
      */
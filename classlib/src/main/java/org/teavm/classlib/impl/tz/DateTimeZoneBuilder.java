@@ -1141,32 +1141,41 @@ public class DateTimeZoneBuilder {
 
         @Override
         public void write(StringBuilder sb) {
+            write(sb, TimeZoneFilter.DEFAULT_START_TIME);
+        }
+
+        @Override
+        public void write(StringBuilder sb, long startTime) {
+            long[] transitions = iTransitions.clone();
+            int[] wallOffsets = iWallOffsets.clone();
+            int[] standardOffsets = iStandardOffsets.clone();
+
             int start = 0;
-            while (start + 1 < iTransitions.length && iTransitions[start + 1] < 631170000000L) {
+            while (start + 1 < transitions.length && transitions[start + 1] < startTime) {
                 ++start;
             }
 
             if (start > 1) {
                 --start;
-                iTransitions[start] = iTransitions[0];
-                iWallOffsets[start] = iWallOffsets[0];
-                iStandardOffsets[start] = iStandardOffsets[0];
+                transitions[start] = transitions[0];
+                wallOffsets[start] = wallOffsets[0];
+                standardOffsets[start] = standardOffsets[0];
             }
 
             Base46.encodeUnsigned(sb, PRECALCULATED);
 
-            int lengthEncoded = (iTransitions.length - start) << 1;
-            if (iTransitions[start] == Long.MIN_VALUE) {
+            boolean firstLongIsMin = transitions[start] == Long.MIN_VALUE;
+            int lengthEncoded = (transitions.length - start) << 1;
+            if (firstLongIsMin) {
                 lengthEncoded |= 1;
             }
             Base46.encodeUnsigned(sb, lengthEncoded);
 
-            long[] transitions = iTransitions.clone();
             for (int i = 0; i < transitions.length; ++i) {
                 transitions[i] = (transitions[i] / 60_000) * 60_000;
             }
 
-            if (iTransitions[start] == Long.MIN_VALUE) {
+            if (firstLongIsMin) {
                 if (start + 1 < transitions.length) {
                     writeTime(sb, transitions[start + 1]);
                     for (int i = start + 2; i < transitions.length; ++i) {
@@ -1180,8 +1189,8 @@ public class DateTimeZoneBuilder {
                 }
             }
 
-            writeTimeArray(sb, Arrays.copyOfRange(iWallOffsets, start, transitions.length));
-            writeTimeArray(sb, Arrays.copyOfRange(iStandardOffsets, start, transitions.length));
+            writeTimeArray(sb, Arrays.copyOfRange(wallOffsets, start, transitions.length));
+            writeTimeArray(sb, Arrays.copyOfRange(standardOffsets, start, transitions.length));
 
             if (iTailZone != null) {
                 sb.append('y');
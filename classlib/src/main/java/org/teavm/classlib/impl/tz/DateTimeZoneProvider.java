@@ -23,10 +23,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
+import org.teavm.backend.c.intrinsic.RuntimeInclude;
+import org.teavm.classlib.PlatformDetector;
 import org.teavm.classlib.impl.Base46;
 import org.teavm.classlib.impl.CharFlow;
 import org.teavm.interop.Import;
+import org.teavm.interop.Platforms;
 import org.teavm.interop.Unmanaged;
+import org.teavm.interop.UnsupportedOn;
 import org.teavm.jso.JSBody;
 import org.teavm.platform.metadata.ResourceMap;
 
@@ -73,19 +77,36 @@ public final class DateTimeZoneProvider {
     }
 
     public static DateTimeZone detectTimezone() {
-        List<Score> zones = new ArrayList<>();
         long time = System.currentTimeMillis();
-        int offset = -getNativeOffset(System.currentTimeMillis());
-        for (String id : getIds()) {
-            DateTimeZone tz = getTimeZone(id);
-            if (tz instanceof AliasDateTimeZone) {
-                continue;
+        int offset = -getNativeOffset(time);
+        String nativeId = getNativeZoneId();
+        if (nativeId != null && !nativeId.isEmpty()) {
+            DateTimeZone tz = getTimeZone(nativeId);
+            if (tz != null && tz.getOffset(time) / 60_000 == offset) {
+                return tz;
             }
-            int tzOffset = tz.getOffset(time) / 60_000;
-            if (Math.abs(tzOffset - offset) > 120 || tz.previousTransition(time) == time) {
-                continue;
+        }
+        return detectTimezoneByScore(time, offset);
+    }
+
+    private static DateTimeZone detectTimezoneByScore(long time, int offset) {
+        List<Score> zones = new ArrayList<>();
+        ResourceMap<ResourceMap<TimeZoneResource>> resource = getResource();
+        for (String areaName : resource.keys()) {
+            ResourceMap<TimeZoneResource> area = resource.get(areaName);
+            for (String locationName : area.keys()) {
+                TimeZoneResource res = area.get(locationName);
+                if (res.isAlias() || offset < res.getMinOffset() - 120 || offset > res.getMaxOffset() + 120) {
+                    continue;
+                }
+                String id = !areaName.isEmpty() ? areaName + "/" + locationName : locationName;
+                DateTimeZone tz = getTimeZone(id);
+                int tzOffset = tz.getOffset(time) / 60_000;
+                if (Math.abs(tzOffset - offset) > 120 || tz.previousTransition(time) == time) {
+                    continue;
+                }
+                zones.add(new Score(tz));
             }
-            zones.add(new Score(tz));
         }
 
         List<Score> scoreTable = new ArrayList<>();
@@ -181,6 +202,28 @@ public final class DateTimeZoneProvider {
         return area.has(locationName) ? area.get(locationName) : null;
     }
 
+    private static String getNativeZoneId() {
+        if (PlatformDetector.isC()) {
+            return getNativeZoneIdC();
+        } else if (PlatformDetector.isWebAssembly()) {
+            return getNativeZoneIdWebAssembly();
+        } else {
+            return getNativeZoneIdJS();
+        }
+    }
+
+    @JSBody(script = "try { return Intl.DateTimeFormat().resolvedOptions().timeZone || null; } "
+            + "catch (e) { return null; }")
+    private static native String getNativeZoneIdJS();
+
+    @Import(module = "teavm", name = "getNativeZoneId")
+    private static native String getNativeZoneIdWebAssembly();
+
+    @Import(name = "teavm_timeZoneId")
+    @RuntimeInclude("time.h")
+    @UnsupportedOn(Platforms.WEBASSEMBLY)
+    private static native String getNativeZoneIdC();
+
     @JSBody(params = "instant", script = "return new Date(instant).getTimezoneOffset();")
     @Import(module = "teavm", name = "getNativeOffset")
     @Unmanaged
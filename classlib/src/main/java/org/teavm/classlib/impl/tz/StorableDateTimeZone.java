@@ -34,6 +34,10 @@ public abstract class StorableDateTimeZone extends DateTimeZone {
 
     public abstract void write(StringBuilder sb);
 
+    public void write(StringBuilder sb, long startTime) {
+        write(sb);
+    }
+
     public static void writeTime(StringBuilder sb, long time) {
         if (time % 1800_000 == 0) {
             Base46.encode(sb, (time / 1800_000) << 1);
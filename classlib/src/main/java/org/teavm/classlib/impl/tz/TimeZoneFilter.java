@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.tz;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import org.teavm.diagnostics.Diagnostics;
+
+/**
+ * Selects the time zone data emitted into the generated program. Configured by properties:
+ * {@code java.util.TimeZone.zones} is a comma-separated list of zone ids, where an entry ending with {@code *}
+ * matches any id with the given prefix (e.g. {@code Europe/*}); {@code java.util.TimeZone.startYear} drops
+ * transitions that happened before the beginning of the given year. A malformed start year is ignored,
+ * and {@link #DEFAULT_START_TIME} is used instead.
+ */
+public class TimeZoneFilter {
+    public static final long DEFAULT_START_TIME = 631170000000L;
+
+    private Set<String> ids = new HashSet<>();
+    private List<String> prefixes = new ArrayList<>();
+    private boolean all;
+    private long startTime = DEFAULT_START_TIME;
+
+    public static TimeZoneFilter fromProperties(Properties properties) {
+        return fromProperties(properties, null);
+    }
+
+    public static TimeZoneFilter fromProperties(Properties properties, Diagnostics diagnostics) {
+        TimeZoneFilter filter = new TimeZoneFilter();
+        String zones = properties.getProperty("java.util.TimeZone.zones", "").trim();
+        if (zones.isEmpty()) {
+            filter.all = true;
+        } else {
+            for (String zone : zones.split(" *, *")) {
+                if (zone.equals("*")) {
+                    filter.all = true;
+                } else if (zone.endsWith("*")) {
+                    filter.prefixes.add(zone.substring(0, zone.length() - 1));
+                } else if (!zone.isEmpty()) {
+                    filter.ids.add(zone);
+                }
+            }
+        }
+        String startYear = properties.getProperty("java.util.TimeZone.startYear", "").trim();
+        if (!startYear.isEmpty()) {
+            try {
+                int year = Integer.parseInt(startYear);
+                filter.startTime = LocalDate.of(year, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant()
+                        .toEpochMilli();
+            } catch (NumberFormatException | DateTimeException | ArithmeticException e) {
+                if (diagnostics != null) {
+                    diagnostics.warning(null, "Invalid value '" + startYear + "' of java.util.TimeZone.startYear "
+                            + "property, default start year is used");
+                }
+            }
+        }
+        return filter;
+    }
+
+    public boolean accepts(String id) {
+        if (all || ids.contains(id)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (id.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.tz;
+
+import java.util.Properties;
+import org.teavm.dependency.AbstractDependencyListener;
+import org.teavm.dependency.DependencyAgent;
+
+/**
+ * Reports malformed time zone filter properties. Metadata generators that apply the filter have no access
+ * to diagnostics, so properties are checked once when dependency analysis starts.
+ */
+public class TimeZoneFilterCheck extends AbstractDependencyListener {
+    private final Properties properties;
+
+    public TimeZoneFilterCheck(Properties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void started(DependencyAgent agent) {
+        TimeZoneFilter.fromProperties(properties, agent.getDiagnostics());
+    }
+}
@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.teavm.model.MethodReference;
@@ -32,6 +34,7 @@ import org.teavm.platform.metadata.ResourceMap;
 public class TimeZoneGenerator implements MetadataGenerator {
     public static final String TIMEZONE_DB_VERSION = "2024a";
     public static final String TIMEZONE_DB_PATH = "org/teavm/classlib/impl/tz/tzdata" + TIMEZONE_DB_VERSION + ".zip";
+    private static final long OFFSET_RANGE_END = 4102444800000L; // 2100-01-01T00:00:00Z
 
     public static void compile(ZoneInfoCompiler compiler, ClassLoader classLoader) {
         try (InputStream input = classLoader.getResourceAsStream(TIMEZONE_DB_PATH)) {
@@ -84,8 +87,15 @@ public class TimeZoneGenerator implements MetadataGenerator {
         } catch (IOException e) {
             throw new RuntimeException("Error generating time zones", e);
         }
+        TimeZoneFilter filter = TimeZoneFilter.fromProperties(context.getProperties());
+        boolean autodetect = Boolean.parseBoolean(
+                context.getProperties().getProperty("java.util.TimeZone.autodetect", "false"));
+        Set<String> selectedIds = selectZones(zones, filter);
         for (StorableDateTimeZone tz : zones) {
             String id = tz.getID();
+            if (!selectedIds.contains(id)) {
+                continue;
+            }
             int sepIndex = id.indexOf('/');
             String areaName;
             String locationName;
@@ -104,11 +114,50 @@ public class TimeZoneGenerator implements MetadataGenerator {
 
             TimeZoneResource tzRes = context.createResource(TimeZoneResource.class);
             StringBuilder data = new StringBuilder();
-            tz.write(data);
+            tz.write(data, filter.getStartTime());
             tzRes.setData(data.toString());
+            if (tz instanceof AliasDateTimeZone) {
+                tzRes.setAlias(true);
+            } else if (autodetect) {
+                writeOffsetRange(tz, tzRes, filter.getStartTime());
+            }
             area.put(locationName, tzRes);
         }
 
         return result;
     }
+
+    private static Set<String> selectZones(Collection<StorableDateTimeZone> zones, TimeZoneFilter filter) {
+        Set<String> result = new HashSet<>();
+        for (StorableDateTimeZone tz : zones) {
+            if (!filter.accepts(tz.getID())) {
+                continue;
+            }
+            result.add(tz.getID());
+            DateTimeZone target = tz;
+            while (target instanceof AliasDateTimeZone) {
+                target = ((AliasDateTimeZone) target).getInnerZone();
+                result.add(target.getID());
+            }
+        }
+        return result;
+    }
+
+    private static void writeOffsetRange(DateTimeZone tz, TimeZoneResource res, long startTime) {
+        long time = Math.max(0, startTime);
+        int min = tz.getOffset(time);
+        int max = min;
+        while (time < OFFSET_RANGE_END) {
+            long next = tz.nextTransition(time);
+            if (next <= time) {
+                break;
+            }
+            time = next;
+            int offset = tz.getOffset(time);
+            min = Math.min(min, offset);
+            max = Math.max(max, offset);
+        }
+        res.setMinOffset(min / 60_000);
+        res.setMaxOffset(max / 60_000);
+    }
 }
@@ -21,4 +21,16 @@ public interface TimeZoneResource extends Resource {
     String getData();
 
     void setData(String data);
+
+    boolean isAlias();
+
+    void setAlias(boolean alias);
+
+    int getMinOffset();
+
+    void setMinOffset(int minOffset);
+
+    int getMaxOffset();
+
+    void setMaxOffset(int maxOffset);
 }
@@ -16,10 +16,16 @@
 package org.teavm.classlib.impl.unicode;
 
 import java.util.Map;
+import java.util.Set;
 
 public class CountryMetadataGenerator extends LocaleMetadataGenerator {
     @Override
     protected Map<String, String> getNameMap(CLDRLocale locale) {
         return locale.getTerritories();
     }
+
+    @Override
+    protected Set<String> getAvailableKeys(CLDRReader reader) {
+        return reader.getAvailableCountries();
+    }
 }
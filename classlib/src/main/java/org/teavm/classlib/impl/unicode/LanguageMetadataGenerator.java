@@ -16,10 +16,16 @@
 package org.teavm.classlib.impl.unicode;
 
 import java.util.Map;
+import java.util.Set;
 
 public class LanguageMetadataGenerator extends LocaleMetadataGenerator {
     @Override
     protected Map<String, String> getNameMap(CLDRLocale locale) {
         return locale.getLanguages();
     }
+
+    @Override
+    protected Set<String> getAvailableKeys(CLDRReader reader) {
+        return reader.getAvailableLanguages();
+    }
 }
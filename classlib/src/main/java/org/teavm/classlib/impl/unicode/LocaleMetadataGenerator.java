@@ -16,6 +16,7 @@
 package org.teavm.classlib.impl.unicode;
 
 import java.util.Map;
+import java.util.Set;
 import org.teavm.model.MethodReference;
 import org.teavm.platform.metadata.*;
 
@@ -24,11 +25,16 @@ public abstract class LocaleMetadataGenerator implements MetadataGenerator {
     public Resource generateMetadata(MetadataGeneratorContext context, MethodReference method) {
         ResourceMap<ResourceMap<StringResource>> result = context.createResourceMap();
         CLDRReader reader = context.getService(CLDRReader.class);
+        Set<String> keys = context.getProperties().getProperty("java.util.Locale.displayNames", "all")
+                .equals("available") ? getAvailableKeys(reader) : null;
         for (Map.Entry<String, CLDRLocale> entry : reader.getKnownLocales().entrySet()) {
             CLDRLocale locale = entry.getValue();
             ResourceMap<StringResource> names = context.createResourceMap();
             result.put(entry.getKey(), names);
             for (Map.Entry<String, String> nameEntry : getNameMap(locale).entrySet()) {
+                if (keys != null && !keys.contains(nameEntry.getKey())) {
+                    continue;
+                }
                 StringResource name = context.createResource(StringResource.class);
                 name.setValue(nameEntry.getValue());
                 names.put(nameEntry.getKey(), name);
@@ -38,4 +44,6 @@ public abstract class LocaleMetadataGenerator implements MetadataGenerator {
     }
 
     protected abstract Map<String, String> getNameMap(CLDRLocale locale);
+
+    protected abstract Set<String> getAvailableKeys(CLDRReader reader);
 }
@@ -16,6 +16,7 @@
 package org.teavm.classlib.impl.unicode;
 
 import java.util.Map;
+import org.teavm.classlib.impl.tz.TimeZoneFilter;
 import org.teavm.model.MethodReference;
 import org.teavm.platform.metadata.*;
 
@@ -24,6 +25,7 @@ public class TimeZoneLocalizationGenerator implements MetadataGenerator {
     public Resource generateMetadata(MetadataGeneratorContext context, MethodReference method) {
         CLDRReader cldr = context.getService(CLDRReader.class);
         ResourceMap<TimeZoneLocalization> localizations = context.createResourceMap();
+        TimeZoneFilter filter = TimeZoneFilter.fromProperties(context.getProperties());
         for (Map.Entry<String, CLDRLocale> locale : cldr.getKnownLocales().entrySet()) {
             TimeZoneLocalization localization = context.createResource(TimeZoneLocalization.class);
             ResourceMap<ResourceMap<StringResource>> map = context.createResourceMap();
@@ -31,6 +33,10 @@ public class TimeZoneLocalizationGenerator implements MetadataGenerator {
             localizations.put(locale.getKey(), localization);
 
             for (CLDRTimeZone tz : locale.getValue().getTimeZones()) {
+                String id = tz.getArea().isEmpty() ? tz.getLocation() : tz.getArea() + "/" + tz.getLocation();
+                if (!filter.accepts(id)) {
+                    continue;
+                }
                 ResourceMap<StringResource> area;
                 if (!map.has(tz.getArea())) {
                     area = context.createResourceMap();
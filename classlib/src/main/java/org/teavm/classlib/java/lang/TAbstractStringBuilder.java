@@ -16,10 +16,12 @@
 package org.teavm.classlib.java.lang;
 
 import java.util.Arrays;
+import org.teavm.classlib.PlatformDetector;
 import org.teavm.classlib.impl.text.DoubleAnalyzer;
 import org.teavm.classlib.impl.text.FloatAnalyzer;
 import org.teavm.classlib.java.io.TSerializable;
 import org.teavm.classlib.java.util.TArrays;
+import org.teavm.interop.NoSideEffects;
 
 class TAbstractStringBuilder implements TSerializable, TCharSequence {
     static class Constants {
@@ -32,12 +34,27 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     char[] buffer;
     private int length;
 
+    // On JavaScript builder starts with content kept as a native string and switches to buffer
+    // only when it's modified anywhere except its end
+    private Object nativeString;
+
     public TAbstractStringBuilder() {
         this(16);
     }
 
     public TAbstractStringBuilder(int capacity) {
-        buffer = new char[capacity];
+        if (PlatformDetector.isJavaScript()) {
+            if (capacity < 0) {
+                throw new NegativeArraySizeException();
+            }
+            nativeString = emptyJS();
+        } else {
+            buffer = new char[capacity];
+        }
+    }
+
+    private TAbstractStringBuilder(char[] buffer) {
+        this.buffer = buffer;
     }
 
     public TAbstractStringBuilder(String value) {
@@ -45,6 +62,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public TAbstractStringBuilder(CharSequence value) {
+        if (PlatformDetector.isJavaScript()) {
+            var string = (TString) (Object) value.toString();
+            nativeString = string.nativeString();
+            length = string.length();
+            return;
+        }
         buffer = new char[value.length()];
         for (int i = 0; i < buffer.length; ++i) {
             buffer[i] = value.charAt(i);
@@ -69,6 +92,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         } else if (string.isEmpty()) {
             return this;
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (index == length) {
+                return appendJS((TString) (Object) string);
+            }
+            materialize();
+        }
         ensureCapacity(length + string.length());
         for (int i = length - 1; i >= index; --i) {
             buffer[i + string.length()] = buffer[i];
@@ -94,6 +123,17 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     TAbstractStringBuilder insert(int target, int value, int radix) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (target == length) {
+                if (radix == 10) {
+                    nativeString = concatIntJS(nativeString, value);
+                    length = lengthJS(nativeString);
+                    return this;
+                }
+                return appendJS(new TAbstractStringBuilder(new char[33]).insert(0, value, radix));
+            }
+            materialize();
+        }
         boolean positive = true;
         if (value < 0) {
             positive = false;
@@ -143,6 +183,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int target, long value, int radix) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (target == length) {
+                return appendJS(new TAbstractStringBuilder(new char[65]).insert(0, value, radix));
+            }
+            materialize();
+        }
         boolean positive = true;
         if (value < 0) {
             positive = false;
@@ -188,6 +234,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int target, float value) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (target == length) {
+                return appendJS(new TAbstractStringBuilder(new char[16]).insert(0, value));
+            }
+            materialize();
+        }
         if (value == 0) {
             if (1 / value == Float.POSITIVE_INFINITY) {
                 insertSpace(target, target + 3);
@@ -326,6 +378,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int target, double value) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (target == length) {
+                return appendJS(new TAbstractStringBuilder(new char[32]).insert(0, value));
+            }
+            materialize();
+        }
         if (value == 0) {
             if (1 / value == Double.POSITIVE_INFINITY) {
                 insertSpace(target, target + 3);
@@ -511,6 +569,14 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int index, char c) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (index == length) {
+                nativeString = concatCharJS(nativeString, c);
+                length++;
+                return this;
+            }
+            materialize();
+        }
         insertSpace(index, index + 1);
         buffer[index++] = c;
         return this;
@@ -520,6 +586,10 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (codePoint < TCharacter.MIN_SUPPLEMENTARY_CODE_POINT) {
             return append((char) codePoint);
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            append(TCharacter.highSurrogate(codePoint));
+            return append(TCharacter.lowSurrogate(codePoint));
+        }
         ensureCapacity(length + 2);
         buffer[length++] = TCharacter.highSurrogate(codePoint);
         buffer[length++] = TCharacter.lowSurrogate(codePoint);
@@ -543,7 +613,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public void ensureCapacity(int capacity) {
-        if (buffer.length >= capacity) {
+        if (PlatformDetector.isJavaScript() && nativeString != null || buffer.length >= capacity) {
             return;
         }
         int newLength = buffer.length < Integer.MAX_VALUE / 2
@@ -553,17 +623,20 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public void trimToSize() {
-        if (buffer.length > length) {
+        if ((!PlatformDetector.isJavaScript() || nativeString == null) && buffer.length > length) {
             buffer = TArrays.copyOf(buffer, length);
         }
     }
 
     public int capacity() {
-        return buffer.length;
+        return PlatformDetector.isJavaScript() && nativeString != null ? length : buffer.length;
     }
 
     @Override
     public String toString() {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            return new TString(nativeString).toString();
+        }
         return new String(buffer, 0, length);
     }
 
@@ -577,6 +650,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (index < 0 || index >= length) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            return charAtJS(nativeString, index);
+        }
         return buffer[index];
     }
 
@@ -593,6 +669,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (start > end || end > s.length() || start < 0) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (index == length) {
+                return appendJS((TString) (Object) s.subSequence(start, end).toString());
+            }
+            materialize();
+        }
         insertSpace(index, index + end - start);
         for (int i = start; i < end; ++i) {
             buffer[index++] = s.charAt(i);
@@ -621,6 +703,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int index, char[] chars, int offset, int len) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (index == length) {
+                return appendJS(new TString(chars, offset, len));
+            }
+            materialize();
+        }
         insertSpace(index, index + len);
         len += offset;
         while (offset < len) {
@@ -642,12 +730,31 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (srcBegin > srcEnd) {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            new TString(nativeString).getChars(srcBegin, srcEnd, dst, dstBegin);
+            return;
+        }
         while (srcBegin < srcEnd) {
             dst[dstBegin++] = buffer[srcBegin++];
         }
     }
 
     public void setLength(int newLength) {
+        if (newLength < 0) {
+            throw new TStringIndexOutOfBoundsException();
+        }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            if (newLength <= length) {
+                nativeString = substringJS(nativeString, 0, newLength);
+                length = newLength;
+                return;
+            }
+            materialize();
+        }
+        if (newLength > length) {
+            ensureCapacity(newLength);
+            Arrays.fill(buffer, length, newLength, '\0');
+        }
         length = newLength;
     }
 
@@ -655,6 +762,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (index < 0 || index >= length) {
             throw new TStringIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            return delete(index, index + 1);
+        }
         length--;
         for (int i = index; i < length; ++i) {
             buffer[i] = buffer[i + 1];
@@ -672,6 +782,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (end > length) {
             end = length;
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            nativeString = concatJS(substringJS(nativeString, 0, start), substringJS(nativeString, end, length));
+            length -= end - start;
+            return this;
+        }
         int sz = length - end;
         length -= end - start;
         for (int i = 0; i < sz; ++i) {
@@ -687,6 +802,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (end > length) {
             end = length;
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            nativeString = concatJS(concatJS(substringJS(nativeString, 0, start), str.nativeString()),
+                    substringJS(nativeString, end, length));
+            length += str.length() - (end - start);
+            return this;
+        }
         int oldSize = end - start;
         if (str.length() > oldSize) {
             insertSpace(end, start + str.length());
@@ -713,6 +834,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public int indexOf(TString str, int fromIndex) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            return new TString(nativeString).indexOf(str, fromIndex);
+        }
         int sz = length - str.length();
         outer: for (int i = fromIndex; i <= sz; ++i) {
             for (int j = 0; j < str.length(); ++j) {
@@ -730,6 +854,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public int lastIndexOf(TString str, int fromIndex) {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            return new TString(nativeString).lastIndexOf(str, fromIndex);
+        }
         outer: for (int i = fromIndex; i >= 0; --i) {
             for (int j = 0; j < str.length(); ++j) {
                 if (buffer[i + j] != str.charAt(j)) {
@@ -742,6 +869,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public TAbstractStringBuilder reverse() {
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            materialize();
+        }
         int half = length / 2;
         for (int i = 0; i < half; ++i) {
             char tmp = buffer[i];
@@ -755,6 +885,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (from > to || from < 0 || to > length) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            return new TString(substringJS(nativeString, from, to));
+        }
         return new TString(buffer, from, to - from);
     }
 
@@ -766,6 +899,9 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (index > length) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript() && nativeString != null) {
+            materialize();
+        }
         buffer[index] = ch;
     }
 
@@ -784,4 +920,41 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     public int codePointBefore(int index) {
         return TCharacter.codePointBefore(this, index);
     }
+
+    private TAbstractStringBuilder appendJS(TString string) {
+        nativeString = concatJS(nativeString, string.nativeString());
+        length += string.length();
+        return this;
+    }
+
+    private TAbstractStringBuilder appendJS(TAbstractStringBuilder formatted) {
+        return appendJS(new TString(formatted.buffer, 0, formatted.length));
+    }
+
+    private void materialize() {
+        buffer = new char[Math.max(length * 2, 16)];
+        new TString(nativeString).getChars(0, length, buffer, 0);
+        nativeString = null;
+    }
+
+    @NoSideEffects
+    private static native Object emptyJS();
+
+    @NoSideEffects
+    private static native Object concatJS(Object a, Object b);
+
+    @NoSideEffects
+    private static native Object concatCharJS(Object a, char b);
+
+    @NoSideEffects
+    private static native Object concatIntJS(Object a, int b);
+
+    @NoSideEffects
+    private static native int lengthJS(Object nativeString);
+
+    @NoSideEffects
+    private static native char charAtJS(Object nativeString, int index);
+
+    @NoSideEffects
+    private static native Object substringJS(Object nativeString, int start, int end);
 }
@@ -64,7 +64,7 @@ public class TString extends TObject implements TSerializable, TComparable<TStri
     public TString(Object nativeString) {
     }
 
-    private native Object nativeString();
+    native Object nativeString();
 
     public TString(char[] value, int offset, int count) {
         Objects.checkFromIndexSize(offset, count, value.length);
@@ -138,15 +138,45 @@ public class TString extends TObject implements TSerializable, TComparable<TStri
     }
 
     public TString(TStringBuffer sb) {
-        initWithCharArray(sb.buffer, 0, sb.length());
+        this((TString) (Object) sb.toString());
     }
 
     public TString(TStringBuilder sb) {
-        initWithCharArray(sb.buffer, 0, sb.length());
+        this((TString) (Object) sb.toString());
     }
 
     private TString(int length) {
-        takeCharArray(new char[length]);
+        if (!PlatformDetector.isJavaScript() && compactStrings()) {
+            allocateChars(length);
+        } else {
+            takeCharArray(new char[length]);
+        }
+    }
+
+    @NoSideEffects
+    private native void allocateChars(int length);
+
+    private TString(TString first, TString second) {
+        initWithConcatenation(first, second);
+    }
+
+    @NoSideEffects
+    private native void initWithConcatenation(TString first, TString second);
+
+    private TString(TString source, int begin, int end) {
+        initWithSubstring(source, begin, end);
+    }
+
+    @NoSideEffects
+    private native void initWithSubstring(TString source, int begin, int end);
+
+    /**
+     * Tells whether strings keep their characters in the compact byte array layout. Calls to this method are
+     * replaced with a constant by {@code DefaultStringTransformer}, so the branch that does not apply is removed
+     * before code generation.
+     */
+    private static boolean compactStrings() {
+        return false;
     }
 
     private static TString allocate(int size) {
@@ -441,6 +471,10 @@ public class TString extends TObject implements TSerializable, TComparable<TStri
             }
             return new TString(substringJS(nativeString(), beginIndex, endIndex));
         }
+        if (compactStrings()) {
+            Objects.checkFromToIndex(beginIndex, endIndex, length);
+            return new TString(this, beginIndex, endIndex);
+        }
         return new TString(fastCharArray(), beginIndex, endIndex - beginIndex);
     }
 
@@ -464,6 +498,10 @@ public class TString extends TObject implements TSerializable, TComparable<TStri
             return str;
         }
 
+        if (!PlatformDetector.isJavaScript() && compactStrings()) {
+            return new TString(this, str);
+        }
+
         var buffer = new char[length() + str.length()];
         int index = 0;
         for (int i = 0; i < length(); ++i) {
@@ -656,6 +694,9 @@ public class TString extends TObject implements TSerializable, TComparable<TStri
         if (PlatformDetector.isJavaScript()) {
             return nativeString() == str.nativeString();
         } else {
+            if (compactStrings()) {
+                return charactersEquals(str);
+            }
             if (str.length() != length()) {
                 return false;
             }
@@ -668,6 +709,9 @@ public class TString extends TObject implements TSerializable, TComparable<TStri
         }
     }
 
+    @NoSideEffects
+    private native boolean charactersEquals(TString other);
+
     public boolean equalsIgnoreCase(TString other) {
         if (this == other) {
             return true;
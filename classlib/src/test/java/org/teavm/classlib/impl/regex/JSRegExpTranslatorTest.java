@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.regex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class JSRegExpTranslatorTest {
+    @Test
+    public void translatesLiterals() {
+        assertEquals("^(?:abc)$", JSRegExpTranslator.translate("abc"));
+        assertEquals("^(?:a\\.b\\/\\})$", JSRegExpTranslator.translate("a\\.b/}"));
+        assertEquals("^(?:\\u{9}A\uD83D\uDE00)$", JSRegExpTranslator.translate("\\tA\\x{1F600}"));
+        assertEquals("^(?:a\\.\\*)$", JSRegExpTranslator.translate("\\Qa.*\\E"));
+        assertEquals("^(?:)$", JSRegExpTranslator.translate(""));
+    }
+
+    @Test
+    public void translatesPredefinedClasses() {
+        assertEquals("^(?:[0-9]+[^a-zA-Z_0-9])$", JSRegExpTranslator.translate("\\d+\\W"));
+        assertEquals("^(?:[ \\t\\n\\u{b}\\f\\r])$", JSRegExpTranslator.translate("\\s"));
+        assertEquals("^(?:[^\\n\\r\\u{85}\\u{2028}\\u{2029}]*)$", JSRegExpTranslator.translate(".*"));
+    }
+
+    @Test
+    public void translatesCharacterClasses() {
+        assertEquals("^(?:[^a-z0-9\\-])$", JSRegExpTranslator.translate("[^a-z\\d-]"));
+        assertEquals("^(?:[\\]\\^])$", JSRegExpTranslator.translate("[\\]^]"));
+    }
+
+    @Test
+    public void translatesGroupsAndQuantifiers() {
+        assertEquals("^(?:(a|b)+?(?:c){2,3}(?=d)d)$", JSRegExpTranslator.translate("(a|b)+?(?:c){2,3}(?=d)d"));
+        assertEquals("^(?:^a|b)$", JSRegExpTranslator.translate("^a|b$"));
+    }
+
+    @Test
+    public void rejectsIncompatibleConstructs() {
+        assertNull(JSRegExpTranslator.translate("a++"));
+        assertNull(JSRegExpTranslator.translate("(a)\\1"));
+        assertNull(JSRegExpTranslator.translate("\\bword"));
+        assertNull(JSRegExpTranslator.translate("\\p{L}"));
+        assertNull(JSRegExpTranslator.translate("(?i)a"));
+        assertNull(JSRegExpTranslator.translate("(?<=a)b"));
+        assertNull(JSRegExpTranslator.translate("[a-z&&[^e]]"));
+        assertNull(JSRegExpTranslator.translate("a$|b"));
+        assertNull(JSRegExpTranslator.translate("(?=a)*"));
+    }
+
+    @Test
+    public void rejectsInvalidPatterns() {
+        assertNull(JSRegExpTranslator.translate("a{3,1}"));
+        assertNull(JSRegExpTranslator.translate("[a"));
+        assertNull(JSRegExpTranslator.translate("*"));
+    }
+}
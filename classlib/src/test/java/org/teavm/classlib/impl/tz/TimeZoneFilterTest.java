@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.tz;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.junit.Test;
+import org.teavm.diagnostics.Diagnostics;
+import org.teavm.model.CallLocation;
+
+public class TimeZoneFilterTest {
+    @Test
+    public void acceptsAllByDefault() {
+        TimeZoneFilter filter = TimeZoneFilter.fromProperties(new Properties());
+        assertTrue(filter.accepts("Europe/Berlin"));
+        assertTrue(filter.accepts("UTC"));
+        assertEquals(TimeZoneFilter.DEFAULT_START_TIME, filter.getStartTime());
+    }
+
+    @Test
+    public void acceptsListedZonesAndPrefixes() {
+        Properties properties = new Properties();
+        properties.setProperty("java.util.TimeZone.zones", "UTC, Europe/*,America/New_York");
+        TimeZoneFilter filter = TimeZoneFilter.fromProperties(properties);
+        assertTrue(filter.accepts("UTC"));
+        assertTrue(filter.accepts("Europe/Berlin"));
+        assertTrue(filter.accepts("America/New_York"));
+        assertFalse(filter.accepts("America/Chicago"));
+        assertFalse(filter.accepts("Asia/Tokyo"));
+    }
+
+    @Test
+    public void startYear() {
+        Properties properties = new Properties();
+        properties.setProperty("java.util.TimeZone.startYear", "2000");
+        TimeZoneFilter filter = TimeZoneFilter.fromProperties(properties);
+        assertEquals(946684800000L, filter.getStartTime());
+    }
+
+    @Test
+    public void malformedStartYearFallsBackToDefault() {
+        List<String> warnings = new ArrayList<>();
+        Diagnostics diagnostics = new Diagnostics() {
+            @Override
+            public void error(CallLocation location, String error, Object... params) {
+                fail(error);
+            }
+
+            @Override
+            public void warning(CallLocation location, String error, Object... params) {
+                warnings.add(error);
+            }
+        };
+        for (String value : new String[] { "20x0", "1000000000" }) {
+            Properties properties = new Properties();
+            properties.setProperty("java.util.TimeZone.startYear", value);
+            TimeZoneFilter filter = TimeZoneFilter.fromProperties(properties, diagnostics);
+            assertEquals(TimeZoneFilter.DEFAULT_START_TIME, filter.getStartTime());
+        }
+        assertEquals(2, warnings.size());
+        assertTrue(warnings.get(0).contains("java.util.TimeZone.startYear"));
+    }
+}
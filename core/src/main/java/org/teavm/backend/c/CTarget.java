@@ -121,8 +121,10 @@ import org.teavm.model.lowlevel.ClassInitializerTransformer;
 import org.teavm.model.lowlevel.ExportDependencyListener;
 import org.teavm.model.lowlevel.LowLevelNullCheckFilter;
 import org.teavm.model.lowlevel.ShadowStackTransformer;
+import org.teavm.model.lowlevel.StackAllocation;
 import org.teavm.model.lowlevel.WriteBarrierInsertion;
 import org.teavm.model.optimization.InliningFilterFactory;
+import org.teavm.model.transformation.BoundCheckElimination;
 import org.teavm.model.transformation.BoundCheckInsertion;
 import org.teavm.model.transformation.ClassPatch;
 import org.teavm.model.transformation.NullCheckInsertion;
@@ -159,9 +161,11 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
     private ClassInitializerEliminator classInitializerEliminator;
     private ClassInitializerTransformer classInitializerTransformer;
     private ShadowStackTransformer shadowStackTransformer;
+    private StackAllocation stackAllocation;
     private WriteBarrierInsertion writeBarrierInsertion;
     private NullCheckInsertion nullCheckInsertion;
     private BoundCheckInsertion boundCheckInsertion = new BoundCheckInsertion();
+    private BoundCheckElimination boundCheckElimination = new BoundCheckElimination();
     private ExportDependencyListener exportDependencyListener = new ExportDependencyListener();
     private int minHeapSize = 4 * 1024 * 1024;
     private int maxHeapSize = 128 * 1024 * 1024;
@@ -336,6 +340,9 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         asyncMethods = new HashSet<>(asyncFinder.getAsyncMethods());
         asyncMethods.addAll(asyncFinder.getAsyncFamilyMethods());
         hasThreads = asyncFinder.hasAsyncMethods();
+        stackAllocation = new StackAllocation(controller.getUnprocessedClassSource(), characteristics,
+                controller.getParameterEscapeInfo(), asyncMethods);
+        shadowStackTransformer = new ShadowStackTransformer(characteristics, controller.getAllocationInfo());
     }
 
     @Override
@@ -346,6 +353,8 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
 
     @Override
     public void afterOptimizations(Program program, MethodReader method) {
+        stackAllocation.apply(program, method.getReference());
+        boundCheckElimination.apply(program);
         classInitializerEliminator.apply(program);
         classInitializerTransformer.transform(program);
         new CoroutineTransformation(controller.getUnprocessedClassSource(), asyncMethods, hasThreads)
@@ -402,7 +411,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
                 controller.getDependencyInfo(), stringPool, nameProvider, fileNames,
                 controller.getDiagnostics(), classes, intrinsics, generators, asyncMethods::contains, buildTarget,
                 controller.getClassInitializerInfo(), incremental,
-                vmAssertions, vmAssertions || heapDump, obfuscated);
+                vmAssertions, vmAssertions || heapDump, obfuscated, isCompactStrings(classes));
 
         BufferedCodeWriter specialWriter = new BufferedCodeWriter(false);
         BufferedCodeWriter configHeaderWriter = new BufferedCodeWriter(false);
@@ -420,6 +429,9 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         if (obfuscated) {
             configHeaderWriter.println("#define TEAVM_OBFUSCATED 1");
         }
+        if (context.isCompactStrings()) {
+            configHeaderWriter.println("#define TEAVM_COMPACT_STRINGS 1");
+        }
         if (gcStats) {
             configHeaderWriter.println("#define TEAVM_GC_STATS 1");
         }
@@ -665,9 +677,17 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         generateThrowCCE(classContext, writer);
         generateAllocateStringArray(classContext, writer, includes);
         generateAllocateCharArray(classContext, writer, includes);
+        if (context.isCompactStrings()) {
+            generateAllocateByteArray(classContext, writer, includes);
+        }
         generateCreateString(classContext, writer, includes);
     }
 
+    private static boolean isCompactStrings(ListableClassHolderSource classes) {
+        ClassHolder stringClass = classes.get(String.class.getName());
+        return stringClass != null && stringClass.getField("coder") != null;
+    }
+
     private void generateThrowCCE(ClassGenerationContext classContext, CodeWriter writer) {
         MethodReference methodRef = new MethodReference(ExceptionHandling.class,
                 "throwClassCastException", void.class);
@@ -708,14 +728,33 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         writer.outdent().println("}");
     }
 
+    private void generateAllocateByteArray(ClassGenerationContext context, CodeWriter writer,
+            IncludeManager includes) {
+        NameProvider names = context.getContext().getNames();
+        MethodReference allocMethod = new MethodReference(Allocator.class,
+                "allocateArray", RuntimeClass.class, int.class, Address.class);
+        context.importMethod(allocMethod, true);
+        includes.includeType(ValueType.parse(byte[].class));
+        writer.println("TeaVM_Array* teavm_allocateByteArray(int32_t size) {").indent();
+        String allocateArrayName = names.forMethod(allocMethod);
+        String byteClassName = names.forClassInstance(ValueType.arrayOf(ValueType.BYTE));
+        writer.println("return (TeaVM_Array*) " + allocateArrayName + "(&" + byteClassName + ", size);");
+        writer.outdent().println("}");
+    }
+
     private void generateCreateString(ClassGenerationContext context, CodeWriter writer, IncludeManager includes) {
         NameProvider names = context.getContext().getNames();
         context.importMethod(CodeGenerationVisitor.ALLOC_METHOD, true);
         includes.includeClass(String.class.getName());
-        writer.println("TeaVM_String* teavm_createString(TeaVM_Array* array) {").indent();
+        boolean compact = context.getContext().isCompactStrings();
+        writer.println("TeaVM_String* teavm_createString(TeaVM_Array* array"
+                + (compact ? ", int8_t coder" : "") + ") {").indent();
         writer.print("TeaVM_String* str = (TeaVM_String*) ").print(names.forMethod(CodeGenerationVisitor.ALLOC_METHOD))
                 .print("(&").print(names.forClassInstance(ValueType.object("java.lang.String"))).println(");");
-        writer.print("str->characters = array;");
+        writer.println("str->characters = array;");
+        if (compact) {
+            writer.println("str->coder = coder;");
+        }
         writer.println("return str;");
         writer.outdent().println("}");
     }
@@ -885,6 +924,10 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
                 ValueType.object("java.lang.String")) + ";");
         writer.println("teavm_charArrayClass = (TeaVM_Class*) &" + context.getNames().forClassInstance(
                 ValueType.arrayOf(ValueType.CHARACTER)) + ";");
+        if (context.isCompactStrings()) {
+            writer.println("teavm_byteArrayClass = (TeaVM_Class*) &" + context.getNames().forClassInstance(
+                    ValueType.arrayOf(ValueType.BYTE)) + ";");
+        }
         writer.println("teavm_initClasses();");
     }
 
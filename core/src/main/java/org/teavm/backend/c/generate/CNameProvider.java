@@ -61,6 +61,7 @@ public class CNameProvider extends LowLevelNameProvider {
         memberFieldNames.put(new FieldReference(RuntimeArray.class.getName(), "size"), "size");
         memberFieldNames.put(new FieldReference(String.class.getName(), "characters"), "characters");
         memberFieldNames.put(new FieldReference(String.class.getName(), "hashCode"), "hashCode");
+        memberFieldNames.put(new FieldReference(String.class.getName(), "coder"), "coder");
 
         preserveFieldNames(RuntimeClass.class.getName(), "size", "flags", "tag", "canary", "name", "itemType",
                 "arrayType", "isSupertypeOf", "init", "enumValues", "layout", "simpleName", "superinterfaceCount",
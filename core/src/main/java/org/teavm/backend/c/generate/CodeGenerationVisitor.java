@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -125,6 +126,8 @@ public class CodeGenerationVisitor implements ExprVisitor, StatementVisitor {
             Object.class, void.class);
     private static final MethodReference MONITOR_EXIT_SYNC = new MethodReference(Object.class, "monitorExitSync",
             Object.class, void.class);
+    private static final MethodReference ALLOC_ON_STACK_METHOD = new MethodReference(Allocator.class,
+            "allocateOnStack", Class.class, int.class, Object.class);
     private static final MethodReference CATCH_EXCEPTION = new MethodReference(ExceptionHandling.class,
             "catchException", Throwable.class);
 
@@ -137,6 +140,7 @@ public class CodeGenerationVisitor implements ExprVisitor, StatementVisitor {
     private VolatileDefinitionFinder volatileDefinitions;
     private int[] temporaryVariableLevel = new int[5];
     private IntSet spilledVariables = new IntHashSet();
+    private Map<Integer, String> stackObjects = new LinkedHashMap<>();
     private int[] maxTemporaryVariableLevel = new int[5];
     private MethodReference callingMethod;
     private IncludeManager includes;
@@ -187,6 +191,10 @@ public class CodeGenerationVisitor implements ExprVisitor, StatementVisitor {
         return spilledVariables;
     }
 
+    public Map<Integer, String> getStackObjects() {
+        return stackObjects;
+    }
+
     public void setCallingMethod(MethodReference callingMethod) {
         this.callingMethod = callingMethod;
         this.managed = context.getCharacteristics().isManaged(callingMethod);
@@ -483,6 +491,13 @@ public class CodeGenerationVisitor implements ExprVisitor, StatementVisitor {
             }
         }
 
+        if (expr.getMethod().equals(ALLOC_ON_STACK_METHOD)) {
+            pushLocation(expr.getLocation());
+            allocObjectOnStack(expr);
+            popLocation(expr.getLocation());
+            return;
+        }
+
         boolean needParenthesis = false;
 
         Intrinsic intrinsic = context.getIntrinsic(expr.getMethod());
@@ -925,6 +940,22 @@ public class CodeGenerationVisitor implements ExprVisitor, StatementVisitor {
                 .print(")");
     }
 
+    private void allocObjectOnStack(InvocationExpr expr) {
+        var type = (ValueType.Object) ((ConstantExpr) expr.getArguments().get(0)).getValue();
+        int offset = (Integer) ((ConstantExpr) expr.getArguments().get(1)).getValue();
+        String className = type.getClassName();
+        includes.includeClass(className);
+        String structName = names.forClass(className.equals(Object.class.getName())
+                ? RuntimeObject.class.getName() : className);
+        stackObjects.put(offset, structName);
+
+        String objectName = "teavm_stackObject_" + offset;
+        writer.print("teavm_initStackObject(&").print(objectName).print(", sizeof(").print(objectName)
+                .print("), TEAVM_PACK_CLASS(&").print(names.forClassInstance(type)).print(") | ");
+        CodeGeneratorUtil.writeIntValue(writer, RuntimeObject.GC_MARKED);
+        writer.print(")");
+    }
+
     @Override
     public void visit(NewArrayExpr expr) {
         pushLocation(expr.getLocation());
@@ -17,6 +17,7 @@ package org.teavm.backend.c.generate;
 
 import com.carrotsearch.hppc.IntContainer;
 import java.util.List;
+import java.util.Map;
 import org.teavm.ast.MethodNode;
 import org.teavm.ast.RegularMethodNode;
 import org.teavm.ast.VariableNode;
@@ -60,7 +61,8 @@ public class CodeGenerator {
 
         localsWriter = writer.fragment();
         CodeGenerationVisitor visitor = generateMethodBody(methodNode);
-        generateLocals(methodNode, visitor.getTemporaries(), visitor.getSpilledVariables());
+        generateLocals(methodNode, visitor.getTemporaries(), visitor.getSpilledVariables(),
+                visitor.getStackObjects());
 
         writer.outdent().println("}");
     }
@@ -113,7 +115,8 @@ public class CodeGenerator {
         }
     }
 
-    private void generateLocals(MethodNode methodNode, int[] temporaryCount, IntContainer spilledVariables) {
+    private void generateLocals(MethodNode methodNode, int[] temporaryCount, IntContainer spilledVariables,
+            Map<Integer, String> stackObjects) {
         int start = methodNode.getReference().parameterCount() + 1;
 
         for (int i = 0; i < start; ++i) {
@@ -142,5 +145,10 @@ public class CodeGenerator {
                 localsWriter.print(type.text + " teavm_tmp_" + type.name().toLowerCase() + "_" + i).println(";");
             }
         }
+
+        for (Map.Entry<Integer, String> entry : stackObjects.entrySet()) {
+            localsWriter.print(entry.getValue()).print(" teavm_stackObject_").print(String.valueOf(entry.getKey()))
+                    .println(";");
+        }
     }
 }
@@ -51,13 +51,14 @@ public class GenerationContext {
     private boolean vmAssertions;
     private boolean heapDump;
     private boolean obfuscated;
+    private boolean compactStrings;
 
     public GenerationContext(VirtualTableProvider virtualTableProvider, Characteristics characteristics,
             DependencyInfo dependencies, StringPool stringPool, NameProvider names, FileNameProvider fileNames,
             Diagnostics diagnostics, ClassReaderSource classSource, List<Intrinsic> intrinsics,
             List<Generator> generators, Predicate<MethodReference> asyncMethods, BuildTarget buildTarget,
             ClassInitializerInfo classInitializerInfo, boolean incremental, boolean vmAssertions,
-            boolean heapDump, boolean obfuscated) {
+            boolean heapDump, boolean obfuscated, boolean compactStrings) {
         this.virtualTableProvider = virtualTableProvider;
         this.characteristics = characteristics;
         this.dependencies = dependencies;
@@ -75,6 +76,7 @@ public class GenerationContext {
         this.vmAssertions = vmAssertions;
         this.heapDump = heapDump;
         this.obfuscated = obfuscated;
+        this.compactStrings = compactStrings;
     }
 
     public void addIntrinsic(Intrinsic intrinsic) {
@@ -158,4 +160,8 @@ public class GenerationContext {
     public boolean isObfuscated() {
         return obfuscated;
     }
+
+    public boolean isCompactStrings() {
+        return compactStrings;
+    }
 }
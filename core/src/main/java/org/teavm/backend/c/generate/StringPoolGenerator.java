@@ -37,10 +37,16 @@ public class StringPoolGenerator {
                 writer.println("TEAVM_NULL_STRING");
             } else {
                 boolean codes = hasBadCharacters(s);
+                boolean latin1 = context.isCompactStrings() && isLatin1(s);
                 String macroName = codes ? "TEAVM_STRING_FROM_CODES" : "TEAVM_STRING";
+                if (latin1) {
+                    macroName = "TEAVM_LATIN1_" + macroName.substring("TEAVM_".length());
+                }
                 writer.print(macroName + "(" + s.length() + ", " + s.hashCode() + ",");
                 if (codes) {
                     generateNumericStringLiteral(writer, s);
+                } else if (latin1) {
+                    generateLatin1StringLiteral(writer, s);
                 } else {
                     writer.print("u");
                     generateSimpleStringLiteral(writer, s);
@@ -83,6 +89,45 @@ public class StringPoolGenerator {
         return false;
     }
 
+    private boolean isLatin1(String string) {
+        for (int i = 0; i < string.length(); ++i) {
+            if (string.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateLatin1StringLiteral(CodeWriter writer, String string) {
+        if (string.isEmpty()) {
+            writer.print("\"\"");
+            return;
+        }
+
+        int chunkSize = 256;
+        for (int i = 0; i < string.length(); i += chunkSize) {
+            if (i > 0) {
+                writer.println();
+            }
+            int last = Math.min(i + chunkSize, string.length());
+            writer.print("\"");
+
+            for (int j = i; j < last; ++j) {
+                char c = string.charAt(j);
+                if (c == '\\' || c == '"') {
+                    writer.print("\\" + c);
+                } else if (c < 32 || c > 126) {
+                    writer.print("\\" + Character.forDigit(c >> 6, 8) + Character.forDigit((c >> 3) & 7, 8)
+                            + Character.forDigit(c & 7, 8));
+                } else {
+                    writer.print(String.valueOf(c));
+                }
+            }
+
+            writer.print("\"");
+        }
+    }
+
     public static void generateSimpleStringLiteral(CodeWriter writer, String string) {
         if (string.isEmpty()) {
             writer.print("\"\"");
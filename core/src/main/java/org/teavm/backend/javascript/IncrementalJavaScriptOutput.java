@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.teavm.backend.javascript.codegen.AliasProvider;
+import org.teavm.backend.javascript.codegen.DefaultNamingStrategy;
+import org.teavm.backend.javascript.codegen.RememberedSource;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.MethodReference;
+
+/**
+ * <p>Keeps output of {@link JavaScriptTarget} between subsequent builds, so that the target can tell which
+ * methods were changed since previous build and produce a script that replaces only these methods
+ * in a running program. Names are given by the same naming strategy in all builds, so that unchanged
+ * code produces exactly the same text.</p>
+ *
+ * <p>Delta is only available when everything except bodies of methods and string constants is the same
+ * as in the previous build. Otherwise {@link #getDelta()} returns {@code null} and program should be
+ * reloaded. Like caches, this object has to be either committed or discarded after each build.</p>
+ */
+public class IncrementalJavaScriptOutput {
+    private DefaultNamingStrategy naming;
+    private Snapshot committed;
+    private Snapshot pending;
+    private String pendingDelta;
+
+    DefaultNamingStrategy getNaming(AliasProvider aliasProvider, ClassReaderSource classSource) {
+        if (naming == null) {
+            naming = new DefaultNamingStrategy(aliasProvider, classSource);
+        } else {
+            naming.updateClassSource(classSource);
+        }
+        return naming;
+    }
+
+    /**
+     * Remembers output of the current build and compares it to the output of the previously committed one.
+     *
+     * @return changed methods in order of their declarations or {@code null} if delta can't be produced.
+     */
+    List<MethodReference> update(Snapshot snapshot) {
+        pending = snapshot;
+        pendingDelta = null;
+        if (committed == null || !sameFragments(committed.fragments, snapshot.fragments)
+                || !committed.methods.keySet().equals(snapshot.methods.keySet())) {
+            return null;
+        }
+        var result = new ArrayList<MethodReference>();
+        for (var entry : snapshot.methods.entrySet()) {
+            if (!entry.getValue().contentEquals(committed.methods.get(entry.getKey()))) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    boolean constantsChanged() {
+        return !committed.constants.contentEquals(pending.constants);
+    }
+
+    void setDelta(String delta) {
+        pendingDelta = delta;
+    }
+
+    /**
+     * Returns script that brings program produced by the last committed build to the state of the current
+     * build, or {@code null} if it's not possible.
+     */
+    public String getDelta() {
+        return pendingDelta;
+    }
+
+    public void commit() {
+        if (pending != null) {
+            committed = pending;
+        }
+        discard();
+    }
+
+    public void discard() {
+        pending = null;
+        pendingDelta = null;
+    }
+
+    public void invalidate() {
+        naming = null;
+        committed = null;
+        discard();
+    }
+
+    private static boolean sameFragments(List<RememberedSource> first, List<RememberedSource> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+        for (var i = 0; i < first.size(); ++i) {
+            if (!first.get(i).contentEquals(second.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class Snapshot {
+        final List<RememberedSource> fragments = new ArrayList<>();
+        final Map<MethodReference, RememberedSource> methods = new LinkedHashMap<>();
+        RememberedSource constants;
+    }
+}
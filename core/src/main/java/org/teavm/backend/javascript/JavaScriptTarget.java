@@ -41,21 +41,30 @@ import org.teavm.ast.ControlFlowEntry;
 import org.teavm.backend.javascript.codegen.DefaultAliasProvider;
 import org.teavm.backend.javascript.codegen.DefaultNamingStrategy;
 import org.teavm.backend.javascript.codegen.MinifyingAliasProvider;
+import org.teavm.backend.javascript.codegen.NamingStrategy;
 import org.teavm.backend.javascript.codegen.OutputSourceWriter;
 import org.teavm.backend.javascript.codegen.OutputSourceWriterBuilder;
 import org.teavm.backend.javascript.codegen.RememberedSource;
 import org.teavm.backend.javascript.codegen.RememberingSourceWriter;
+import org.teavm.backend.javascript.codegen.SharedNamingStrategy;
 import org.teavm.backend.javascript.codegen.SourceWriter;
 import org.teavm.backend.javascript.intrinsics.ref.ReferenceQueueGenerator;
 import org.teavm.backend.javascript.intrinsics.ref.ReferenceQueueTransformer;
 import org.teavm.backend.javascript.intrinsics.ref.WeakReferenceDependencyListener;
 import org.teavm.backend.javascript.intrinsics.ref.WeakReferenceGenerator;
 import org.teavm.backend.javascript.intrinsics.ref.WeakReferenceTransformer;
+import org.teavm.backend.javascript.intrinsics.split.ChunkLoaderGenerator;
+import org.teavm.backend.javascript.intrinsics.split.SplitPointTransformer;
+import org.teavm.backend.javascript.rendering.ChunkPartitioning;
+import org.teavm.backend.javascript.rendering.ClassReferenceCollector;
+import org.teavm.backend.javascript.rendering.MethodRenderingListener;
 import org.teavm.backend.javascript.rendering.NameFrequencyEstimator;
 import org.teavm.backend.javascript.rendering.Renderer;
 import org.teavm.backend.javascript.rendering.RenderingContext;
 import org.teavm.backend.javascript.rendering.RenderingUtil;
 import org.teavm.backend.javascript.rendering.RuntimeRenderer;
+import org.teavm.backend.javascript.rendering.TopLevelNameCollector;
+import org.teavm.backend.javascript.runtime.ChunkLoader;
 import org.teavm.backend.javascript.spi.GeneratedBy;
 import org.teavm.backend.javascript.spi.Generator;
 import org.teavm.backend.javascript.spi.InjectedBy;
@@ -78,6 +87,7 @@ import org.teavm.interop.PlatformMarker;
 import org.teavm.interop.Platforms;
 import org.teavm.model.BasicBlock;
 import org.teavm.model.CallLocation;
+import org.teavm.model.ClassHolder;
 import org.teavm.model.ClassHolderTransformer;
 import org.teavm.model.ClassReaderSource;
 import org.teavm.model.ElementModifier;
@@ -95,6 +105,8 @@ import org.teavm.model.instructions.InvocationType;
 import org.teavm.model.instructions.InvokeInstruction;
 import org.teavm.model.instructions.RaiseInstruction;
 import org.teavm.model.instructions.StringConstantInstruction;
+import org.teavm.model.optimization.InliningFilterFactory;
+import org.teavm.model.transformation.BoundCheckElimination;
 import org.teavm.model.transformation.BoundCheckInsertion;
 import org.teavm.model.transformation.NullCheckFilter;
 import org.teavm.model.transformation.NullCheckInsertion;
@@ -126,19 +138,26 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
     private List<MethodContributor> forcedFunctionMethods = new ArrayList<>();
     private boolean strict;
     private BoundCheckInsertion boundCheckInsertion = new BoundCheckInsertion();
+    private BoundCheckElimination boundCheckElimination = new BoundCheckElimination();
     private NullCheckInsertion nullCheckInsertion = new NullCheckInsertion(NullCheckFilter.EMPTY);
     private final Map<String, String> importedModules = new LinkedHashMap<>();
     private JavaScriptTemplateFactory templateFactory;
     private JSModuleType moduleType = JSModuleType.UMD;
     private List<ExportedDeclaration> exports = new ArrayList<>();
     private int maxTopLevelNames = 80_000;
+    private boolean codeSplitting;
+    private int renderingThreadCount = 1;
+    private IncrementalJavaScriptOutput incrementalOutput;
 
     @Override
     public List<ClassHolderTransformer> getTransformers() {
-        return List.of(
-                new WeakReferenceTransformer(),
-                new ReferenceQueueTransformer()
-        );
+        var transformers = new ArrayList<ClassHolderTransformer>();
+        transformers.add(new WeakReferenceTransformer());
+        transformers.add(new ReferenceQueueTransformer());
+        if (isCodeSplittingSupported()) {
+            transformers.add(new SplitPointTransformer());
+        }
+        return transformers;
     }
 
     @Override
@@ -162,6 +181,9 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         var refQueueGenerator = new ReferenceQueueGenerator();
         methodGenerators.put(new MethodReference(ReferenceQueue.class, "<init>", void.class), refQueueGenerator);
         methodGenerators.put(new MethodReference(ReferenceQueue.class, "poll", Reference.class), refQueueGenerator);
+
+        methodGenerators.put(new MethodReference(ChunkLoader.class, "load", String.class, void.class),
+                new ChunkLoaderGenerator(templateFactory));
     }
 
     @Override
@@ -235,6 +257,43 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         this.maxTopLevelNames = maxTopLevelNames;
     }
 
+    /**
+     * Specifies whether bodies of methods marked with {@link org.teavm.interop.SplitPoint} should be emitted
+     * to separate files, which are loaded on first call via dynamic {@code import()}. Only supported
+     * for {@link JSModuleType#ES2015} modules.
+     */
+    public void setCodeSplitting(boolean codeSplitting) {
+        this.codeSplitting = codeSplitting;
+    }
+
+    /**
+     * Specifies how many threads are used to decompile method bodies before they are written. The output
+     * does not depend on the number of threads.
+     */
+    public void setRenderingThreadCount(int renderingThreadCount) {
+        this.renderingThreadCount = renderingThreadCount;
+    }
+
+    /**
+     * Makes target keep its output between builds and produce a script that replaces changed methods
+     * in a program produced by the previous build. Not supported together with code splitting.
+     */
+    public void setIncrementalOutput(IncrementalJavaScriptOutput incrementalOutput) {
+        this.incrementalOutput = incrementalOutput;
+    }
+
+    private boolean isCodeSplittingSupported() {
+        return codeSplitting && moduleType == JSModuleType.ES2015;
+    }
+
+    @Override
+    public InliningFilterFactory getInliningFilter() {
+        if (!isCodeSplittingSupported()) {
+            return InliningFilterFactory.DEFAULT;
+        }
+        return m -> callee -> !SplitPointTransformer.isChunkClass(callee.getClassName());
+    }
+
     @Override
     public List<TeaVMHostExtension> getHostExtensions() {
         return Collections.singletonList(this);
@@ -333,7 +392,7 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
     public void emit(ListableClassHolderSource classes, BuildTarget target, String outputName) {
         try (OutputStream output = target.createResource(outputName);
                 Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
-            emit(classes, writer, target);
+            emit(classes, writer, target, outputName);
         } catch (IOException e) {
             throw new RenderingException(e);
         }
@@ -355,13 +414,19 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
 
     @Override
     public void afterOptimizations(Program program, MethodReader method) {
+        if (strict) {
+            boundCheckElimination.apply(program);
+        }
     }
 
-    private void emit(ListableClassHolderSource classes, Writer writer, BuildTarget target) {
+    private void emit(ListableClassHolderSource classes, Writer writer, BuildTarget target, String outputName)
+            throws IOException {
         var aliasProvider = obfuscated
                 ? new MinifyingAliasProvider(maxTopLevelNames)
                 : new DefaultAliasProvider(maxTopLevelNames);
-        DefaultNamingStrategy naming = new DefaultNamingStrategy(aliasProvider, controller.getUnprocessedClassSource());
+        DefaultNamingStrategy naming = incrementalOutput != null && !isCodeSplittingSupported()
+                ? incrementalOutput.getNaming(aliasProvider, controller.getUnprocessedClassSource())
+                : new DefaultNamingStrategy(aliasProvider, controller.getUnprocessedClassSource());
         DebugInformationEmitter debugEmitterToUse = debugEmitter;
         if (debugEmitterToUse == null) {
             debugEmitterToUse = new DummyDebugInformationEmitter();
@@ -406,34 +471,93 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
                 controller.getEntryPoint());
         renderer.setProperties(controller.getProperties());
         renderer.setProgressConsumer(controller::reportProgress);
+        renderer.setThreadCount(renderingThreadCount);
 
         for (var listener : rendererListeners) {
             listener.begin(renderer, target);
         }
-        if (!renderer.render(classes, controller.isFriendlyToDebugger())) {
+        if (isCodeSplittingSupported()) {
+            emitWithChunks(classes, renderer, rememberingWriter, naming, writer, target, outputName,
+                    debugEmitterToUse);
             return;
         }
-        var declarations = rememberingWriter.save();
-        rememberingWriter.clear();
-
-        renderer.renderStringPool();
-        renderer.renderStringConstants();
-        renderer.renderCompatibilityStubs();
+        if (codeSplitting) {
+            controller.getDiagnostics().warning(null, "Code splitting is only supported for ES2015 modules, "
+                    + "all code is emitted to a single file");
+        }
+        emitSingleFile(classes, renderer, rememberingWriter, naming, builder, writer, debugEmitterToUse,
+                incrementalOutput != null ? new IncrementalJavaScriptOutput.Snapshot() : null);
+    }
 
+    private void renderMainStarter(ListableClassHolderSource classes, SourceWriter writer) {
         var alias = "$rt_export_main";
         var ref = new MethodReference(controller.getEntryPoint(), "main", ValueType.parse(String[].class),
                 ValueType.parse(void.class));
         if (classes.resolve(ref) != null) {
-            rememberingWriter.startVariableDeclaration().appendFunction(alias)
+            writer.startVariableDeclaration().appendFunction(alias)
                     .appendFunction("$rt_mainStarter").append("(").appendMethod(ref);
-            rememberingWriter.append(")").endDeclaration();
-            rememberingWriter.appendFunction(alias).append(".")
+            writer.append(")").endDeclaration();
+            writer.appendFunction(alias).append(".")
                     .append("javaException").ws().append("=").ws().appendFunction("$rt_javaException")
                     .append(";").newLine();
             exports.add(new ExportedDeclaration(w -> w.appendFunction(alias),
                     n -> n.functionName(alias), controller.getEntryPointName()));
         }
+    }
+
+    /**
+     * Emits all code to a single file.
+     *
+     * @param snapshot if not {@code null}, output is made hot-swappable and its fragments are recorded into
+     *                 the snapshot, so that {@link #incrementalOutput} can compute a delta against the previous
+     *                 build.
+     */
+    private void emitSingleFile(ListableClassHolderSource classes, Renderer renderer,
+            RememberingSourceWriter rememberingWriter, DefaultNamingStrategy naming,
+            OutputSourceWriterBuilder builder, Writer writer, DebugInformationEmitter debugEmitterToUse,
+            IncrementalJavaScriptOutput.Snapshot snapshot) throws IOException {
+        var declarations = new ArrayList<RememberedSource>();
+        if (snapshot != null) {
+            renderer.setHotSwappable(true);
+            renderer.setMethodRenderingListener(new MethodRenderingListener() {
+                @Override
+                public void methodStarted(MethodReference method) {
+                    var fragment = rememberingWriter.save();
+                    rememberingWriter.clear();
+                    declarations.add(fragment);
+                    snapshot.fragments.add(fragment);
+                }
+
+                @Override
+                public void methodFinished(MethodReference method) {
+                    var fragment = rememberingWriter.save();
+                    rememberingWriter.clear();
+                    declarations.add(fragment);
+                    snapshot.methods.put(method, fragment);
+                }
+            });
+        }
+        if (!renderer.render(classes, controller.isFriendlyToDebugger())) {
+            return;
+        }
+        var remainingDeclarations = rememberingWriter.save();
+        rememberingWriter.clear();
+        declarations.add(remainingDeclarations);
+        if (snapshot != null) {
+            snapshot.fragments.add(remainingDeclarations);
+        }
+
+        renderer.renderStringPool();
+        renderer.renderStringConstants();
+        var constants = rememberingWriter.save();
+        rememberingWriter.clear();
 
+        renderer.renderCompatibilityStubs();
+        renderMainStarter(classes, rememberingWriter);
+        if (snapshot != null) {
+            rememberingWriter.appendGlobal("globalThis").append(".$teavm_hotSwap").ws().append("=").ws()
+                    .appendFunction("$rt_hotSwap").append(";").softNewLine();
+        }
         for (var listener : rendererListeners) {
             listener.complete();
         }
@@ -442,7 +566,10 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
 
         var runtimeRenderer = new RuntimeRenderer(classes, rememberingWriter, controller.getClassInitializerInfo());
         runtimeRenderer.prepareAstParts(renderer.isThreadLibraryUsed());
-        declarations.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        for (var fragment : declarations) {
+            fragment.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        }
+        constants.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
         epilogue.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
         runtimeRenderer.removeUnusedParts();
         runtimeRenderer.renderRuntime();
@@ -463,7 +590,10 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         var frequencyEstimator = new NameFrequencyEstimator();
         runtime.replay(frequencyEstimator, RememberedSource.FILTER_REF);
         runtimeEpilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
-        declarations.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+        for (var fragment : declarations) {
+            fragment.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+        }
+        constants.replay(frequencyEstimator, RememberedSource.FILTER_REF);
         epilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
         frequencyEstimator.apply(naming);
 
@@ -477,8 +607,11 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
 
         int start = sourceWriter.getOffset();
         runtime.write(sourceWriter, 0);
-        declarations.write(sourceWriter, 0);
+        for (var fragment : declarations) {
+            fragment.write(sourceWriter, 0);
+        }
         runtimeEpilogue.write(sourceWriter, 0);
+        constants.write(sourceWriter, 0);
         epilogue.write(sourceWriter, 0);
 
         printModuleEnd(sourceWriter);
@@ -486,6 +619,289 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
 
         int totalSize = sourceWriter.getOffset() - start;
         printStats(sourceWriter, totalSize);
+
+        if (snapshot != null) {
+            snapshot.constants = constants;
+            snapshot.fragments.add(epilogue);
+            snapshot.fragments.add(runtime);
+            snapshot.fragments.add(runtimeEpilogue);
+            writeDelta(snapshot, naming);
+        }
+    }
+
+    private void writeDelta(IncrementalJavaScriptOutput.Snapshot snapshot, DefaultNamingStrategy naming) {
+        var changedMethods = incrementalOutput.update(snapshot);
+        if (changedMethods != null) {
+            var delta = new StringBuilder();
+            var deltaBuilder = new OutputSourceWriterBuilder(naming);
+            deltaBuilder.setReassigning(true);
+            var deltaWriter = deltaBuilder.build(delta);
+            if (incrementalOutput.constantsChanged()) {
+                snapshot.constants.write(deltaWriter, 0);
+            }
+            for (var method : changedMethods) {
+                snapshot.methods.get(method).write(deltaWriter, 0);
+            }
+            deltaWriter.finish();
+            incrementalOutput.setDelta(delta.toString());
+        }
+    }
+
+    private void emitWithChunks(ListableClassHolderSource classes, Renderer renderer,
+            RememberingSourceWriter rememberingWriter, DefaultNamingStrategy naming, Writer writer,
+            BuildTarget target, String outputName, DebugInformationEmitter debugEmitterToUse) throws IOException {
+        var fragments = new HashMap<String, RememberedSource>();
+        var sequence = renderer.renderClasses(classes, controller.isFriendlyToDebugger(), cls -> {
+            fragments.put(cls.getName(), rememberingWriter.save());
+            rememberingWriter.clear();
+        });
+        if (sequence == null) {
+            return;
+        }
+
+        var references = new LinkedHashMap<String, Set<String>>();
+        var metadataFragments = new ArrayList<RememberedSource>();
+        var chunkRoots = new ArrayList<String>();
+        for (var cls : sequence) {
+            var collector = new ClassReferenceCollector();
+            fragments.get(cls.getName()).replay(collector, RememberedSource.FILTER_REF);
+            renderer.renderClassMetadata(List.of(cls));
+            var metadata = rememberingWriter.save();
+            rememberingWriter.clear();
+            metadata.replay(collector, RememberedSource.FILTER_REF);
+            metadataFragments.add(metadata);
+            references.put(cls.getName(), collector.getClasses());
+            if (SplitPointTransformer.isChunkClass(cls.getName())) {
+                chunkRoots.add(cls.getName());
+            }
+        }
+
+        renderer.renderStringPool();
+        var stringPool = rememberingWriter.save();
+        rememberingWriter.clear();
+        renderer.renderStringConstants();
+        var stringConstants = rememberingWriter.save();
+        rememberingWriter.clear();
+
+        renderer.renderCompatibilityStubs();
+        renderMainStarter(classes, rememberingWriter);
+        if (!chunkRoots.isEmpty()) {
+            renderChunkTable(rememberingWriter, chunkRoots, outputName, naming.additionalScopeName());
+        }
+        for (var listener : rendererListeners) {
+            listener.complete();
+        }
+        renderExportAliases(rememberingWriter);
+        var epilogue = rememberingWriter.save();
+        rememberingWriter.clear();
+
+        var runtimeRenderer = new RuntimeRenderer(classes, rememberingWriter, controller.getClassInitializerInfo());
+        runtimeRenderer.prepareAstParts(renderer.isThreadLibraryUsed());
+        for (var cls : sequence) {
+            fragments.get(cls.getName()).replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        }
+        for (var metadata : metadataFragments) {
+            metadata.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        }
+        stringPool.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        stringConstants.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        epilogue.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+        runtimeRenderer.removeUnusedParts();
+        runtimeRenderer.renderRuntime();
+        var runtime = rememberingWriter.save();
+        rememberingWriter.clear();
+        runtimeRenderer.renderEpilogue();
+        var runtimeEpilogue = rememberingWriter.save();
+        rememberingWriter.clear();
+
+        var mainReferences = new ClassReferenceCollector();
+        for (var part : List.of(runtime, runtimeEpilogue, stringPool, epilogue)) {
+            part.replay(mainReferences, RememberedSource.FILTER_REF);
+        }
+        var chunks = new ChunkPartitioning(references, chunkRoots).partition(mainReferences.getClasses());
+        var chunkClasses = new HashSet<String>();
+        for (var chunk : chunks) {
+            chunkClasses.addAll(chunk);
+        }
+
+        var mainClasses = new ArrayList<ClassHolder>();
+        var mainDeclarations = new ArrayList<RememberedSource>();
+        for (var cls : sequence) {
+            if (!chunkClasses.contains(cls.getName())) {
+                mainClasses.add(cls);
+                mainDeclarations.add(fragments.get(cls.getName()));
+            }
+        }
+        renderer.renderClassMetadata(mainClasses);
+        var mainMetadata = rememberingWriter.save();
+        rememberingWriter.clear();
+        renderer.renderStringConstants(className -> !chunkClasses.contains(className));
+        var mainConstants = rememberingWriter.save();
+        rememberingWriter.clear();
+
+        var chunkSources = new ArrayList<List<RememberedSource>>();
+        for (var chunk : chunks) {
+            var parts = new ArrayList<RememberedSource>();
+            var chunkClassList = new ArrayList<ClassHolder>();
+            for (var cls : sequence) {
+                if (chunk.contains(cls.getName())) {
+                    chunkClassList.add(cls);
+                    parts.add(fragments.get(cls.getName()));
+                }
+            }
+            if (!chunkClassList.isEmpty()) {
+                renderer.renderClassMetadata(chunkClassList);
+            }
+            renderer.renderStringConstants(chunk::contains);
+            parts.add(rememberingWriter.save());
+            rememberingWriter.clear();
+            chunkSources.add(parts);
+        }
+
+        var mainSources = new ArrayList<RememberedSource>();
+        mainSources.add(runtime);
+        mainSources.addAll(mainDeclarations);
+        mainSources.add(mainMetadata);
+        mainSources.add(runtimeEpilogue);
+        mainSources.add(stringPool);
+        mainSources.add(mainConstants);
+        mainSources.add(epilogue);
+
+        naming.functionName("$rt_exports");
+        for (var module : importedModules.values()) {
+            naming.functionName(module);
+        }
+        for (var export : exports) {
+            export.nameFreq.accept(naming);
+        }
+        var frequencyEstimator = new NameFrequencyEstimator();
+        for (var part : mainSources) {
+            part.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+        }
+        for (var parts : chunkSources) {
+            for (var part : parts) {
+                part.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+            }
+        }
+        frequencyEstimator.apply(naming);
+
+        var sharedNaming = new SharedNamingStrategy(naming, findSharedNames(naming, mainSources, chunkSources));
+        var builder = new OutputSourceWriterBuilder(sharedNaming);
+        builder.setMinified(obfuscated);
+
+        var sourceWriter = builder.build(writer);
+        sourceWriter.setDebugInformationEmitter(debugEmitterToUse);
+        printWrapperStart(sourceWriter);
+        sourceWriter.append("let ").append(naming.additionalScopeName()).ws().append('=').ws()
+                .append("{};").softNewLine();
+        int start = sourceWriter.getOffset();
+        for (var part : mainSources) {
+            part.write(sourceWriter, 0);
+        }
+        printModuleEnd(sourceWriter);
+        sourceWriter.finish();
+        int totalSize = sourceWriter.getOffset() - start;
+        printStats(sourceWriter, totalSize);
+
+        for (int i = 0; i < chunkSources.size(); ++i) {
+            try (OutputStream output = target.createResource(getChunkFileName(outputName, i));
+                    Writer chunkWriter = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+                var chunkSourceWriter = builder.build(chunkWriter);
+                chunkSourceWriter.setDebugInformationEmitter(new DummyDebugInformationEmitter());
+                printWrapperStart(chunkSourceWriter);
+                chunkSourceWriter.append("export default function(").append(naming.additionalScopeName())
+                        .append(")").appendBlockStart();
+                for (var part : chunkSources.get(i)) {
+                    part.write(chunkSourceWriter, 0);
+                }
+                chunkSourceWriter.appendBlockEnd();
+                chunkSourceWriter.finish();
+            }
+        }
+    }
+
+    // Exported declarations may be shared with chunks and moved to the additional scope, while
+    // ES2015 export clause only accepts plain identifiers
+    private void renderExportAliases(SourceWriter writer) {
+        var aliases = new ArrayList<ExportedDeclaration>();
+        for (var export : exports) {
+            var name = "$rt_exported_" + aliases.size();
+            writer.startVariableDeclaration().appendFunction(name);
+            export.name.accept(writer);
+            writer.endDeclaration();
+            aliases.add(new ExportedDeclaration(w -> w.appendFunction(name), n -> n.functionName(name),
+                    export.alias));
+        }
+        exports.clear();
+        exports.addAll(aliases);
+    }
+
+    private void renderChunkTable(SourceWriter writer, List<String> chunkRoots, String outputName,
+            String scopeName) {
+        writer.startVariableDeclaration().appendFunction("$rt_loadChunk")
+                .append("(chunks").ws().append("=>").ws().append("name").ws().append("=>").ws().append("{")
+                .indent().softNewLine();
+        writer.append("let chunk").ws().append("=").ws().append("chunks[name];").softNewLine();
+        writer.append("if").ws().append("(typeof chunk").ws().append("===").ws().append("'function')").ws()
+                .append("{").indent().softNewLine();
+        writer.append("chunk").ws().append("=").ws().append("chunks[name]").ws().append("=").ws()
+                .append("chunk();").softNewLine();
+        writer.outdent().append("}").softNewLine();
+        writer.append("return chunk;").softNewLine();
+        writer.outdent().append("})({").indent().softNewLine();
+        for (int i = 0; i < chunkRoots.size(); ++i) {
+            if (i > 0) {
+                writer.append(",").softNewLine();
+            }
+            var fileName = getChunkFileName(outputName, i);
+            fileName = fileName.substring(fileName.lastIndexOf('/') + 1);
+            writer.append("\"").append(RenderingUtil.escapeString(chunkRoots.get(i))).append("\":").ws()
+                    .append("()").ws().append("=>").ws()
+                    .append("import(\"./").append(RenderingUtil.escapeString(fileName)).append("\")")
+                    .append(".then(m").ws().append("=>").ws().append("m.default(").append(scopeName).append("))");
+        }
+        writer.softNewLine().outdent().append("})").endDeclaration();
+        writer.startVariableDeclaration().appendFunction("$rt_loadedChunks").append("new ").appendGlobal("Set")
+                .append("()").endDeclaration();
+    }
+
+    private static String getChunkFileName(String outputName, int index) {
+        int dotIndex = outputName.lastIndexOf('.');
+        if (dotIndex <= outputName.lastIndexOf('/')) {
+            return outputName + "-" + (index + 1);
+        }
+        return outputName.substring(0, dotIndex) + "-" + (index + 1) + outputName.substring(dotIndex);
+    }
+
+    private Set<String> findSharedNames(NamingStrategy naming, List<RememberedSource> mainSources,
+            List<List<RememberedSource>> chunkSources) {
+        var outputs = new ArrayList<List<RememberedSource>>();
+        outputs.add(mainSources);
+        outputs.addAll(chunkSources);
+
+        var usages = new HashMap<String, Integer>();
+        for (var parts : outputs) {
+            var collector = new TopLevelNameCollector(naming);
+            for (var part : parts) {
+                part.replay(collector, RememberedSource.FILTER_REF);
+            }
+            for (var name : collector.getNames()) {
+                usages.merge(name, 1, Integer::sum);
+            }
+        }
+
+        // Chunks import modules by themselves
+        for (var module : importedModules.values()) {
+            usages.remove(naming.functionName(module).name);
+        }
+
+        var result = new HashSet<String>();
+        for (var entry : usages.entrySet()) {
+            if (entry.getValue() > 1) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
     }
 
     private void printWrapperStart(SourceWriter writer) {
@@ -16,7 +16,9 @@
 package org.teavm.backend.javascript.codegen;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import org.teavm.model.AccessLevel;
 import org.teavm.model.ClassReader;
 import org.teavm.model.ClassReaderSource;
@@ -31,7 +33,7 @@ public class DefaultNamingStrategy implements NamingStrategy {
     private static final byte INIT_CLASSIFIER = 1;
 
     private final AliasProvider aliasProvider;
-    private final ClassReaderSource classSource;
+    private ClassReaderSource classSource;
     private final Map<MethodDescriptor, String> aliases = new HashMap<>();
     private final Map<Key, ScopedName> privateAliases = new HashMap<>();
     private final Map<String, ScopedName> classAliases = new HashMap<>();
@@ -39,6 +41,7 @@ public class DefaultNamingStrategy implements NamingStrategy {
     private final Map<FieldReference, ScopedName> staticFieldAliases = new HashMap<>();
     private final Map<String, ScopedName> functionAliases = new HashMap<>();
     private final Map<String, ScopedName> classInitAliases = new HashMap<>();
+    private final Set<FieldReference> inheritedFields = new HashSet<>();
     private String additionalScopeName;
 
     public DefaultNamingStrategy(AliasProvider aliasProvider, ClassReaderSource classSource) {
@@ -46,6 +49,20 @@ public class DefaultNamingStrategy implements NamingStrategy {
         this.classSource = classSource;
     }
 
+    /**
+     * Makes strategy resolve members against new classes, keeping names that were already given, so that
+     * names stay the same across subsequent builds. Only aliases of fields referenced via subclasses are
+     * forgotten, since they depend on class hierarchy.
+     */
+    public void updateClassSource(ClassReaderSource classSource) {
+        this.classSource = classSource;
+        for (var field : inheritedFields) {
+            fieldAliases.remove(field);
+            staticFieldAliases.remove(field);
+        }
+        inheritedFields.clear();
+    }
+
     @Override
     public ScopedName className(String cls) {
         return classAliases.computeIfAbsent(cls, key -> aliasProvider.getClassAlias(cls));
@@ -91,6 +108,7 @@ public class DefaultNamingStrategy implements NamingStrategy {
                 alias = aliasProvider.getFieldAlias(realField);
             } else {
                 alias = instanceFieldName(realField);
+                inheritedFields.add(field);
             }
             fieldAliases.put(field, alias);
         }
@@ -106,6 +124,7 @@ public class DefaultNamingStrategy implements NamingStrategy {
                 alias = aliasProvider.getStaticFieldAlias(realField);
             } else {
                 alias = fieldName(realField);
+                inheritedFields.add(field);
             }
             staticFieldAliases.put(field, alias);
         }
@@ -35,6 +35,7 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
     private final NamingStrategy naming;
     private boolean lineStart;
     private boolean minified;
+    private boolean reassigning;
     private final int lineWidth;
     private int column;
     private int line;
@@ -65,6 +66,10 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
         this.minified = minified;
     }
 
+    void setReassigning(boolean reassigning) {
+        this.reassigning = reassigning;
+    }
+
     public void finish() {
         finishLet();
     }
@@ -218,6 +223,9 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
         }
         switch (currentDeclarationType) {
             case FUNCTION:
+                if (reassigning) {
+                    append(';');
+                }
                 newLine();
                 break;
             case VARIABLE:
@@ -239,6 +247,9 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
             return appendName(name);
         }
         expectingDeclarationName = false;
+        if (reassigning) {
+            return appendReassignment(name);
+        }
         switch (currentDeclarationType) {
             case FUNCTION:
                 finishLet();
@@ -278,6 +289,21 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
         return this;
     }
 
+    private SourceWriter appendReassignment(ScopedName name) {
+        switch (currentDeclarationType) {
+            case FUNCTION:
+                appendName(name).ws().append('=').ws().append("function");
+                break;
+            case VARIABLE:
+                appendName(name).ws().append('=').ws();
+                break;
+            case VARIABLE_WITHOUT_VALUE:
+                currentDeclarationType = null;
+                break;
+        }
+        return this;
+    }
+
     private SourceWriter appendName(ScopedName name) {
         if (name.scoped) {
             append(naming.additionalScopeName());
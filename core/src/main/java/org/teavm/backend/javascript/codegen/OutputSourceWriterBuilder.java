@@ -18,6 +18,7 @@ package org.teavm.backend.javascript.codegen;
 public class OutputSourceWriterBuilder {
     private NamingStrategy naming;
     private boolean minified;
+    private boolean reassigning;
     private int lineWidth = 512;
 
     public OutputSourceWriterBuilder(NamingStrategy naming) {
@@ -32,6 +33,14 @@ public class OutputSourceWriterBuilder {
         this.minified = minified;
     }
 
+    /**
+     * Specifies whether declarations should be written as assignments to names that are already declared.
+     * This allows to replace functions in a running program by evaluating code in its scope.
+     */
+    public void setReassigning(boolean reassigning) {
+        this.reassigning = reassigning;
+    }
+
     public void setLineWidth(int lineWidth) {
         this.lineWidth = lineWidth;
     }
@@ -39,6 +48,7 @@ public class OutputSourceWriterBuilder {
     public OutputSourceWriter build(Appendable innerWriter) {
         var writer = new OutputSourceWriter(naming, innerWriter, lineWidth);
         writer.setMinified(minified);
+        writer.setReassigning(reassigning);
         return writer;
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.teavm.backend.javascript.codegen;
 
+import java.util.Arrays;
 import org.teavm.backend.javascript.templating.SourceFragment;
 import org.teavm.model.FieldReference;
 import org.teavm.model.MethodDescriptor;
@@ -277,6 +278,17 @@ public class RememberedSource implements SourceFragment {
         }
     }
 
+    /**
+     * Checks whether both fragments consist of the same commands. Names of classes, methods and fields are
+     * compared as references, so fragments are equal if they produce the same text with any naming.
+     */
+    public boolean contentEquals(RememberedSource other) {
+        return Arrays.equals(commands, other.commands) && chars.equals(other.chars)
+                && Arrays.equals(intArgs, other.intArgs) && Arrays.equals(strings, other.strings)
+                && Arrays.equals(fields, other.fields) && Arrays.equals(methodDescriptors, other.methodDescriptors)
+                && Arrays.equals(methods, other.methods);
+    }
+
     @Override
     public void write(SourceWriter writer, int precedence) {
         replay(writer, FILTER_ALL);
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.codegen;
+
+import java.util.Set;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodReference;
+
+/**
+ * Moves top-level names that are used by several output files to the additional scope, which these files
+ * share.
+ */
+public class SharedNamingStrategy implements NamingStrategy {
+    private NamingStrategy underlying;
+    private Set<String> sharedNames;
+
+    public SharedNamingStrategy(NamingStrategy underlying, Set<String> sharedNames) {
+        this.underlying = underlying;
+        this.sharedNames = sharedNames;
+    }
+
+    @Override
+    public ScopedName className(String cls) {
+        return share(underlying.className(cls));
+    }
+
+    @Override
+    public String instanceMethodName(MethodDescriptor method) {
+        return underlying.instanceMethodName(method);
+    }
+
+    @Override
+    public ScopedName initializerName(MethodReference method) {
+        return share(underlying.initializerName(method));
+    }
+
+    @Override
+    public ScopedName methodName(MethodReference method) {
+        return share(underlying.methodName(method));
+    }
+
+    @Override
+    public String instanceFieldName(FieldReference field) {
+        return underlying.instanceFieldName(field);
+    }
+
+    @Override
+    public ScopedName fieldName(FieldReference method) {
+        return share(underlying.fieldName(method));
+    }
+
+    @Override
+    public ScopedName functionName(String name) {
+        return share(underlying.functionName(name));
+    }
+
+    @Override
+    public ScopedName classInitializerName(String className) {
+        return share(underlying.classInitializerName(className));
+    }
+
+    @Override
+    public String additionalScopeName() {
+        return underlying.additionalScopeName();
+    }
+
+    @Override
+    public void reserveName(String name) {
+        underlying.reserveName(name);
+    }
+
+    private ScopedName share(ScopedName name) {
+        return !name.scoped && sharedNames.contains(name.name) ? new ScopedName(name.name, true) : name;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.intrinsics.split;
+
+import org.teavm.backend.javascript.codegen.SourceWriter;
+import org.teavm.backend.javascript.spi.Generator;
+import org.teavm.backend.javascript.spi.GeneratorContext;
+import org.teavm.backend.javascript.templating.JavaScriptTemplate;
+import org.teavm.backend.javascript.templating.JavaScriptTemplateFactory;
+import org.teavm.model.MethodReference;
+
+public class ChunkLoaderGenerator implements Generator {
+    private JavaScriptTemplate template;
+
+    public ChunkLoaderGenerator(JavaScriptTemplateFactory templateFactory) {
+        template = templateFactory.createFromResource("org/teavm/backend/javascript/chunkLoader.js");
+    }
+
+    @Override
+    public void generate(GeneratorContext context, SourceWriter writer, MethodReference methodRef) {
+        template.builder("load").withContext(context).build().write(writer, 0);
+    }
+}
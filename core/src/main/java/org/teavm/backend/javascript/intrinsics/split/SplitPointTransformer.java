@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.intrinsics.split;
+
+import java.util.List;
+import org.teavm.backend.javascript.runtime.ChunkLoader;
+import org.teavm.interop.SplitPoint;
+import org.teavm.model.AccessLevel;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.CallLocation;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformer;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ExitInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+
+/**
+ * <p>Moves bodies of static methods marked with {@link SplitPoint} to synthetic classes, which JavaScript
+ * target emits to separate chunks. The original method is left with a stub which loads the chunk
+ * via {@link ChunkLoader#load(String)} and then delegates to the moved body.</p>
+ */
+public class SplitPointTransformer implements ClassHolderTransformer {
+    private static final String CHUNK_CLASS_MARKER = "$$teavm_split$$";
+    private static final MethodReference LOAD_METHOD = new MethodReference(ChunkLoader.class, "load",
+            String.class, void.class);
+
+    public static boolean isChunkClass(String className) {
+        return className.contains(CHUNK_CLASS_MARKER);
+    }
+
+    @Override
+    public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
+        int suffix = 0;
+        for (var method : List.copyOf(cls.getMethods())) {
+            if (method.getAnnotations().get(SplitPoint.class.getName()) == null) {
+                continue;
+            }
+            if (!method.hasModifier(ElementModifier.STATIC) || method.getProgram() == null) {
+                context.getDiagnostics().error(new CallLocation(method.getReference()),
+                        "Method {{m0}} is marked as split point, but it is not a static method with body",
+                        method.getReference());
+                continue;
+            }
+            var chunkClass = createChunkClass(method, cls.getName() + CHUNK_CLASS_MARKER + suffix++);
+            context.submit(chunkClass);
+            method.setProgram(createStub(method, chunkClass.getName()));
+        }
+    }
+
+    private ClassHolder createChunkClass(MethodHolder method, String className) {
+        var cls = new ClassHolder(className);
+        cls.setLevel(AccessLevel.PUBLIC);
+        cls.getModifiers().add(ElementModifier.FINAL);
+        cls.setParent("java.lang.Object");
+
+        var runMethod = new MethodHolder("run", method.getSignature());
+        runMethod.setLevel(AccessLevel.PUBLIC);
+        runMethod.getModifiers().add(ElementModifier.STATIC);
+        runMethod.setProgram(method.getProgram());
+        cls.addMethod(runMethod);
+
+        return cls;
+    }
+
+    private Program createStub(MethodHolder method, String chunkClassName) {
+        var program = new Program();
+        var arguments = new Variable[method.parameterCount()];
+        program.createVariable();
+        for (int i = 0; i < arguments.length; ++i) {
+            arguments[i] = program.createVariable();
+        }
+
+        var startBlock = program.createBasicBlock();
+        var block = program.createBasicBlock();
+        var jump = new JumpInstruction();
+        jump.setTarget(block);
+        startBlock.add(jump);
+
+        var nameConstant = new StringConstantInstruction();
+        nameConstant.setConstant(chunkClassName);
+        nameConstant.setReceiver(program.createVariable());
+        block.add(nameConstant);
+
+        var load = new InvokeInstruction();
+        load.setType(InvocationType.SPECIAL);
+        load.setMethod(LOAD_METHOD);
+        load.setArguments(nameConstant.getReceiver());
+        block.add(load);
+
+        var run = new InvokeInstruction();
+        run.setType(InvocationType.SPECIAL);
+        run.setMethod(new MethodReference(chunkClassName, "run", method.getSignature()));
+        run.setArguments(arguments);
+        if (method.getResultType() != ValueType.VOID) {
+            run.setReceiver(program.createVariable());
+        }
+        block.add(run);
+
+        var exit = new ExitInstruction();
+        exit.setValueToReturn(run.getReceiver());
+        block.add(exit);
+
+        return program;
+    }
+}
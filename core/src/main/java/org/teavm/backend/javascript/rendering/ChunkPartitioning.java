@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.rendering;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Distributes classes between the main output file and lazily loaded chunks. Every chunk starts
+ * at its root class and gets classes that are reachable from this root only. Classes that are reachable
+ * from several roots, or from the main file, go to the main file, along with everything they reference.</p>
+ *
+ * <p>Main file never references classes of a chunk except for its root, and the root is only reachable
+ * through a stub which loads the chunk first.</p>
+ */
+public class ChunkPartitioning {
+    private Map<String, Set<String>> references;
+    private Set<String> roots;
+
+    /**
+     * @param references classes referenced by code and metadata of each class. Keys are all classes
+     *                   of the program.
+     * @param roots root classes of chunks.
+     */
+    public ChunkPartitioning(Map<String, Set<String>> references, Collection<String> roots) {
+        this.references = references;
+        this.roots = new LinkedHashSet<>(roots);
+    }
+
+    /**
+     * @param mainReferences classes referenced by code which always goes to the main file.
+     * @return classes of every chunk, in the order of roots. Remaining classes belong to the main file.
+     */
+    public List<Set<String>> partition(Collection<String> mainReferences) {
+        var reachable = new ArrayList<Set<String>>();
+        var candidateCount = new HashMap<String, Integer>();
+        for (var root : roots) {
+            var classes = closure(List.of(root), root);
+            reachable.add(classes);
+            for (var cls : classes) {
+                candidateCount.merge(cls, 1, Integer::sum);
+            }
+        }
+
+        var seed = new ArrayList<String>();
+        for (var cls : references.keySet()) {
+            if (candidateCount.getOrDefault(cls, 0) != 1) {
+                seed.add(cls);
+            }
+        }
+        seed.addAll(mainReferences);
+        var main = closure(seed, null);
+
+        var result = new ArrayList<Set<String>>();
+        for (var classes : reachable) {
+            classes.removeAll(main);
+            result.add(classes);
+        }
+        return result;
+    }
+
+    private Set<String> closure(Collection<String> start, String ownRoot) {
+        var result = new LinkedHashSet<String>();
+        var queue = new ArrayDeque<String>();
+        for (var cls : start) {
+            if (references.containsKey(cls) && result.add(cls)) {
+                queue.add(cls);
+            }
+        }
+        while (!queue.isEmpty()) {
+            var cls = queue.remove();
+            for (var referenced : references.get(cls)) {
+                if (roots.contains(referenced) && !referenced.equals(ownRoot)) {
+                    continue;
+                }
+                if (references.containsKey(referenced) && result.add(referenced)) {
+                    queue.add(referenced);
+                }
+            }
+        }
+        return result;
+    }
+}
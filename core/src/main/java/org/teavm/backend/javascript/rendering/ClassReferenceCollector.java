@@ -0,0 +1,60 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.rendering;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.teavm.backend.javascript.codegen.SourceWriterSink;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodReference;
+
+public class ClassReferenceCollector implements SourceWriterSink {
+    private Set<String> classes = new LinkedHashSet<>();
+
+    public Set<String> getClasses() {
+        return classes;
+    }
+
+    @Override
+    public SourceWriterSink appendClass(String cls) {
+        classes.add(cls);
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendStaticField(FieldReference field) {
+        classes.add(field.getClassName());
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendMethod(MethodReference method) {
+        classes.add(method.getClassName());
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendInit(MethodReference method) {
+        classes.add(method.getClassName());
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendClassInit(String className) {
+        classes.add(className);
+        return this;
+    }
+}
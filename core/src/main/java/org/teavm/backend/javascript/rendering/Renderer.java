@@ -29,7 +29,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
+import java.util.function.Predicate;
 import org.teavm.ast.AsyncMethodNode;
 import org.teavm.ast.ControlFlowEntry;
 import org.teavm.ast.MethodNode;
@@ -94,6 +98,11 @@ public class Renderer implements RenderingManager {
     private AstDependencyExtractor dependencyExtractor = new AstDependencyExtractor();
     private List<ExportedDeclaration> exports;
     private String entryPoint;
+    private int threadCount = 1;
+    private boolean hotSwappable;
+    private MethodRenderingListener methodRenderingListener;
+    private Map<MethodReference, AstCacheEntry> preparedRegularMethods = new HashMap<>();
+    private Map<MethodReference, AsyncMethodNode> preparedAsyncMethods = new HashMap<>();
 
     public static final MethodDescriptor CLINIT_METHOD = new MethodDescriptor("<clinit>", ValueType.VOID);
 
@@ -168,6 +177,32 @@ public class Renderer implements RenderingManager {
         this.progressConsumer = progressConsumer;
     }
 
+    /**
+     * Specifies how many threads are used to decompile method bodies. Text is still written on the calling
+     * thread in the usual order, since string pool indices and aliases depend on that order, so the output
+     * does not depend on the number of threads.
+     *
+     * @param threadCount number of threads, 1 means decompiling on the calling thread.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Specifies whether methods must be looked up by their names on each virtual call. This allows
+     * to replace functions of a running program by assigning new values to their names.
+     */
+    public void setHotSwappable(boolean hotSwappable) {
+        this.hotSwappable = hotSwappable;
+    }
+
+    public void setMethodRenderingListener(MethodRenderingListener methodRenderingListener) {
+        this.methodRenderingListener = methodRenderingListener;
+    }
+
     public void setProperties(Properties properties) {
         this.properties.clear();
         this.properties.putAll(properties);
@@ -190,7 +225,14 @@ public class Renderer implements RenderingManager {
     }
 
     public void renderStringConstants() throws RenderingException {
+        renderStringConstants(className -> true);
+    }
+
+    public void renderStringConstants(Predicate<String> classFilter) throws RenderingException {
         for (PostponedFieldInitializer initializer : postponedFieldInitializers) {
+            if (!classFilter.test(initializer.field.getClassName())) {
+                continue;
+            }
             writer.markSectionStart(SECTION_STRING_POOL);
             writer.appendStaticField(initializer.field).ws().append("=").ws();
             context.constantToString(writer, initializer.value);
@@ -231,6 +273,23 @@ public class Renderer implements RenderingManager {
     }
 
     public boolean render(ListableClassHolderSource classes, boolean isFriendlyToDebugger) {
+        var sequence = renderClasses(classes, isFriendlyToDebugger, cls -> { });
+        if (sequence == null) {
+            return false;
+        }
+        renderClassMetadata(sequence);
+        return true;
+    }
+
+    /**
+     * Renders declarations and method bodies of classes, parents first, but not their metadata.
+     *
+     * @param classRendered notified after each class is written, so that caller can cut output into
+     *                      per-class fragments.
+     * @return classes in the order they were rendered, or {@code null} if rendering was cancelled.
+     */
+    public List<ClassHolder> renderClasses(ListableClassHolderSource classes, boolean isFriendlyToDebugger,
+            Consumer<ClassHolder> classRendered) {
         var sequence = new ArrayList<ClassHolder>();
         var visited = new HashSet<String>();
         for (String className : classes.getClassNames()) {
@@ -245,6 +304,9 @@ public class Renderer implements RenderingManager {
         splitMethods.addAll(asyncFinder.getAsyncFamilyMethods());
 
         var decompiler = new Decompiler(classes, splitMethods, isFriendlyToDebugger);
+        if (threadCount > 1) {
+            decompileInParallel(classes, sequence, splitMethods, isFriendlyToDebugger);
+        }
 
         int index = 0;
         for (var cls : sequence) {
@@ -252,12 +314,76 @@ public class Renderer implements RenderingManager {
             renderDeclaration(cls);
             renderMethodBodies(cls, decompiler);
             writer.markClassEnd();
+            classRendered.accept(cls);
             if (progressConsumer.apply(1000 * ++index / sequence.size()) == TeaVMProgressFeedback.CANCEL) {
-                return false;
+                preparedRegularMethods.clear();
+                preparedAsyncMethods.clear();
+                return null;
             }
         }
-        renderClassMetadata(sequence);
-        return true;
+        return sequence;
+    }
+
+    private void decompileInParallel(ClassHolderSource classes, List<ClassHolder> sequence,
+            Set<MethodReference> splitMethods, boolean isFriendlyToDebugger) {
+        var methods = new ArrayList<MethodHolder>();
+        for (var cls : sequence) {
+            for (var method : cls.getMethods()) {
+                if (!filterMethod(method) || method.hasModifier(ElementModifier.NATIVE)) {
+                    continue;
+                }
+                var reference = method.getReference();
+                var fresh = astCache == null || cacheStatus.isStaleMethod(reference);
+                if (asyncMethods.contains(reference)) {
+                    var node = !fresh ? astCache.getAsync(reference, cacheStatus) : null;
+                    if (node != null) {
+                        preparedAsyncMethods.put(reference, node);
+                        continue;
+                    }
+                } else {
+                    var entry = !fresh ? astCache.get(reference, cacheStatus) : null;
+                    if (entry != null) {
+                        preparedRegularMethods.put(reference, entry);
+                        continue;
+                    }
+                }
+                methods.add(method);
+            }
+        }
+
+        var pool = new ForkJoinPool(threadCount);
+        try {
+            var tasks = new ArrayList<ForkJoinTask<Object>>();
+            for (var method : methods) {
+                var async = asyncMethods.contains(method.getReference());
+                tasks.add(pool.submit(() -> {
+                    var decompiler = new Decompiler(classes, splitMethods, isFriendlyToDebugger);
+                    return async ? decompiler.decompileAsync(method) : decompileRegularCacheMiss(decompiler, method);
+                }));
+            }
+
+            // Results are stored in the order of methods, so that cache gets written the same way regardless
+            // of which task finishes first
+            for (var i = 0; i < methods.size(); ++i) {
+                var reference = methods.get(i).getReference();
+                var result = tasks.get(i).join();
+                if (result instanceof AsyncMethodNode) {
+                    var node = (AsyncMethodNode) result;
+                    if (astCache != null) {
+                        astCache.storeAsync(reference, node, () -> dependencyExtractor.extract(node));
+                    }
+                    preparedAsyncMethods.put(reference, node);
+                } else {
+                    var entry = (AstCacheEntry) result;
+                    if (astCache != null) {
+                        astCache.store(reference, entry, () -> dependencyExtractor.extract(entry.method));
+                    }
+                    preparedRegularMethods.put(reference, entry);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     private void orderClasses(ClassHolderSource classes, String className, Set<String> visited,
@@ -372,6 +498,9 @@ public class Renderer implements RenderingManager {
             if (!filterMethod(method)) {
                 continue;
             }
+            if (methodRenderingListener != null) {
+                methodRenderingListener.methodStarted(method.getReference());
+            }
             var isFunction = context.isForcedFunction(method.getReference());
             if (isFunction) {
                 writer.startFunctionDeclaration();
@@ -380,6 +509,9 @@ public class Renderer implements RenderingManager {
             }
             renderBody(method, decompiler, isFunction);
             writer.endDeclaration();
+            if (methodRenderingListener != null) {
+                methodRenderingListener.methodFinished(method.getReference());
+            }
             if (needsInitializers && !method.hasModifier(ElementModifier.STATIC)
                     && method.getName().equals("<init>")) {
                 renderInitializer(method);
@@ -464,7 +596,7 @@ public class Renderer implements RenderingManager {
                 .appendClass(cls.getName()).append(");").softNewLine();
     }
 
-    private void renderClassMetadata(List<? extends ClassReader> classReaders) {
+    public void renderClassMetadata(List<? extends ClassReader> classReaders) {
         ClassMetadataRequirements metadataRequirements = new ClassMetadataRequirements(context.getDependencyInfo());
 
         writer.markSectionStart(SECTION_METADATA);
@@ -784,15 +916,27 @@ public class Renderer implements RenderingManager {
         emitVirtualFunctionWrapper(ref);
     }
 
+    private void appendWrappedMethod(MethodReference method) {
+        if (hotSwappable) {
+            writer.append("(...args)").ws().append("=>").ws().appendMethod(method).append("(...args)");
+        } else {
+            writer.appendMethod(method);
+        }
+    }
+
     private void emitVirtualFunctionWrapper(MethodReference method) {
         var forced = context.isForcedFunction(method);
         if (forced) {
-            writer.appendFunction("$rt_wrapFunctionVararg").append("(").appendMethod(method).append(")");
+            writer.appendFunction("$rt_wrapFunctionVararg").append("(");
+            appendWrappedMethod(method);
+            writer.append(")");
             return;
         }
         if (method.parameterCount() <= 4 && !forced) {
             writer.appendFunction("$rt_wrapFunction" + method.parameterCount());
-            writer.append("(").appendMethod(method).append(")");
+            writer.append("(");
+            appendWrappedMethod(method);
+            writer.append(")");
             return;
         }
 
@@ -930,6 +1074,10 @@ public class Renderer implements RenderingManager {
     }
 
     private AstCacheEntry decompileRegular(Decompiler decompiler, MethodHolder method) {
+        var prepared = preparedRegularMethods.remove(method.getReference());
+        if (prepared != null) {
+            return prepared;
+        }
         if (astCache == null) {
             return decompileRegularCacheMiss(decompiler, method);
         }
@@ -952,6 +1100,10 @@ public class Renderer implements RenderingManager {
     }
 
     private AsyncMethodNode decompileAsync(Decompiler decompiler, MethodHolder method) {
+        var prepared = preparedAsyncMethods.remove(method.getReference());
+        if (prepared != null) {
+            return prepared;
+        }
         if (astCache == null) {
             return decompiler.decompileAsync(method);
         }
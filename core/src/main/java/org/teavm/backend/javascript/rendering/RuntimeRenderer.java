@@ -65,6 +65,7 @@ public class RuntimeRenderer {
         runtimeAstParts.add(prepareAstPart("check.js"));
         runtimeAstParts.add(prepareAstPart("console.js"));
         runtimeAstParts.add(prepareAstPart("metadata.js"));
+        runtimeAstParts.add(prepareAstPart("hotSwap.js"));
         runtimeAstParts.add(prepareAstPart(threadLibraryUsed ? "thread.js" : "simpleThread.js"));
         epilogueAstParts.add(prepareAstPart("types.js"));
     }
@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.rendering;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.teavm.backend.javascript.codegen.NamingStrategy;
+import org.teavm.backend.javascript.codegen.ScopedName;
+import org.teavm.backend.javascript.codegen.SourceWriterSink;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodReference;
+
+public class TopLevelNameCollector implements SourceWriterSink {
+    private NamingStrategy naming;
+    private Set<String> names = new HashSet<>();
+
+    public TopLevelNameCollector(NamingStrategy naming) {
+        this.naming = naming;
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    @Override
+    public SourceWriterSink appendClass(String cls) {
+        add(naming.className(cls));
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendStaticField(FieldReference field) {
+        add(naming.fieldName(field));
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendMethod(MethodReference method) {
+        add(naming.methodName(method));
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendFunction(String name) {
+        add(naming.functionName(name));
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendInit(MethodReference method) {
+        add(naming.initializerName(method));
+        return this;
+    }
+
+    @Override
+    public SourceWriterSink appendClassInit(String className) {
+        add(naming.classInitializerName(className));
+        return this;
+    }
+
+    private void add(ScopedName name) {
+        if (!name.scoped) {
+            names.add(name.name);
+        }
+    }
+}
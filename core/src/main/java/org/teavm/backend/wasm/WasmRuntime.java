@@ -20,6 +20,7 @@ import org.teavm.interop.Address;
 import org.teavm.interop.StaticInit;
 import org.teavm.interop.Unmanaged;
 import org.teavm.runtime.RuntimeObject;
+import org.teavm.runtime.ShadowStack;
 
 @StaticInit
 public final class WasmRuntime {
@@ -165,8 +166,8 @@ public final class WasmRuntime {
     @Unmanaged
     public static Address allocStack(int size) {
         Address stack = WasmHeap.stack;
-        Address result = stack.add(4);
-        stack = result.add((size << 2) + 4);
+        Address result = stack.add(4 + ((size >>> ShadowStack.OBJECT_AREA_SHIFT) << 2));
+        stack = result.add(((size & ShadowStack.ROOT_COUNT_MASK) << 2) + 4);
         stack.putInt(size);
         WasmHeap.stack = stack;
         return result;
@@ -179,7 +180,8 @@ public final class WasmRuntime {
 
     @Unmanaged
     public static Address getNextStackFrame(Address stackFrame) {
-        int size = stackFrame.getInt() + 2;
+        int frameSize = stackFrame.getInt();
+        int size = (frameSize & ShadowStack.ROOT_COUNT_MASK) + (frameSize >>> ShadowStack.OBJECT_AREA_SHIFT) + 2;
         Address result = stackFrame.add(-size * 4);
         if (result == WasmHeap.stackAddress) {
             result = null;
@@ -189,18 +191,18 @@ public final class WasmRuntime {
 
     @Unmanaged
     public static int getStackRootCount(Address stackFrame) {
-        return stackFrame.getInt();
+        return stackFrame.getInt() & ShadowStack.ROOT_COUNT_MASK;
     }
 
     @Unmanaged
     public static Address getStackRootPointer(Address stackFrame) {
-        int size = stackFrame.getInt();
+        int size = stackFrame.getInt() & ShadowStack.ROOT_COUNT_MASK;
         return stackFrame.add(-size * 4);
     }
 
     @Unmanaged
     private static Address getExceptionHandlerPtr(Address stackFrame) {
-        int size = stackFrame.getInt();
+        int size = stackFrame.getInt() & ShadowStack.ROOT_COUNT_MASK;
         return stackFrame.add(-size * 4 - 4);
     }
 
@@ -227,11 +229,24 @@ public final class WasmRuntime {
         addr.putInt(addr.getInt() - 1);
     }
 
+    @Unmanaged
+    private static native boolean isCompactStrings();
+
     @Unmanaged
     private static int hashCode(RuntimeString string) {
         int hashCode = 0;
         int length = string.characters.length;
         Address chars = Address.ofData(string.characters);
+        if (isCompactStrings()) {
+            if (string.coder == 0) {
+                for (int i = 0; i < length; ++i) {
+                    hashCode = 31 * hashCode + (chars.getByte() & 0xFF);
+                    chars = chars.add(1);
+                }
+                return hashCode;
+            }
+            length >>= 1;
+        }
         for (int i = 0; i < length; ++i) {
             hashCode = 31 * hashCode + chars.getChar();
             chars = chars.add(2);
@@ -241,9 +256,25 @@ public final class WasmRuntime {
 
     @Unmanaged
     private static boolean equals(RuntimeString first, RuntimeString second) {
+        if (isCompactStrings() && first.coder != second.coder) {
+            return compactEqualsWithDifferentCoders(first, second);
+        }
         if (first.characters.length != second.characters.length) {
             return false;
         }
+        if (isCompactStrings()) {
+            Address firstBytes = Address.ofData(first.characters);
+            Address secondBytes = Address.ofData(second.characters);
+            int length = first.characters.length;
+            for (int i = 0; i < length; ++i) {
+                if (firstBytes.getByte() != secondBytes.getByte()) {
+                    return false;
+                }
+                firstBytes = firstBytes.add(1);
+                secondBytes = secondBytes.add(1);
+            }
+            return true;
+        }
 
         Address firstChars = Address.ofData(first.characters);
         Address secondChars = Address.ofData(second.characters);
@@ -258,6 +289,27 @@ public final class WasmRuntime {
         return true;
     }
 
+    @Unmanaged
+    private static boolean compactEqualsWithDifferentCoders(RuntimeString first, RuntimeString second) {
+        RuntimeString latin1 = first.coder == 0 ? first : second;
+        RuntimeString utf16 = first.coder == 0 ? second : first;
+        int length = latin1.characters.length;
+        if (utf16.characters.length != length * 2) {
+            return false;
+        }
+
+        Address latin1Chars = Address.ofData(latin1.characters);
+        Address utf16Chars = Address.ofData(utf16.characters);
+        for (int i = 0; i < length; ++i) {
+            if ((latin1Chars.getByte() & 0xFF) != utf16Chars.getChar()) {
+                return false;
+            }
+            latin1Chars = latin1Chars.add(1);
+            utf16Chars = utf16Chars.add(2);
+        }
+        return true;
+    }
+
     public static String[] resourceMapKeys(Address map) {
         String[] result = new String[resourceMapSize(map)];
         fillResourceMapKeys(map, result);
@@ -349,5 +401,7 @@ public final class WasmRuntime {
 
     static class RuntimeString extends RuntimeObject {
         char[] characters;
+        int cachedHashCode;
+        byte coder;
     }
 }
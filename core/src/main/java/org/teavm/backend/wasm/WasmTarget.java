@@ -160,8 +160,10 @@ import org.teavm.model.lowlevel.ClassInitializerEliminator;
 import org.teavm.model.lowlevel.ClassInitializerTransformer;
 import org.teavm.model.lowlevel.LowLevelNullCheckFilter;
 import org.teavm.model.lowlevel.ShadowStackTransformer;
+import org.teavm.model.lowlevel.StackAllocation;
 import org.teavm.model.lowlevel.WriteBarrierInsertion;
 import org.teavm.model.optimization.InliningFilterFactory;
+import org.teavm.model.transformation.BoundCheckElimination;
 import org.teavm.model.transformation.BoundCheckInsertion;
 import org.teavm.model.transformation.ClassPatch;
 import org.teavm.model.transformation.NullCheckInsertion;
@@ -197,11 +199,13 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
     private ClassInitializerEliminator classInitializerEliminator;
     private ClassInitializerTransformer classInitializerTransformer;
     private ShadowStackTransformer shadowStackTransformer;
+    private StackAllocation stackAllocation;
     private WriteBarrierInsertion writeBarrierInsertion;
     private WasmBinaryVersion version = WasmBinaryVersion.V_0x1;
     private List<WasmIntrinsicFactory> additionalIntrinsics = new ArrayList<>();
     private NullCheckInsertion nullCheckInsertion;
     private BoundCheckInsertion boundCheckInsertion = new BoundCheckInsertion();
+    private BoundCheckElimination boundCheckElimination = new BoundCheckElimination();
     private int minHeapSize = 2 * 1024 * 1024;
     private int maxHeapSize = 128 * 1024 * 1024;
     private boolean obfuscated;
@@ -450,6 +454,9 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         asyncMethods = new HashSet<>(asyncFinder.getAsyncMethods());
         asyncMethods.addAll(asyncFinder.getAsyncFamilyMethods());
         hasThreads = asyncFinder.hasAsyncMethods();
+        stackAllocation = new StackAllocation(controller.getUnprocessedClassSource(), characteristics,
+                controller.getParameterEscapeInfo(), asyncMethods);
+        shadowStackTransformer = new ShadowStackTransformer(characteristics, controller.getAllocationInfo());
     }
 
     @Override
@@ -460,11 +467,13 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
 
     @Override
     public void afterOptimizations(Program program, MethodReader method) {
+        int objectAreaSize = stackAllocation.apply(program, method.getReference());
+        boundCheckElimination.apply(program);
         classInitializerEliminator.apply(program);
         classInitializerTransformer.transform(program);
         new CoroutineTransformation(controller.getUnprocessedClassSource(), asyncMethods, hasThreads)
                 .apply(program, method.getReference());
-        shadowStackTransformer.apply(program, method);
+        shadowStackTransformer.apply(program, method, objectAreaSize);
         writeBarrierInsertion.apply(program);
     }
 
@@ -135,7 +135,9 @@ public class WasmClassGenerator {
         this.binaryWriter = binaryWriter;
         this.functions = functions;
         this.module = module;
-        this.stringPool = new WasmStringPool(this, binaryWriter, statsCollector);
+        var stringClass = processedClassSource.get(String.class.getName());
+        this.stringPool = new WasmStringPool(this, binaryWriter, statsCollector,
+                stringClass != null && stringClass.getField("coder") != null);
         this.metadataRequirements = metadataRequirements;
         this.classInitializerInfo = classInitializerInfo;
         this.characteristics = characteristics;
@@ -87,6 +87,7 @@ import org.teavm.backend.wasm.model.expression.WasmConditional;
 import org.teavm.backend.wasm.model.expression.WasmConversion;
 import org.teavm.backend.wasm.model.expression.WasmDrop;
 import org.teavm.backend.wasm.model.expression.WasmExpression;
+import org.teavm.backend.wasm.model.expression.WasmFill;
 import org.teavm.backend.wasm.model.expression.WasmFloat32Constant;
 import org.teavm.backend.wasm.model.expression.WasmFloat64Constant;
 import org.teavm.backend.wasm.model.expression.WasmFloatBinary;
@@ -135,6 +136,7 @@ import org.teavm.runtime.Allocator;
 import org.teavm.runtime.ExceptionHandling;
 import org.teavm.runtime.RuntimeArray;
 import org.teavm.runtime.RuntimeClass;
+import org.teavm.runtime.RuntimeObject;
 import org.teavm.runtime.ShadowStack;
 
 class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
@@ -153,6 +155,8 @@ class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
             "peekException", Throwable.class);
     private static final MethodReference THROW_METHOD = new MethodReference(ExceptionHandling.class,
             "throwException", Throwable.class, void.class);
+    private static final MethodReference ALLOC_ON_STACK_METHOD = new MethodReference(Allocator.class,
+            "allocateOnStack", Class.class, int.class, Object.class);
     private static final MethodReference THROW_CCE_METHOD = new MethodReference(ExceptionHandling.class,
             "throwClassCastException", void.class);
     private static final MethodReference THROW_NPE_METHOD = new MethodReference(ExceptionHandling.class,
@@ -181,6 +185,7 @@ class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
     private List<WasmBlock> catchLabels = new ArrayList<>();
 
     private WasmLocal stackVariable;
+    private int objectAreaSize;
     private BinaryWriter binaryWriter;
     private boolean async;
     private boolean managed;
@@ -995,6 +1000,9 @@ class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
     }
 
     private WasmExpression invocation(InvocationExpr expr, List<WasmExpression> resultConsumer, boolean willDrop) {
+        if (expr.getMethod().equals(ALLOC_ON_STACK_METHOD)) {
+            return trivialInvocation(allocateObjectOnStack(expr), resultConsumer, expr.getLocation(), willDrop);
+        }
         if (expr.getMethod().getClassName().equals(ShadowStack.class.getName())) {
             switch (expr.getMethod().getName()) {
                 case "allocStack":
@@ -1264,6 +1272,9 @@ class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
         }
         stackVariable = tempVars.acquire(WasmType.INT32);
         stackVariable.setName("__stack__");
+        if (sizeExpr instanceof ConstantExpr) {
+            objectAreaSize = (Integer) ((ConstantExpr) sizeExpr).getValue() >>> ShadowStack.OBJECT_AREA_SHIFT;
+        }
         InvocationExpr expr = new InvocationExpr();
         expr.setType(InvocationType.STATIC);
         expr.setMethod(new MethodReference(WasmRuntime.class, "allocStack", int.class, Address.class));
@@ -1282,7 +1293,7 @@ class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
         int offset = classGenerator.getFieldOffset(new FieldReference(WasmHeap.class.getName(), "stack"));
         WasmExpression oldValue = new WasmGetLocal(stackVariable);
         oldValue = new WasmIntBinary(WasmIntType.INT32, WasmIntBinaryOperation.SUB, oldValue,
-                new WasmInt32Constant(4));
+                new WasmInt32Constant(4 + objectAreaSize * 4));
         result = new WasmStoreInt32(4, new WasmInt32Constant(offset), oldValue, WasmInt32Subtype.INT32);
     }
 
@@ -1512,6 +1523,39 @@ class WasmGenerationVisitor implements StatementVisitor, ExprVisitor {
         return call;
     }
 
+    private WasmExpression allocateObjectOnStack(InvocationExpr expr) {
+        if (stackVariable == null) {
+            throw new IllegalStateException("Call to Allocator.allocateOnStack must be dominated by "
+                    + "Mutator.allocStack");
+        }
+        var type = (ValueType) ((ConstantExpr) expr.getArguments().get(0)).getValue();
+        int offset = (Integer) ((ConstantExpr) expr.getArguments().get(1)).getValue();
+        String className = ((ValueType.Object) type).getClassName();
+
+        var block = new WasmBlock(false);
+        block.setType(WasmType.INT32);
+        block.setLocation(expr.getLocation());
+
+        var address = tempVars.acquire(WasmType.INT32);
+        block.getBody().add(new WasmSetLocal(address, new WasmIntBinary(WasmIntType.INT32,
+                WasmIntBinaryOperation.ADD, new WasmGetLocal(stackVariable),
+                new WasmInt32Constant((offset - objectAreaSize) * 4))));
+
+        var fill = new WasmFill();
+        fill.setIndex(new WasmGetLocal(address));
+        fill.setValue(new WasmInt32Constant(0));
+        fill.setCount(new WasmInt32Constant(classGenerator.getClassSize(className)));
+        block.getBody().add(fill);
+
+        int header = (classGenerator.getClassPointer(type) >>> 3) | RuntimeObject.GC_MARKED;
+        block.getBody().add(new WasmStoreInt32(4, new WasmGetLocal(address), new WasmInt32Constant(header),
+                WasmInt32Subtype.INT32));
+        block.getBody().add(new WasmGetLocal(address));
+
+        tempVars.release(address);
+        return block;
+    }
+
     @Override
     public void visit(NewArrayExpr expr) {
         var block = new WasmBlock(false);
@@ -50,6 +50,9 @@ public class WasmInteropFunctionGenerator {
     public void generateFunctions(WasmModule module) {
         module.functions.add(allocateString());
         module.functions.add(stringData());
+        if (classGenerator.getStringPool().isCompactStrings()) {
+            module.functions.add(stringCoder());
+        }
 
         module.functions.add(allocateArray("teavm_allocateObjectArray", ValueType.parse(Object.class)));
         module.functions.add(allocateArray("teavm_allocateStringArray", ValueType.parse(String.class)));
@@ -127,6 +130,22 @@ public class WasmInteropFunctionGenerator {
         return function;
     }
 
+    private WasmFunction stringCoder() {
+        var function = new WasmFunction(functionTypes.of(WasmType.INT32, WasmType.INT32));
+        function.setName("teavm_stringCoder");
+        function.setExportName(function.getName());
+
+        WasmLocal stringLocal = new WasmLocal(WasmType.INT32, "string");
+        function.add(stringLocal);
+
+        int offset = classGenerator.getFieldOffset(new FieldReference("java.lang.String", "coder"));
+        WasmExpression coder = new WasmLoadInt32(1, new WasmGetLocal(stringLocal), WasmInt32Subtype.INT8, offset);
+
+        function.getBody().add(new WasmReturn(coder));
+
+        return function;
+    }
+
     private WasmFunction arrayData(String name, int alignment) {
         var function = new WasmFunction(functionTypes.of(WasmType.INT32, WasmType.INT32));
         function.setName(name);
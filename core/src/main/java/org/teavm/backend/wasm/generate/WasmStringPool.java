@@ -39,13 +39,25 @@ public class WasmStringPool {
             DataPrimitives.ADDRESS, /* monitor */
             DataPrimitives.ADDRESS, /* characters */
             DataPrimitives.INT /* hash code */);
+    private DataStructure compactStringType = new DataStructure((byte) 0,
+            DataPrimitives.INT, /* class pointer */
+            DataPrimitives.ADDRESS, /* monitor */
+            DataPrimitives.ADDRESS, /* characters */
+            DataPrimitives.INT, /* hash code */
+            DataPrimitives.BYTE /* coder */);
     private WasmBinaryStatsCollector statsCollector;
+    private boolean compactStrings;
 
     public WasmStringPool(WasmClassGenerator classGenerator, BinaryWriter binaryWriter,
-            WasmBinaryStatsCollector statsCollector) {
+            WasmBinaryStatsCollector statsCollector, boolean compactStrings) {
         this.classGenerator = classGenerator;
         this.binaryWriter = binaryWriter;
         this.statsCollector = statsCollector;
+        this.compactStrings = compactStrings;
+    }
+
+    public boolean isCompactStrings() {
+        return compactStrings;
     }
 
     public int getStringPointer(String value) {
@@ -58,6 +70,9 @@ public class WasmStringPool {
     }
 
     private int generateStringPointer(String value) {
+        if (compactStrings) {
+            return generateCompactStringPointer(value);
+        }
         var start = binaryWriter.getAddress();
 
         DataArray charactersType = new DataArray(DataPrimitives.SHORT, value.length());
@@ -84,4 +99,48 @@ public class WasmStringPool {
 
         return stringPointer;
     }
+
+    private int generateCompactStringPointer(String value) {
+        var start = binaryWriter.getAddress();
+
+        boolean latin1 = true;
+        for (int i = 0; i < value.length(); ++i) {
+            if (value.charAt(i) > 0xFF) {
+                latin1 = false;
+                break;
+            }
+        }
+
+        var charactersType = new DataArray(latin1 ? DataPrimitives.BYTE : DataPrimitives.SHORT, value.length());
+        var wrapperType = new DataStructure((byte) 0, arrayHeaderType, charactersType);
+        var wrapper = wrapperType.createValue();
+        var header = wrapper.getValue(0);
+        var characters = wrapper.getValue(1);
+
+        int classPointer = classGenerator.getClassPointer(ValueType.arrayOf(ValueType.BYTE));
+        header.setInt(0, (classPointer >>> 3) | RuntimeObject.GC_MARKED);
+        if (latin1) {
+            header.setInt(2, value.length());
+            for (int i = 0; i < value.length(); ++i) {
+                characters.setByte(i, (byte) value.charAt(i));
+            }
+        } else {
+            header.setInt(2, value.length() * 2);
+            for (int i = 0; i < value.length(); ++i) {
+                characters.setShort(i, (short) value.charAt(i));
+            }
+        }
+
+        var stringObject = compactStringType.createValue();
+        int stringPointer = binaryWriter.append(stringObject);
+        classPointer = classGenerator.getClassPointer(ValueType.object(String.class.getName()));
+        stringObject.setInt(0, (classPointer >>> 3) | RuntimeObject.GC_MARKED);
+        stringObject.setAddress(2, binaryWriter.append(wrapper));
+        stringObject.setByte(4, latin1 ? (byte) 0 : (byte) 1);
+
+        var size = binaryWriter.getAddress() - start;
+        statsCollector.addStringsSize(size);
+
+        return stringPointer;
+    }
 }
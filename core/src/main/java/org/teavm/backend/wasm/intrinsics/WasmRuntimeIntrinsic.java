@@ -24,6 +24,7 @@ import org.teavm.backend.wasm.model.expression.WasmFloatBinary;
 import org.teavm.backend.wasm.model.expression.WasmFloatBinaryOperation;
 import org.teavm.backend.wasm.model.expression.WasmFloatType;
 import org.teavm.backend.wasm.model.expression.WasmIndirectCall;
+import org.teavm.backend.wasm.model.expression.WasmInt32Constant;
 import org.teavm.backend.wasm.model.expression.WasmIntBinary;
 import org.teavm.backend.wasm.model.expression.WasmIntBinaryOperation;
 import org.teavm.backend.wasm.model.expression.WasmIntType;
@@ -44,6 +45,7 @@ public class WasmRuntimeIntrinsic implements WasmIntrinsic {
             case "max":
             case "initStack":
             case "callFunctionFromTable":
+            case "isCompactStrings":
                 return true;
             default:
                 return false;
@@ -71,6 +73,8 @@ public class WasmRuntimeIntrinsic implements WasmIntrinsic {
             case "max":
                 return comparison(WasmIntBinaryOperation.GT_SIGNED, WasmFloatBinaryOperation.MAX,
                         invocation, manager);
+            case "isCompactStrings":
+                return new WasmInt32Constant(manager.getStringPool().isCompactStrings() ? 1 : 0);
             case "callFunctionFromTable": {
                 var functionType = manager.getFunctionTypes().of(null, WasmType.INT32);
                 var call = new WasmIndirectCall(manager.generate(invocation.getArguments().get(0)), functionType);
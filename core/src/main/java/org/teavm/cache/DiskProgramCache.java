@@ -50,7 +50,7 @@ public class DiskProgramCache implements ProgramCache {
     }
 
     @Override
-    public Program get(MethodReference method, CacheStatus cacheStatus) {
+    public synchronized Program get(MethodReference method, CacheStatus cacheStatus) {
         Item item = cache.get(method);
         if (item == null) {
             item = new Item();
@@ -80,7 +80,7 @@ public class DiskProgramCache implements ProgramCache {
     }
 
     @Override
-    public void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
+    public synchronized void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
         Item item = new Item();
         cache.put(method, item);
         item.program = program;
@@ -88,7 +88,7 @@ public class DiskProgramCache implements ProgramCache {
         newMethods.add(method);
     }
 
-    public void flush() throws IOException {
+    public synchronized void flush() throws IOException {
         for (MethodReference method : newMethods) {
             Item item = cache.get(method);
             File file = getMethodFile(method);
@@ -38,7 +38,7 @@ public class InMemoryProgramCache implements ProgramCache {
     }
 
     @Override
-    public Program get(MethodReference method, CacheStatus cacheStatus) {
+    public synchronized Program get(MethodReference method, CacheStatus cacheStatus) {
         Item item = cache.get(method);
         if (item == null) {
             return null;
@@ -56,7 +56,7 @@ public class InMemoryProgramCache implements ProgramCache {
     }
 
     @Override
-    public void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
+    public synchronized void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
         try {
             ByteArrayOutputStream output = new ByteArrayOutputStream();
             io.write(program, output);
@@ -66,20 +66,20 @@ public class InMemoryProgramCache implements ProgramCache {
         }
     }
 
-    public void commit() {
+    public synchronized void commit() {
         cache.putAll(newItems);
         newItems.clear();
     }
 
-    public int getPendingItemsCount() {
+    public synchronized int getPendingItemsCount() {
         return newItems.size();
     }
 
-    public void discard() {
+    public synchronized void discard() {
         newItems.clear();
     }
 
-    public void invalidate() {
+    public synchronized void invalidate() {
         cache.clear();
         newItems.clear();
     }
@@ -0,0 +1,380 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Append-only storage of binary records, identified by string keys, in a single data file.</p>
+ *
+ * <p>Records are appended to the data file on {@link #commit()}. The data file is written and synced before
+ * the index is replaced, and the index is replaced by atomic rename, so a crash during commit leaves
+ * the previously committed state intact. Bytes appended after the last committed length are ignored and
+ * overwritten by the next commit.</p>
+ *
+ * <p>Committed part of the data file is memory-mapped in read-only segments of at most 1 GB, so the data
+ * file is not limited by the size of a single buffer. Records are read directly from slices of these
+ * segments without copying; only a record that crosses a segment boundary is copied into a heap buffer.</p>
+ *
+ * <p>When most of the data file is occupied by overwritten records, commit rewrites live records into
+ * a data file of the next generation. Index refers to the data file by its generation, so switching
+ * to a compacted file is atomic as well.</p>
+ */
+public class PackFile {
+    private static final int VERSION = 1;
+    private static final double COMPACTION_THRESHOLD = 0.5;
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+    private final int segmentSize;
+    private final File directory;
+    private final String name;
+    private int generation;
+    private long committedLength;
+    private long liveLength;
+    private Map<String, Entry> index = new LinkedHashMap<>();
+    private Map<String, byte[]> pending = new LinkedHashMap<>();
+    private ByteBuffer[] segments;
+
+    public PackFile(File directory, String name) {
+        this(directory, name, DEFAULT_SEGMENT_SIZE);
+    }
+
+    PackFile(File directory, String name, int segmentSize) {
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Reads index of the previously committed state. If index is missing or can't be read, pack is considered
+     * empty, and the first commit overwrites it.
+     */
+    public synchronized void open() throws IOException {
+        index = new LinkedHashMap<>();
+        pending.clear();
+        generation = 0;
+        committedLength = 0;
+        liveLength = 0;
+        closeData();
+
+        File indexFile = getIndexFile();
+        if (!indexFile.exists()) {
+            return;
+        }
+        Map<String, Entry> newIndex = new LinkedHashMap<>();
+        int newGeneration;
+        long newLength;
+        long newLiveLength = 0;
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(indexFile))) {
+            VarDataInput input = new VarDataInput(stream);
+            if (input.readUnsigned() != VERSION) {
+                return;
+            }
+            newGeneration = input.readUnsigned();
+            newLength = input.readUnsignedLong();
+            int count = input.readUnsigned();
+            for (int i = 0; i < count; ++i) {
+                String key = input.read();
+                long offset = input.readUnsignedLong();
+                int length = input.readUnsigned();
+                newIndex.put(key, new Entry(offset, length));
+                newLiveLength += length;
+            }
+        }
+        index = newIndex;
+        generation = newGeneration;
+        committedLength = newLength;
+        liveLength = newLiveLength;
+        File dataFile = getDataFile(generation);
+        if (committedLength > 0 && (!dataFile.exists() || dataFile.length() < committedLength)) {
+            index.clear();
+            committedLength = 0;
+            liveLength = 0;
+        }
+    }
+
+    /**
+     * Returns stream over record with the given key, or <code>null</code> if there's no such record
+     * or it can't be read.
+     */
+    public InputStream read(String key) {
+        Entry entry;
+        ByteBuffer[] mappedSegments;
+        synchronized (this) {
+            byte[] pendingData = pending.get(key);
+            if (pendingData != null) {
+                return new ByteBufferInputStream(ByteBuffer.wrap(pendingData));
+            }
+            entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                mappedSegments = mapData();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return new ByteBufferInputStream(slice(mappedSegments, entry));
+    }
+
+    private ByteBuffer[] mapData() throws IOException {
+        if (segments == null) {
+            int count = (int) ((committedLength + segmentSize - 1) / segmentSize);
+            ByteBuffer[] newSegments = new ByteBuffer[count];
+            if (count > 0) {
+                try (FileChannel channel = FileChannel.open(getDataFile(generation).toPath(),
+                        StandardOpenOption.READ)) {
+                    for (int i = 0; i < count; ++i) {
+                        long position = (long) i * segmentSize;
+                        long size = Math.min(segmentSize, committedLength - position);
+                        newSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                    }
+                }
+            }
+            segments = newSegments;
+        }
+        return segments;
+    }
+
+    private ByteBuffer slice(ByteBuffer[] segments, Entry entry) {
+        if (entry.length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        int segmentIndex = (int) (entry.offset / segmentSize);
+        int start = (int) (entry.offset % segmentSize);
+        ByteBuffer segment = segments[segmentIndex].duplicate();
+        if (start + entry.length <= segment.capacity()) {
+            segment.position(start);
+            segment.limit(start + entry.length);
+            return segment.slice();
+        }
+
+        ByteBuffer result = ByteBuffer.allocate(entry.length);
+        segment.position(start);
+        while (true) {
+            if (segment.remaining() > result.remaining()) {
+                segment.limit(segment.position() + result.remaining());
+            }
+            result.put(segment);
+            if (!result.hasRemaining()) {
+                break;
+            }
+            segment = segments[++segmentIndex].duplicate();
+        }
+        result.flip();
+        return result;
+    }
+
+    public synchronized boolean contains(String key) {
+        return pending.containsKey(key) || index.containsKey(key);
+    }
+
+    public synchronized void write(String key, byte[] record) {
+        pending.put(key, record);
+    }
+
+    public synchronized void commit() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        directory.mkdirs();
+
+        long pendingLength = 0;
+        long replacedLength = 0;
+        for (Map.Entry<String, byte[]> record : pending.entrySet()) {
+            pendingLength += record.getValue().length;
+            Entry existing = index.get(record.getKey());
+            if (existing != null) {
+                replacedLength += existing.length;
+            }
+        }
+        long newLiveLength = liveLength - replacedLength + pendingLength;
+        long newTotalLength = committedLength + pendingLength;
+        if (newTotalLength > 0 && newLiveLength < newTotalLength * COMPACTION_THRESHOLD) {
+            compact();
+        } else {
+            append();
+        }
+    }
+
+    private void append() throws IOException {
+        File dataFile = getDataFile(generation);
+        Map<String, Entry> newIndex = new LinkedHashMap<>(index);
+        long offset = committedLength;
+        long newLiveLength = liveLength;
+        closeData();
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(committedLength);
+            channel.position(committedLength);
+            for (Map.Entry<String, byte[]> record : pending.entrySet()) {
+                ByteBuffer buffer = ByteBuffer.wrap(record.getValue());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                Entry old = newIndex.put(record.getKey(), new Entry(offset, record.getValue().length));
+                if (old != null) {
+                    newLiveLength -= old.length;
+                }
+                newLiveLength += record.getValue().length;
+                offset += record.getValue().length;
+            }
+            channel.force(true);
+        }
+        writeIndex(generation, offset, newIndex);
+        index = newIndex;
+        committedLength = offset;
+        liveLength = newLiveLength;
+        pending.clear();
+    }
+
+    private void compact() throws IOException {
+        int newGeneration = generation + 1;
+        File dataFile = getDataFile(newGeneration);
+        Map<String, Entry> newIndex = new LinkedHashMap<>();
+        long offset = 0;
+        closeData();
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (committedLength > 0) {
+                try (FileChannel oldChannel = FileChannel.open(getDataFile(generation).toPath(),
+                        StandardOpenOption.READ)) {
+                    for (Map.Entry<String, Entry> record : index.entrySet()) {
+                        if (pending.containsKey(record.getKey())) {
+                            continue;
+                        }
+                        Entry entry = record.getValue();
+                        long transferred = 0;
+                        while (transferred < entry.length) {
+                            long count = oldChannel.transferTo(entry.offset + transferred,
+                                    entry.length - transferred, channel);
+                            if (count <= 0) {
+                                throw new IOException("Pack data file is truncated: " + getDataFile(generation));
+                            }
+                            transferred += count;
+                        }
+                        newIndex.put(record.getKey(), new Entry(offset, entry.length));
+                        offset += entry.length;
+                    }
+                }
+            }
+            for (Map.Entry<String, byte[]> record : pending.entrySet()) {
+                ByteBuffer buffer = ByteBuffer.wrap(record.getValue());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                newIndex.put(record.getKey(), new Entry(offset, record.getValue().length));
+                offset += record.getValue().length;
+            }
+            channel.force(true);
+        }
+        writeIndex(newGeneration, offset, newIndex);
+
+        File oldDataFile = getDataFile(generation);
+        generation = newGeneration;
+        index = newIndex;
+        committedLength = offset;
+        liveLength = offset;
+        pending.clear();
+        if (!oldDataFile.delete()) {
+            // Mapped segments of the previous generation may still be alive, which prevents deletion on Windows
+            oldDataFile.deleteOnExit();
+        }
+    }
+
+    /**
+     * Drops mapped segments of the data file. Pack remains usable, the file is mapped again by
+     * the next {@link #read(String)}. Streams returned earlier remain valid.
+     */
+    public synchronized void close() throws IOException {
+        closeData();
+    }
+
+    private void closeData() {
+        segments = null;
+    }
+
+    private void writeIndex(int generation, long length, Map<String, Entry> index) throws IOException {
+        File indexFile = getIndexFile();
+        File tmpFile = new File(directory, name + ".index.tmp");
+        try (FileOutputStream fileOutput = new FileOutputStream(tmpFile)) {
+            OutputStream stream = new BufferedOutputStream(fileOutput);
+            VarDataOutput output = new VarDataOutput(stream);
+            output.writeUnsigned(VERSION);
+            output.writeUnsigned(generation);
+            output.writeUnsigned(length);
+            output.writeUnsigned(index.size());
+            for (Map.Entry<String, Entry> record : index.entrySet()) {
+                output.write(record.getKey());
+                output.writeUnsigned(record.getValue().offset);
+                output.writeUnsigned(record.getValue().length);
+            }
+            stream.flush();
+            fileOutput.getFD().sync();
+        }
+        try {
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public synchronized List<String> getKeys() {
+        List<String> keys = new ArrayList<>(index.keySet());
+        for (String key : pending.keySet()) {
+            if (!index.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private File getIndexFile() {
+        return new File(directory, name + ".index");
+    }
+
+    private File getDataFile(int generation) {
+        return new File(directory, name + "." + generation + ".pack");
+    }
+
+    static class Entry {
+        final long offset;
+        final int length;
+
+        Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.teavm.ast.AsyncMethodNode;
+import org.teavm.ast.ControlFlowEntry;
+import org.teavm.ast.RegularMethodNode;
+import org.teavm.model.MethodReference;
+import org.teavm.model.ReferenceCache;
+
+/**
+ * AST cache that keeps all methods in a single {@link PackFile} instead of a file per method,
+ * like {@link DiskMethodNodeCache} does.
+ */
+public class PackMethodNodeCache implements MethodNodeCache {
+    private static final String ASYNC_PREFIX = "async:";
+    private final PackFile pack;
+    private final AstIO astIO;
+    private final Map<MethodReference, Item> cache = new HashMap<>();
+    private final Map<MethodReference, AsyncItem> asyncCache = new HashMap<>();
+    private final Set<MethodReference> newMethods = new LinkedHashSet<>();
+    private final Set<MethodReference> newAsyncMethods = new LinkedHashSet<>();
+
+    public PackMethodNodeCache(File directory, ReferenceCache referenceCache, SymbolTable symbolTable,
+            SymbolTable fileTable, SymbolTable variableTable) {
+        pack = new PackFile(directory, "ast");
+        astIO = new AstIO(referenceCache, symbolTable, fileTable, variableTable);
+        try {
+            pack.open();
+        } catch (IOException e) {
+            // pack is broken, start with empty cache
+        }
+    }
+
+    @Override
+    public synchronized AstCacheEntry get(MethodReference methodReference, CacheStatus cacheStatus) {
+        Item item = cache.get(methodReference);
+        if (item == null) {
+            item = new Item();
+            cache.put(methodReference, item);
+            InputStream stream = pack.read(methodReference.toString());
+            if (stream != null) {
+                try {
+                    VarDataInput input = new VarDataInput(stream);
+                    if (!checkIfDependenciesChanged(input, cacheStatus)) {
+                        RegularMethodNode node = astIO.read(input, methodReference);
+                        ControlFlowEntry[] cfg = astIO.readControlFlow(input);
+                        item.entry = new AstCacheEntry(node, cfg);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // we could not read program, just leave it empty
+                }
+            }
+        }
+        return item.entry;
+    }
+
+    @Override
+    public synchronized void store(MethodReference methodReference, AstCacheEntry entry,
+            Supplier<String[]> dependencies) {
+        Item item = new Item();
+        item.entry = entry;
+        item.dependencies = dependencies.get().clone();
+        cache.put(methodReference, item);
+        newMethods.add(methodReference);
+    }
+
+    @Override
+    public synchronized AsyncMethodNode getAsync(MethodReference methodReference, CacheStatus cacheStatus) {
+        AsyncItem item = asyncCache.get(methodReference);
+        if (item == null) {
+            item = new AsyncItem();
+            asyncCache.put(methodReference, item);
+            InputStream stream = pack.read(ASYNC_PREFIX + methodReference);
+            if (stream != null) {
+                try {
+                    VarDataInput input = new VarDataInput(stream);
+                    if (!checkIfDependenciesChanged(input, cacheStatus)) {
+                        item.node = astIO.readAsync(input, methodReference);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // we could not read program, just leave it empty
+                }
+            }
+        }
+        return item.node;
+    }
+
+    @Override
+    public synchronized void storeAsync(MethodReference methodReference, AsyncMethodNode node,
+            Supplier<String[]> dependencies) {
+        AsyncItem item = new AsyncItem();
+        item.node = node;
+        item.dependencies = dependencies.get().clone();
+        asyncCache.put(methodReference, item);
+        newAsyncMethods.add(methodReference);
+    }
+
+    public synchronized void flush() throws IOException {
+        for (MethodReference method : newMethods) {
+            Item item = cache.get(method);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            VarDataOutput output = new VarDataOutput(bytes);
+            writeDependencies(output, item.dependencies);
+            astIO.write(output, item.entry.method);
+            astIO.write(output, item.entry.cfg);
+            pack.write(method.toString(), bytes.toByteArray());
+        }
+        for (MethodReference method : newAsyncMethods) {
+            AsyncItem item = asyncCache.get(method);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            VarDataOutput output = new VarDataOutput(bytes);
+            writeDependencies(output, item.dependencies);
+            astIO.writeAsync(output, item.node);
+            pack.write(ASYNC_PREFIX + method, bytes.toByteArray());
+        }
+        newMethods.clear();
+        newAsyncMethods.clear();
+        pack.commit();
+        pack.close();
+    }
+
+    static boolean checkIfDependenciesChanged(VarDataInput input, CacheStatus cacheStatus) throws IOException {
+        int depCount = input.readUnsigned();
+        for (int i = 0; i < depCount; ++i) {
+            String depClass = input.read();
+            if (cacheStatus.isStaleClass(depClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void writeDependencies(VarDataOutput output, String[] dependencies) throws IOException {
+        output.writeUnsigned(dependencies.length);
+        for (String dependency : dependencies) {
+            output.write(dependency);
+        }
+    }
+
+    private static class Item {
+        AstCacheEntry entry;
+        String[] dependencies;
+    }
+
+    private static class AsyncItem {
+        AsyncMethodNode node;
+        String[] dependencies;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ProgramCache;
+import org.teavm.model.ReferenceCache;
+
+/**
+ * Program cache that keeps all methods in a single {@link PackFile} instead of a file per method,
+ * like {@link DiskProgramCache} does.
+ */
+public class PackProgramCache implements ProgramCache {
+    private PackFile pack;
+    private ProgramIO programIO;
+    private Map<MethodReference, Item> cache = new HashMap<>();
+    private Set<MethodReference> newMethods = new LinkedHashSet<>();
+
+    public PackProgramCache(File directory, ReferenceCache referenceCache, SymbolTable symbolTable,
+            SymbolTable fileTable, SymbolTable variableTable) {
+        pack = new PackFile(directory, "programs");
+        programIO = new ProgramIO(referenceCache, symbolTable, fileTable, variableTable);
+        try {
+            pack.open();
+        } catch (IOException e) {
+            // pack is broken, start with empty cache
+        }
+    }
+
+    @Override
+    public synchronized Program get(MethodReference method, CacheStatus cacheStatus) {
+        Item item = cache.get(method);
+        if (item == null) {
+            item = new Item();
+            cache.put(method, item);
+            InputStream stream = pack.read(method.toString());
+            if (stream != null) {
+                try {
+                    VarDataInput input = new VarDataInput(stream);
+                    if (!PackMethodNodeCache.checkIfDependenciesChanged(input, cacheStatus)) {
+                        item.program = programIO.read(input);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // we could not read program, just leave it empty
+                }
+            }
+        }
+        return item.program;
+    }
+
+    @Override
+    public synchronized void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
+        Item item = new Item();
+        cache.put(method, item);
+        item.program = program;
+        item.dependencies = dependencies.get().clone();
+        newMethods.add(method);
+    }
+
+    public synchronized void flush() throws IOException {
+        for (MethodReference method : newMethods) {
+            Item item = cache.get(method);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            VarDataOutput output = new VarDataOutput(bytes);
+            PackMethodNodeCache.writeDependencies(output, item.dependencies);
+            programIO.write(item.program, output);
+            pack.write(method.toString(), bytes.toByteArray());
+        }
+        newMethods.clear();
+        pack.commit();
+        pack.close();
+    }
+
+    static class Item {
+        Program program;
+        String[] dependencies;
+    }
+}
@@ -167,18 +167,29 @@ class WasmValueImpl extends Value {
     }
 
     private Promise<String> decodeString(ClassLayout cls, int address) {
+        var charactersOffset = -1;
+        var coderOffset = -1;
         for (var field : cls.instanceFields()) {
             if (field.name().equals("characters") && field.type() == FieldType.OBJECT) {
-                return callFrame.getMemory(address + field.address(), 4).thenAsync(data -> {
-                    var charsAddress = readInt(data, 0);
-                    return decodeChars(charsAddress);
-                });
+                charactersOffset = field.address();
+            } else if (field.name().equals("coder") && field.type() == FieldType.BYTE) {
+                coderOffset = field.address();
             }
         }
-        return null;
+        if (charactersOffset < 0) {
+            return null;
+        }
+        var finalCharactersOffset = charactersOffset;
+        var finalCoderOffset = coderOffset;
+        var size = Math.max(charactersOffset + 4, coderOffset + 1);
+        return callFrame.getMemory(address, size).thenAsync(data -> {
+            var charsAddress = readInt(data, finalCharactersOffset);
+            var coder = finalCoderOffset >= 0 ? data[finalCoderOffset] : -1;
+            return decodeChars(charsAddress, coder);
+        });
     }
 
-    private Promise<String> decodeChars(int address) {
+    private Promise<String> decodeChars(int address, int coder) {
         return callFrame.getMemory(address, 12).thenAsync(data -> {
             if (data == null) {
                 return null;
@@ -193,17 +204,27 @@ class WasmValueImpl extends Value {
                 return null;
             }
             var primitiveType = ((PrimitiveLayout) elementType).primitiveType();
-            if (primitiveType != PrimitiveType.CHARACTER) {
+            var length = readInt(data, 8);
+            boolean latin1;
+            if (primitiveType == PrimitiveType.CHARACTER) {
+                latin1 = false;
+            } else if (primitiveType == PrimitiveType.BYTE && coder >= 0) {
+                latin1 = coder == 0;
+                if (!latin1) {
+                    length /= 2;
+                }
+            } else {
                 return null;
             }
-            var length = readInt(data, 8);
-            return callFrame.getMemory(address + 12, length * 2).then(charsData -> {
+            var charCount = length;
+            return callFrame.getMemory(address + 12, latin1 ? length : length * 2).then(charsData -> {
                 if (charsData == null) {
                     return null;
                 }
                 var sb = new StringBuilder("\"");
-                for (var i = 0; i < length; ++i) {
-                    appendChar(sb, (char) readShort(charsData, i * 2));
+                for (var i = 0; i < charCount; ++i) {
+                    var c = latin1 ? (char) (charsData[i] & 0xFF) : (char) readShort(charsData, i * 2);
+                    appendChar(sb, c);
                 }
                 sb.append("\"");
                 return sb.toString();
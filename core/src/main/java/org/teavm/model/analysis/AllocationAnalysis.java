@@ -0,0 +1,360 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntSet;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.BasicBlockReader;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReference;
+import org.teavm.model.Instruction;
+import org.teavm.model.ListableClassReaderSource;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHandle;
+import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.RuntimeConstant;
+import org.teavm.model.ValueType;
+import org.teavm.model.VariableReader;
+import org.teavm.model.instructions.AbstractInstructionReader;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BoundCheckInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.NullCheckInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.transformation.BoundCheckElimination;
+import org.teavm.model.transformation.BoundCheckInsertion;
+import org.teavm.model.transformation.NullCheckFilter;
+import org.teavm.model.transformation.NullCheckInsertion;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * <p>Finds methods that can never reach the garbage collector. A method may allocate when it creates
+ * an object or an array, initializes a class, enters a monitor, or may throw an exception, since throwing
+ * creates the exception object. Virtual calls and calls to methods without a program are considered
+ * allocating as well.</p>
+ *
+ * <p>Low-level targets make null and bound checks explicit before optimizations, so field and array
+ * accesses can only throw through these checks. The analysis inserts them into a copy of the program
+ * the same way, removes those that can never fail, and considers the method allocating only if a check
+ * remains. Integer division may throw as well, unless the divisor is a non-zero constant.</p>
+ *
+ * <p>All methods start as non-allocating, and the allocating ones are propagated to their callers,
+ * so recursive methods get a sound result too.</p>
+ */
+public class AllocationAnalysis implements AllocationInfo {
+    private static final MethodDescriptor CLINIT = new MethodDescriptor("<clinit>", void.class);
+    private ListableClassReaderSource classes;
+    private Set<MethodReference> nonAllocatingMethods = new HashSet<>();
+    private Map<MethodReference, MethodReference> resolvedMethods = new HashMap<>();
+
+    public AllocationAnalysis(ListableClassReaderSource classes) {
+        this.classes = classes;
+    }
+
+    public void analyze() {
+        Map<MethodReference, MethodReader> methods = new HashMap<>();
+        for (String className : classes.getClassNames()) {
+            ClassReader cls = classes.get(className);
+            for (MethodReader method : cls.getMethods()) {
+                if (method.getProgram() != null) {
+                    methods.put(method.getReference(), method);
+                }
+            }
+        }
+
+        Map<MethodReference, Set<MethodReference>> callers = new HashMap<>();
+        Set<MethodReference> allocating = new HashSet<>();
+        Queue<MethodReference> queue = new ArrayDeque<>();
+        for (MethodReader method : methods.values()) {
+            AllocationReader reader = new AllocationReader(method);
+            if (!method.hasModifier(ElementModifier.SYNCHRONIZED) && !initializesClass(method)) {
+                for (BasicBlockReader block : method.getProgram().getBasicBlocks()) {
+                    block.readAllInstructions(reader);
+                    if (reader.allocates) {
+                        break;
+                    }
+                }
+                if (!reader.allocates) {
+                    reader.allocates = reader.dividesByUnknown() || (reader.hasChecks && hasFailingChecks(method));
+                }
+            } else {
+                reader.allocates = true;
+            }
+
+            if (!reader.allocates) {
+                for (MethodReference callee : reader.callees) {
+                    MethodReference resolved = resolvedMethods.computeIfAbsent(callee, this::resolve);
+                    if (resolved == null || !methods.containsKey(resolved)) {
+                        reader.allocates = true;
+                        break;
+                    }
+                    callers.computeIfAbsent(resolved, k -> new LinkedHashSet<>()).add(method.getReference());
+                }
+            }
+
+            if (reader.allocates) {
+                allocating.add(method.getReference());
+                queue.add(method.getReference());
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            MethodReference methodRef = queue.remove();
+            for (MethodReference caller : callers.getOrDefault(methodRef, Set.of())) {
+                if (allocating.add(caller)) {
+                    queue.add(caller);
+                }
+            }
+        }
+
+        for (MethodReference method : methods.keySet()) {
+            if (!allocating.contains(method)) {
+                nonAllocatingMethods.add(method);
+            }
+        }
+    }
+
+    @Override
+    public boolean mayAllocate(MethodReference method) {
+        MethodReference resolved = resolvedMethods.computeIfAbsent(method, this::resolve);
+        return resolved == null || !nonAllocatingMethods.contains(resolved);
+    }
+
+    private MethodReference resolve(MethodReference method) {
+        MethodReader reader = classes.resolve(method);
+        return reader != null ? reader.getReference() : null;
+    }
+
+    private boolean hasFailingChecks(MethodReader method) {
+        Program program = ProgramUtils.copy(method.getProgram());
+        new NullCheckInsertion(NullCheckFilter.EMPTY).transformProgram(program, method.getReference());
+        new BoundCheckInsertion().transformProgram(program, method.getReference());
+        new BoundCheckElimination().apply(program);
+        NullnessInformation nullness = NullnessInformation.build(program, method.getDescriptor());
+
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (instruction instanceof BoundCheckInstruction) {
+                    return true;
+                }
+                if (instruction instanceof NullCheckInstruction) {
+                    NullCheckInstruction nullCheck = (NullCheckInstruction) instruction;
+                    if (!nullness.isSynthesized(nullCheck.getReceiver())
+                            && !nullness.isNotNull(nullCheck.getValue())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean initializesClass(MethodReader method) {
+        if (method.getName().equals("<clinit>")) {
+            return false;
+        }
+        if (!method.getName().equals("<init>") && !method.hasModifier(ElementModifier.STATIC)) {
+            return false;
+        }
+        return hasClinit(method.getOwnerName());
+    }
+
+    private boolean hasClinit(String className) {
+        ClassReader cls = classes.get(className);
+        return cls == null || cls.getMethod(CLINIT) != null;
+    }
+
+    class AllocationReader extends AbstractInstructionReader {
+        private MethodReader method;
+        boolean allocates;
+        boolean hasChecks;
+        Set<MethodReference> callees = new LinkedHashSet<>();
+        private IntSet nonZeroConstants = new IntHashSet();
+        private IntArrayList divisors = new IntArrayList();
+
+        AllocationReader(MethodReader method) {
+            this.method = method;
+        }
+
+        boolean dividesByUnknown() {
+            for (int i = 0; i < divisors.size(); ++i) {
+                if (!nonZeroConstants.contains(divisors.get(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isThis(VariableReader variable) {
+            return variable.getIndex() == 0 && !method.hasModifier(ElementModifier.STATIC);
+        }
+
+        private boolean isForeignClass(String className) {
+            return !className.equals(method.getOwnerName()) && hasClinit(className);
+        }
+
+        @Override
+        public void integerConstant(VariableReader receiver, int cst) {
+            if (cst != 0) {
+                nonZeroConstants.add(receiver.getIndex());
+            }
+        }
+
+        @Override
+        public void longConstant(VariableReader receiver, long cst) {
+            if (cst != 0) {
+                nonZeroConstants.add(receiver.getIndex());
+            }
+        }
+
+        @Override
+        public void binary(BinaryOperation op, VariableReader receiver, VariableReader first, VariableReader second,
+                NumericOperandType type) {
+            if ((op == BinaryOperation.DIVIDE || op == BinaryOperation.MODULO)
+                    && (type == NumericOperandType.INT || type == NumericOperandType.LONG)) {
+                divisors.add(second.getIndex());
+            }
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, ValueType targetType) {
+            allocates = true;
+        }
+
+        @Override
+        public void raise(VariableReader exception) {
+            allocates = true;
+        }
+
+        @Override
+        public void createArray(VariableReader receiver, ValueType itemType, VariableReader size) {
+            allocates = true;
+        }
+
+        @Override
+        public void createArray(VariableReader receiver, ValueType itemType,
+                List<? extends VariableReader> dimensions) {
+            allocates = true;
+        }
+
+        @Override
+        public void create(VariableReader receiver, String type) {
+            allocates = true;
+        }
+
+        @Override
+        public void getField(VariableReader receiver, VariableReader instance, FieldReference field,
+                ValueType fieldType) {
+            accessField(instance, field);
+        }
+
+        @Override
+        public void putField(VariableReader instance, FieldReference field, VariableReader value,
+                ValueType fieldType) {
+            accessField(instance, field);
+        }
+
+        private void accessField(VariableReader instance, FieldReference field) {
+            if (instance != null) {
+                hasChecks |= !isThis(instance);
+            } else if (isForeignClass(field.getClassName())) {
+                allocates = true;
+            }
+        }
+
+        @Override
+        public void cloneArray(VariableReader receiver, VariableReader array) {
+            allocates = true;
+        }
+
+        @Override
+        public void unwrapArray(VariableReader receiver, VariableReader array, ArrayElementType elementType) {
+            hasChecks = true;
+        }
+
+        @Override
+        public void getElement(VariableReader receiver, VariableReader array, VariableReader index,
+                ArrayElementType elementType) {
+            hasChecks = true;
+        }
+
+        @Override
+        public void putElement(VariableReader array, VariableReader index, VariableReader value,
+                ArrayElementType elementType) {
+            hasChecks = true;
+        }
+
+        @Override
+        public void invoke(VariableReader receiver, VariableReader instance, MethodReference method,
+                List<? extends VariableReader> arguments, InvocationType type) {
+            if (type != InvocationType.SPECIAL) {
+                allocates = true;
+            } else {
+                if (instance != null) {
+                    hasChecks |= !isThis(instance);
+                }
+                callees.add(method);
+            }
+        }
+
+        @Override
+        public void invokeDynamic(VariableReader receiver, VariableReader instance, MethodDescriptor method,
+                List<? extends VariableReader> arguments, MethodHandle bootstrapMethod,
+                List<RuntimeConstant> bootstrapArguments) {
+            allocates = true;
+        }
+
+        @Override
+        public void initClass(String className) {
+            allocates = true;
+        }
+
+        @Override
+        public void nullCheck(VariableReader receiver, VariableReader value) {
+            hasChecks = true;
+        }
+
+        @Override
+        public void monitorEnter(VariableReader objectRef) {
+            allocates = true;
+        }
+
+        @Override
+        public void monitorExit(VariableReader objectRef) {
+            allocates = true;
+        }
+
+        @Override
+        public void boundCheck(VariableReader receiver, VariableReader index, VariableReader array,
+                boolean lower) {
+            hasChecks = true;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import org.teavm.model.MethodReference;
+
+public interface AllocationInfo {
+    /**
+     * Tells whether a call to the given method may reach the garbage collector, either by allocating
+     * an object, by throwing an exception or by initializing a class.
+     *
+     * @param method method being called with {@link org.teavm.model.instructions.InvocationType#SPECIAL}.
+     */
+    boolean mayAllocate(MethodReference method);
+
+    AllocationInfo EMPTY = method -> true;
+}
@@ -136,12 +136,19 @@ public class ClassInitializerAnalysis implements ClassInitializerInfo {
         currentAnalyzedClass = previousClass;
         if (classStatuses.get(className) == BEING_ANALYZED) {
             classStatuses.put(className, isStatic ? STATIC : DYNAMIC);
-            if (isStatic && initializer != null) {
+            if (isStatic && initializer != null && !isEmpty(initializer)) {
                 order.add(className);
             }
         }
     }
 
+    // Single block with single instruction, which can only be `return`
+    private static boolean isEmpty(MethodReader method) {
+        var program = method.getProgram();
+        return program != null && program.basicBlockCount() == 1
+                && program.basicBlockAt(0).instructionCount() == 1;
+    }
+
     private boolean isDynamicInitializer(MethodInfo methodInfo, String className) {
         if (methodInfo.anyFieldModified) {
             return true;
@@ -0,0 +1,774 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.teavm.common.DominatorTree;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphUtils;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.TryCatchBlock;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AbstractInstructionVisitor;
+import org.teavm.model.instructions.ArrayLengthInstruction;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryBranchingInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BoundCheckInstruction;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.CastIntegerInstruction;
+import org.teavm.model.instructions.CastIntegerDirection;
+import org.teavm.model.instructions.ConstructArrayInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.NullCheckInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * <p>Computes ranges of <code>int</code> variables of a program in SSA form. Ranges of variables are refined by
+ * conditions of dominating branches, so that, for example, <code>i</code> is known to be in
+ * <code>[0; MAX_VALUE - 1]</code> in the body of <code>for (int i = 0; i &lt; n; ++i)</code>. Loop-carried
+ * phis are widened to guarantee termination and narrowed back afterwards.</p>
+ *
+ * <p>Besides numeric ranges, the analysis can prove that index is less than length of an array, either
+ * by a dominating comparison with <code>array.length</code>, by a dominating bound check or by deriving
+ * index from such variable with a non-positive offset.</p>
+ */
+public class IntegerRangeAnalysis {
+    private static final long MIN = Integer.MIN_VALUE;
+    private static final long MAX = Integer.MAX_VALUE;
+    private static final int MAX_ITERATIONS = 100;
+    private static final int WIDENING_THRESHOLD = 2;
+    private static final int MAX_DERIVATION_DEPTH = 4;
+
+    private Program program;
+    private DominatorTree domTree;
+    private long[] lower;
+    private long[] upper;
+    private Instruction[] definitions;
+    private BasicBlock[] definitionBlocks;
+    private int[] arrays;
+    private List<List<Constraint>> constraints;
+    private int[] blockOrder;
+
+    public IntegerRangeAnalysis(Program program) {
+        this.program = program;
+        int variableCount = program.variableCount();
+        lower = new long[variableCount];
+        upper = new long[variableCount];
+        definitions = new Instruction[variableCount];
+        definitionBlocks = new BasicBlock[variableCount];
+        arrays = new int[variableCount];
+        for (int i = 0; i < variableCount; ++i) {
+            arrays[i] = i;
+        }
+
+        Graph cfg = ProgramUtils.buildControlFlowGraph(program);
+        domTree = GraphUtils.buildDominatorTree(cfg);
+        blockOrder = reversePostOrder(cfg);
+        collectDefinitions();
+        collectConstraints(cfg);
+        computeRanges();
+    }
+
+    public long getLowerBound(Variable variable, BasicBlock block) {
+        return refine(variable.getIndex(), block.getIndex())[0];
+    }
+
+    public long getUpperBound(Variable variable, BasicBlock block) {
+        return refine(variable.getIndex(), block.getIndex())[1];
+    }
+
+    /**
+     * Checks whether <code>index &lt; array.length</code> holds whenever <code>block</code> is executed.
+     */
+    public boolean isLessThanLength(Variable index, Variable array, BasicBlock block) {
+        return isLessThanLength(index.getIndex(), arrays[array.getIndex()], block.getIndex(), MAX_DERIVATION_DEPTH);
+    }
+
+    private boolean isLessThanLength(int index, int array, int block, int depth) {
+        if (refine(index, block)[1] < lengthLowerBound(array)) {
+            return true;
+        }
+
+        Instruction definition = definitions[index];
+        if (definition instanceof BoundCheckInstruction) {
+            BoundCheckInstruction boundCheck = (BoundCheckInstruction) definition;
+            if (boundCheck.getArray() != null && arrays[boundCheck.getArray().getIndex()] == array) {
+                return true;
+            }
+        }
+
+        for (int b = block; b >= 0; b = domTree.immediateDominatorOf(b)) {
+            for (Constraint constraint : constraints.get(b)) {
+                if (constraint.variable != index || constraint.other < 0) {
+                    continue;
+                }
+                Long offset = lengthOffset(constraint.other, array);
+                if (offset == null) {
+                    continue;
+                }
+                if (constraint.relation == Relation.LESS && offset <= 0
+                        || constraint.relation == Relation.LESS_OR_EQUAL && offset <= -1) {
+                    return true;
+                }
+            }
+            if (b == 0) {
+                break;
+            }
+        }
+
+        if (depth > 0) {
+            if (definition instanceof AssignInstruction) {
+                int assignee = ((AssignInstruction) definition).getAssignee().getIndex();
+                return isLessThanLength(assignee, array, definitionBlocks[index].getIndex(), depth - 1);
+            }
+            if (definition instanceof BinaryInstruction) {
+                BinaryInstruction binary = (BinaryInstruction) definition;
+                if (binary.getOperandType() != NumericOperandType.INT) {
+                    return false;
+                }
+                int first = binary.getFirstOperand().getIndex();
+                int second = binary.getSecondOperand().getIndex();
+                int defBlock = definitionBlocks[index].getIndex();
+                switch (binary.getOperation()) {
+                    case ADD:
+                        return isNonPositiveOffset(first, second, defBlock, false)
+                                && isLessThanLength(first, array, defBlock, depth - 1)
+                                || isNonPositiveOffset(second, first, defBlock, false)
+                                && isLessThanLength(second, array, defBlock, depth - 1);
+                    case SUBTRACT:
+                        return isNonPositiveOffset(first, second, defBlock, true)
+                                && isLessThanLength(first, array, defBlock, depth - 1);
+                    default:
+                        break;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isNonPositiveOffset(int base, int offset, int block, boolean negated) {
+        long[] baseRange = refine(base, block);
+        long[] offsetRange = refine(offset, block);
+        if (negated) {
+            return offsetRange[0] >= 0 && baseRange[0] - offsetRange[1] >= MIN;
+        } else {
+            return offsetRange[1] <= 0 && baseRange[0] + offsetRange[0] >= MIN;
+        }
+    }
+
+    private Long lengthOffset(int variable, int array) {
+        if (isLengthOf(variable, array)) {
+            return 0L;
+        }
+        Instruction definition = definitions[variable];
+        if (definition instanceof BinaryInstruction) {
+            BinaryInstruction binary = (BinaryInstruction) definition;
+            if (binary.getOperandType() != NumericOperandType.INT) {
+                return null;
+            }
+            int first = binary.getFirstOperand().getIndex();
+            int second = binary.getSecondOperand().getIndex();
+            switch (binary.getOperation()) {
+                case ADD:
+                    if (isLengthOf(first, array)) {
+                        return upper[second];
+                    } else if (isLengthOf(second, array)) {
+                        return upper[first];
+                    }
+                    break;
+                case SUBTRACT:
+                    if (isLengthOf(first, array) && lower[second] >= 0) {
+                        return -lower[second];
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return null;
+    }
+
+    private boolean isLengthOf(int variable, int array) {
+        Instruction definition = definitions[variable];
+        if (definition instanceof ArrayLengthInstruction) {
+            return arrays[((ArrayLengthInstruction) definition).getArray().getIndex()] == array;
+        }
+        Instruction arrayDefinition = definitions[array];
+        if (arrayDefinition instanceof ConstructArrayInstruction) {
+            return ((ConstructArrayInstruction) arrayDefinition).getSize().getIndex() == variable;
+        }
+        return false;
+    }
+
+    private long lengthLowerBound(int array) {
+        Instruction definition = definitions[array];
+        if (definition instanceof ConstructArrayInstruction) {
+            return Math.max(0, lower[((ConstructArrayInstruction) definition).getSize().getIndex()]);
+        }
+        return 0;
+    }
+
+    private long lengthUpperBound(int array) {
+        Instruction definition = definitions[array];
+        if (definition instanceof ConstructArrayInstruction) {
+            long result = upper[((ConstructArrayInstruction) definition).getSize().getIndex()];
+            return result >= 0 ? result : MAX;
+        }
+        return MAX;
+    }
+
+    private void collectDefinitions() {
+        DefinitionExtractor definitionExtractor = new DefinitionExtractor();
+        for (int index : blockOrder) {
+            BasicBlock block = program.basicBlockAt(index);
+            for (Phi phi : block.getPhis()) {
+                definitionBlocks[phi.getReceiver().getIndex()] = block;
+            }
+            for (Instruction instruction : block) {
+                instruction.acceptVisitor(definitionExtractor);
+                for (Variable variable : definitionExtractor.getDefinedVariables()) {
+                    definitions[variable.getIndex()] = instruction;
+                    definitionBlocks[variable.getIndex()] = block;
+                }
+                if (instruction instanceof AssignInstruction) {
+                    AssignInstruction assign = (AssignInstruction) instruction;
+                    arrays[assign.getReceiver().getIndex()] = arrays[assign.getAssignee().getIndex()];
+                } else if (instruction instanceof NullCheckInstruction) {
+                    NullCheckInstruction nullCheck = (NullCheckInstruction) instruction;
+                    arrays[nullCheck.getReceiver().getIndex()] = arrays[nullCheck.getValue().getIndex()];
+                } else if (instruction instanceof UnwrapArrayInstruction) {
+                    UnwrapArrayInstruction unwrap = (UnwrapArrayInstruction) instruction;
+                    arrays[unwrap.getReceiver().getIndex()] = arrays[unwrap.getArray().getIndex()];
+                }
+            }
+        }
+
+        for (int i = 0; i < lower.length; ++i) {
+            if (definitionBlocks[i] == null || (definitions[i] != null && !isTracked(definitions[i]))) {
+                lower[i] = MIN;
+                upper[i] = MAX;
+            } else {
+                lower[i] = MAX + 1;
+                upper[i] = MIN - 1;
+            }
+        }
+    }
+
+    private static boolean isTracked(Instruction instruction) {
+        return instruction instanceof IntegerConstantInstruction || instruction instanceof AssignInstruction
+                || instruction instanceof ArrayLengthInstruction || instruction instanceof CastIntegerInstruction
+                || instruction instanceof BoundCheckInstruction || instruction instanceof BinaryInstruction;
+    }
+
+    private void collectConstraints(Graph cfg) {
+        constraints = new ArrayList<>(program.basicBlockCount());
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            constraints.add(new ArrayList<>());
+        }
+        for (int index : blockOrder) {
+            BasicBlock block = program.basicBlockAt(index);
+            Instruction last = block.getLastInstruction();
+            if (last instanceof BranchingInstruction) {
+                BranchingInstruction branching = (BranchingInstruction) last;
+                Relation relation = Relation.of(branching.getCondition());
+                if (relation == null) {
+                    continue;
+                }
+                int operand = branching.getOperand().getIndex();
+                Instruction definition = definitions[operand];
+                if (definition instanceof BinaryInstruction
+                        && ((BinaryInstruction) definition).getOperation() == BinaryOperation.COMPARE
+                        && ((BinaryInstruction) definition).getOperandType() == NumericOperandType.INT) {
+                    BinaryInstruction compare = (BinaryInstruction) definition;
+                    addBranchConstraints(cfg, block, branching.getConsequent(), branching.getAlternative(),
+                            compare.getFirstOperand().getIndex(), relation, compare.getSecondOperand().getIndex(),
+                            0);
+                }
+                addBranchConstraints(cfg, block, branching.getConsequent(), branching.getAlternative(),
+                        operand, relation, -1, 0);
+            } else if (last instanceof BinaryBranchingInstruction) {
+                BinaryBranchingInstruction branching = (BinaryBranchingInstruction) last;
+                Relation relation;
+                switch (branching.getCondition()) {
+                    case EQUAL:
+                        relation = Relation.EQUAL;
+                        break;
+                    case NOT_EQUAL:
+                        relation = Relation.NOT_EQUAL;
+                        break;
+                    default:
+                        continue;
+                }
+                addBranchConstraints(cfg, block, branching.getConsequent(), branching.getAlternative(),
+                        branching.getFirstOperand().getIndex(), relation, branching.getSecondOperand().getIndex(),
+                        0);
+            }
+        }
+    }
+
+    private void addBranchConstraints(Graph cfg, BasicBlock source, BasicBlock consequent, BasicBlock alternative,
+            int first, Relation relation, int second, int constant) {
+        if (consequent == alternative) {
+            return;
+        }
+        addConstraints(cfg, source, consequent, first, relation, second, constant);
+        addConstraints(cfg, source, alternative, first, relation.negate(), second, constant);
+    }
+
+    private void addConstraints(Graph cfg, BasicBlock source, BasicBlock target, int first, Relation relation,
+            int second, int constant) {
+        if (cfg.incomingEdgesCount(target.getIndex()) != 1) {
+            return;
+        }
+        for (TryCatchBlock tryCatch : source.getTryCatchBlocks()) {
+            if (tryCatch.getHandler() == target) {
+                return;
+            }
+        }
+        List<Constraint> targetConstraints = constraints.get(target.getIndex());
+        targetConstraints.add(new Constraint(first, relation, second, constant));
+        if (second >= 0) {
+            targetConstraints.add(new Constraint(second, relation.flip(), first, 0));
+        }
+    }
+
+    private void computeRanges() {
+        int[] updateCount = new int[lower.length];
+        RangeEvaluator evaluator = new RangeEvaluator();
+        boolean changed = true;
+        int iterations = 0;
+        while (changed) {
+            if (++iterations > MAX_ITERATIONS) {
+                Arrays.fill(lower, MIN);
+                Arrays.fill(upper, MAX);
+                return;
+            }
+            changed = false;
+            for (int index : blockOrder) {
+                BasicBlock block = program.basicBlockAt(index);
+                for (Phi phi : block.getPhis()) {
+                    long[] range = evaluatePhi(phi);
+                    int receiver = phi.getReceiver().getIndex();
+                    if (++updateCount[receiver] > WIDENING_THRESHOLD && !isEmpty(receiver)) {
+                        if (range[0] < lower[receiver]) {
+                            range[0] = MIN;
+                        }
+                        if (range[1] > upper[receiver]) {
+                            range[1] = MAX;
+                        }
+                    }
+                    changed |= join(receiver, range[0], range[1]);
+                }
+                evaluator.block = index;
+                for (Instruction instruction : block) {
+                    evaluator.changed = false;
+                    instruction.acceptVisitor(evaluator);
+                    changed |= evaluator.changed;
+                }
+            }
+        }
+
+        evaluator.narrowing = true;
+        for (int i = 0; i < 2; ++i) {
+            for (int index : blockOrder) {
+                BasicBlock block = program.basicBlockAt(index);
+                for (Phi phi : block.getPhis()) {
+                    long[] range = evaluatePhi(phi);
+                    narrow(phi.getReceiver().getIndex(), range[0], range[1]);
+                }
+                evaluator.block = index;
+                for (Instruction instruction : block) {
+                    instruction.acceptVisitor(evaluator);
+                }
+            }
+        }
+    }
+
+    private long[] evaluatePhi(Phi phi) {
+        long min = MAX + 1;
+        long max = MIN - 1;
+        for (Incoming incoming : phi.getIncomings()) {
+            long[] range = refine(incoming.getValue().getIndex(), incoming.getSource().getIndex());
+            if (range[0] > range[1]) {
+                continue;
+            }
+            min = Math.min(min, range[0]);
+            max = Math.max(max, range[1]);
+        }
+        return new long[] { min, max };
+    }
+
+    private boolean isEmpty(int variable) {
+        return lower[variable] > upper[variable];
+    }
+
+    private boolean join(int variable, long min, long max) {
+        if (min > max) {
+            return false;
+        }
+        if (isEmpty(variable)) {
+            lower[variable] = min;
+            upper[variable] = max;
+            return true;
+        }
+        boolean changed = false;
+        if (min < lower[variable]) {
+            lower[variable] = min;
+            changed = true;
+        }
+        if (max > upper[variable]) {
+            upper[variable] = max;
+            changed = true;
+        }
+        return changed;
+    }
+
+    private void narrow(int variable, long min, long max) {
+        lower[variable] = Math.max(lower[variable], min);
+        upper[variable] = Math.min(upper[variable], max);
+    }
+
+    private long[] refine(int variable, int block) {
+        long min = lower[variable];
+        long max = upper[variable];
+        for (int b = block; b >= 0; b = domTree.immediateDominatorOf(b)) {
+            for (Constraint constraint : constraints.get(b)) {
+                if (constraint.variable != variable) {
+                    continue;
+                }
+                long otherMin;
+                long otherMax;
+                if (constraint.other >= 0) {
+                    otherMin = lower[constraint.other];
+                    otherMax = upper[constraint.other];
+                    if (otherMin > otherMax) {
+                        continue;
+                    }
+                } else {
+                    otherMin = constraint.constant;
+                    otherMax = constraint.constant;
+                }
+                switch (constraint.relation) {
+                    case LESS:
+                        max = Math.min(max, otherMax - 1);
+                        break;
+                    case LESS_OR_EQUAL:
+                        max = Math.min(max, otherMax);
+                        break;
+                    case GREATER:
+                        min = Math.max(min, otherMin + 1);
+                        break;
+                    case GREATER_OR_EQUAL:
+                        min = Math.max(min, otherMin);
+                        break;
+                    case EQUAL:
+                        min = Math.max(min, otherMin);
+                        max = Math.min(max, otherMax);
+                        break;
+                    case NOT_EQUAL:
+                        break;
+                }
+            }
+            if (b == 0) {
+                break;
+            }
+        }
+        return new long[] { min, max };
+    }
+
+    private int[] reversePostOrder(Graph cfg) {
+        int[] order = new int[cfg.size()];
+        int index = cfg.size();
+        boolean[] visited = new boolean[cfg.size()];
+        int[] stack = new int[cfg.size()];
+        int[] edgeIndex = new int[cfg.size()];
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        while (top > 0) {
+            int node = stack[top - 1];
+            int[] successors = cfg.outgoingEdges(node);
+            if (edgeIndex[node] < successors.length) {
+                int successor = successors[edgeIndex[node]++];
+                if (!visited[successor]) {
+                    visited[successor] = true;
+                    stack[top++] = successor;
+                }
+            } else {
+                order[--index] = node;
+                --top;
+            }
+        }
+        return Arrays.copyOfRange(order, index, order.length);
+    }
+
+    class RangeEvaluator extends AbstractInstructionVisitor {
+        int block;
+        boolean changed;
+        boolean narrowing;
+
+        private void result(Variable receiver, long min, long max) {
+            if (min < MIN || max > MAX) {
+                min = MIN;
+                max = MAX;
+            }
+            if (narrowing) {
+                narrow(receiver.getIndex(), min, max);
+            } else {
+                changed |= join(receiver.getIndex(), min, max);
+            }
+        }
+
+        private void full(Variable receiver) {
+            result(receiver, MIN, MAX);
+        }
+
+        @Override
+        public void visit(IntegerConstantInstruction insn) {
+            result(insn.getReceiver(), insn.getConstant(), insn.getConstant());
+        }
+
+        @Override
+        public void visit(AssignInstruction insn) {
+            long[] range = refine(insn.getAssignee().getIndex(), block);
+            if (range[0] <= range[1]) {
+                result(insn.getReceiver(), range[0], range[1]);
+            }
+        }
+
+        @Override
+        public void visit(ArrayLengthInstruction insn) {
+            int array = arrays[insn.getArray().getIndex()];
+            result(insn.getReceiver(), lengthLowerBound(array), lengthUpperBound(array));
+        }
+
+        @Override
+        public void visit(CastIntegerInstruction insn) {
+            if (insn.getDirection() == CastIntegerDirection.TO_INTEGER) {
+                long[] range = refine(insn.getValue().getIndex(), block);
+                if (range[0] <= range[1]) {
+                    result(insn.getReceiver(), range[0], range[1]);
+                }
+                return;
+            }
+            switch (insn.getTargetType()) {
+                case BYTE:
+                    result(insn.getReceiver(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+                    break;
+                case SHORT:
+                    result(insn.getReceiver(), Short.MIN_VALUE, Short.MAX_VALUE);
+                    break;
+                case CHAR:
+                    result(insn.getReceiver(), Character.MIN_VALUE, Character.MAX_VALUE);
+                    break;
+            }
+        }
+
+        @Override
+        public void visit(BoundCheckInstruction insn) {
+            long[] range = refine(insn.getIndex().getIndex(), block);
+            if (range[0] > range[1]) {
+                return;
+            }
+            long min = range[0];
+            long max = range[1];
+            if (insn.isLower()) {
+                min = Math.max(min, 0);
+            }
+            if (insn.getArray() != null) {
+                max = Math.min(max, lengthUpperBound(arrays[insn.getArray().getIndex()]) - 1);
+            }
+            if (min <= max) {
+                result(insn.getReceiver(), min, max);
+            }
+        }
+
+        @Override
+        public void visit(BinaryInstruction insn) {
+            if (insn.getOperandType() != NumericOperandType.INT) {
+                if (insn.getOperation() == BinaryOperation.COMPARE) {
+                    result(insn.getReceiver(), -1, 1);
+                } else {
+                    full(insn.getReceiver());
+                }
+                return;
+            }
+            long[] first = refine(insn.getFirstOperand().getIndex(), block);
+            long[] second = refine(insn.getSecondOperand().getIndex(), block);
+            if (first[0] > first[1] || second[0] > second[1]) {
+                return;
+            }
+            long a = first[0];
+            long b = first[1];
+            long c = second[0];
+            long d = second[1];
+            switch (insn.getOperation()) {
+                case ADD:
+                    result(insn.getReceiver(), a + c, b + d);
+                    break;
+                case SUBTRACT:
+                    result(insn.getReceiver(), a - d, b - c);
+                    break;
+                case MULTIPLY: {
+                    long p = a * c;
+                    long q = a * d;
+                    long r = b * c;
+                    long s = b * d;
+                    result(insn.getReceiver(), Math.min(Math.min(p, q), Math.min(r, s)),
+                            Math.max(Math.max(p, q), Math.max(r, s)));
+                    break;
+                }
+                case DIVIDE:
+                    if (c > 0) {
+                        result(insn.getReceiver(), Math.min(a / c, a / d), Math.max(b / c, b / d));
+                    } else {
+                        full(insn.getReceiver());
+                    }
+                    break;
+                case MODULO:
+                    if (c > 0) {
+                        long bound = d - 1;
+                        result(insn.getReceiver(), a >= 0 ? 0 : Math.max(-bound, a), b <= 0 ? 0 : Math.min(bound, b));
+                    } else {
+                        full(insn.getReceiver());
+                    }
+                    break;
+                case COMPARE:
+                    result(insn.getReceiver(), -1, 1);
+                    break;
+                case AND:
+                    if (a >= 0 && c >= 0) {
+                        result(insn.getReceiver(), 0, Math.min(b, d));
+                    } else if (a >= 0) {
+                        result(insn.getReceiver(), 0, b);
+                    } else if (c >= 0) {
+                        result(insn.getReceiver(), 0, d);
+                    } else {
+                        full(insn.getReceiver());
+                    }
+                    break;
+                case SHIFT_RIGHT:
+                    if (c == d && c >= 0 && c < 32) {
+                        result(insn.getReceiver(), a >> c, b >> c);
+                    } else if (a >= 0) {
+                        result(insn.getReceiver(), 0, b);
+                    } else {
+                        full(insn.getReceiver());
+                    }
+                    break;
+                case SHIFT_RIGHT_UNSIGNED:
+                    if (c == d && c > 0 && c < 32) {
+                        result(insn.getReceiver(), a >= 0 ? a >> c : 0, a >= 0 ? b >> c : MAX >> (c - 1));
+                    } else if (a >= 0) {
+                        result(insn.getReceiver(), 0, b);
+                    } else {
+                        full(insn.getReceiver());
+                    }
+                    break;
+                default:
+                    full(insn.getReceiver());
+                    break;
+            }
+        }
+    }
+
+    enum Relation {
+        LESS,
+        LESS_OR_EQUAL,
+        GREATER,
+        GREATER_OR_EQUAL,
+        EQUAL,
+        NOT_EQUAL;
+
+        static Relation of(BranchingCondition condition) {
+            switch (condition) {
+                case LESS:
+                    return LESS;
+                case LESS_OR_EQUAL:
+                    return LESS_OR_EQUAL;
+                case GREATER:
+                    return GREATER;
+                case GREATER_OR_EQUAL:
+                    return GREATER_OR_EQUAL;
+                case EQUAL:
+                    return EQUAL;
+                case NOT_EQUAL:
+                    return NOT_EQUAL;
+                default:
+                    return null;
+            }
+        }
+
+        Relation negate() {
+            switch (this) {
+                case LESS:
+                    return GREATER_OR_EQUAL;
+                case LESS_OR_EQUAL:
+                    return GREATER;
+                case GREATER:
+                    return LESS_OR_EQUAL;
+                case GREATER_OR_EQUAL:
+                    return LESS;
+                case EQUAL:
+                    return NOT_EQUAL;
+                default:
+                    return EQUAL;
+            }
+        }
+
+        Relation flip() {
+            switch (this) {
+                case LESS:
+                    return GREATER;
+                case LESS_OR_EQUAL:
+                    return GREATER_OR_EQUAL;
+                case GREATER:
+                    return LESS;
+                case GREATER_OR_EQUAL:
+                    return LESS_OR_EQUAL;
+                default:
+                    return this;
+            }
+        }
+    }
+
+    static class Constraint {
+        final int variable;
+        final Relation relation;
+        final int other;
+        final int constant;
+
+        Constraint(int variable, Relation relation, int other, int constant) {
+            this.variable = variable;
+            this.relation = relation;
+            this.other = other;
+            this.constant = constant;
+        }
+    }
+}
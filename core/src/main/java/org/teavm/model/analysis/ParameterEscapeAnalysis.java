@@ -0,0 +1,296 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.teavm.common.DisjointSet;
+import org.teavm.model.BasicBlockReader;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReference;
+import org.teavm.model.IncomingReader;
+import org.teavm.model.ListableClassReaderSource;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHandle;
+import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+import org.teavm.model.PhiReader;
+import org.teavm.model.ProgramReader;
+import org.teavm.model.RuntimeConstant;
+import org.teavm.model.ValueType;
+import org.teavm.model.VariableReader;
+import org.teavm.model.instructions.AbstractInstructionReader;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.InvocationType;
+
+/**
+ * <p>Computes escape summaries of method parameters over the whole call graph. A parameter escapes when
+ * an object passed to it may outlive the call (it is returned, thrown, stored to a field or an array,
+ * used as a monitor or passed to a parameter that escapes), or when a reference may be stored into one
+ * of its fields.</p>
+ *
+ * <p>Summaries start optimistic and are recomputed for callers of every method whose summary changes,
+ * so recursive methods get a sound result too. Virtual calls and calls to methods without a program
+ * make all of their arguments escape.</p>
+ */
+public class ParameterEscapeAnalysis implements ParameterEscapeInfo {
+    private ListableClassReaderSource classes;
+    private Map<MethodReference, boolean[]> summaries = new HashMap<>();
+    private Map<MethodReference, MethodReference> resolvedMethods = new HashMap<>();
+
+    public ParameterEscapeAnalysis(ListableClassReaderSource classes) {
+        this.classes = classes;
+    }
+
+    public void analyze() {
+        Map<MethodReference, MethodReader> methods = new HashMap<>();
+        for (String className : classes.getClassNames()) {
+            ClassReader cls = classes.get(className);
+            for (MethodReader method : cls.getMethods()) {
+                if (method.getProgram() != null) {
+                    methods.put(method.getReference(), method);
+                    summaries.put(method.getReference(), new boolean[method.parameterCount() + 1]);
+                }
+            }
+        }
+
+        Map<MethodReference, Set<MethodReference>> callers = new HashMap<>();
+        Set<MethodReference> visited = new HashSet<>();
+        Queue<MethodReference> queue = new ArrayDeque<>(methods.keySet());
+        Set<MethodReference> queued = new HashSet<>(methods.keySet());
+        while (!queue.isEmpty()) {
+            MethodReference methodRef = queue.remove();
+            queued.remove(methodRef);
+            MethodReader method = methods.get(methodRef);
+            Set<MethodReference> callees = visited.add(methodRef) ? new LinkedHashSet<>() : null;
+            boolean[] escaping = findEscapingVariables(method.getProgram(), this, false, callees);
+            if (callees != null) {
+                for (MethodReference callee : callees) {
+                    MethodReference resolved = resolvedMethods.get(callee);
+                    if (resolved != null) {
+                        callers.computeIfAbsent(resolved, k -> new LinkedHashSet<>()).add(methodRef);
+                    }
+                }
+            }
+
+            boolean[] summary = summaries.get(methodRef);
+            boolean changed = false;
+            for (int i = 0; i < summary.length; ++i) {
+                boolean escapes = i >= method.getProgram().variableCount() || escaping[i];
+                if (i == 0 && method.hasModifier(ElementModifier.SYNCHRONIZED)) {
+                    escapes = true;
+                }
+                if (escapes && !summary[i]) {
+                    summary[i] = true;
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                for (MethodReference caller : callers.getOrDefault(methodRef, Set.of())) {
+                    if (queued.add(caller)) {
+                        queue.add(caller);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean parameterEscapes(MethodReference method, int index) {
+        boolean[] summary = getSummary(method);
+        return summary == null || summary[index];
+    }
+
+    /**
+     * Finds variables that may hold escaping objects, using given summaries of called methods. Variables are
+     * joined into classes of aliases through assignments, casts, null checks and phis, and all variables
+     * of a class share the result.
+     *
+     * @param program program to analyze.
+     * @param parameterEscapeInfo summaries of called methods.
+     * @param joinsEscape whether objects that reach a phi should be considered escaping as well. Two distinct
+     *                    objects created by the same instruction can only be alive simultaneously if one of
+     *                    them is passed through a phi.
+     * @return array indexed by variable index.
+     */
+    public static boolean[] findEscapingVariables(ProgramReader program, ParameterEscapeInfo parameterEscapeInfo,
+            boolean joinsEscape) {
+        return findEscapingVariables(program, parameterEscapeInfo, joinsEscape, null);
+    }
+
+    private static boolean[] findEscapingVariables(ProgramReader program, ParameterEscapeInfo parameterEscapeInfo,
+            boolean joinsEscape, Set<MethodReference> callees) {
+        EscapeReader reader = new EscapeReader(program.variableCount(), parameterEscapeInfo, callees);
+        for (BasicBlockReader block : program.getBasicBlocks()) {
+            block.readAllInstructions(reader);
+            if (block.getExceptionVariable() != null) {
+                reader.escape(block.getExceptionVariable());
+            }
+            for (PhiReader phi : block.readPhis()) {
+                for (IncomingReader incoming : phi.readIncomings()) {
+                    reader.aliases.union(phi.getReceiver().getIndex(), incoming.getValue().getIndex());
+                }
+                if (joinsEscape) {
+                    reader.escape(phi.getReceiver());
+                }
+            }
+        }
+
+        boolean[] escapingClasses = new boolean[program.variableCount()];
+        for (int i = 0; i < program.variableCount(); ++i) {
+            if (reader.escaping[i]) {
+                escapingClasses[reader.aliases.find(i)] = true;
+            }
+        }
+        boolean[] result = new boolean[program.variableCount()];
+        for (int i = 0; i < program.variableCount(); ++i) {
+            result[i] = escapingClasses[reader.aliases.find(i)];
+        }
+        return result;
+    }
+
+    private boolean[] getSummary(MethodReference method) {
+        MethodReference resolved = resolvedMethods.computeIfAbsent(method, this::resolve);
+        return resolved != null ? summaries.get(resolved) : null;
+    }
+
+    private MethodReference resolve(MethodReference method) {
+        MethodReader reader = classes.resolve(method);
+        return reader != null ? reader.getReference() : null;
+    }
+
+    static class EscapeReader extends AbstractInstructionReader {
+        DisjointSet aliases = new DisjointSet();
+        boolean[] escaping;
+        ParameterEscapeInfo parameterEscapeInfo;
+        Set<MethodReference> callees;
+
+        EscapeReader(int variableCount, ParameterEscapeInfo parameterEscapeInfo, Set<MethodReference> callees) {
+            for (int i = 0; i < variableCount; ++i) {
+                aliases.create();
+            }
+            escaping = new boolean[variableCount];
+            this.parameterEscapeInfo = parameterEscapeInfo;
+            this.callees = callees;
+        }
+
+        void escape(VariableReader variable) {
+            escaping[variable.getIndex()] = true;
+        }
+
+        @Override
+        public void assign(VariableReader receiver, VariableReader assignee) {
+            aliases.union(receiver.getIndex(), assignee.getIndex());
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, ValueType targetType) {
+            aliases.union(receiver.getIndex(), value.getIndex());
+        }
+
+        @Override
+        public void nullCheck(VariableReader receiver, VariableReader value) {
+            aliases.union(receiver.getIndex(), value.getIndex());
+        }
+
+        @Override
+        public void unwrapArray(VariableReader receiver, VariableReader array, ArrayElementType elementType) {
+            aliases.union(receiver.getIndex(), array.getIndex());
+        }
+
+        @Override
+        public void exit(VariableReader valueToReturn) {
+            if (valueToReturn != null) {
+                escape(valueToReturn);
+            }
+        }
+
+        @Override
+        public void raise(VariableReader exception) {
+            escape(exception);
+        }
+
+        @Override
+        public void putField(VariableReader instance, FieldReference field, VariableReader value,
+                ValueType fieldType) {
+            escape(value);
+            if (instance != null && !(fieldType instanceof ValueType.Primitive)) {
+                escape(instance);
+            }
+        }
+
+        @Override
+        public void putElement(VariableReader array, VariableReader index, VariableReader value,
+                ArrayElementType elementType) {
+            escape(value);
+            if (elementType == ArrayElementType.OBJECT) {
+                escape(array);
+            }
+        }
+
+        @Override
+        public void cloneArray(VariableReader receiver, VariableReader array) {
+            escape(array);
+        }
+
+        @Override
+        public void monitorEnter(VariableReader objectRef) {
+            escape(objectRef);
+        }
+
+        @Override
+        public void monitorExit(VariableReader objectRef) {
+            escape(objectRef);
+        }
+
+        @Override
+        public void invoke(VariableReader receiver, VariableReader instance, MethodReference method,
+                List<? extends VariableReader> arguments, InvocationType type) {
+            boolean direct = type == InvocationType.SPECIAL;
+            if (direct && callees != null) {
+                callees.add(method);
+            }
+            if (instance != null && (!direct || parameterEscapeInfo.parameterEscapes(method, 0))) {
+                escape(instance);
+            }
+            for (int i = 0; i < arguments.size(); ++i) {
+                if (!direct || parameterEscapeInfo.parameterEscapes(method, i + 1)) {
+                    escape(arguments.get(i));
+                }
+            }
+        }
+
+        @Override
+        public void invokeDynamic(VariableReader receiver, VariableReader instance, MethodDescriptor method,
+                List<? extends VariableReader> arguments, MethodHandle bootstrapMethod,
+                List<RuntimeConstant> bootstrapArguments) {
+            if (instance != null) {
+                escape(instance);
+            }
+            for (VariableReader argument : arguments) {
+                escape(argument);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import org.teavm.model.MethodReference;
+
+public interface ParameterEscapeInfo {
+    /**
+     * Tells whether an object passed as the given parameter may outlive the call or get a reference stored
+     * into one of its fields.
+     *
+     * @param method method being called.
+     * @param index index of parameter, where 0 stands for {@code this} and 1 for the first declared parameter.
+     */
+    boolean parameterEscapes(MethodReference method, int index);
+
+    ParameterEscapeInfo EMPTY = (method, index) -> true;
+}
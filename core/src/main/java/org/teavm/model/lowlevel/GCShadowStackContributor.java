@@ -38,6 +38,7 @@ import org.teavm.model.MethodReader;
 import org.teavm.model.MethodReference;
 import org.teavm.model.Program;
 import org.teavm.model.Variable;
+import org.teavm.model.analysis.AllocationInfo;
 import org.teavm.model.instructions.AssignInstruction;
 import org.teavm.model.instructions.CastInstruction;
 import org.teavm.model.instructions.ClassConstantInstruction;
@@ -60,9 +61,19 @@ import org.teavm.runtime.ShadowStack;
 public class GCShadowStackContributor {
     private Characteristics characteristics;
     private NativePointerFinder nativePointerFinder;
+    private AllocationInfo allocationInfo;
 
     public GCShadowStackContributor(Characteristics characteristics) {
+        this(characteristics, AllocationInfo.EMPTY);
+    }
+
+    /**
+     * @param allocationInfo tells which methods never reach the garbage collector. Live variables are not
+     *                       spilled before calls to such methods.
+     */
+    public GCShadowStackContributor(Characteristics characteristics, AllocationInfo allocationInfo) {
         this.characteristics = characteristics;
+        this.allocationInfo = allocationInfo;
         nativePointerFinder = new NativePointerFinder(characteristics);
     }
 
@@ -160,7 +171,7 @@ public class GCShadowStackContributor {
                 for (Variable definedVar : defExtractor.getDefinedVariables()) {
                     currentLiveOut.clear(definedVar.getIndex());
                 }
-                if (ExceptionHandlingUtil.isCallInstruction(characteristics, insn)) {
+                if (ExceptionHandlingUtil.isCallInstruction(characteristics, insn) && mayAllocate(insn)) {
                     BitSet csLiveIn = (BitSet) currentLiveOut.clone();
                     for (int v = csLiveIn.nextSetBit(0); v >= 0; v = csLiveIn.nextSetBit(v + 1)) {
                         if (!isReference(typeInferer, v) || nativePointers[v] || constants.get(v)) {
@@ -179,6 +190,14 @@ public class GCShadowStackContributor {
         return liveInInformation;
     }
 
+    private boolean mayAllocate(Instruction insn) {
+        if (insn instanceof InvokeInstruction) {
+            InvokeInstruction invoke = (InvokeInstruction) insn;
+            return invoke.getType() != InvocationType.SPECIAL || allocationInfo.mayAllocate(invoke.getMethod());
+        }
+        return true;
+    }
+
     private Graph buildInterferenceGraph(List<Map<Instruction, BitSet>> liveInInformation, Program program,
             boolean[] spilled, int[] variableClasses) {
         GraphBuilder builder = new GraphBuilder(program.variableCount());
@@ -26,6 +26,7 @@ import org.teavm.model.Phi;
 import org.teavm.model.Program;
 import org.teavm.model.TryCatchBlock;
 import org.teavm.model.Variable;
+import org.teavm.model.analysis.AllocationInfo;
 import org.teavm.model.instructions.ExitInstruction;
 import org.teavm.model.instructions.IntegerConstantInstruction;
 import org.teavm.model.instructions.InvocationType;
@@ -39,11 +40,25 @@ public class ShadowStackTransformer {
     private GCShadowStackContributor gcContributor;
 
     public ShadowStackTransformer(Characteristics characteristics) {
-        gcContributor = new GCShadowStackContributor(characteristics);
+        this(characteristics, AllocationInfo.EMPTY);
+    }
+
+    public ShadowStackTransformer(Characteristics characteristics, AllocationInfo allocationInfo) {
+        gcContributor = new GCShadowStackContributor(characteristics, allocationInfo);
         this.characteristics = characteristics;
     }
 
     public void apply(Program program, MethodReader method) {
+        apply(program, method, 0);
+    }
+
+    /**
+     * Inserts shadow stack frame management into the program.
+     *
+     * @param objectAreaSize size of the area in the frame reserved for objects allocated by
+     *                       {@link StackAllocation}, in 4-byte words.
+     */
+    public void apply(Program program, MethodReader method, int objectAreaSize) {
         if (!characteristics.isManaged(method.getReference())) {
             return;
         }
@@ -63,9 +78,10 @@ public class ShadowStackTransformer {
             }
         }
 
-        if (shadowStackSize > 0 || exceptions) {
-            addStackAllocation(program, shadowStackSize);
-            addStackRelease(program, shadowStackSize);
+        if (shadowStackSize > 0 || exceptions || objectAreaSize > 0) {
+            int frameSize = shadowStackSize | (objectAreaSize << ShadowStack.OBJECT_AREA_SHIFT);
+            addStackAllocation(program, frameSize);
+            addStackRelease(program, frameSize);
         }
     }
 
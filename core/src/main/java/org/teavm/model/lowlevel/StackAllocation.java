@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.lowlevel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReader;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.analysis.ParameterEscapeAnalysis;
+import org.teavm.model.analysis.ParameterEscapeInfo;
+import org.teavm.model.instructions.ClassConstantInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.runtime.Allocator;
+
+/**
+ * <p>Moves allocations of small objects that never escape the method to its stack frame. An object is
+ * allocated on stack when it does not escape according to {@link ParameterEscapeAnalysis}, it is never
+ * passed through a phi, and all of its fields are primitive, so GC never needs to look inside it.</p>
+ *
+ * <p>Such objects are created by {@link Allocator#allocateOnStack(Class, int)}, which backends are expected
+ * to handle as an intrinsic. Objects get marked headers, so GC treats them the same way as constant
+ * strings, which live outside of the heap as well.</p>
+ */
+public class StackAllocation {
+    public static final int MAX_FIELD_COUNT = 16;
+    public static final int MAX_OBJECT_AREA_SIZE = 256;
+    private static final MethodReference ALLOCATE_METHOD = new MethodReference(Allocator.class,
+            "allocateOnStack", Class.class, int.class, Object.class);
+    private ClassReaderSource classSource;
+    private Characteristics characteristics;
+    private ParameterEscapeInfo parameterEscapeInfo;
+    private Set<MethodReference> asyncMethods;
+    private Map<String, Integer> objectSizes = new HashMap<>();
+
+    public StackAllocation(ClassReaderSource classSource, Characteristics characteristics,
+            ParameterEscapeInfo parameterEscapeInfo, Set<MethodReference> asyncMethods) {
+        this.classSource = classSource;
+        this.characteristics = characteristics;
+        this.parameterEscapeInfo = parameterEscapeInfo;
+        this.asyncMethods = asyncMethods;
+    }
+
+    /**
+     * Replaces suitable allocations in the program.
+     *
+     * @return size of the area that stack-allocated objects take in the frame, in 4-byte words.
+     */
+    public int apply(Program program, MethodReference method) {
+        if (asyncMethods.contains(method) || !characteristics.isManaged(method)) {
+            return 0;
+        }
+
+        List<ConstructInstruction> candidates = new ArrayList<>();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (instruction instanceof ConstructInstruction) {
+                    ConstructInstruction construct = (ConstructInstruction) instruction;
+                    if (getObjectSize(construct.getType()) > 0) {
+                        candidates.add(construct);
+                    }
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        boolean[] escaping = ParameterEscapeAnalysis.findEscapingVariables(program, parameterEscapeInfo, true);
+        int areaSize = 0;
+        for (ConstructInstruction construct : candidates) {
+            if (escaping[construct.getReceiver().getIndex()]) {
+                continue;
+            }
+            int size = getObjectSize(construct.getType());
+            if (areaSize + size > MAX_OBJECT_AREA_SIZE) {
+                continue;
+            }
+            replace(program, construct, areaSize);
+            areaSize += size;
+        }
+
+        return areaSize;
+    }
+
+    private void replace(Program program, ConstructInstruction construct, int offset) {
+        ClassConstantInstruction classConstant = new ClassConstantInstruction();
+        classConstant.setConstant(ValueType.object(construct.getType()));
+        classConstant.setReceiver(program.createVariable());
+        classConstant.setLocation(construct.getLocation());
+
+        IntegerConstantInstruction offsetConstant = new IntegerConstantInstruction();
+        offsetConstant.setConstant(offset);
+        offsetConstant.setReceiver(program.createVariable());
+        offsetConstant.setLocation(construct.getLocation());
+
+        InvokeInstruction allocation = new InvokeInstruction();
+        allocation.setType(InvocationType.SPECIAL);
+        allocation.setMethod(ALLOCATE_METHOD);
+        allocation.setArguments(classConstant.getReceiver(), offsetConstant.getReceiver());
+        allocation.setReceiver(construct.getReceiver());
+        allocation.setLocation(construct.getLocation());
+
+        construct.insertPrevious(classConstant);
+        construct.insertPrevious(offsetConstant);
+        construct.replace(allocation);
+    }
+
+    private int getObjectSize(String className) {
+        return objectSizes.computeIfAbsent(className, this::computeObjectSize);
+    }
+
+    // Upper bound of the object size in words: two words for header, and at most two words
+    // for every field, including alignment. Zero means that objects of the class can't be allocated on stack.
+    private int computeObjectSize(String className) {
+        ClassReader cls = classSource.get(className);
+        if (cls == null || cls.hasModifier(ElementModifier.ABSTRACT) || cls.hasModifier(ElementModifier.INTERFACE)
+                || !characteristics.isManaged(className)) {
+            return 0;
+        }
+
+        int fieldCount = 0;
+        while (cls != null) {
+            for (FieldReader field : cls.getFields()) {
+                if (field.hasModifier(ElementModifier.STATIC) || isMonitorField(field)) {
+                    continue;
+                }
+                if (!(field.getType() instanceof ValueType.Primitive)) {
+                    return 0;
+                }
+                fieldCount++;
+            }
+            cls = cls.getParent() != null ? classSource.get(cls.getParent()) : null;
+        }
+
+        if (fieldCount > MAX_FIELD_COUNT) {
+            return 0;
+        }
+        return 2 + 2 * fieldCount;
+    }
+
+    private static boolean isMonitorField(FieldReader field) {
+        return field.getOwnerName().equals("java.lang.Object") && field.getName().equals("monitor");
+    }
+}
@@ -19,6 +19,7 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntHashSet;
 import com.carrotsearch.hppc.IntSet;
 import com.carrotsearch.hppc.cursors.IntCursor;
+import org.teavm.interop.Address;
 import org.teavm.model.BasicBlock;
 import org.teavm.model.Instruction;
 import org.teavm.model.MethodReference;
@@ -50,6 +51,7 @@ import org.teavm.model.util.DominatorWalkerCallback;
 import org.teavm.model.util.DominatorWalkerContext;
 import org.teavm.runtime.GC;
 import org.teavm.runtime.RuntimeObject;
+import org.teavm.runtime.ShadowStack;
 
 public class WriteBarrierInsertion {
     private static final MethodReference BARRIER_METHOD = new MethodReference(GC.class, "writeBarrier",
@@ -140,7 +142,14 @@ public class WriteBarrierInsertion {
 
         @Override
         public void visit(InvokeInstruction insn) {
-            invalidateBarriers();
+            if (!isSafepointFree(insn.getMethod())) {
+                invalidateBarriers();
+            }
+        }
+
+        private boolean isSafepointFree(MethodReference method) {
+            return method.equals(BARRIER_METHOD) || method.getClassName().equals(ShadowStack.class.getName())
+                    || method.getClassName().equals(Address.class.getName());
         }
 
         @Override
@@ -162,6 +171,7 @@ public class WriteBarrierInsertion {
         @Override
         public void visit(ConstructArrayInstruction insn) {
             invalidateBarriers();
+            markAsInstalled(insn.getReceiver().getIndex());
         }
 
         @Override
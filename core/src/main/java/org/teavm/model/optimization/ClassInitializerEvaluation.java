@@ -0,0 +1,753 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.BasicBlockReader;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
+import org.teavm.model.FieldReference;
+import org.teavm.model.IncomingReader;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHandle;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.PhiReader;
+import org.teavm.model.PrimitiveType;
+import org.teavm.model.Program;
+import org.teavm.model.RuntimeConstant;
+import org.teavm.model.TextLocation;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.VariableReader;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.BinaryBranchingCondition;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.CastIntegerDirection;
+import org.teavm.model.instructions.ConstructArrayInstruction;
+import org.teavm.model.instructions.DoubleConstantInstruction;
+import org.teavm.model.instructions.ExitInstruction;
+import org.teavm.model.instructions.FloatConstantInstruction;
+import org.teavm.model.instructions.InstructionReader;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.IntegerSubtype;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.PutElementInstruction;
+import org.teavm.model.instructions.PutFieldInstruction;
+import org.teavm.model.instructions.SwitchTableEntryReader;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+
+/**
+ * <p>Runs side-effect-free static initializers at build time. An initializer qualifies when it only computes
+ * with constants, reads and writes static fields of its own class and fills primitive arrays that it creates
+ * itself. It must not call methods, create objects or touch other classes, so running it earlier than
+ * the program would is not observable.</p>
+ *
+ * <p>Computed primitive and string values become initial values of fields, which all backends emit as
+ * literals. Computed primitive arrays are left in the initializer as straight-line sequences of constant
+ * stores, which AST optimizer turns into array literals. Initializers that can't be evaluated
+ * (because they use something else, fail or take too long) are left intact.</p>
+ */
+public class ClassInitializerEvaluation {
+    public static final int MAX_STEPS = 100000;
+    public static final int MAX_ARRAY_DATA_SIZE = 4096;
+    private static final MethodDescriptor CLINIT = new MethodDescriptor("<clinit>", void.class);
+
+    /**
+     * Evaluates static initializer of the class and replaces it with the computed state.
+     *
+     * @return whether the initializer was evaluated.
+     */
+    public boolean apply(ClassHolder cls) {
+        MethodHolder clinit = cls.getMethod(CLINIT);
+        if (clinit == null || clinit.getProgram() == null || clinit.getProgram().basicBlockCount() == 0) {
+            return false;
+        }
+
+        Map<String, Object> fieldValues = new LinkedHashMap<>();
+        for (FieldHolder field : cls.getFields()) {
+            if (field.hasModifier(ElementModifier.STATIC)) {
+                fieldValues.put(field.getName(), initialValue(field));
+            }
+        }
+
+        Evaluator evaluator = new Evaluator(cls.getName(), clinit.getProgram(), fieldValues);
+        try {
+            evaluator.run();
+        } catch (EvaluationException e) {
+            return false;
+        }
+
+        Map<FieldHolder, ArrayValue> arrayFields = new LinkedHashMap<>();
+        Map<ArrayValue, FieldHolder> arrayOwners = new IdentityHashMap<>();
+        for (FieldHolder field : cls.getFields()) {
+            if (!field.hasModifier(ElementModifier.STATIC)) {
+                continue;
+            }
+            Object value = fieldValues.get(field.getName());
+            if (value instanceof ArrayValue) {
+                ArrayValue array = (ArrayValue) value;
+                if (arrayOwners.put(array, field) != null) {
+                    return false;
+                }
+                arrayFields.put(field, array);
+            } else if (value instanceof String && !field.getType().isObject(String.class)) {
+                return false;
+            }
+        }
+        for (FieldHolder field : cls.getFields()) {
+            if (!field.hasModifier(ElementModifier.STATIC) || arrayFields.containsKey(field)) {
+                continue;
+            }
+            Object value = fieldValues.get(field.getName());
+            if (field.getInitialValue() != null || !Objects.equals(value, defaultValue(field.getType()))) {
+                field.setInitialValue(value);
+            }
+        }
+        clinit.setProgram(createInitializer(arrayFields));
+        return true;
+    }
+
+    private static Object initialValue(FieldHolder field) {
+        Object value = field.getInitialValue();
+        if (value == null) {
+            return defaultValue(field.getType());
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        if (value instanceof Character) {
+            return (int) (Character) value;
+        }
+        if (value instanceof Byte || value instanceof Short) {
+            return ((Number) value).intValue();
+        }
+        return value;
+    }
+
+    private static Object defaultValue(ValueType type) {
+        if (!(type instanceof ValueType.Primitive)) {
+            return null;
+        }
+        return defaultValue(((ValueType.Primitive) type).getKind());
+    }
+
+    private static Object defaultValue(PrimitiveType type) {
+        switch (type) {
+            case LONG:
+                return 0L;
+            case FLOAT:
+                return 0F;
+            case DOUBLE:
+                return 0.0;
+            default:
+                return 0;
+        }
+    }
+
+    private static Program createInitializer(Map<FieldHolder, ArrayValue> arrayFields) {
+        Program program = new Program();
+        program.createVariable();
+        BasicBlock block = program.createBasicBlock();
+        List<Instruction> instructions = new ArrayList<>();
+
+        for (Map.Entry<FieldHolder, ArrayValue> entry : arrayFields.entrySet()) {
+            ArrayValue array = entry.getValue();
+            ConstructArrayInstruction construct = new ConstructArrayInstruction();
+            construct.setItemType(ValueType.primitive(array.itemType));
+            construct.setSize(constant(program, instructions, array.data.length));
+            construct.setReceiver(program.createVariable());
+            instructions.add(construct);
+
+            if (array.data.length > 0) {
+                ArrayElementType elementType = elementType(array.itemType);
+                UnwrapArrayInstruction unwrap = new UnwrapArrayInstruction(elementType);
+                unwrap.setArray(construct.getReceiver());
+                unwrap.setReceiver(program.createVariable());
+                instructions.add(unwrap);
+                for (int i = 0; i < array.data.length; ++i) {
+                    PutElementInstruction put = new PutElementInstruction(elementType);
+                    put.setArray(unwrap.getReceiver());
+                    put.setIndex(constant(program, instructions, i));
+                    put.setValue(constant(program, instructions, array.data[i]));
+                    instructions.add(put);
+                }
+            }
+
+            PutFieldInstruction putField = new PutFieldInstruction();
+            putField.setField(entry.getKey().getReference());
+            putField.setFieldType(entry.getKey().getType());
+            putField.setValue(construct.getReceiver());
+            instructions.add(putField);
+        }
+
+        instructions.add(new ExitInstruction());
+        block.addAll(instructions);
+        return program;
+    }
+
+    private static Variable constant(Program program, List<Instruction> instructions, Object value) {
+        Variable receiver = program.createVariable();
+        if (value instanceof Long) {
+            LongConstantInstruction insn = new LongConstantInstruction();
+            insn.setConstant((Long) value);
+            insn.setReceiver(receiver);
+            instructions.add(insn);
+        } else if (value instanceof Float) {
+            FloatConstantInstruction insn = new FloatConstantInstruction();
+            insn.setConstant((Float) value);
+            insn.setReceiver(receiver);
+            instructions.add(insn);
+        } else if (value instanceof Double) {
+            DoubleConstantInstruction insn = new DoubleConstantInstruction();
+            insn.setConstant((Double) value);
+            insn.setReceiver(receiver);
+            instructions.add(insn);
+        } else {
+            IntegerConstantInstruction insn = new IntegerConstantInstruction();
+            insn.setConstant((Integer) value);
+            insn.setReceiver(receiver);
+            instructions.add(insn);
+        }
+        return receiver;
+    }
+
+    private static ArrayElementType elementType(PrimitiveType type) {
+        switch (type) {
+            case BOOLEAN:
+            case BYTE:
+                return ArrayElementType.BYTE;
+            case SHORT:
+                return ArrayElementType.SHORT;
+            case CHARACTER:
+                return ArrayElementType.CHAR;
+            case INTEGER:
+                return ArrayElementType.INT;
+            case LONG:
+                return ArrayElementType.LONG;
+            case FLOAT:
+                return ArrayElementType.FLOAT;
+            case DOUBLE:
+                return ArrayElementType.DOUBLE;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    static final class ArrayValue {
+        final PrimitiveType itemType;
+        final Object[] data;
+
+        ArrayValue(PrimitiveType itemType, int size) {
+            this.itemType = itemType;
+            data = new Object[size];
+            Object defaultValue = defaultValue(itemType);
+            for (int i = 0; i < size; ++i) {
+                data[i] = defaultValue;
+            }
+        }
+    }
+
+    static final class EvaluationException extends RuntimeException {
+        EvaluationException() {
+            super(null, null, false, false);
+        }
+    }
+
+    static final class Evaluator implements InstructionReader {
+        private String className;
+        private Program program;
+        private Map<String, Object> fieldValues;
+        private Object[] variables;
+        private BasicBlockReader currentBlock;
+        private BasicBlockReader nextBlock;
+        private boolean exited;
+        private int steps;
+        private int dataSize;
+
+        Evaluator(String className, Program program, Map<String, Object> fieldValues) {
+            this.className = className;
+            this.program = program;
+            this.fieldValues = fieldValues;
+            variables = new Object[program.variableCount()];
+        }
+
+        void run() {
+            currentBlock = program.basicBlockAt(0);
+            while (!exited) {
+                steps += currentBlock.instructionCount();
+                if (steps > MAX_STEPS) {
+                    throw new EvaluationException();
+                }
+                nextBlock = null;
+                currentBlock.readAllInstructions(this);
+                if (!exited) {
+                    if (nextBlock == null) {
+                        throw new EvaluationException();
+                    }
+                    currentBlock = nextBlock;
+                }
+            }
+        }
+
+        private Object get(VariableReader variable) {
+            return variables[variable.getIndex()];
+        }
+
+        private int getInt(VariableReader variable) {
+            Object value = get(variable);
+            if (!(value instanceof Integer)) {
+                throw new EvaluationException();
+            }
+            return (Integer) value;
+        }
+
+        private Number getNumber(VariableReader variable) {
+            Object value = get(variable);
+            if (!(value instanceof Number)) {
+                throw new EvaluationException();
+            }
+            return (Number) value;
+        }
+
+        private ArrayValue getArray(VariableReader variable) {
+            Object value = get(variable);
+            if (!(value instanceof ArrayValue)) {
+                throw new EvaluationException();
+            }
+            return (ArrayValue) value;
+        }
+
+        private void set(VariableReader variable, Object value) {
+            variables[variable.getIndex()] = value;
+        }
+
+        private int checkIndex(ArrayValue array, VariableReader index) {
+            int value = getInt(index);
+            if (value < 0 || value >= array.data.length) {
+                throw new EvaluationException();
+            }
+            return value;
+        }
+
+        private String checkField(VariableReader instance, FieldReference field) {
+            if (instance != null || !field.getClassName().equals(className)
+                    || !fieldValues.containsKey(field.getFieldName())) {
+                throw new EvaluationException();
+            }
+            return field.getFieldName();
+        }
+
+        @Override
+        public void location(TextLocation location) {
+        }
+
+        @Override
+        public void nop() {
+        }
+
+        @Override
+        public void classConstant(VariableReader receiver, ValueType cst) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void nullConstant(VariableReader receiver) {
+            set(receiver, null);
+        }
+
+        @Override
+        public void integerConstant(VariableReader receiver, int cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void longConstant(VariableReader receiver, long cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void floatConstant(VariableReader receiver, float cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void doubleConstant(VariableReader receiver, double cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void stringConstant(VariableReader receiver, String cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void binary(BinaryOperation op, VariableReader receiver, VariableReader first, VariableReader second,
+                NumericOperandType type) {
+            Number result = SparseConditionalConstantPropagation.evaluateBinary(op, type, getNumber(first),
+                    getNumber(second));
+            if (result == null) {
+                throw new EvaluationException();
+            }
+            set(receiver, result);
+        }
+
+        @Override
+        public void negate(VariableReader receiver, VariableReader operand, NumericOperandType type) {
+            set(receiver, convert(negate(getNumber(operand), type), type));
+        }
+
+        private static Number negate(Number value, NumericOperandType type) {
+            switch (type) {
+                case INT:
+                    return -value.intValue();
+                case LONG:
+                    return -value.longValue();
+                case FLOAT:
+                    return -value.floatValue();
+                default:
+                    return -value.doubleValue();
+            }
+        }
+
+        @Override
+        public void assign(VariableReader receiver, VariableReader assignee) {
+            set(receiver, get(assignee));
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, ValueType targetType) {
+            Object object = get(value);
+            boolean compatible;
+            if (object == null) {
+                compatible = true;
+            } else if (object instanceof String) {
+                compatible = targetType.isObject(String.class) || targetType.isObject(Object.class);
+            } else {
+                ValueType arrayType = ValueType.arrayOf(ValueType.primitive(((ArrayValue) object).itemType));
+                compatible = targetType.equals(arrayType) || targetType.isObject(Object.class);
+            }
+            if (!compatible) {
+                throw new EvaluationException();
+            }
+            set(receiver, object);
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, NumericOperandType sourceType,
+                NumericOperandType targetType) {
+            set(receiver, convert(getNumber(value), targetType));
+        }
+
+        private static Number convert(Number value, NumericOperandType type) {
+            switch (type) {
+                case INT:
+                    return value.intValue();
+                case LONG:
+                    return value.longValue();
+                case FLOAT:
+                    return value.floatValue();
+                default:
+                    return value.doubleValue();
+            }
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, IntegerSubtype type,
+                CastIntegerDirection direction) {
+            int result = getInt(value);
+            if (direction == CastIntegerDirection.FROM_INTEGER) {
+                result = truncate(result, type);
+            }
+            set(receiver, result);
+        }
+
+        private static int truncate(int value, IntegerSubtype type) {
+            switch (type) {
+                case BYTE:
+                    return (byte) value;
+                case SHORT:
+                    return (short) value;
+                default:
+                    return (char) value;
+            }
+        }
+
+        @Override
+        public void jumpIf(BranchingCondition cond, VariableReader operand, BasicBlockReader consequent,
+                BasicBlockReader alternative) {
+            boolean condition;
+            switch (cond) {
+                case NULL:
+                    condition = get(operand) == null;
+                    break;
+                case NOT_NULL:
+                    condition = get(operand) != null;
+                    break;
+                default: {
+                    int value = getInt(operand);
+                    switch (cond) {
+                        case EQUAL:
+                            condition = value == 0;
+                            break;
+                        case NOT_EQUAL:
+                            condition = value != 0;
+                            break;
+                        case LESS:
+                            condition = value < 0;
+                            break;
+                        case LESS_OR_EQUAL:
+                            condition = value <= 0;
+                            break;
+                        case GREATER:
+                            condition = value > 0;
+                            break;
+                        default:
+                            condition = value >= 0;
+                            break;
+                    }
+                    break;
+                }
+            }
+            jump(condition ? consequent : alternative);
+        }
+
+        @Override
+        public void jumpIf(BinaryBranchingCondition cond, VariableReader first, VariableReader second,
+                BasicBlockReader consequent, BasicBlockReader alternative) {
+            boolean condition;
+            switch (cond) {
+                case EQUAL:
+                    condition = getInt(first) == getInt(second);
+                    break;
+                case NOT_EQUAL:
+                    condition = getInt(first) != getInt(second);
+                    break;
+                default: {
+                    Object a = get(first);
+                    Object b = get(second);
+                    // identity of strings depends on interning, which we can't reproduce here
+                    if (a instanceof String || b instanceof String) {
+                        throw new EvaluationException();
+                    }
+                    condition = (a == b) == (cond == BinaryBranchingCondition.REFERENCE_EQUAL);
+                    break;
+                }
+            }
+            jump(condition ? consequent : alternative);
+        }
+
+        @Override
+        public void jump(BasicBlockReader target) {
+            List<Object> values = new ArrayList<>();
+            List<VariableReader> receivers = new ArrayList<>();
+            for (PhiReader phi : target.readPhis()) {
+                for (IncomingReader incoming : phi.readIncomings()) {
+                    if (incoming.getSource() == currentBlock) {
+                        receivers.add(phi.getReceiver());
+                        values.add(get(incoming.getValue()));
+                    }
+                }
+            }
+            for (int i = 0; i < receivers.size(); ++i) {
+                set(receivers.get(i), values.get(i));
+            }
+            nextBlock = target;
+        }
+
+        @Override
+        public void choose(VariableReader condition, List<? extends SwitchTableEntryReader> table,
+                BasicBlockReader defaultTarget) {
+            int value = getInt(condition);
+            for (SwitchTableEntryReader entry : table) {
+                if (entry.getCondition() == value) {
+                    jump(entry.getTarget());
+                    return;
+                }
+            }
+            jump(defaultTarget);
+        }
+
+        @Override
+        public void exit(VariableReader valueToReturn) {
+            exited = true;
+        }
+
+        @Override
+        public void raise(VariableReader exception) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void createArray(VariableReader receiver, ValueType itemType, VariableReader size) {
+            if (!(itemType instanceof ValueType.Primitive)) {
+                throw new EvaluationException();
+            }
+            int sizeValue = getInt(size);
+            if (sizeValue < 0) {
+                throw new EvaluationException();
+            }
+            dataSize += sizeValue;
+            if (dataSize > MAX_ARRAY_DATA_SIZE) {
+                throw new EvaluationException();
+            }
+            set(receiver, new ArrayValue(((ValueType.Primitive) itemType).getKind(), sizeValue));
+        }
+
+        @Override
+        public void createArray(VariableReader receiver, ValueType itemType,
+                List<? extends VariableReader> dimensions) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void create(VariableReader receiver, String type) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void getField(VariableReader receiver, VariableReader instance, FieldReference field,
+                ValueType fieldType) {
+            set(receiver, fieldValues.get(checkField(instance, field)));
+        }
+
+        @Override
+        public void putField(VariableReader instance, FieldReference field, VariableReader value,
+                ValueType fieldType) {
+            fieldValues.put(checkField(instance, field), get(value));
+        }
+
+        @Override
+        public void arrayLength(VariableReader receiver, VariableReader array) {
+            set(receiver, getArray(array).data.length);
+        }
+
+        @Override
+        public void cloneArray(VariableReader receiver, VariableReader array) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void unwrapArray(VariableReader receiver, VariableReader array, ArrayElementType elementType) {
+            set(receiver, getArray(array));
+        }
+
+        @Override
+        public void getElement(VariableReader receiver, VariableReader array, VariableReader index,
+                ArrayElementType elementType) {
+            ArrayValue arrayValue = getArray(array);
+            set(receiver, arrayValue.data[checkIndex(arrayValue, index)]);
+        }
+
+        @Override
+        public void putElement(VariableReader array, VariableReader index, VariableReader value,
+                ArrayElementType elementType) {
+            ArrayValue arrayValue = getArray(array);
+            int indexValue = checkIndex(arrayValue, index);
+            Number number = getNumber(value);
+            Object element;
+            switch (arrayValue.itemType) {
+                case BOOLEAN:
+                case BYTE:
+                    element = (int) number.byteValue();
+                    break;
+                case SHORT:
+                    element = (int) number.shortValue();
+                    break;
+                case CHARACTER:
+                    element = number.intValue() & 0xFFFF;
+                    break;
+                case INTEGER:
+                    element = number.intValue();
+                    break;
+                case LONG:
+                    element = number.longValue();
+                    break;
+                case FLOAT:
+                    element = number.floatValue();
+                    break;
+                default:
+                    element = number.doubleValue();
+                    break;
+            }
+            arrayValue.data[indexValue] = element;
+        }
+
+        @Override
+        public void invoke(VariableReader receiver, VariableReader instance, MethodReference method,
+                List<? extends VariableReader> arguments, InvocationType type) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void invokeDynamic(VariableReader receiver, VariableReader instance, MethodDescriptor method,
+                List<? extends VariableReader> arguments, MethodHandle bootstrapMethod,
+                List<RuntimeConstant> bootstrapArguments) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void isInstance(VariableReader receiver, VariableReader value, ValueType type) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void initClass(String className) {
+            if (!className.equals(this.className)) {
+                throw new EvaluationException();
+            }
+        }
+
+        @Override
+        public void nullCheck(VariableReader receiver, VariableReader value) {
+            Object object = get(value);
+            if (object == null) {
+                throw new EvaluationException();
+            }
+            set(receiver, object);
+        }
+
+        @Override
+        public void monitorEnter(VariableReader objectRef) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void monitorExit(VariableReader objectRef) {
+            throw new EvaluationException();
+        }
+
+        @Override
+        public void boundCheck(VariableReader receiver, VariableReader index, VariableReader array, boolean lower) {
+            int value = getInt(index);
+            if ((lower && value < 0) || (array != null && value >= getArray(array).data.length)) {
+                throw new EvaluationException();
+            }
+            set(receiver, value);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Phi;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.BinaryInstruction;
+
+/**
+ * Innermost loop with single entry and single back edge, found by {@link CountedLoopFinder}.
+ * The loop is *counted* when its only exit is controlled by comparison of an induction variable against
+ * a loop-invariant bound. If the bound and the initial value are constants, the number of iterations
+ * is known as well.
+ */
+class CountedLoop {
+    final BasicBlock header;
+    final BasicBlock preheader;
+    final BasicBlock latch;
+    final int[] nodes;
+    final List<InductionVariable> inductionVariables = new ArrayList<>();
+    BasicBlock exitingBlock;
+    BasicBlock exit;
+    InductionVariable counter;
+    Variable bound;
+
+    /**
+     * How many times exit condition is evaluated, including the last time, when loop exits.
+     * -1 if not known at compile time.
+     */
+    int iterationCount = -1;
+
+    CountedLoop(BasicBlock header, BasicBlock preheader, BasicBlock latch, int[] nodes) {
+        this.header = header;
+        this.preheader = preheader;
+        this.latch = latch;
+        this.nodes = nodes;
+    }
+
+    boolean contains(BasicBlock block) {
+        return Arrays.binarySearch(nodes, block.getIndex()) >= 0;
+    }
+
+    boolean isCounted() {
+        return counter != null;
+    }
+
+    int size() {
+        int size = 0;
+        for (int node : nodes) {
+            BasicBlock block = header.getProgram().basicBlockAt(node);
+            size += block.instructionCount() + block.getPhis().size();
+        }
+        return size;
+    }
+
+    static class InductionVariable {
+        final Phi phi;
+        final Variable initialValue;
+        final BinaryInstruction update;
+        final int step;
+
+        InductionVariable(Phi phi, Variable initialValue, BinaryInstruction update, int step) {
+            this.phi = phi;
+            this.initialValue = initialValue;
+            this.update = update;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.teavm.common.DominatorTree;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphUtils;
+import org.teavm.common.IntegerArray;
+import org.teavm.common.Loop;
+import org.teavm.common.LoopGraph;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.TryCatchBlock;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * Finds innermost loops suitable for loop transformations. A loop is suitable when it is reducible,
+ * has a single predecessor outside of the loop (preheader), a single back edge and no exception handlers.
+ * For each such loop basic induction variables are detected, i.e. header phis that are incremented
+ * by a constant on each iteration. Then, if the loop has a single exit, which is taken depending on
+ * comparison of an induction variable against loop-invariant value, the loop is recognized as counted.
+ */
+class CountedLoopFinder {
+    private static final int MAX_ITERATION_COUNT = 4096;
+    private final Program program;
+    private final Instruction[] definitions;
+    private final Phi[] phiDefinitions;
+    private final BasicBlock[] definitionPlaces;
+
+    CountedLoopFinder(Program program) {
+        this.program = program;
+        definitions = new Instruction[program.variableCount()];
+        phiDefinitions = new Phi[program.variableCount()];
+        definitionPlaces = new BasicBlock[program.variableCount()];
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                phiDefinitions[phi.getReceiver().getIndex()] = phi;
+                definitionPlaces[phi.getReceiver().getIndex()] = block;
+            }
+            for (Instruction insn : block) {
+                insn.acceptVisitor(defExtractor);
+                for (Variable var : defExtractor.getDefinedVariables()) {
+                    definitions[var.getIndex()] = insn;
+                    definitionPlaces[var.getIndex()] = block;
+                }
+            }
+        }
+    }
+
+    List<CountedLoop> findLoops() {
+        Graph cfg = ProgramUtils.buildControlFlowGraph(program);
+        LoopGraph loopGraph = new LoopGraph(cfg);
+        DominatorTree dom = GraphUtils.buildDominatorTree(cfg);
+
+        Map<Loop, IntegerArray> nodesByLoop = new HashMap<>();
+        Set<Loop> outerLoops = new HashSet<>();
+        IntegerArray selfLoops = new IntegerArray(4);
+        for (int node = 0; node < cfg.size(); ++node) {
+            Loop loop = loopGraph.loopAt(node);
+            if (loop != null) {
+                nodesByLoop.computeIfAbsent(loop, k -> new IntegerArray(4)).add(node);
+                if (loop.getParent() != null) {
+                    outerLoops.add(loop.getParent());
+                }
+            }
+            // LoopGraph does not report loops that consist of a single block
+            if ((loop == null || loop.getHead() != node) && hasSelfEdge(cfg, node)) {
+                selfLoops.add(node);
+                if (loop != null) {
+                    outerLoops.add(loop);
+                }
+            }
+        }
+
+        List<CountedLoop> result = new ArrayList<>();
+        for (Map.Entry<Loop, IntegerArray> entry : nodesByLoop.entrySet()) {
+            if (!outerLoops.contains(entry.getKey())) {
+                int[] nodes = entry.getValue().getAll();
+                Arrays.sort(nodes);
+                addLoop(result, cfg, dom, entry.getKey().getHead(), nodes);
+            }
+        }
+        for (int node : selfLoops.getAll()) {
+            addLoop(result, cfg, dom, node, new int[] { node });
+        }
+        result.sort((a, b) -> Integer.compare(a.header.getIndex(), b.header.getIndex()));
+        return result;
+    }
+
+    private static boolean hasSelfEdge(Graph cfg, int node) {
+        for (int successor : cfg.outgoingEdges(node)) {
+            if (successor == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addLoop(List<CountedLoop> result, Graph cfg, DominatorTree dom, int head, int[] nodes) {
+        CountedLoop loop = createLoop(cfg, dom, head, nodes);
+        if (loop != null) {
+            findInductionVariables(loop);
+            findExitCondition(cfg, loop);
+            result.add(loop);
+        }
+    }
+
+    private CountedLoop createLoop(Graph cfg, DominatorTree dom, int head, int[] nodes) {
+        int preheader = -1;
+        int latch = -1;
+        for (int predecessor : cfg.incomingEdges(head)) {
+            if (Arrays.binarySearch(nodes, predecessor) >= 0) {
+                if (latch >= 0) {
+                    return null;
+                }
+                latch = predecessor;
+            } else {
+                if (preheader >= 0) {
+                    return null;
+                }
+                preheader = predecessor;
+            }
+        }
+        if (preheader < 0 || latch < 0) {
+            return null;
+        }
+
+        for (int node : nodes) {
+            if (!dom.dominates(head, node)) {
+                return null;
+            }
+            BasicBlock block = program.basicBlockAt(node);
+            if (!block.getTryCatchBlocks().isEmpty() || block.getExceptionVariable() != null) {
+                return null;
+            }
+            if (node != head) {
+                for (int predecessor : cfg.incomingEdges(node)) {
+                    if (Arrays.binarySearch(nodes, predecessor) < 0) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        BasicBlock preheaderBlock = program.basicBlockAt(preheader);
+        for (TryCatchBlock tryCatch : preheaderBlock.getTryCatchBlocks()) {
+            if (tryCatch.getHandler().getIndex() == head) {
+                return null;
+            }
+        }
+
+        return new CountedLoop(program.basicBlockAt(head), preheaderBlock, program.basicBlockAt(latch), nodes);
+    }
+
+    private void findInductionVariables(CountedLoop loop) {
+        for (Phi phi : loop.header.getPhis()) {
+            if (phi.getIncomings().size() != 2) {
+                continue;
+            }
+            Variable initialValue = null;
+            Variable nextValue = null;
+            for (Incoming incoming : phi.getIncomings()) {
+                if (incoming.getSource() == loop.preheader) {
+                    initialValue = incoming.getValue();
+                } else if (incoming.getSource() == loop.latch) {
+                    nextValue = incoming.getValue();
+                }
+            }
+            if (initialValue == null || nextValue == null) {
+                continue;
+            }
+
+            Instruction definition = definitions[resolveCopy(loop, nextValue).getIndex()];
+            if (!(definition instanceof BinaryInstruction)) {
+                continue;
+            }
+            BinaryInstruction update = (BinaryInstruction) definition;
+            if (update.getOperandType() != NumericOperandType.INT || !loop.contains(update.getBasicBlock())) {
+                continue;
+            }
+            Variable receiver = phi.getReceiver();
+            Integer step = null;
+            switch (update.getOperation()) {
+                case ADD:
+                    if (update.getFirstOperand() == receiver) {
+                        step = getConstant(update.getSecondOperand());
+                    } else if (update.getSecondOperand() == receiver) {
+                        step = getConstant(update.getFirstOperand());
+                    }
+                    break;
+                case SUBTRACT:
+                    if (update.getFirstOperand() == receiver) {
+                        step = getConstant(update.getSecondOperand());
+                        if (step != null) {
+                            step = -step;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (step != null) {
+                loop.inductionVariables.add(new CountedLoop.InductionVariable(phi, initialValue, update, step));
+            }
+        }
+    }
+
+    private void findExitCondition(Graph cfg, CountedLoop loop) {
+        BasicBlock exitingBlock = null;
+        BasicBlock exit = null;
+        for (int node : loop.nodes) {
+            for (int successor : cfg.outgoingEdges(node)) {
+                if (Arrays.binarySearch(loop.nodes, successor) < 0) {
+                    if (exitingBlock != null) {
+                        return;
+                    }
+                    exitingBlock = program.basicBlockAt(node);
+                    exit = program.basicBlockAt(successor);
+                }
+            }
+        }
+        if (exitingBlock == null || (exitingBlock != loop.header && exitingBlock != loop.latch)) {
+            return;
+        }
+        if (!(exitingBlock.getLastInstruction() instanceof BranchingInstruction)) {
+            return;
+        }
+        BranchingInstruction branching = (BranchingInstruction) exitingBlock.getLastInstruction();
+        Instruction comparison = definitions[branching.getOperand().getIndex()];
+        if (!(comparison instanceof BinaryInstruction)) {
+            return;
+        }
+        BinaryInstruction compare = (BinaryInstruction) comparison;
+        if (compare.getOperation() != BinaryOperation.COMPARE || compare.getOperandType() != NumericOperandType.INT
+                || compare.getBasicBlock() != exitingBlock) {
+            return;
+        }
+
+        Variable first = resolveCopy(loop, compare.getFirstOperand());
+        Variable second = resolveCopy(loop, compare.getSecondOperand());
+        for (CountedLoop.InductionVariable inductionVariable : loop.inductionVariables) {
+            Variable current = inductionVariable.phi.getReceiver();
+            Variable next = inductionVariable.update.getReceiver();
+            boolean counterFirst;
+            Variable bound;
+            int offset;
+            if (first == current || first == next) {
+                counterFirst = true;
+                bound = compare.getSecondOperand();
+                offset = first == next ? 1 : 0;
+            } else if (second == current || second == next) {
+                counterFirst = false;
+                bound = compare.getFirstOperand();
+                offset = second == next ? 1 : 0;
+            } else {
+                continue;
+            }
+            if (!isInvariant(loop, bound)) {
+                continue;
+            }
+
+            loop.exitingBlock = exitingBlock;
+            loop.exit = exit;
+            loop.counter = inductionVariable;
+            loop.bound = bound;
+
+            Integer initialValue = getConstant(inductionVariable.initialValue);
+            Integer boundValue = getConstant(bound);
+            if (initialValue != null && boundValue != null) {
+                loop.iterationCount = countIterations(branching, exit, initialValue, boundValue,
+                        inductionVariable.step, offset, counterFirst);
+            }
+            return;
+        }
+    }
+
+    private static int countIterations(BranchingInstruction branching, BasicBlock exit, int initialValue,
+            int bound, int step, int offset, boolean counterFirst) {
+        int value = initialValue + offset * step;
+        for (int count = 1; count <= MAX_ITERATION_COUNT; ++count) {
+            int comparison = counterFirst ? Integer.compare(value, bound) : Integer.compare(bound, value);
+            boolean conditionHolds;
+            switch (branching.getCondition()) {
+                case EQUAL:
+                    conditionHolds = comparison == 0;
+                    break;
+                case NOT_EQUAL:
+                    conditionHolds = comparison != 0;
+                    break;
+                case LESS:
+                    conditionHolds = comparison < 0;
+                    break;
+                case LESS_OR_EQUAL:
+                    conditionHolds = comparison <= 0;
+                    break;
+                case GREATER:
+                    conditionHolds = comparison > 0;
+                    break;
+                case GREATER_OR_EQUAL:
+                    conditionHolds = comparison >= 0;
+                    break;
+                default:
+                    return -1;
+            }
+            BasicBlock target = conditionHolds ? branching.getConsequent() : branching.getAlternative();
+            if (target == exit) {
+                return count;
+            }
+            value += step;
+        }
+        return -1;
+    }
+
+    private boolean isInvariant(CountedLoop loop, Variable variable) {
+        BasicBlock place = definitionPlaces[variable.getIndex()];
+        return place == null || !loop.contains(place);
+    }
+
+    private Variable resolveCopy(CountedLoop loop, Variable variable) {
+        while (true) {
+            Instruction definition = definitions[variable.getIndex()];
+            Phi phi = phiDefinitions[variable.getIndex()];
+            if (definition instanceof AssignInstruction && loop.contains(definition.getBasicBlock())) {
+                variable = ((AssignInstruction) definition).getAssignee();
+            } else if (phi != null && phi.getIncomings().size() == 1 && loop.contains(phi.getBasicBlock())) {
+                variable = phi.getIncomings().get(0).getValue();
+            } else {
+                return variable;
+            }
+        }
+    }
+
+    private Integer getConstant(Variable variable) {
+        Instruction definition = definitions[variable.getIndex()];
+        return definition instanceof IntegerConstantInstruction
+                ? ((IntegerConstantInstruction) definition).getConstant()
+                : null;
+    }
+}
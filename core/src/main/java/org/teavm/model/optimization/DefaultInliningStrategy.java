@@ -15,9 +15,9 @@
  */
 package org.teavm.model.optimization;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.teavm.model.BasicBlockReader;
 import org.teavm.model.MethodReference;
 import org.teavm.model.ProgramReader;
@@ -33,8 +33,7 @@ public class DefaultInliningStrategy implements InliningStrategy {
     private final int depthThreshold;
     private final int totalComplexityThreshold;
     private final boolean onceUsedOnly;
-    private int getComplexityDepth;
-    private Map<MethodReference, Complexity> complexityCache = new HashMap<>();
+    private Map<MethodReference, Complexity> complexityCache = new ConcurrentHashMap<>();
 
     public DefaultInliningStrategy(int complexityThreshold, int depthThreshold, int totalComplexityThreshold,
             boolean onceUsedOnly) {
@@ -46,7 +45,7 @@ public class DefaultInliningStrategy implements InliningStrategy {
 
     @Override
     public InliningStep start(MethodReference method, ProgramReader program) {
-        Complexity complexity = getComplexity(program, null);
+        Complexity complexity = getComplexity(program, null, 0);
         if (complexity.score > totalComplexityThreshold) {
             return null;
         }
@@ -61,18 +60,18 @@ public class DefaultInliningStrategy implements InliningStrategy {
         complexityCache.remove(method);
     }
 
-    private Complexity getComplexity(MethodReference methodRef, InliningContext context) {
+    private Complexity getComplexity(MethodReference methodRef, InliningContext context, int depth) {
         var result = complexityCache.get(methodRef);
         if (result == null) {
-            result = getComplexity(context.getProgram(methodRef), context);
+            result = getComplexity(context.getProgram(methodRef), context, depth);
             complexityCache.put(methodRef, result);
         }
         return result;
     }
 
-    private Complexity getComplexity(ProgramReader program, InliningContext context) {
+    private Complexity getComplexity(ProgramReader program, InliningContext context, int depth) {
         int complexity = 0;
-        ComplexityCounter counter = new ComplexityCounter(context);
+        ComplexityCounter counter = new ComplexityCounter(context, depth);
         for (int i = 0; i < program.basicBlockCount(); ++i) {
             BasicBlockReader block = program.basicBlockAt(i);
             counter.complexity = 0;
@@ -98,7 +97,7 @@ public class DefaultInliningStrategy implements InliningStrategy {
                 return null;
             }
 
-            Complexity complexity = getComplexity(method, context);
+            Complexity complexity = getComplexity(method, context, 0);
             if (onceUsedOnly && !context.isUsedOnce(method)) {
                 if (complexity.callsToUsedOnceMethods || complexity.score > 1) {
                     return null;
@@ -121,11 +120,13 @@ public class DefaultInliningStrategy implements InliningStrategy {
 
     class ComplexityCounter extends AbstractInstructionReader {
         InliningContext context;
+        int depth;
         int complexity;
         boolean callsToUsedOnceMethods;
 
-        ComplexityCounter(InliningContext context) {
+        ComplexityCounter(InliningContext context, int depth) {
             this.context = context;
+            this.depth = depth;
         }
 
         @Override
@@ -149,12 +150,10 @@ public class DefaultInliningStrategy implements InliningStrategy {
         }
 
         private boolean isTrivialCall(MethodReference methodRef) {
-            if (context.getProgram(methodRef) == null || getComplexityDepth > 10) {
+            if (context.getProgram(methodRef) == null || depth > 10) {
                return false;
             }
-            getComplexityDepth++;
-            Complexity complexity = getComplexity(methodRef, context);
-            getComplexityDepth--;
+            Complexity complexity = getComplexity(methodRef, context, depth + 1);
             return complexity.score <= 1 && !complexity.callsToUsedOnceMethods;
         }
 
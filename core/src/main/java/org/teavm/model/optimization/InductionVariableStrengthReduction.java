@@ -0,0 +1,247 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.util.DefinitionExtractor;
+
+/**
+ * Replaces multiplication of an induction variable by a loop invariant with a new induction variable.
+ * I.e. for loop
+ *
+ * ```
+ * for (i = start; ...; i += step) {
+ *     a = i * stride;
+ * }
+ * ```
+ *
+ * produces
+ *
+ * ```
+ * j = start * stride;
+ * d = step * stride;
+ * for (i = start; ...; i += step, j += d) {
+ *     a = j;
+ * }
+ * ```
+ *
+ * Shifts to the left by a constant are handled the same way. Since integer multiplication distributes over
+ * addition modulo 2<sup>32</sup>, the result is exact even in case of overflow.
+ */
+public class InductionVariableStrengthReduction implements MethodOptimization {
+    @Override
+    public boolean optimize(MethodOptimizationContext context, Program program) {
+        boolean changed = false;
+        for (CountedLoop loop : new CountedLoopFinder(program).findLoops()) {
+            changed |= new Reducer(program, loop).reduce();
+        }
+        return changed;
+    }
+
+    private static class Reducer {
+        private final Program program;
+        private final CountedLoop loop;
+        private final Map<Variable, CountedLoop.InductionVariable> inductionVariables = new HashMap<>();
+        private final Map<DerivedKey, Variable> derivedVariables = new HashMap<>();
+        private final Map<Variable, Integer> constants = new HashMap<>();
+        private final Map<Variable, BasicBlock> definitionPlaces = new HashMap<>();
+
+        Reducer(Program program, CountedLoop loop) {
+            this.program = program;
+            this.loop = loop;
+            for (CountedLoop.InductionVariable inductionVariable : loop.inductionVariables) {
+                inductionVariables.put(inductionVariable.phi.getReceiver(), inductionVariable);
+            }
+        }
+
+        boolean reduce() {
+            if (inductionVariables.isEmpty()) {
+                return false;
+            }
+            collectDefinitions();
+
+            List<BinaryInstruction> candidates = new ArrayList<>();
+            for (int node : loop.nodes) {
+                for (Instruction insn : program.basicBlockAt(node)) {
+                    if (insn instanceof BinaryInstruction && getKey((BinaryInstruction) insn) != null) {
+                        candidates.add((BinaryInstruction) insn);
+                    }
+                }
+            }
+
+            for (BinaryInstruction insn : candidates) {
+                DerivedKey key = getKey(insn);
+                Variable derived = derivedVariables.computeIfAbsent(key, this::createDerivedVariable);
+                AssignInstruction assign = new AssignInstruction();
+                assign.setAssignee(derived);
+                assign.setReceiver(insn.getReceiver());
+                assign.setLocation(insn.getLocation());
+                insn.replace(assign);
+            }
+            return !candidates.isEmpty();
+        }
+
+        private void collectDefinitions() {
+            DefinitionExtractor defExtractor = new DefinitionExtractor();
+            for (BasicBlock block : program.getBasicBlocks()) {
+                for (Phi phi : block.getPhis()) {
+                    definitionPlaces.put(phi.getReceiver(), block);
+                }
+                for (Instruction insn : block) {
+                    insn.acceptVisitor(defExtractor);
+                    for (Variable var : defExtractor.getDefinedVariables()) {
+                        definitionPlaces.put(var, block);
+                    }
+                    if (insn instanceof IntegerConstantInstruction) {
+                        IntegerConstantInstruction constant = (IntegerConstantInstruction) insn;
+                        constants.put(constant.getReceiver(), constant.getConstant());
+                    }
+                }
+            }
+        }
+
+        private DerivedKey getKey(BinaryInstruction insn) {
+            if (insn.getOperandType() != NumericOperandType.INT) {
+                return null;
+            }
+            switch (insn.getOperation()) {
+                case MULTIPLY:
+                    if (inductionVariables.containsKey(insn.getFirstOperand())
+                            && isInvariant(insn.getSecondOperand())) {
+                        return new DerivedKey(insn.getFirstOperand(), BinaryOperation.MULTIPLY,
+                                insn.getSecondOperand());
+                    }
+                    if (inductionVariables.containsKey(insn.getSecondOperand())
+                            && isInvariant(insn.getFirstOperand())) {
+                        return new DerivedKey(insn.getSecondOperand(), BinaryOperation.MULTIPLY,
+                                insn.getFirstOperand());
+                    }
+                    return null;
+                case SHIFT_LEFT:
+                    if (inductionVariables.containsKey(insn.getFirstOperand())
+                            && constants.containsKey(insn.getSecondOperand())) {
+                        return new DerivedKey(insn.getFirstOperand(), BinaryOperation.SHIFT_LEFT,
+                                insn.getSecondOperand());
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private boolean isInvariant(Variable variable) {
+            BasicBlock place = definitionPlaces.get(variable);
+            return place == null || !loop.contains(place);
+        }
+
+        private Variable createDerivedVariable(DerivedKey key) {
+            CountedLoop.InductionVariable inductionVariable = inductionVariables.get(key.inductionVariable);
+            Instruction preheaderEnd = loop.preheader.getLastInstruction();
+
+            BinaryInstruction initial = new BinaryInstruction(key.operation, NumericOperandType.INT);
+            initial.setFirstOperand(inductionVariable.initialValue);
+            initial.setSecondOperand(key.factor);
+            initial.setReceiver(program.createVariable());
+            preheaderEnd.insertPrevious(initial);
+
+            IntegerConstantInstruction step = new IntegerConstantInstruction();
+            step.setReceiver(program.createVariable());
+            preheaderEnd.insertPrevious(step);
+            Variable increment;
+            Integer constantFactor = constants.get(key.factor);
+            if (constantFactor != null) {
+                step.setConstant(key.operation == BinaryOperation.MULTIPLY
+                        ? inductionVariable.step * constantFactor
+                        : inductionVariable.step << constantFactor);
+                increment = step.getReceiver();
+            } else {
+                step.setConstant(inductionVariable.step);
+                BinaryInstruction product = new BinaryInstruction(key.operation, NumericOperandType.INT);
+                product.setFirstOperand(step.getReceiver());
+                product.setSecondOperand(key.factor);
+                product.setReceiver(program.createVariable());
+                preheaderEnd.insertPrevious(product);
+                increment = product.getReceiver();
+            }
+
+            Phi phi = new Phi();
+            phi.setReceiver(program.createVariable());
+            Incoming initialIncoming = new Incoming();
+            initialIncoming.setSource(loop.preheader);
+            initialIncoming.setValue(initial.getReceiver());
+            phi.getIncomings().add(initialIncoming);
+
+            BinaryInstruction update = new BinaryInstruction(BinaryOperation.ADD, NumericOperandType.INT);
+            update.setFirstOperand(phi.getReceiver());
+            update.setSecondOperand(increment);
+            update.setReceiver(program.createVariable());
+            inductionVariable.update.insertNext(update);
+
+            Incoming nextIncoming = new Incoming();
+            nextIncoming.setSource(loop.latch);
+            nextIncoming.setValue(update.getReceiver());
+            phi.getIncomings().add(nextIncoming);
+            loop.header.getPhis().add(phi);
+
+            return phi.getReceiver();
+        }
+    }
+
+    private static class DerivedKey {
+        final Variable inductionVariable;
+        final BinaryOperation operation;
+        final Variable factor;
+
+        DerivedKey(Variable inductionVariable, BinaryOperation operation, Variable factor) {
+            this.inductionVariable = inductionVariable;
+            this.operation = operation;
+            this.factor = factor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DerivedKey)) {
+                return false;
+            }
+            DerivedKey that = (DerivedKey) o;
+            return inductionVariable == that.inductionVariable && operation == that.operation
+                    && factor == that.factor;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(inductionVariable, operation, factor);
+        }
+    }
+}
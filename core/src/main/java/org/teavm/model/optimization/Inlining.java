@@ -62,8 +62,6 @@ import org.teavm.model.util.TransitionExtractor;
 import org.teavm.runtime.Fiber;
 
 public class Inlining {
-    private IntArrayList depthsByBlock;
-    private Set<Instruction> instructionsToSkip;
     private ClassHierarchy hierarchy;
     private ListableClassReaderSource classes;
     private DependencyInfo dependencyInfo;
@@ -71,7 +69,7 @@ public class Inlining {
     private MethodUsageCounter usageCounter;
     private Set<MethodReference> methodsUsedOnce = new HashSet<>();
     private boolean devirtualization;
-    private ClassInference classInference;
+    private ThreadLocal<ClassInference> classInference;
     private InliningFilterFactory filterFactory;
 
     public Inlining(ClassHierarchy hierarchy, DependencyInfo dependencyInfo, InliningStrategy strategy,
@@ -84,6 +82,8 @@ public class Inlining {
         this.devirtualization = devirtualization;
         this.filterFactory = filterFactory;
         usageCounter = new MethodUsageCounter(externalMethods);
+        classInference = ThreadLocal.withInitial(() -> new ClassInference(dependencyInfo,
+                new ClassHierarchy(hierarchy.getClassSource()), classes.getClassNames(), 30));
 
         for (String className : classes.getClassNames()) {
             ClassReader cls = classes.get(className);
@@ -133,7 +133,16 @@ public class Inlining {
         order.add(method);
     }
 
-    public boolean hasUsages(MethodReference method) {
+    boolean isDevirtualization() {
+        return devirtualization;
+    }
+
+    Set<MethodReference> getInvokedMethods(MethodReference method) {
+        Set<MethodReference> result = usageCounter.methodDependencies.get(method);
+        return result != null ? result : Collections.emptySet();
+    }
+
+    public synchronized boolean hasUsages(MethodReference method) {
         return usageCounter.methodUsageCount.getOrDefault(method, -1) != 0;
     }
 
@@ -149,59 +158,65 @@ public class Inlining {
                     continue;
                 }
 
-                int usageCount = usageCounter.methodUsageCount.getOrDefault(invoke.getMethod(), -1);
-                if (usageCount > 0) {
-                    usageCounter.methodUsageCount.put(invoke.getMethod(), usageCount - 1);
-                }
+                decrementUsages(invoke.getMethod());
             }
         }
     }
 
+    private synchronized void decrementUsages(MethodReference method) {
+        int usageCount = usageCounter.methodUsageCount.getOrDefault(method, -1);
+        if (usageCount > 0) {
+            usageCounter.methodUsageCount.put(method, usageCount - 1);
+        }
+    }
+
+    private synchronized void incrementUsages(MethodReference method) {
+        int usageCount = usageCounter.methodUsageCount.getOrDefault(method, -1);
+        if (usageCount >= 0) {
+            usageCounter.methodUsageCount.put(method, usageCount + 1);
+        }
+    }
+
     public void apply(Program program, MethodReference method) {
-        depthsByBlock = new IntArrayList(program.basicBlockCount());
+        var state = new MethodState();
+        state.depthsByBlock = new IntArrayList(program.basicBlockCount());
         for (int i = 0; i < program.basicBlockCount(); ++i) {
-            depthsByBlock.add(0);
+            state.depthsByBlock.add(0);
         }
-        instructionsToSkip = new HashSet<>();
 
         if (devirtualization) {
-            while (applyOnce(program, method)) {
+            while (applyOnce(state, program, method)) {
                 devirtualize(program, method, dependencyInfo);
             }
         } else {
-            applyOnce(program, method);
+            applyOnce(state, program, method);
         }
-        depthsByBlock = null;
-        instructionsToSkip = null;
 
         new UnreachableBasicBlockEliminator().optimize(program);
         strategy.methodChanged(method);
     }
 
-    private boolean applyOnce(Program program, MethodReference method) {
+    private boolean applyOnce(MethodState state, Program program, MethodReference method) {
         InliningStep step = strategy.start(method, program);
         if (step == null) {
             return false;
         }
-        List<PlanEntry> plan = buildPlan(program, -1, step, method, null);
+        List<PlanEntry> plan = buildPlan(state, program, -1, step, method, null);
         if (plan.isEmpty()) {
             return false;
         }
-        execPlan(program, plan, 0);
+        execPlan(state, program, plan, 0);
         return true;
     }
 
-    private void execPlan(Program program, List<PlanEntry> plan, int offset) {
+    private void execPlan(MethodState state, Program program, List<PlanEntry> plan, int offset) {
         for (PlanEntry entry : plan) {
-            execPlanEntry(program, entry, offset);
+            execPlanEntry(state, program, entry, offset);
         }
     }
 
-    private void execPlanEntry(Program program, PlanEntry planEntry, int offset) {
-        int usageCount = usageCounter.methodUsageCount.getOrDefault(planEntry.method, -1);
-        if (usageCount > 0) {
-            usageCounter.methodUsageCount.put(planEntry.method, usageCount - 1);
-        }
+    private void execPlanEntry(MethodState state, Program program, PlanEntry planEntry, int offset) {
+        decrementUsages(planEntry.method);
 
         BasicBlock block = program.basicBlockAt(planEntry.targetBlock + offset);
         InvokeInstruction invoke = (InvokeInstruction) planEntry.targetInstruction;
@@ -211,8 +226,8 @@ public class Inlining {
         for (int i = 1; i < inlineProgram.basicBlockCount(); ++i) {
             program.createBasicBlock();
         }
-        while (depthsByBlock.size() < program.basicBlockCount()) {
-            depthsByBlock.add(planEntry.depth + 1);
+        while (state.depthsByBlock.size() < program.basicBlockCount()) {
+            state.depthsByBlock.add(planEntry.depth + 1);
         }
 
         int variableOffset = program.variableCount();
@@ -245,10 +260,7 @@ public class Inlining {
                 if (insn instanceof InvokeInstruction) {
                     InvokeInstruction invokeInsn = (InvokeInstruction) insn;
                     if (invokeInsn.getType() == InvocationType.SPECIAL) {
-                        usageCount = usageCounter.methodUsageCount.getOrDefault(invokeInsn.getMethod(), -1);
-                        if (usageCount >= 0) {
-                            usageCounter.methodUsageCount.put(invokeInsn.getMethod(), usageCount + 1);
-                        }
+                        incrementUsages(invokeInsn.getMethod());
                     }
                 }
 
@@ -336,11 +348,11 @@ public class Inlining {
             }
         }
 
-        execPlan(program, planEntry.innerPlan, firstInlineBlock.getIndex());
+        execPlan(state, program, planEntry.innerPlan, firstInlineBlock.getIndex());
     }
 
-    private List<PlanEntry> buildPlan(Program program, int depth, InliningStep step, MethodReference method,
-            InliningInfo inliningInfo) {
+    private List<PlanEntry> buildPlan(MethodState state, Program program, int depth, InliningStep step,
+            MethodReference method, InliningInfo inliningInfo) {
         List<PlanEntry> plan = new ArrayList<>();
         int originalDepth = depth;
         InliningFilter filter = filterFactory.createFilter(method);
@@ -352,11 +364,11 @@ public class Inlining {
             }
 
             if (originalDepth < 0) {
-                depth = depthsByBlock.get(block.getIndex());
+                depth = state.depthsByBlock.get(block.getIndex());
             }
 
             for (Instruction insn : block) {
-                if (instructionsToSkip.contains(insn)) {
+                if (state.instructionsToSkip.contains(insn)) {
                     continue;
                 }
 
@@ -380,7 +392,7 @@ public class Inlining {
                 if (invokedMethod == null || invokedMethod.getProgram() == null
                         || invokedMethod.getProgram().basicBlockCount() == 0
                         || invokedMethod.hasModifier(ElementModifier.SYNCHRONIZED)) {
-                    instructionsToSkip.add(insn);
+                    state.instructionsToSkip.add(insn);
                     continue;
                 }
 
@@ -388,7 +400,7 @@ public class Inlining {
                 InliningStep innerStep = step.tryInline(invokedMethod.getReference(), invokedMethod.getProgram(),
                         context);
                 if (innerStep == null) {
-                    instructionsToSkip.add(insn);
+                    state.instructionsToSkip.add(insn);
                     continue;
                 }
                 Program invokedProgram = ProgramUtils.copy(invokedMethod.getProgram());
@@ -404,8 +416,8 @@ public class Inlining {
                 entry.targetBlock = block.getIndex();
                 entry.targetInstruction = insn;
                 entry.program = invokedProgram;
-                entry.innerPlan.addAll(buildPlan(invokedProgram, depth + 1, innerStep, invokedMethod.getReference(),
-                        innerInliningInfo));
+                entry.innerPlan.addAll(buildPlan(state, invokedProgram, depth + 1, innerStep,
+                        invokedMethod.getReference(), innerInliningInfo));
                 entry.depth = depth;
                 entry.method = invokedMethod.getReference();
                 entry.locationInfo = innerInliningInfo;
@@ -423,9 +435,7 @@ public class Inlining {
     }
 
     private void devirtualize(Program program, MethodReference method, DependencyInfo dependencyInfo) {
-        if (classInference == null) {
-            classInference = new ClassInference(dependencyInfo, hierarchy, classes.getClassNames(), 30);
-        }
+        var classInference = this.classInference.get();
         classInference.infer(program, method);
 
         for (BasicBlock block : program.getBasicBlocks()) {
@@ -463,6 +473,11 @@ public class Inlining {
         }
     }
 
+    static class MethodState {
+        IntArrayList depthsByBlock;
+        final Set<Instruction> instructionsToSkip = new HashSet<>();
+    }
+
     static class PlanEntry {
         int targetBlock;
         Instruction targetInstruction;
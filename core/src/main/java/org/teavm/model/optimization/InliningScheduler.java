@@ -0,0 +1,218 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.teavm.callgraph.CallGraph;
+import org.teavm.callgraph.CallGraphNode;
+import org.teavm.callgraph.CallSite;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphBuilder;
+import org.teavm.common.GraphUtils;
+import org.teavm.model.MethodReference;
+
+/**
+ * <p>Splits {@link Inlining#getOrder()} into levels that can be processed in parallel.</p>
+ *
+ * <p>Methods are grouped by strongly connected components of the graph that {@link Inlining#getOrder()} is built
+ * from, i.e. of direct invocations. Each component forms a group whose methods are processed sequentially,
+ * in the same order as {@link Inlining#getOrder()} gives. A group is placed after every group that calls it.
+ * Every method of a calling group precedes every method of a called group in {@link Inlining#getOrder()},
+ * so any two methods one of which may read the program of the other are processed in the same relative order
+ * as in sequential inlining, and the result does not depend on the number of threads.</p>
+ *
+ * <p>When inlining devirtualizes calls, a method may read programs of implementations of the virtual methods
+ * it calls, so these are dependencies as well. They are added to the graph, but they may point backwards
+ * in {@link Inlining#getOrder()}. Groups connected by such edges are merged, until every edge between groups
+ * points forward again.</p>
+ */
+public class InliningScheduler {
+    private final List<List<List<MethodReference>>> levels = new ArrayList<>();
+
+    public InliningScheduler(Inlining inlining, CallGraph callGraph) {
+        List<MethodReference> order = inlining.getOrder();
+        Map<MethodReference, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < order.size(); ++i) {
+            indexes.put(order.get(i), i);
+        }
+
+        GraphBuilder builder = new GraphBuilder(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            MethodReference method = order.get(i);
+            for (MethodReference callee : inlining.getInvokedMethods(method)) {
+                addEdge(builder, indexes, i, callee);
+            }
+            CallGraphNode node = inlining.isDevirtualization() && callGraph != null
+                    ? callGraph.getNode(method)
+                    : null;
+            if (node != null) {
+                for (CallSite callSite : node.getCallSites()) {
+                    for (CallGraphNode callee : callSite.getCalledMethods()) {
+                        addEdge(builder, indexes, i, callee.getMethod());
+                    }
+                }
+            }
+        }
+        Graph graph = builder.build();
+
+        int[] methodComponent;
+        int componentCount;
+        while (true) {
+            methodComponent = new int[order.size()];
+            componentCount = findComponents(graph, methodComponent);
+            int[] first = new int[componentCount];
+            int[] last = new int[componentCount];
+            Arrays.fill(first, -1);
+            for (int i = 0; i < order.size(); ++i) {
+                int component = methodComponent[i];
+                if (first[component] < 0) {
+                    first[component] = i;
+                }
+                last[component] = i;
+            }
+
+            GraphBuilder mergingBuilder = null;
+            for (int i = 0; i < order.size(); ++i) {
+                for (int successor : graph.outgoingEdges(i)) {
+                    int from = methodComponent[i];
+                    int to = methodComponent[successor];
+                    if (from != to && last[from] > first[to]) {
+                        if (mergingBuilder == null) {
+                            mergingBuilder = copy(graph);
+                        }
+                        mergingBuilder.addEdge(successor, i);
+                    }
+                }
+            }
+            if (mergingBuilder == null) {
+                break;
+            }
+            graph = mergingBuilder.build();
+        }
+
+        List<List<MethodReference>> orderedComponents = new ArrayList<>();
+        for (int i = 0; i < componentCount; ++i) {
+            orderedComponents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < order.size(); ++i) {
+            orderedComponents.get(methodComponent[i]).add(order.get(i));
+        }
+
+        GraphBuilder componentBuilder = new GraphBuilder(componentCount);
+        for (int i = 0; i < order.size(); ++i) {
+            for (int successor : graph.outgoingEdges(i)) {
+                if (methodComponent[i] != methodComponent[successor]) {
+                    componentBuilder.addEdge(methodComponent[i], methodComponent[successor]);
+                }
+            }
+        }
+        Graph componentGraph = componentBuilder.build();
+
+        int[] levelByComponent = computeLevels(componentGraph);
+        for (int i = 0; i < componentCount; ++i) {
+            int level = levelByComponent[i];
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(orderedComponents.get(i));
+        }
+    }
+
+    /*
+     * Numbers components in order of their first method, so that groups within a level
+     * are listed in the same order regardless of how strongly connected components are found.
+     */
+    private static int findComponents(Graph graph, int[] methodComponent) {
+        int[] sccByMethod = new int[graph.size()];
+        Arrays.fill(sccByMethod, -1);
+        int[][] sccs = GraphUtils.findStronglyConnectedComponents(graph);
+        for (int i = 0; i < sccs.length; ++i) {
+            for (int method : sccs[i]) {
+                sccByMethod[method] = i;
+            }
+        }
+
+        int[] sccRemap = new int[sccs.length];
+        Arrays.fill(sccRemap, -1);
+        int count = 0;
+        for (int i = 0; i < graph.size(); ++i) {
+            int scc = sccByMethod[i];
+            if (scc < 0) {
+                methodComponent[i] = count++;
+            } else {
+                if (sccRemap[scc] < 0) {
+                    sccRemap[scc] = count++;
+                }
+                methodComponent[i] = sccRemap[scc];
+            }
+        }
+        return count;
+    }
+
+    private static GraphBuilder copy(Graph graph) {
+        GraphBuilder builder = new GraphBuilder(graph.size());
+        for (int i = 0; i < graph.size(); ++i) {
+            for (int successor : graph.outgoingEdges(i)) {
+                builder.addEdge(i, successor);
+            }
+        }
+        return builder;
+    }
+
+    private static void addEdge(GraphBuilder builder, Map<MethodReference, Integer> indexes, int caller,
+            MethodReference callee) {
+        Integer calleeIndex = indexes.get(callee);
+        if (calleeIndex != null) {
+            builder.addEdge(caller, calleeIndex);
+        }
+    }
+
+    private static int[] computeLevels(Graph graph) {
+        int[] levels = new int[graph.size()];
+        int[] pendingPredecessors = new int[graph.size()];
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < graph.size(); ++i) {
+            pendingPredecessors[i] = graph.incomingEdgesCount(i);
+            if (pendingPredecessors[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int successor : graph.outgoingEdges(node)) {
+                levels[successor] = Math.max(levels[successor], levels[node] + 1);
+                if (--pendingPredecessors[successor] == 0) {
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Returns levels in the order they must be processed. Every level consists of groups which can be
+     * processed in parallel, every group is a list of methods which must be processed sequentially.
+     */
+    public List<List<List<MethodReference>>> getLevels() {
+        return levels;
+    }
+}
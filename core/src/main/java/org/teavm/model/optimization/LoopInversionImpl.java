@@ -77,8 +77,13 @@ import org.teavm.model.util.UsageExtractor;
  *
  * Therefore, *body* is a set of nodes of the loop that are dominated by body start and
  * all remaining nodes are *condition*.
+ *
+ * Only top-tested loops (i.e. loops whose head has an exit) are inverted. After inversion body start
+ * becomes a head of the new loop, and since it has no exits, the loop is never inverted again.
+ * Irreducible loops, loops whose head receives an exception and loops with large condition are left as is.
  */
 class LoopInversionImpl {
+    private static final int MAX_CONDITION_SIZE = 32;
     private final Program program;
     private final MethodReference method;
     private final int parameterCount;
@@ -93,11 +98,11 @@ class LoopInversionImpl {
         this.program = program;
         this.method = method;
         this.parameterCount = parameterCount;
-        definitionPlaces = ProgramUtils.getVariableDefinitionPlaces(program);
     }
 
     boolean apply() {
         do {
+            definitionPlaces = ProgramUtils.getVariableDefinitionPlaces(program);
             cfg = ProgramUtils.buildControlFlowGraph(program);
             LoopGraph loopGraph = new LoopGraph(cfg);
             dom = GraphUtils.buildDominatorTree(cfg);
@@ -199,11 +204,14 @@ class LoopInversionImpl {
                 return false;
             }
 
-            if (!findCondition() || bodyStart < 0) {
+            if (!isInvertible() || !findCondition() || bodyStart < 0) {
                 return false;
             }
 
             IntSet nodesToCopy = nodesToCopy();
+            if (conditionSize(nodesToCopy) > MAX_CONDITION_SIZE) {
+                return false;
+            }
             NullnessInformation nullness = NullnessInformation.build(program, method.getDescriptor());
             boolean profitable = isInversionProfitable(nodesToCopy, nullness);
             nullness.dispose();
@@ -259,6 +267,26 @@ class LoopInversionImpl {
             return false;
         }
 
+        private boolean isInvertible() {
+            if (!exits.contains(head) || program.basicBlockAt(head).getExceptionVariable() != null) {
+                return false;
+            }
+            for (int node : nodes.toArray()) {
+                if (!dom.dominates(head, node)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int conditionSize(IntSet nodesToCopy) {
+            int size = 0;
+            for (int node : nodesToCopy.toArray()) {
+                size += program.basicBlockAt(node).instructionCount();
+            }
+            return size;
+        }
+
         private boolean findCondition() {
             IntSet tailNodes = new IntHashSet(program.basicBlockCount());
             for (int tailCandidate : cfg.incomingEdges(head)) {
@@ -368,6 +396,8 @@ class LoopInversionImpl {
 
         /**
          * Back edges from body are not back edges anymore, instead they point to a copied condition.
+         * This includes exception edges, otherwise exception thrown in body would get to head
+         * which lost its phi inputs from body.
          */
         private void moveBackEdges() {
             BasicBlockMapper mapper = new BasicBlockMapper((int block) -> block == head ? headCopy : block);
@@ -378,6 +408,11 @@ class LoopInversionImpl {
                 if (last != null) {
                     last.acceptVisitor(mapper);
                 }
+                for (TryCatchBlock tryCatch : block.getTryCatchBlocks()) {
+                    if (tryCatch.getHandler().getIndex() == head) {
+                        tryCatch.setHandler(program.basicBlockAt(headCopy));
+                    }
+                }
             }
         }
 
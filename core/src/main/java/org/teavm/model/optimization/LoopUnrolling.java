@@ -0,0 +1,295 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.util.BasicBlockMapper;
+import org.teavm.model.util.PhiUpdater;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * Unrolls counted loops, found by {@link CountedLoopFinder}.
+ *
+ * Loops with small constant number of iterations are unrolled completely. Other loops are unrolled
+ * by the given factor. When number of iterations is known, first `n mod factor` iterations are peeled,
+ * so that only the last copy in the unrolled body has to check exit condition. Otherwise, every copy keeps
+ * its own exit check.
+ *
+ * Copies of the loop body reuse variables of the original body, SSA form is restored afterwards
+ * by {@link PhiUpdater}.
+ */
+public class LoopUnrolling implements MethodOptimization {
+    public static final int DEFAULT_FACTOR = 4;
+    private static final int MAX_FULL_UNROLL_ITERATIONS = 16;
+    private static final int MAX_UNROLLED_SIZE = 128;
+    private final int factor;
+
+    public LoopUnrolling() {
+        this(DEFAULT_FACTOR);
+    }
+
+    public LoopUnrolling(int factor) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Unroll factor must be positive: " + factor);
+        }
+        this.factor = factor;
+    }
+
+    @Override
+    public boolean optimize(MethodOptimizationContext context, Program program) {
+        boolean changed = false;
+        for (CountedLoop loop : new CountedLoopFinder(program).findLoops()) {
+            if (!loop.isCounted()) {
+                continue;
+            }
+            int size = loop.size();
+            int iterations = loop.iterationCount;
+            CopyMode[] modes;
+            int cycleStart;
+            if (iterations > 0 && iterations <= MAX_FULL_UNROLL_ITERATIONS
+                    && size * iterations <= MAX_UNROLLED_SIZE) {
+                modes = new CopyMode[iterations];
+                Arrays.fill(modes, CopyMode.STAY);
+                modes[iterations - 1] = CopyMode.EXIT;
+                cycleStart = -1;
+            } else if (factor > 1 && size * factor <= MAX_UNROLLED_SIZE) {
+                if (iterations > 0) {
+                    if (iterations < factor) {
+                        continue;
+                    }
+                    int peeled = iterations % factor;
+                    modes = new CopyMode[peeled + factor];
+                    Arrays.fill(modes, CopyMode.STAY);
+                    modes[modes.length - 1] = CopyMode.TEST;
+                    cycleStart = peeled;
+                } else {
+                    modes = new CopyMode[factor];
+                    Arrays.fill(modes, CopyMode.TEST);
+                    cycleStart = 0;
+                }
+            } else {
+                continue;
+            }
+            new Unroller(program, loop, modes, cycleStart).unroll();
+            changed = true;
+        }
+
+        if (changed) {
+            new UnreachableBasicBlockEliminator().optimize(program);
+            Variable[] inputs = new Variable[context.getMethod().parameterCount() + 1];
+            for (int i = 0; i < inputs.length; ++i) {
+                inputs[i] = program.variableAt(i);
+            }
+            new PhiUpdater().updatePhis(program, inputs);
+        }
+        return changed;
+    }
+
+    /**
+     * Describes what happens to exit condition in a copy of loop body.
+     */
+    enum CopyMode {
+        /** Condition is known to be false, the copy proceeds to the next one. */
+        STAY,
+        /** Condition is known to be true, the copy leaves the loop. */
+        EXIT,
+        /** Condition is checked at run time. */
+        TEST
+    }
+
+    private static class Unroller {
+        private final Program program;
+        private final CountedLoop loop;
+        private final CopyMode[] modes;
+        private final int cycleStart;
+        private final BasicBlock[][] copies;
+        private final int headerIndex;
+        private final BasicBlock stayTarget;
+
+        Unroller(Program program, CountedLoop loop, CopyMode[] modes, int cycleStart) {
+            this.program = program;
+            this.loop = loop;
+            this.modes = modes;
+            this.cycleStart = cycleStart;
+            copies = new BasicBlock[modes.length][loop.nodes.length];
+            headerIndex = indexOf(loop.header);
+            BranchingInstruction branching = (BranchingInstruction) loop.exitingBlock.getLastInstruction();
+            stayTarget = branching.getConsequent() == loop.exit ? branching.getAlternative()
+                    : branching.getConsequent();
+        }
+
+        void unroll() {
+            List<Variable> latchValues = new ArrayList<>();
+            for (Phi phi : loop.header.getPhis()) {
+                Variable value = null;
+                for (Incoming incoming : phi.getIncomings()) {
+                    if (incoming.getSource() == loop.latch) {
+                        value = incoming.getValue();
+                    }
+                }
+                latchValues.add(value);
+            }
+
+            for (int i = 0; i < loop.nodes.length; ++i) {
+                copies[0][i] = program.basicBlockAt(loop.nodes[i]);
+            }
+            for (int k = 1; k < modes.length; ++k) {
+                for (int i = 0; i < loop.nodes.length; ++i) {
+                    if (isLive(k, i)) {
+                        copies[k][i] = program.createBasicBlock();
+                    }
+                }
+            }
+            for (int k = 1; k < modes.length; ++k) {
+                copyBody(k);
+            }
+            for (int k = 0; k < modes.length; ++k) {
+                updateTransitions(k);
+            }
+            updateHeaderPhis(latchValues);
+            updateExitPhis();
+        }
+
+        private boolean isLive(int copy, int index) {
+            return modes[copy] != CopyMode.EXIT || loop.exitingBlock != loop.header || index == headerIndex;
+        }
+
+        private int next(int copy) {
+            return copy + 1 < modes.length ? copy + 1 : cycleStart;
+        }
+
+        private int indexOf(BasicBlock block) {
+            return Arrays.binarySearch(loop.nodes, block.getIndex());
+        }
+
+        private BasicBlock map(int copy, BasicBlock block) {
+            if (block == loop.header) {
+                int next = next(copy);
+                return copies[next >= 0 ? next : copy][headerIndex];
+            }
+            int index = indexOf(block);
+            return index >= 0 ? copies[copy][index] : block;
+        }
+
+        private void copyBody(int copy) {
+            for (int i = 0; i < loop.nodes.length; ++i) {
+                BasicBlock target = copies[copy][i];
+                if (target == null) {
+                    continue;
+                }
+                BasicBlock source = copies[0][i];
+                for (Instruction insn : ProgramUtils.copyInstructions(source.getFirstInstruction(), null, program)) {
+                    target.add(insn);
+                }
+                if (i == headerIndex) {
+                    continue;
+                }
+                for (Phi phi : source.getPhis()) {
+                    Phi phiCopy = new Phi();
+                    phiCopy.setReceiver(phi.getReceiver());
+                    for (Incoming incoming : phi.getIncomings()) {
+                        Incoming incomingCopy = new Incoming();
+                        incomingCopy.setSource(copies[copy][indexOf(incoming.getSource())]);
+                        incomingCopy.setValue(incoming.getValue());
+                        phiCopy.getIncomings().add(incomingCopy);
+                    }
+                    target.getPhis().add(phiCopy);
+                }
+            }
+        }
+
+        private void updateTransitions(int copy) {
+            BasicBlockMapper mapper = new BasicBlockMapper((BasicBlock block) -> map(copy, block));
+            for (int i = 0; i < loop.nodes.length; ++i) {
+                BasicBlock block = copies[copy][i];
+                if (block == null || !isLive(copy, i)) {
+                    continue;
+                }
+                Instruction last = block.getLastInstruction();
+                if (copies[0][i] == loop.exitingBlock && modes[copy] != CopyMode.TEST) {
+                    JumpInstruction jump = new JumpInstruction();
+                    jump.setTarget(modes[copy] == CopyMode.EXIT ? loop.exit : map(copy, stayTarget));
+                    jump.setLocation(last.getLocation());
+                    last.replace(jump);
+                } else {
+                    last.acceptVisitor(mapper);
+                }
+            }
+        }
+
+        private void updateHeaderPhis(List<Variable> latchValues) {
+            List<Phi> phis = loop.header.getPhis();
+            for (int k = 0; k < modes.length; ++k) {
+                BasicBlock header = copies[k][headerIndex];
+                for (int j = 0; j < phis.size(); ++j) {
+                    Phi phi;
+                    if (k == 0) {
+                        phi = phis.get(j);
+                        phi.getIncomings().removeIf(incoming -> incoming.getSource() != loop.preheader);
+                    } else {
+                        phi = new Phi();
+                        phi.setReceiver(phis.get(j).getReceiver());
+                        header.getPhis().add(phi);
+                    }
+                    for (int predecessor = 0; predecessor < modes.length; ++predecessor) {
+                        if (modes[predecessor] != CopyMode.EXIT && next(predecessor) == k) {
+                            Incoming incoming = new Incoming();
+                            incoming.setSource(copies[predecessor][indexOf(loop.latch)]);
+                            incoming.setValue(latchValues.get(j));
+                            phi.getIncomings().add(incoming);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void updateExitPhis() {
+            int exitingIndex = indexOf(loop.exitingBlock);
+            for (Phi phi : loop.exit.getPhis()) {
+                Variable value = null;
+                for (Incoming incoming : phi.getIncomings()) {
+                    if (incoming.getSource() == loop.exitingBlock) {
+                        value = incoming.getValue();
+                    }
+                }
+                if (value == null) {
+                    continue;
+                }
+                if (modes[0] == CopyMode.STAY) {
+                    phi.getIncomings().removeIf(incoming -> incoming.getSource() == loop.exitingBlock);
+                }
+                for (int k = 1; k < modes.length; ++k) {
+                    if (modes[k] != CopyMode.STAY) {
+                        Incoming incoming = new Incoming();
+                        incoming.setSource(copies[k][exitingIndex]);
+                        incoming.setValue(value);
+                        phi.getIncomings().add(incoming);
+                    }
+                }
+            }
+        }
+    }
+}
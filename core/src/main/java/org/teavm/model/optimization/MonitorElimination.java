@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import org.teavm.dependency.DependencyInfo;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.instructions.MonitorEnterInstruction;
+import org.teavm.model.instructions.MonitorExitInstruction;
+import org.teavm.model.instructions.NullCheckInstruction;
+
+/**
+ * Removes monitors from programs that can never have a second thread. Without {@code Thread.start} nothing
+ * can contend for a monitor, and unless lock ownership is observed (which {@code wait}, {@code notify} and
+ * {@code Thread.holdsLock} do through {@code Object.holdsLock}), entering and exiting monitors has no visible
+ * effect. Monitor instructions are replaced by null checks and {@code synchronized} modifiers are dropped,
+ * so such methods neither become async nor call the monitor runtime.
+ */
+public class MonitorElimination {
+    private static final MethodReference THREAD_START = new MethodReference(Thread.class, "start", void.class);
+    private static final MethodReference HOLDS_LOCK = new MethodReference(Object.class, "holdsLock",
+            Object.class, boolean.class);
+
+    public static boolean isApplicable(DependencyInfo dependency) {
+        return !dependency.getReachableMethods().contains(THREAD_START)
+                && !dependency.getReachableMethods().contains(HOLDS_LOCK);
+    }
+
+    public void apply(MethodHolder method) {
+        if (method.hasModifier(ElementModifier.SYNCHRONIZED)) {
+            method.getModifiers().remove(ElementModifier.SYNCHRONIZED);
+        }
+
+        Program program = method.getProgram();
+        if (program == null) {
+            return;
+        }
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (insn instanceof MonitorEnterInstruction) {
+                    MonitorEnterInstruction monitorEnter = (MonitorEnterInstruction) insn;
+                    NullCheckInstruction nullCheck = new NullCheckInstruction();
+                    nullCheck.setValue(monitorEnter.getObjectRef());
+                    nullCheck.setReceiver(program.createVariable());
+                    nullCheck.setLocation(monitorEnter.getLocation());
+                    monitorEnter.replace(nullCheck);
+                } else if (insn instanceof MonitorExitInstruction) {
+                    insn.delete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,840 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.TryCatchBlock;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AbstractInstructionVisitor;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryBranchingInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.CastIntegerInstruction;
+import org.teavm.model.instructions.CastNumberInstruction;
+import org.teavm.model.instructions.ClassConstantInstruction;
+import org.teavm.model.instructions.ConstructArrayInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.DoubleConstantInstruction;
+import org.teavm.model.instructions.FloatConstantInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.IsInstanceInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NegateInstruction;
+import org.teavm.model.instructions.NullConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.StringConstantInstruction;
+import org.teavm.model.instructions.SwitchInstruction;
+import org.teavm.model.instructions.SwitchTableEntry;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.TransitionExtractor;
+import org.teavm.model.util.UsageExtractor;
+
+/**
+ * <p>Sparse conditional constant propagation (Wegman and Zadeck). Unlike {@link GlobalValueNumbering} and
+ * {@link ConstantConditionElimination}, it only takes into account control flow edges that can actually be taken,
+ * so constants flowing through phis are folded, as well as branches that depend on them.</p>
+ *
+ * <p>Besides numeric constants, it tracks <code>null</code> and values of exactly known type (i.e. produced by
+ * <code>new</code>), which allows to fold null checks and <code>instanceof</code>.</p>
+ */
+public class SparseConditionalConstantPropagation implements MethodOptimization {
+    private Program program;
+    private ClassHierarchy hierarchy;
+    private Value[] values;
+    private boolean[] executableBlocks;
+    private BitSet[] executableEdges;
+    private List<List<Instruction>> instructionUsages;
+    private List<List<Phi>> phiUsages;
+    private ArrayDeque<BasicBlock> blockQueue = new ArrayDeque<>();
+    private ArrayDeque<Variable> variableQueue = new ArrayDeque<>();
+    private TransitionExtractor transitionExtractor = new TransitionExtractor();
+    private DefinitionExtractor definitionExtractor = new DefinitionExtractor();
+
+    @Override
+    public boolean optimize(MethodOptimizationContext context, Program program) {
+        return optimize(context.getHierarchy(), program);
+    }
+
+    public boolean optimize(ClassHierarchy hierarchy, Program program) {
+        if (program.basicBlockCount() == 0) {
+            return false;
+        }
+        this.program = program;
+        this.hierarchy = hierarchy;
+        try {
+            init();
+            propagate();
+            return rewrite();
+        } finally {
+            this.program = null;
+            this.hierarchy = null;
+            values = null;
+            executableBlocks = null;
+            executableEdges = null;
+            instructionUsages = null;
+            phiUsages = null;
+            blockQueue.clear();
+            variableQueue.clear();
+        }
+    }
+
+    private void init() {
+        int variableCount = program.variableCount();
+        values = new Value[variableCount];
+        executableBlocks = new boolean[program.basicBlockCount()];
+        executableEdges = new BitSet[program.basicBlockCount()];
+        instructionUsages = new ArrayList<>(variableCount);
+        phiUsages = new ArrayList<>(variableCount);
+        for (int i = 0; i < variableCount; ++i) {
+            instructionUsages.add(new ArrayList<>());
+            phiUsages.add(new ArrayList<>());
+        }
+
+        boolean[] defined = new boolean[variableCount];
+        UsageExtractor usageExtractor = new UsageExtractor();
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            BasicBlock block = program.basicBlockAt(i);
+            executableEdges[i] = new BitSet();
+            for (Phi phi : block.getPhis()) {
+                defined[phi.getReceiver().getIndex()] = true;
+                for (Incoming incoming : phi.getIncomings()) {
+                    phiUsages.get(incoming.getValue().getIndex()).add(phi);
+                }
+            }
+            if (block.getExceptionVariable() != null) {
+                values[block.getExceptionVariable().getIndex()] = Value.OVERDEFINED;
+                defined[block.getExceptionVariable().getIndex()] = true;
+            }
+            for (Instruction instruction : block) {
+                instruction.acceptVisitor(usageExtractor);
+                for (Variable variable : usageExtractor.getUsedVariables()) {
+                    instructionUsages.get(variable.getIndex()).add(instruction);
+                }
+                instruction.acceptVisitor(definitionExtractor);
+                for (Variable variable : definitionExtractor.getDefinedVariables()) {
+                    defined[variable.getIndex()] = true;
+                }
+            }
+        }
+
+        for (int i = 0; i < variableCount; ++i) {
+            if (!defined[i]) {
+                values[i] = Value.OVERDEFINED;
+            } else if (values[i] == null) {
+                values[i] = Value.UNDEFINED;
+            }
+        }
+    }
+
+    private void propagate() {
+        markExecutable(null, program.basicBlockAt(0));
+        while (!blockQueue.isEmpty() || !variableQueue.isEmpty()) {
+            while (!blockQueue.isEmpty()) {
+                BasicBlock block = blockQueue.remove();
+                for (Phi phi : block.getPhis()) {
+                    evaluatePhi(phi);
+                }
+                for (Instruction instruction : block) {
+                    evaluate(instruction);
+                }
+                for (TryCatchBlock tryCatch : block.getTryCatchBlocks()) {
+                    markExecutable(block, tryCatch.getHandler());
+                }
+            }
+            while (!variableQueue.isEmpty() && blockQueue.isEmpty()) {
+                Variable variable = variableQueue.remove();
+                for (Phi phi : phiUsages.get(variable.getIndex())) {
+                    if (executableBlocks[phi.getBasicBlock().getIndex()]) {
+                        evaluatePhi(phi);
+                    }
+                }
+                for (Instruction instruction : instructionUsages.get(variable.getIndex())) {
+                    if (executableBlocks[instruction.getBasicBlock().getIndex()]) {
+                        evaluate(instruction);
+                    }
+                }
+            }
+        }
+    }
+
+    private void markExecutable(BasicBlock source, BasicBlock target) {
+        if (source != null) {
+            BitSet edges = executableEdges[target.getIndex()];
+            if (edges.get(source.getIndex())) {
+                return;
+            }
+            edges.set(source.getIndex());
+        }
+        if (!executableBlocks[target.getIndex()]) {
+            executableBlocks[target.getIndex()] = true;
+            blockQueue.add(target);
+        } else {
+            for (Phi phi : target.getPhis()) {
+                evaluatePhi(phi);
+            }
+        }
+    }
+
+    private void evaluatePhi(Phi phi) {
+        BitSet edges = executableEdges[phi.getBasicBlock().getIndex()];
+        Value result = Value.UNDEFINED;
+        for (Incoming incoming : phi.getIncomings()) {
+            if (edges.get(incoming.getSource().getIndex())) {
+                result = result.meet(values[incoming.getValue().getIndex()]);
+                if (result == Value.OVERDEFINED) {
+                    break;
+                }
+            }
+        }
+        update(phi.getReceiver(), result);
+    }
+
+    private void evaluate(Instruction instruction) {
+        evaluator.handled = false;
+        instruction.acceptVisitor(evaluator);
+        if (!evaluator.handled) {
+            instruction.acceptVisitor(definitionExtractor);
+            for (Variable variable : definitionExtractor.getDefinedVariables()) {
+                update(variable, Value.OVERDEFINED);
+            }
+        }
+    }
+
+    private void update(Variable variable, Value value) {
+        Value oldValue = values[variable.getIndex()];
+        if (oldValue == Value.OVERDEFINED) {
+            return;
+        }
+        Value newValue = oldValue.meet(value);
+        if (!newValue.equals(oldValue)) {
+            values[variable.getIndex()] = newValue;
+            variableQueue.add(variable);
+        }
+    }
+
+    private Value valueOf(Variable variable) {
+        return values[variable.getIndex()];
+    }
+
+    private Evaluator evaluator = new Evaluator();
+
+    class Evaluator extends AbstractInstructionVisitor {
+        boolean handled;
+
+        private void result(Variable receiver, Value value) {
+            handled = true;
+            update(receiver, value);
+        }
+
+        @Override
+        public void visit(IntegerConstantInstruction insn) {
+            result(insn.getReceiver(), Value.constant(insn.getConstant()));
+        }
+
+        @Override
+        public void visit(LongConstantInstruction insn) {
+            result(insn.getReceiver(), Value.constant(insn.getConstant()));
+        }
+
+        @Override
+        public void visit(FloatConstantInstruction insn) {
+            result(insn.getReceiver(), Value.constant(insn.getConstant()));
+        }
+
+        @Override
+        public void visit(DoubleConstantInstruction insn) {
+            result(insn.getReceiver(), Value.constant(insn.getConstant()));
+        }
+
+        @Override
+        public void visit(NullConstantInstruction insn) {
+            result(insn.getReceiver(), Value.NULL);
+        }
+
+        @Override
+        public void visit(StringConstantInstruction insn) {
+            result(insn.getReceiver(), Value.exact(ValueType.object("java.lang.String")));
+        }
+
+        @Override
+        public void visit(ClassConstantInstruction insn) {
+            result(insn.getReceiver(), Value.exact(ValueType.object("java.lang.Class")));
+        }
+
+        @Override
+        public void visit(ConstructInstruction insn) {
+            result(insn.getReceiver(), Value.exact(ValueType.object(insn.getType())));
+        }
+
+        @Override
+        public void visit(ConstructArrayInstruction insn) {
+            result(insn.getReceiver(), Value.exact(ValueType.arrayOf(insn.getItemType())));
+        }
+
+        @Override
+        public void visit(AssignInstruction insn) {
+            result(insn.getReceiver(), valueOf(insn.getAssignee()));
+        }
+
+        @Override
+        public void visit(BinaryInstruction insn) {
+            Value first = valueOf(insn.getFirstOperand());
+            Value second = valueOf(insn.getSecondOperand());
+            Value result;
+            if (first == Value.OVERDEFINED || second == Value.OVERDEFINED) {
+                result = Value.OVERDEFINED;
+            } else if (first.constant != null && second.constant != null) {
+                Number constant = evaluateBinary(insn.getOperation(), insn.getOperandType(),
+                        first.constant, second.constant);
+                result = constant != null ? Value.constant(constant) : Value.OVERDEFINED;
+            } else if (first == Value.UNDEFINED || second == Value.UNDEFINED) {
+                result = Value.UNDEFINED;
+            } else {
+                result = Value.OVERDEFINED;
+            }
+            result(insn.getReceiver(), result);
+        }
+
+        @Override
+        public void visit(NegateInstruction insn) {
+            Value operand = valueOf(insn.getOperand());
+            Value result = operand;
+            if (operand.constant != null) {
+                Number value = operand.constant;
+                switch (insn.getOperandType()) {
+                    case INT:
+                        result = Value.constant(-value.intValue());
+                        break;
+                    case LONG:
+                        result = Value.constant(-value.longValue());
+                        break;
+                    case FLOAT:
+                        result = Value.constant(-value.floatValue());
+                        break;
+                    case DOUBLE:
+                        result = Value.constant(-value.doubleValue());
+                        break;
+                }
+            } else if (operand != Value.UNDEFINED) {
+                result = Value.OVERDEFINED;
+            }
+            result(insn.getReceiver(), result);
+        }
+
+        @Override
+        public void visit(CastNumberInstruction insn) {
+            Value operand = valueOf(insn.getValue());
+            Value result = operand;
+            if (operand.constant != null) {
+                Number value = operand.constant;
+                switch (insn.getTargetType()) {
+                    case INT:
+                        result = Value.constant(value.intValue());
+                        break;
+                    case LONG:
+                        result = Value.constant(value.longValue());
+                        break;
+                    case FLOAT:
+                        result = Value.constant(value.floatValue());
+                        break;
+                    case DOUBLE:
+                        result = Value.constant(value.doubleValue());
+                        break;
+                }
+            } else if (operand != Value.UNDEFINED) {
+                result = Value.OVERDEFINED;
+            }
+            result(insn.getReceiver(), result);
+        }
+
+        @Override
+        public void visit(CastIntegerInstruction insn) {
+            Value operand = valueOf(insn.getValue());
+            Value result = operand;
+            if (operand.constant != null) {
+                int value = operand.constant.intValue();
+                switch (insn.getDirection()) {
+                    case TO_INTEGER:
+                        break;
+                    case FROM_INTEGER:
+                        switch (insn.getTargetType()) {
+                            case BYTE:
+                                result = Value.constant(value << 24 >> 24);
+                                break;
+                            case SHORT:
+                                result = Value.constant(value << 16 >> 16);
+                                break;
+                            case CHAR:
+                                result = Value.constant(value & 0xFFFF);
+                                break;
+                        }
+                        break;
+                }
+            } else if (operand != Value.UNDEFINED) {
+                result = Value.OVERDEFINED;
+            }
+            result(insn.getReceiver(), result);
+        }
+
+        @Override
+        public void visit(IsInstanceInstruction insn) {
+            Value operand = valueOf(insn.getValue());
+            Value result = Value.OVERDEFINED;
+            if (operand == Value.UNDEFINED) {
+                result = Value.UNDEFINED;
+            } else if (operand == Value.NULL) {
+                result = Value.constant(0);
+            } else if (operand.type != null) {
+                Boolean isInstance = isInstance(operand.type, insn.getType());
+                if (isInstance != null) {
+                    result = Value.constant(isInstance ? 1 : 0);
+                }
+            }
+            result(insn.getReceiver(), result);
+        }
+
+        @Override
+        public void visit(JumpInstruction insn) {
+            handled = true;
+            markExecutable(insn.getBasicBlock(), insn.getTarget());
+        }
+
+        @Override
+        public void visit(BranchingInstruction insn) {
+            handled = true;
+            Value operand = valueOf(insn.getOperand());
+            if (operand == Value.UNDEFINED) {
+                return;
+            }
+            Boolean condition = null;
+            switch (insn.getCondition()) {
+                case NULL:
+                case NOT_NULL:
+                    if (operand == Value.NULL) {
+                        condition = true;
+                    } else if (operand.type != null) {
+                        condition = false;
+                    }
+                    if (condition != null && insn.getCondition() == BranchingCondition.NOT_NULL) {
+                        condition = !condition;
+                    }
+                    break;
+                default:
+                    if (operand.constant != null) {
+                        condition = checkCondition(insn.getCondition(), operand.constant.intValue());
+                    }
+                    break;
+            }
+            markBranchTargets(insn.getBasicBlock(), condition, insn.getConsequent(), insn.getAlternative());
+        }
+
+        @Override
+        public void visit(BinaryBranchingInstruction insn) {
+            handled = true;
+            Value first = valueOf(insn.getFirstOperand());
+            Value second = valueOf(insn.getSecondOperand());
+            if (first == Value.UNDEFINED || second == Value.UNDEFINED) {
+                return;
+            }
+            Boolean condition = null;
+            switch (insn.getCondition()) {
+                case EQUAL:
+                case NOT_EQUAL:
+                    if (first.constant != null && second.constant != null) {
+                        condition = first.constant.intValue() == second.constant.intValue();
+                    }
+                    break;
+                case REFERENCE_EQUAL:
+                case REFERENCE_NOT_EQUAL:
+                    if (first == Value.NULL && second == Value.NULL) {
+                        condition = true;
+                    } else if ((first == Value.NULL && second.type != null)
+                            || (first.type != null && second == Value.NULL)) {
+                        condition = false;
+                    }
+                    break;
+            }
+            if (condition != null) {
+                switch (insn.getCondition()) {
+                    case NOT_EQUAL:
+                    case REFERENCE_NOT_EQUAL:
+                        condition = !condition;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            markBranchTargets(insn.getBasicBlock(), condition, insn.getConsequent(), insn.getAlternative());
+        }
+
+        @Override
+        public void visit(SwitchInstruction insn) {
+            handled = true;
+            Value condition = valueOf(insn.getCondition());
+            if (condition == Value.UNDEFINED) {
+                return;
+            }
+            if (condition.constant != null) {
+                markExecutable(insn.getBasicBlock(), switchTarget(insn, condition.constant.intValue()));
+            } else {
+                for (SwitchTableEntry entry : insn.getEntries()) {
+                    markExecutable(insn.getBasicBlock(), entry.getTarget());
+                }
+                markExecutable(insn.getBasicBlock(), insn.getDefaultTarget());
+            }
+        }
+
+        private void markBranchTargets(BasicBlock source, Boolean condition, BasicBlock consequent,
+                BasicBlock alternative) {
+            if (condition == null || condition) {
+                markExecutable(source, consequent);
+            }
+            if (condition == null || !condition) {
+                markExecutable(source, alternative);
+            }
+        }
+    }
+
+    private Boolean isInstance(ValueType exactType, ValueType type) {
+        if (exactType.equals(type) || type.isObject("java.lang.Object")) {
+            return true;
+        }
+        if (!(exactType instanceof ValueType.Object)) {
+            // ClassHierarchy does not know that arrays implement Cloneable and Serializable
+            return null;
+        }
+        if (hierarchy.getClassSource().get(((ValueType.Object) exactType).getClassName()) == null) {
+            return null;
+        }
+        boolean optimistic = hierarchy.isSuperType(type, exactType, true);
+        boolean pessimistic = hierarchy.isSuperType(type, exactType, false);
+        return optimistic == pessimistic ? optimistic : null;
+    }
+
+    private static BasicBlock switchTarget(SwitchInstruction insn, int value) {
+        for (SwitchTableEntry entry : insn.getEntries()) {
+            if (entry.getCondition() == value) {
+                return entry.getTarget();
+            }
+        }
+        return insn.getDefaultTarget();
+    }
+
+    private static boolean checkCondition(BranchingCondition condition, int constant) {
+        switch (condition) {
+            case EQUAL:
+                return constant == 0;
+            case NOT_EQUAL:
+                return constant != 0;
+            case GREATER:
+                return constant > 0;
+            case GREATER_OR_EQUAL:
+                return constant >= 0;
+            case LESS:
+                return constant < 0;
+            case LESS_OR_EQUAL:
+                return constant <= 0;
+            default:
+                return false;
+        }
+    }
+
+    static Number evaluateBinary(BinaryOperation operation, NumericOperandType type, Number first, Number second) {
+        switch (type) {
+            case INT: {
+                int p = first.intValue();
+                int q = second.intValue();
+                switch (operation) {
+                    case ADD:
+                        return p + q;
+                    case SUBTRACT:
+                        return p - q;
+                    case MULTIPLY:
+                        return p * q;
+                    case DIVIDE:
+                        return q != 0 ? p / q : null;
+                    case MODULO:
+                        return q != 0 ? p % q : null;
+                    case COMPARE:
+                        return Integer.compare(p, q);
+                    case AND:
+                        return p & q;
+                    case OR:
+                        return p | q;
+                    case XOR:
+                        return p ^ q;
+                    case SHIFT_LEFT:
+                        return p << q;
+                    case SHIFT_RIGHT:
+                        return p >> q;
+                    case SHIFT_RIGHT_UNSIGNED:
+                        return p >>> q;
+                }
+                break;
+            }
+            case LONG: {
+                long p = first.longValue();
+                long q = second.longValue();
+                switch (operation) {
+                    case ADD:
+                        return p + q;
+                    case SUBTRACT:
+                        return p - q;
+                    case MULTIPLY:
+                        return p * q;
+                    case DIVIDE:
+                        return q != 0 ? p / q : null;
+                    case MODULO:
+                        return q != 0 ? p % q : null;
+                    case COMPARE:
+                        return Long.compare(p, q);
+                    case AND:
+                        return p & q;
+                    case OR:
+                        return p | q;
+                    case XOR:
+                        return p ^ q;
+                    case SHIFT_LEFT:
+                        return p << second.intValue();
+                    case SHIFT_RIGHT:
+                        return p >> second.intValue();
+                    case SHIFT_RIGHT_UNSIGNED:
+                        return p >>> second.intValue();
+                }
+                break;
+            }
+            case FLOAT: {
+                float p = first.floatValue();
+                float q = second.floatValue();
+                switch (operation) {
+                    case ADD:
+                        return p + q;
+                    case SUBTRACT:
+                        return p - q;
+                    case MULTIPLY:
+                        return p * q;
+                    case DIVIDE:
+                        return p / q;
+                    case MODULO:
+                        return p % q;
+                    case COMPARE:
+                        // result of comparison with NaN depends on original bytecode instruction, which is lost
+                        return Float.isNaN(p) || Float.isNaN(q) ? null : Integer.valueOf(p > q ? 1 : p < q ? -1 : 0);
+                    default:
+                        break;
+                }
+                break;
+            }
+            case DOUBLE: {
+                double p = first.doubleValue();
+                double q = second.doubleValue();
+                switch (operation) {
+                    case ADD:
+                        return p + q;
+                    case SUBTRACT:
+                        return p - q;
+                    case MULTIPLY:
+                        return p * q;
+                    case DIVIDE:
+                        return p / q;
+                    case MODULO:
+                        return p % q;
+                    case COMPARE:
+                        return Double.isNaN(p) || Double.isNaN(q) ? null : Integer.valueOf(p > q ? 1 : p < q ? -1 : 0);
+                    default:
+                        break;
+                }
+                break;
+            }
+        }
+        return null;
+    }
+
+    private boolean rewrite() {
+        boolean changed = false;
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            BasicBlock block = program.basicBlockAt(i);
+            if (!executableBlocks[i]) {
+                continue;
+            }
+
+            List<Instruction> constants = new ArrayList<>();
+            for (int j = 0; j < block.getPhis().size(); ++j) {
+                Phi phi = block.getPhis().get(j);
+                Instruction constant = createConstant(phi.getReceiver());
+                if (constant != null) {
+                    constants.add(constant);
+                    block.getPhis().remove(j--);
+                }
+            }
+            if (!constants.isEmpty()) {
+                block.addFirstAll(constants);
+                changed = true;
+            }
+
+            for (Instruction instruction : block) {
+                if (isFoldable(instruction)) {
+                    instruction.acceptVisitor(definitionExtractor);
+                    Instruction constant = createConstant(definitionExtractor.getDefinedVariables()[0]);
+                    if (constant != null) {
+                        constant.setLocation(instruction.getLocation());
+                        instruction.replace(constant);
+                        changed = true;
+                    }
+                }
+            }
+
+            Instruction last = block.getLastInstruction();
+            last.acceptVisitor(transitionExtractor);
+            BasicBlock[] targets = transitionExtractor.getTargets();
+            if (targets == null || last instanceof JumpInstruction) {
+                continue;
+            }
+            BasicBlock onlyTarget = null;
+            boolean singleTarget = true;
+            for (BasicBlock target : targets) {
+                if (executableEdges[target.getIndex()].get(i)) {
+                    if (onlyTarget == null) {
+                        onlyTarget = target;
+                    } else if (onlyTarget != target) {
+                        singleTarget = false;
+                    }
+                }
+            }
+            if (onlyTarget != null && singleTarget) {
+                for (BasicBlock target : targets) {
+                    if (target != onlyTarget) {
+                        target.removeIncomingsFrom(block);
+                    }
+                }
+                JumpInstruction jump = new JumpInstruction();
+                jump.setTarget(onlyTarget);
+                jump.setLocation(last.getLocation());
+                last.replace(jump);
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            new UnreachableBasicBlockEliminator().optimize(program);
+        }
+        return changed;
+    }
+
+    private static boolean isFoldable(Instruction instruction) {
+        return instruction instanceof BinaryInstruction || instruction instanceof NegateInstruction
+                || instruction instanceof CastNumberInstruction || instruction instanceof CastIntegerInstruction
+                || instruction instanceof AssignInstruction || instruction instanceof IsInstanceInstruction;
+    }
+
+    private Instruction createConstant(Variable receiver) {
+        Value value = values[receiver.getIndex()];
+        if (value == Value.NULL) {
+            NullConstantInstruction insn = new NullConstantInstruction();
+            insn.setReceiver(receiver);
+            return insn;
+        }
+        Number constant = value.constant;
+        if (constant instanceof Integer) {
+            IntegerConstantInstruction insn = new IntegerConstantInstruction();
+            insn.setConstant((Integer) constant);
+            insn.setReceiver(receiver);
+            return insn;
+        } else if (constant instanceof Long) {
+            LongConstantInstruction insn = new LongConstantInstruction();
+            insn.setConstant((Long) constant);
+            insn.setReceiver(receiver);
+            return insn;
+        } else if (constant instanceof Float) {
+            FloatConstantInstruction insn = new FloatConstantInstruction();
+            insn.setConstant((Float) constant);
+            insn.setReceiver(receiver);
+            return insn;
+        } else if (constant instanceof Double) {
+            DoubleConstantInstruction insn = new DoubleConstantInstruction();
+            insn.setConstant((Double) constant);
+            insn.setReceiver(receiver);
+            return insn;
+        }
+        return null;
+    }
+
+    static final class Value {
+        static final Value UNDEFINED = new Value(null, null);
+        static final Value OVERDEFINED = new Value(null, null);
+        static final Value NULL = new Value(null, null);
+        final Number constant;
+        final ValueType type;
+
+        private Value(Number constant, ValueType type) {
+            this.constant = constant;
+            this.type = type;
+        }
+
+        static Value constant(Number constant) {
+            return new Value(constant, null);
+        }
+
+        static Value exact(ValueType type) {
+            return new Value(null, type);
+        }
+
+        Value meet(Value other) {
+            if (this == UNDEFINED) {
+                return other;
+            }
+            if (other == UNDEFINED || equals(other)) {
+                return this;
+            }
+            return OVERDEFINED;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Value)) {
+                return false;
+            }
+            Value other = (Value) obj;
+            if (constant == null && type == null || other.constant == null && other.type == null) {
+                return false;
+            }
+            return Objects.equals(constant, other.constant) && Objects.equals(type, other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(constant, type);
+        }
+    }
+}
@@ -285,10 +285,10 @@ class InstructionStringifier implements InstructionReader {
                 sb.append(">= 0");
                 break;
             case LESS:
-                sb.append("<= 0");
+                sb.append("< 0");
                 break;
             case LESS_OR_EQUAL:
-                sb.append("< 0");
+                sb.append("<= 0");
                 break;
             case NOT_NULL:
                 sb.append("!== null");
@@ -848,7 +848,7 @@ public class ListingParser {
                     throw new ListingParseException("Only int can be cast to "
                             + target.subtype.name().toLowerCase(Locale.ROOT), lexer.getIndex());
                 }
-                CastIntegerInstruction insn = new CastIntegerInstruction(source.subtype,
+                CastIntegerInstruction insn = new CastIntegerInstruction(target.subtype,
                         CastIntegerDirection.FROM_INTEGER);
                 insn.setReceiver(receiver);
                 insn.setValue(value);
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Instruction;
+import org.teavm.model.Program;
+import org.teavm.model.analysis.IntegerRangeAnalysis;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BoundCheckInstruction;
+
+/**
+ * Removes bound checks inserted by {@link BoundCheckInsertion} which {@link IntegerRangeAnalysis} proves
+ * redundant. Expects program in SSA form, so it should run after optimizations, but before any transformation
+ * that breaks SSA.
+ */
+public class BoundCheckElimination {
+    public boolean apply(Program program) {
+        if (program.basicBlockCount() == 0 || !hasBoundChecks(program)) {
+            return false;
+        }
+
+        IntegerRangeAnalysis ranges = new IntegerRangeAnalysis(program);
+        List<BoundCheckInstruction> lowerRedundant = new ArrayList<>();
+        List<BoundCheckInstruction> upperRedundant = new ArrayList<>();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (!(instruction instanceof BoundCheckInstruction)) {
+                    continue;
+                }
+                BoundCheckInstruction boundCheck = (BoundCheckInstruction) instruction;
+                if (boundCheck.isLower() && ranges.getLowerBound(boundCheck.getIndex(), block) >= 0) {
+                    lowerRedundant.add(boundCheck);
+                }
+                if (boundCheck.getArray() != null
+                        && ranges.isLessThanLength(boundCheck.getIndex(), boundCheck.getArray(), block)) {
+                    upperRedundant.add(boundCheck);
+                }
+            }
+        }
+
+        for (BoundCheckInstruction boundCheck : lowerRedundant) {
+            boundCheck.setLower(false);
+        }
+        for (BoundCheckInstruction boundCheck : upperRedundant) {
+            boundCheck.setArray(null);
+        }
+        for (BoundCheckInstruction boundCheck : lowerRedundant) {
+            removeIfEmpty(boundCheck);
+        }
+        for (BoundCheckInstruction boundCheck : upperRedundant) {
+            removeIfEmpty(boundCheck);
+        }
+
+        return !lowerRedundant.isEmpty() || !upperRedundant.isEmpty();
+    }
+
+    private static void removeIfEmpty(BoundCheckInstruction boundCheck) {
+        if (boundCheck.getBasicBlock() == null || boundCheck.isLower() || boundCheck.getArray() != null) {
+            return;
+        }
+        AssignInstruction assign = new AssignInstruction();
+        assign.setAssignee(boundCheck.getIndex());
+        assign.setReceiver(boundCheck.getReceiver());
+        assign.setLocation(boundCheck.getLocation());
+        boundCheck.replace(assign);
+    }
+
+    private static boolean hasBoundChecks(Program program) {
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (instruction instanceof BoundCheckInstruction) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
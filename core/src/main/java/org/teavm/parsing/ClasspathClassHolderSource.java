@@ -15,7 +15,13 @@
  */
 package org.teavm.parsing;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.teavm.model.ClassHolder;
 import org.teavm.model.ClassHolderSource;
 import org.teavm.model.ReferenceCache;
@@ -23,17 +29,48 @@ import org.teavm.parsing.resource.ClasspathResourceReader;
 import org.teavm.parsing.resource.MapperClassHolderSource;
 import org.teavm.parsing.resource.ResourceClassHolderMapper;
 
-public class ClasspathClassHolderSource implements ClassHolderSource, ClassDateProvider {
+public class ClasspathClassHolderSource implements ClassHolderSource, ClassDateProvider, Closeable {
+    private ClasspathResourceReader reader;
     private MapperClassHolderSource innerClassSource;
     private ClasspathResourceMapper classPathMapper;
 
     public ClasspathClassHolderSource(ClassLoader classLoader, ReferenceCache referenceCache) {
-        ClasspathResourceReader reader = new ClasspathResourceReader(classLoader);
-        ResourceClassHolderMapper rawMapper = new ResourceClassHolderMapper(reader, referenceCache);
+        this(classLoader, referenceCache, 1);
+    }
+
+    /**
+     * Creates class source that parses classes on the calling thread and, when {@code parsingThreadCount}
+     * is greater than 1, speculatively parses classes referenced by already requested ones on a pool of
+     * additional threads.
+     */
+    public ClasspathClassHolderSource(ClassLoader classLoader, ReferenceCache referenceCache,
+            int parsingThreadCount) {
+        reader = new ClasspathResourceReader(classLoader);
+        ResourceClassHolderMapper rawMapper = new ResourceClassHolderMapper(reader, referenceCache,
+                parsingThreadCount > 1 ? createExecutor(parsingThreadCount - 1) : null);
         classPathMapper = new ClasspathResourceMapper(classLoader, referenceCache, rawMapper);
+        if (parsingThreadCount > 1) {
+            rawMapper.setReferenceListener(reference -> {
+                String mappedName = classPathMapper.getMappedClassName(reference);
+                if (mappedName != null) {
+                    rawMapper.prefetch(mappedName);
+                }
+            });
+        }
         innerClassSource = new MapperClassHolderSource(classPathMapper);
     }
 
+    private static Executor createExecutor(int threadCount) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "TeaVM class parser");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     public ClasspathClassHolderSource(ReferenceCache referenceCache) {
         this(ClasspathClassHolderSource.class.getClassLoader(), referenceCache);
     }
@@ -47,4 +84,13 @@ public class ClasspathClassHolderSource implements ClassHolderSource, ClassDateP
     public Date getModificationDate(String className) {
         return classPathMapper.getModificationDate(className);
     }
+
+    /**
+     * Closes jar files opened to read classes. Class source remains usable, jar files are opened again
+     * when more classes are requested.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
 }
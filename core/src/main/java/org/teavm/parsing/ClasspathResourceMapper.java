@@ -157,6 +157,28 @@ public class ClasspathResourceMapper implements Function<String, ClassHolder>, C
         return cls;
     }
 
+    /**
+     * Finds a name under which the inner mapper is queried first when resolving a class, given the name
+     * of the class as it is referenced by another class returned by the inner mapper.
+     *
+     * @return mapped name or {@code null} if the class is excluded.
+     */
+    public String getMappedClassName(String referencedName) {
+        String name = toUnmappedClassName(referencedName);
+        for (String mappedClassName : classMappings.apply(name)) {
+            if (!classExclusions.apply(mappedClassName)) {
+                return mappedClassName;
+            }
+        }
+        for (String mappedClassName : packageMappings.apply(name)) {
+            mappedClassName = prefixMapping.apply(mappedClassName);
+            if (!classExclusions.apply(mappedClassName)) {
+                return mappedClassName;
+            }
+        }
+        return !classExclusions.apply(name) ? name : null;
+    }
+
     @Override
     public Date getModificationDate(String className) {
         Date mdate = modificationDates.get(className);
@@ -15,13 +15,27 @@
  */
 package org.teavm.parsing;
 
-import java.io.*;
-import java.util.jar.JarFile;
-import java.util.jar.JarInputStream;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
-public class JarFileResourceProvider implements ResourceProvider {
+/**
+ * Reads resources from a jar file. Central directory of the jar is read once, on the first request,
+ * and entries are served from a single {@link ZipFile} shared by all requests until {@link #close()}
+ * is called, so that looking up a resource does not require scanning the archive.
+ */
+public class JarFileResourceProvider implements ResourceProvider, Closeable {
     private File file;
+    private ZipFile zipFile;
+    private Map<String, ZipEntry> entries;
 
     public JarFileResourceProvider(File file) {
         if (file == null) {
@@ -35,37 +49,62 @@ public class JarFileResourceProvider implements ResourceProvider {
     }
 
     @Override
-    public boolean hasResource(String name) {
-        try (JarFile jar = new JarFile(file)) {
-            return jar.getEntry(name) != null;
-        } catch (FileNotFoundException ex) {
-            throw new IllegalStateException("The underlying file does not exist", ex);
-        } catch (IOException ex) {
-            throw new IllegalStateException("Error reading jar file", ex);
-        }
+    public synchronized boolean hasResource(String name) {
+        open();
+        return entries.containsKey(normalize(name));
     }
 
     @Override
     public InputStream openResource(String name) {
+        ZipFile zipFile;
+        ZipEntry entry;
+        synchronized (this) {
+            open();
+            zipFile = this.zipFile;
+            entry = entries.get(normalize(name));
+        }
+        if (entry == null) {
+            throw new IllegalArgumentException("Resource not found: " + name);
+        }
         try {
-            JarInputStream input = new JarInputStream(new FileInputStream(file));
-            while (true) {
-                ZipEntry entry = input.getNextEntry();
-                if (entry == null) {
-                    input.close();
-                    throw new IllegalArgumentException("Resource not found: " + name);
-                }
-                if (entry.getName().equals(name)) {
-                    return input;
-                }
-                if (name.startsWith("/") && entry.getName().equals(name.substring(1))) {
-                    return input;
-                }
-            }
+            return new BufferedInputStream(zipFile.getInputStream(entry));
+        } catch (IOException e) {
+            throw new IllegalStateException("Error reading jar file", e);
+        }
+    }
+
+    private void open() {
+        if (zipFile != null) {
+            return;
+        }
+        try {
+            zipFile = new ZipFile(file);
         } catch (FileNotFoundException e) {
-            throw new IllegalStateException("The underlying file does not exist");
+            throw new IllegalStateException("The underlying file does not exist", e);
         } catch (IOException e) {
-            throw new IllegalStateException("Error reading jar file");
+            throw new IllegalStateException("Error reading jar file", e);
+        }
+        entries = new HashMap<>();
+        for (Enumeration<? extends ZipEntry> enumeration = zipFile.entries(); enumeration.hasMoreElements();) {
+            ZipEntry entry = enumeration.nextElement();
+            if (!entry.isDirectory()) {
+                entries.put(entry.getName(), entry);
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.startsWith("/") ? name.substring(1) : name;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (zipFile == null) {
+            return;
         }
+        ZipFile zipFile = this.zipFile;
+        this.zipFile = null;
+        entries = null;
+        zipFile.close();
     }
 }
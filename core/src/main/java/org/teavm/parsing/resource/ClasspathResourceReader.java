@@ -16,11 +16,24 @@
 package org.teavm.parsing.resource;
 
 import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import org.teavm.parsing.JarFileResourceProvider;
 
-public class ClasspathResourceReader implements ResourceReader {
+/**
+ * Reads resources through a class loader. Resources that the class loader finds in local jar files are read
+ * through {@link JarFileResourceProvider}, one per jar, so that the archive is indexed once and kept open
+ * until {@link #close()} is called.
+ */
+public class ClasspathResourceReader implements ResourceReader, Closeable {
     private ClassLoader classLoader;
+    private Map<File, JarFileResourceProvider> jarProviders = new HashMap<>();
 
     public ClasspathResourceReader(ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -32,9 +45,14 @@ public class ClasspathResourceReader implements ResourceReader {
 
     @Override
     public boolean hasResource(String name) {
-        if (classLoader.getResource(name) == null) {
+        URL url = classLoader.getResource(name);
+        if (url == null) {
             return false;
         }
+        JarFileResourceProvider jarProvider = getJarProvider(url, name);
+        if (jarProvider != null) {
+            return jarProvider.hasResource(name);
+        }
         try (InputStream input = classLoader.getResourceAsStream(name)) {
             if (input == null) {
                 return false;
@@ -48,7 +66,48 @@ public class ClasspathResourceReader implements ResourceReader {
 
     @Override
     public InputStream openResource(String name) throws IOException {
-        InputStream result = classLoader.getResourceAsStream(name);
-        return result != null ? new BufferedInputStream(result) : null;
+        URL url = classLoader.getResource(name);
+        if (url == null) {
+            return null;
+        }
+        JarFileResourceProvider jarProvider = getJarProvider(url, name);
+        if (jarProvider != null) {
+            return jarProvider.openResource(name);
+        }
+        return new BufferedInputStream(url.openStream());
+    }
+
+    private JarFileResourceProvider getJarProvider(URL url, String name) {
+        if (!url.getProtocol().equals("jar")) {
+            return null;
+        }
+        String path = url.getPath();
+        int separatorIndex = path.indexOf("!/");
+        if (separatorIndex < 0 || !path.substring(separatorIndex + 2).equals(name)) {
+            return null;
+        }
+        File file;
+        try {
+            URL fileUrl = new URL(path.substring(0, separatorIndex));
+            if (!fileUrl.getProtocol().equals("file")) {
+                return null;
+            }
+            file = new File(fileUrl.toURI());
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+        synchronized (jarProviders) {
+            return jarProviders.computeIfAbsent(file, JarFileResourceProvider::new);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (jarProviders) {
+            for (JarFileResourceProvider provider : jarProviders.values()) {
+                provider.close();
+            }
+            jarProviders.clear();
+        }
     }
 }
@@ -17,6 +17,17 @@ package org.teavm.parsing.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
@@ -24,28 +35,128 @@ import org.teavm.model.ClassHolder;
 import org.teavm.model.ReferenceCache;
 import org.teavm.parsing.Parser;
 
+/**
+ * <p>Parses classes found by a {@link ResourceReader}.</p>
+ *
+ * <p>When created with an executor, the mapper can parse classes speculatively via {@link #prefetch(String)}.
+ * Every time a class is returned, names of classes from its constant pool are reported to the reference
+ * listener, which is expected to prefetch the ones that are likely to be requested next. Prefetched classes
+ * are parsed by worker threads, each of them with its own {@link ReferenceCache}, since the cache is not
+ * thread-safe. All methods of the mapper itself must be called from a single thread.</p>
+ */
 public class ResourceClassHolderMapper implements Function<String, ClassHolder> {
+    private static final int CONSTANT_CLASS = 7;
     private Parser parser;
     private ResourceReader resourceReader;
+    private Executor prefetchExecutor;
+    private ThreadLocal<Parser> workerParser = ThreadLocal.withInitial(() -> new Parser(new ReferenceCache()));
+    private Map<String, CompletableFuture<ParsedClass>> prefetchedClasses = new HashMap<>();
+    private Set<String> requestedClasses = new HashSet<>();
+    private Consumer<String> referenceListener;
 
     public ResourceClassHolderMapper(ResourceReader resourceReader, ReferenceCache referenceCache) {
+        this(resourceReader, referenceCache, null);
+    }
+
+    public ResourceClassHolderMapper(ResourceReader resourceReader, ReferenceCache referenceCache,
+            Executor prefetchExecutor) {
         this.resourceReader = resourceReader;
+        this.prefetchExecutor = prefetchExecutor;
         parser = new Parser(referenceCache);
     }
 
+    public void setReferenceListener(Consumer<String> referenceListener) {
+        this.referenceListener = referenceListener;
+    }
+
     @Override
     public ClassHolder apply(String name) {
+        requestedClasses.add(name);
+        CompletableFuture<ParsedClass> prefetched = prefetchedClasses.remove(name);
+        ParsedClass result;
+        if (prefetched != null) {
+            try {
+                result = prefetched.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        } else {
+            result = parse(name, parser);
+        }
+        if (result == null) {
+            return null;
+        }
+        if (referenceListener != null) {
+            for (String reference : result.references) {
+                referenceListener.accept(reference);
+            }
+        }
+        return result.cls;
+    }
+
+    /**
+     * Starts parsing of the given class in background, unless it was already requested or prefetched.
+     * Does nothing when the mapper was created without an executor.
+     */
+    public void prefetch(String name) {
+        if (prefetchExecutor == null || requestedClasses.contains(name) || prefetchedClasses.containsKey(name)) {
+            return;
+        }
+        prefetchedClasses.put(name, CompletableFuture.supplyAsync(() -> parse(name, workerParser.get()),
+                prefetchExecutor));
+    }
+
+    private ParsedClass parse(String name, Parser parser) {
         ClassNode clsNode = new ClassNode();
         String resourceName = name.replace('.', '/') + ".class";
         if (!resourceReader.hasResource(resourceName)) {
             return null;
         }
+        List<String> references;
         try (InputStream input = resourceReader.openResource(resourceName)) {
             ClassReader reader = new ClassReader(input);
+            references = prefetchExecutor != null ? getReferences(reader) : Collections.emptyList();
             reader.accept(clsNode, 0);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return parser.parseClass(clsNode);
+        return new ParsedClass(parser.parseClass(clsNode), references);
+    }
+
+    private static List<String> getReferences(ClassReader reader) {
+        List<String> references = new ArrayList<>();
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int i = 1; i < reader.getItemCount(); ++i) {
+            int offset = reader.getItem(i);
+            if (offset == 0 || reader.readByte(offset - 1) != CONSTANT_CLASS) {
+                continue;
+            }
+            String reference = reader.readUTF8(offset, buffer);
+            int start = 0;
+            while (start < reference.length() && reference.charAt(start) == '[') {
+                start++;
+            }
+            if (start > 0) {
+                if (start == reference.length() || reference.charAt(start) != 'L') {
+                    continue;
+                }
+                reference = reference.substring(start + 1, reference.length() - 1);
+            }
+            references.add(reference.replace('/', '.'));
+        }
+        return references;
+    }
+
+    static class ParsedClass {
+        ClassHolder cls;
+        List<String> references;
+
+        ParsedClass(ClassHolder cls, List<String> references) {
+            this.cls = cls;
+            this.references = references;
+        }
     }
 }
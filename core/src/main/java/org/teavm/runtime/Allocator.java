@@ -70,4 +70,13 @@ public final class Allocator {
     public static native void moveMemoryBlock(Address source, Address target, int count);
 
     public static native boolean isInitialized(Class<?> cls);
+
+    /**
+     * Allocates an object in the stack frame of the calling method. Calls to this method are produced
+     * by {@link org.teavm.model.lowlevel.StackAllocation}.
+     *
+     * @param cls class of the object, must be a constant.
+     * @param offset offset of the object in the object area of the frame, in 4-byte words, must be a constant.
+     */
+    public static native Object allocateOnStack(Class<?> cls, int offset);
 }
@@ -22,6 +22,14 @@ import org.teavm.interop.Unmanaged;
 @Unmanaged
 @StaticInit
 public final class ShadowStack {
+    /**
+     * Size passed to {@link #allocStack(int)} and {@link #releaseStack(int)} may additionally carry size
+     * of the area for stack-allocated objects in 4-byte words, shifted by this amount. Only Wasm backend
+     * supports non-zero areas.
+     */
+    public static final int OBJECT_AREA_SHIFT = 16;
+    public static final int ROOT_COUNT_MASK = (1 << OBJECT_AREA_SHIFT) - 1;
+
     private ShadowStack() {
     }
 
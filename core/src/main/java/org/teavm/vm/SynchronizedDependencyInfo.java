@@ -0,0 +1,282 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import org.teavm.callgraph.CallGraph;
+import org.teavm.dependency.ClassDependencyInfo;
+import org.teavm.dependency.DependencyInfo;
+import org.teavm.dependency.FieldDependencyInfo;
+import org.teavm.dependency.MethodDependencyInfo;
+import org.teavm.dependency.ValueDependencyInfo;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodReference;
+
+/**
+ * Gives optimization workers access to dependency information after dependency analysis is complete.
+ * Sets of reachable elements no longer change at this point, so they are copied once on creation.
+ * Method, field and value information may still create nodes or fill caches lazily, so reads of them hold
+ * the same lock as the class source, and never overlap with each other or with target hooks,
+ * which run under that lock as well. The call graph is not used by optimization passes and is not available.
+ */
+class SynchronizedDependencyInfo implements DependencyInfo {
+    private final DependencyInfo underlying;
+    private final ClassReaderSource classSource;
+    private final Object lock;
+    private final Collection<MethodReference> reachableMethods;
+    private final Collection<FieldReference> reachableFields;
+    private final Collection<String> reachableClasses;
+
+    SynchronizedDependencyInfo(DependencyInfo underlying, SynchronizedClassReaderSource classSource) {
+        this.underlying = underlying;
+        this.classSource = classSource;
+        lock = classSource.getLock();
+        reachableMethods = Collections.unmodifiableSet(new LinkedHashSet<>(underlying.getReachableMethods()));
+        reachableFields = Collections.unmodifiableSet(new LinkedHashSet<>(underlying.getReachableFields()));
+        reachableClasses = Collections.unmodifiableSet(new LinkedHashSet<>(underlying.getReachableClasses()));
+    }
+
+    @Override
+    public ClassReaderSource getClassSource() {
+        return classSource;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return underlying.getClassLoader();
+    }
+
+    @Override
+    public Collection<MethodReference> getReachableMethods() {
+        return reachableMethods;
+    }
+
+    @Override
+    public Collection<FieldReference> getReachableFields() {
+        return reachableFields;
+    }
+
+    @Override
+    public Collection<String> getReachableClasses() {
+        return reachableClasses;
+    }
+
+    @Override
+    public FieldDependencyInfo getField(FieldReference fieldRef) {
+        synchronized (lock) {
+            return wrap(underlying.getField(fieldRef));
+        }
+    }
+
+    @Override
+    public MethodDependencyInfo getMethod(MethodReference methodRef) {
+        synchronized (lock) {
+            return wrap(underlying.getMethod(methodRef));
+        }
+    }
+
+    @Override
+    public MethodDependencyInfo getMethodImplementation(MethodReference methodRef) {
+        synchronized (lock) {
+            return wrap(underlying.getMethodImplementation(methodRef));
+        }
+    }
+
+    @Override
+    public ClassDependencyInfo getClass(String className) {
+        synchronized (lock) {
+            return underlying.getClass(className);
+        }
+    }
+
+    @Override
+    public CallGraph getCallGraph() {
+        throw new UnsupportedOperationException("Call graph is not available to parallel optimizations");
+    }
+
+    private MethodDependencyInfo wrap(MethodDependencyInfo method) {
+        return method != null ? new SynchronizedMethodDependencyInfo(method) : null;
+    }
+
+    private FieldDependencyInfo wrap(FieldDependencyInfo field) {
+        return field != null ? new SynchronizedFieldDependencyInfo(field) : null;
+    }
+
+    private ValueDependencyInfo wrap(ValueDependencyInfo value) {
+        return value != null ? new SynchronizedValueDependencyInfo(value) : null;
+    }
+
+    class SynchronizedMethodDependencyInfo implements MethodDependencyInfo {
+        private final MethodDependencyInfo underlying;
+
+        SynchronizedMethodDependencyInfo(MethodDependencyInfo underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public ValueDependencyInfo[] getVariables() {
+            synchronized (lock) {
+                ValueDependencyInfo[] variables = underlying.getVariables();
+                ValueDependencyInfo[] result = new ValueDependencyInfo[variables.length];
+                for (int i = 0; i < variables.length; ++i) {
+                    result[i] = wrap(variables[i]);
+                }
+                return result;
+            }
+        }
+
+        @Override
+        public int getVariableCount() {
+            synchronized (lock) {
+                return underlying.getVariableCount();
+            }
+        }
+
+        @Override
+        public ValueDependencyInfo getVariable(int index) {
+            synchronized (lock) {
+                return wrap(underlying.getVariable(index));
+            }
+        }
+
+        @Override
+        public int getParameterCount() {
+            synchronized (lock) {
+                return underlying.getParameterCount();
+            }
+        }
+
+        @Override
+        public ValueDependencyInfo getResult() {
+            synchronized (lock) {
+                return wrap(underlying.getResult());
+            }
+        }
+
+        @Override
+        public ValueDependencyInfo getThrown() {
+            synchronized (lock) {
+                return wrap(underlying.getThrown());
+            }
+        }
+
+        @Override
+        public MethodReference getReference() {
+            return underlying.getReference();
+        }
+
+        @Override
+        public boolean isUsed() {
+            synchronized (lock) {
+                return underlying.isUsed();
+            }
+        }
+
+        @Override
+        public boolean isCalled() {
+            synchronized (lock) {
+                return underlying.isCalled();
+            }
+        }
+
+        @Override
+        public boolean isMissing() {
+            synchronized (lock) {
+                return underlying.isMissing();
+            }
+        }
+    }
+
+    class SynchronizedFieldDependencyInfo implements FieldDependencyInfo {
+        private final FieldDependencyInfo underlying;
+
+        SynchronizedFieldDependencyInfo(FieldDependencyInfo underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public ValueDependencyInfo getValue() {
+            synchronized (lock) {
+                return wrap(underlying.getValue());
+            }
+        }
+
+        @Override
+        public FieldReference getReference() {
+            return underlying.getReference();
+        }
+
+        @Override
+        public boolean isMissing() {
+            synchronized (lock) {
+                return underlying.isMissing();
+            }
+        }
+    }
+
+    class SynchronizedValueDependencyInfo implements ValueDependencyInfo {
+        private final ValueDependencyInfo underlying;
+
+        SynchronizedValueDependencyInfo(ValueDependencyInfo underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public String[] getTypes() {
+            synchronized (lock) {
+                return underlying.getTypes().clone();
+            }
+        }
+
+        @Override
+        public boolean hasType(String type) {
+            synchronized (lock) {
+                return underlying.hasType(type);
+            }
+        }
+
+        @Override
+        public boolean hasMoreTypesThan(int limit) {
+            synchronized (lock) {
+                return underlying.hasMoreTypesThan(limit);
+            }
+        }
+
+        @Override
+        public boolean hasArrayType() {
+            synchronized (lock) {
+                return underlying.hasArrayType();
+            }
+        }
+
+        @Override
+        public ValueDependencyInfo getArrayItem() {
+            synchronized (lock) {
+                return wrap(underlying.getArrayItem());
+            }
+        }
+
+        @Override
+        public ValueDependencyInfo getClassValueNode() {
+            synchronized (lock) {
+                return wrap(underlying.getClassValueNode());
+            }
+        }
+    }
+}
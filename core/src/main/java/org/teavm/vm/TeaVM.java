@@ -29,6 +29,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -70,26 +72,38 @@ import org.teavm.model.MutableClassHolderSource;
 import org.teavm.model.Program;
 import org.teavm.model.ProgramCache;
 import org.teavm.model.ValueType;
+import org.teavm.model.analysis.AllocationAnalysis;
+import org.teavm.model.analysis.AllocationInfo;
 import org.teavm.model.analysis.ClassInitializerAnalysis;
 import org.teavm.model.analysis.ClassInitializerInfo;
+import org.teavm.model.analysis.ParameterEscapeAnalysis;
+import org.teavm.model.analysis.ParameterEscapeInfo;
 import org.teavm.model.instructions.ExitInstruction;
 import org.teavm.model.instructions.InitClassInstruction;
 import org.teavm.model.instructions.InvokeInstruction;
 import org.teavm.model.optimization.ArrayUnwrapMotion;
 import org.teavm.model.optimization.ClassInitElimination;
+import org.teavm.model.optimization.ClassInitializerEvaluation;
 import org.teavm.model.optimization.ConstantConditionElimination;
 import org.teavm.model.optimization.DefaultInliningStrategy;
 import org.teavm.model.optimization.Devirtualization;
 import org.teavm.model.optimization.GlobalValueNumbering;
+import org.teavm.model.optimization.InductionVariableStrengthReduction;
 import org.teavm.model.optimization.Inlining;
+import org.teavm.model.optimization.InliningFilterFactory;
+import org.teavm.model.optimization.InliningScheduler;
 import org.teavm.model.optimization.InliningStrategy;
+import org.teavm.model.optimization.LoopInversion;
 import org.teavm.model.optimization.LoopInvariantMotion;
+import org.teavm.model.optimization.LoopUnrolling;
 import org.teavm.model.optimization.MethodOptimization;
 import org.teavm.model.optimization.MethodOptimizationContext;
+import org.teavm.model.optimization.MonitorElimination;
 import org.teavm.model.optimization.RedundantJumpElimination;
 import org.teavm.model.optimization.RedundantNullCheckElimination;
 import org.teavm.model.optimization.RepeatedFieldReadElimination;
 import org.teavm.model.optimization.ScalarReplacement;
+import org.teavm.model.optimization.SparseConditionalConstantPropagation;
 import org.teavm.model.optimization.SystemArrayCopyOptimization;
 import org.teavm.model.optimization.UnreachableBasicBlockElimination;
 import org.teavm.model.optimization.UnusedVariableElimination;
@@ -164,6 +178,10 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
     private int compileProgressValue;
     private ClassSourcePacker classSourcePacker;
     private ClassInitializerInfo classInitializerInfo;
+    private ParameterEscapeInfo parameterEscapeInfo;
+    private AllocationInfo allocationInfo;
+    private int optimizationThreadCount = 1;
+    private int loopUnrollFactor = LoopUnrolling.DEFAULT_FACTOR;
 
     TeaVM(TeaVMBuilder builder) {
         target = builder.target;
@@ -264,6 +282,40 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         this.optimizationLevel = optimizationLevel;
     }
 
+    public int getOptimizationThreadCount() {
+        return optimizationThreadCount;
+    }
+
+    /**
+     * Specifies how many threads are used to inline and optimize methods. When the value is greater than 1,
+     * methods are processed on a fork-join pool; the output does not depend on the number of threads.
+     *
+     * @param optimizationThreadCount number of threads, 1 means optimizing on the calling thread.
+     */
+    public void setOptimizationThreadCount(int optimizationThreadCount) {
+        if (optimizationThreadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + optimizationThreadCount);
+        }
+        this.optimizationThreadCount = optimizationThreadCount;
+    }
+
+    public int getLoopUnrollFactor() {
+        return loopUnrollFactor;
+    }
+
+    /**
+     * Specifies how many times bodies of counted loops are replicated when the loop can't be unrolled completely.
+     * Loop unrolling is only performed at {@link TeaVMOptimizationLevel#FULL} optimization level.
+     *
+     * @param loopUnrollFactor unroll factor, 1 means that loops are only unrolled completely.
+     */
+    public void setLoopUnrollFactor(int loopUnrollFactor) {
+        if (loopUnrollFactor < 1) {
+            throw new IllegalArgumentException("Unroll factor must be positive: " + loopUnrollFactor);
+        }
+        this.loopUnrollFactor = loopUnrollFactor;
+    }
+
     public TeaVMProgressListener getProgressListener() {
         return progressListener;
     }
@@ -465,6 +517,9 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
                 return null;
             }
 
+            eliminateMonitors(classSet);
+
+            evaluateClassInitializers(classSet);
             var classInitializerAnalysis = new ClassInitializerAnalysis(classSet,
                     dependencyAnalyzer.getClassHierarchy(), entryPoint);
             classInitializerAnalysis.analyze(dependencyAnalyzer);
@@ -653,6 +708,29 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         }
     }
 
+    private void eliminateMonitors(ListableClassHolderSource classes) {
+        if (!MonitorElimination.isApplicable(dependencyAnalyzer)) {
+            return;
+        }
+        var monitorElimination = new MonitorElimination();
+        for (String className : classes.getClassNames()) {
+            ClassHolder cls = classes.get(className);
+            for (MethodHolder method : cls.getMethods()) {
+                monitorElimination.apply(method);
+            }
+        }
+    }
+
+    private void evaluateClassInitializers(ListableClassHolderSource classes) {
+        var evaluation = new ClassInitializerEvaluation();
+        for (String className : classes.getClassNames()) {
+            evaluation.apply(classes.get(className));
+            if (wasCancelled()) {
+                break;
+            }
+        }
+    }
+
     private void inline(ListableClassHolderSource classes) {
         if (optimizationLevel == TeaVMOptimizationLevel.SIMPLE) {
             return;
@@ -665,6 +743,11 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             inliningStrategy = new DefaultInliningStrategy(100, 7, 300, true);
         }
 
+        if (optimizationThreadCount > 1) {
+            inlineInParallel(classes, inliningStrategy);
+            return;
+        }
+
         Inlining inlining = new Inlining(new ClassHierarchy(classes), dependencyAnalyzer, inliningStrategy,
                 classes, this::isExternal, optimizationLevel == TeaVMOptimizationLevel.FULL,
                 target.getInliningFilter());
@@ -672,27 +755,7 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         int classCount = classes.getClassNames().size();
         int initialValue = compileProgressValue;
         for (int i = 0; i < methodReferences.size(); i++) {
-            MethodReference methodReference = methodReferences.get(i);
-            ClassHolder cls = classes.get(methodReference.getClassName());
-            if (cls == null) {
-                continue;
-            }
-            MethodHolder method = cls.getMethod(methodReference.getDescriptor());
-            if (method == null) {
-                continue;
-            }
-
-            if (method.getProgram() != null) {
-                if (!inlining.hasUsages(methodReference)) {
-                    inlining.removeUsages(method.getProgram());
-                    method.setProgram(null);
-                } else {
-                    Program program = method.getProgram();
-                    var context = new MethodOptimizationContextImpl(method);
-                    inlining.apply(program, method.getReference());
-                    new UnusedVariableElimination().optimize(context, program);
-                }
-            }
+            inlineMethod(classes, inlining, methodReferences.get(i));
 
             int newProgress = initialValue + classCount * i / methodReferences.size();
             if (newProgress > compileProgressValue) {
@@ -705,7 +768,91 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         }
     }
 
+    private void inlineMethod(ListableClassHolderSource classes, Inlining inlining, MethodReference methodReference) {
+        ClassHolder cls = classes.get(methodReference.getClassName());
+        if (cls == null) {
+            return;
+        }
+        MethodHolder method = cls.getMethod(methodReference.getDescriptor());
+        if (method == null) {
+            return;
+        }
+
+        if (method.getProgram() != null) {
+            if (!inlining.hasUsages(methodReference)) {
+                inlining.removeUsages(method.getProgram());
+                method.setProgram(null);
+            } else {
+                Program program = method.getProgram();
+                var context = new MethodOptimizationContextImpl(method);
+                inlining.apply(program, method.getReference());
+                new UnusedVariableElimination().optimize(context, program);
+            }
+        }
+    }
+
+    /*
+     * Levels computed by InliningScheduler are processed one after another, groups within a level
+     * run on the pool. Shared state that is not thread-safe by itself (dependency info, inlining filters)
+     * is accessed through synchronized wrappers.
+     */
+    private void inlineInParallel(ListableClassHolderSource classes, InliningStrategy inliningStrategy) {
+        var sharedClassSource = new SynchronizedClassReaderSource(dependencyAnalyzer.getClassSource());
+        var sharedDependencyInfo = new SynchronizedDependencyInfo(dependencyAnalyzer, sharedClassSource);
+        var filterFactory = target.getInliningFilter();
+        InliningFilterFactory sharedFilterFactory = method -> {
+            synchronized (filterFactory) {
+                var filter = filterFactory.createFilter(method);
+                return invokedMethod -> {
+                    synchronized (filterFactory) {
+                        return filter.apply(invokedMethod);
+                    }
+                };
+            }
+        };
+        var inlining = new Inlining(new ClassHierarchy(classes), sharedDependencyInfo, inliningStrategy,
+                classes, this::isExternal, optimizationLevel == TeaVMOptimizationLevel.FULL, sharedFilterFactory);
+        var levels = new InliningScheduler(inlining, dependencyAnalyzer.getCallGraph()).getLevels();
+        int methodCount = Math.max(1, levels.stream().flatMap(List::stream).mapToInt(List::size).sum());
+        int classCount = classes.getClassNames().size();
+        int initialValue = compileProgressValue;
+        int processedMethods = 0;
+
+        var pool = new ForkJoinPool(optimizationThreadCount);
+        try {
+            for (var level : levels) {
+                var tasks = new ArrayList<ForkJoinTask<?>>();
+                for (var group : level) {
+                    tasks.add(pool.submit(() -> {
+                        for (var methodReference : group) {
+                            inlineMethod(classes, inlining, methodReference);
+                        }
+                    }));
+                    processedMethods += group.size();
+                }
+                for (var task : tasks) {
+                    task.join();
+                }
+
+                int newProgress = initialValue + classCount * processedMethods / methodCount;
+                if (newProgress > compileProgressValue) {
+                    compileProgressValue = newProgress;
+                    reportCompileProgress(++compileProgressValue);
+                    if (wasCancelled()) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     private void optimize(ListableClassHolderSource classSource) {
+        if (optimizationThreadCount > 1) {
+            optimizeInParallel(classSource);
+            return;
+        }
         for (String className : classSource.getClassNames()) {
             ClassHolder cls = classSource.get(className);
             for (MethodHolder method : cls.getMethods()) {
@@ -723,43 +870,127 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             return;
         }
 
-        Program optimizedProgram = !cacheStatus.isStaleMethod(method.getReference())
-                ? programCache.get(method.getReference(), cacheStatus)
-                : null;
+        Program optimizedProgram = getCachedOptimizedProgram(method);
         if (optimizedProgram == null) {
             optimizedProgram = optimizeMethodCacheMiss(method, ProgramUtils.copy(method.getProgram()));
-            Program finalProgram = optimizedProgram;
-            programCache.store(method.getReference(), finalProgram,
-                    () -> programDependencyExtractor.extractDependencies(finalProgram));
+            storeOptimizedProgram(method, optimizedProgram);
         }
         method.setProgram(optimizedProgram);
     }
 
-    private Program optimizeMethodCacheMiss(MethodHolder method, Program optimizedProgram) {
-        target.beforeOptimizations(optimizedProgram, method);
+    private Program getCachedOptimizedProgram(MethodHolder method) {
+        return !cacheStatus.isStaleMethod(method.getReference())
+                ? programCache.get(method.getReference(), cacheStatus)
+                : null;
+    }
 
-        if (optimizedProgram.basicBlockCount() > 0) {
-            var context = new MethodOptimizationContextImpl(method);
-            boolean changed;
-            do {
-                changed = false;
-                for (MethodOptimization optimization : getOptimizations()) {
-                    try {
-                        changed |= optimization.optimize(context, optimizedProgram);
-                    } catch (Exception | AssertionError e) {
-                        ListingBuilder listingBuilder = new ListingBuilder();
-                        try {
-                            String listing = listingBuilder.buildListing(optimizedProgram, "");
-                            System.err.println("Error optimizing program for method " + method.getReference()
-                                    + ":\n" + listing);
-                        } catch (RuntimeException e2) {
-                            System.err.println("Error optimizing program for method " + method.getReference());
-                            // do nothing
+    private void storeOptimizedProgram(MethodHolder method, Program program) {
+        programCache.store(method.getReference(), program,
+                () -> programDependencyExtractor.extractDependencies(program));
+    }
+
+    /*
+     * Target hooks are not required to be thread-safe, so they are called on the current thread
+     * in the same order as in sequential mode. Only optimization passes and register allocation,
+     * which touch nothing except their own copy of a program, run on the pool. Results are joined
+     * in class order, so the output and progress reports are the same as in sequential mode.
+     * Hooks may read the class source and dependency info directly, so they hold the lock
+     * that workers take when reading these through the synchronized wrappers.
+     */
+    private void optimizeInParallel(ListableClassHolderSource classSource) {
+        var pool = new ForkJoinPool(optimizationThreadCount);
+        var sharedClassSource = new SynchronizedClassReaderSource(dependencyAnalyzer.getClassSource());
+        var sharedDependencyInfo = new SynchronizedDependencyInfo(dependencyAnalyzer, sharedClassSource);
+        var hierarchies = ThreadLocal.withInitial(() -> new ClassHierarchy(sharedClassSource));
+        try {
+            var classTasks = new ArrayList<List<ParallelOptimizationTask>>();
+            for (String className : classSource.getClassNames()) {
+                ClassHolder cls = classSource.get(className);
+                var methodTasks = new ArrayList<ParallelOptimizationTask>();
+                for (MethodHolder method : cls.getMethods()) {
+                    if (method.getProgram() == null) {
+                        continue;
+                    }
+                    var task = new ParallelOptimizationTask(method);
+                    task.program = getCachedOptimizedProgram(method);
+                    if (task.program == null) {
+                        var program = ProgramUtils.copy(method.getProgram());
+                        synchronized (sharedClassSource.getLock()) {
+                            target.beforeOptimizations(program, method);
+                        }
+                        task.program = program;
+                        if (program.basicBlockCount() > 0) {
+                            task.optimization = pool.submit(() -> {
+                                var context = new ConcurrentMethodOptimizationContext(method, sharedDependencyInfo,
+                                        sharedClassSource, hierarchies.get());
+                                runOptimizations(context, method, program);
+                            });
                         }
-                        throw new RuntimeException(e);
+                        task.cacheMiss = true;
+                    }
+                    methodTasks.add(task);
+                }
+                classTasks.add(methodTasks);
+            }
+
+            var allocations = new ArrayList<ForkJoinTask<?>>();
+            for (var methodTasks : classTasks) {
+                for (var task : methodTasks) {
+                    if (task.optimization != null) {
+                        task.optimization.join();
+                        synchronized (sharedClassSource.getLock()) {
+                            target.afterOptimizations(task.program, task.method);
+                        }
+                        if (target.requiresRegisterAllocation()) {
+                            var program = task.program;
+                            var method = task.method;
+                            allocations.add(pool.submit(() -> new RegisterAllocator().allocateRegisters(
+                                    method.getReference(), program,
+                                    optimizationLevel == TeaVMOptimizationLevel.SIMPLE)));
+                        }
+                    }
+                }
+                reportCompileProgress(++compileProgressValue);
+                if (wasCancelled()) {
+                    break;
+                }
+            }
+            for (var allocation : allocations) {
+                allocation.join();
+            }
+            if (wasCancelled()) {
+                return;
+            }
+
+            for (var methodTasks : classTasks) {
+                for (var task : methodTasks) {
+                    if (task.cacheMiss) {
+                        storeOptimizedProgram(task.method, task.program);
                     }
+                    task.method.setProgram(task.program);
                 }
-            } while (changed);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    static class ParallelOptimizationTask {
+        final MethodHolder method;
+        Program program;
+        ForkJoinTask<?> optimization;
+        boolean cacheMiss;
+
+        ParallelOptimizationTask(MethodHolder method) {
+            this.method = method;
+        }
+    }
+
+    private Program optimizeMethodCacheMiss(MethodHolder method, Program optimizedProgram) {
+        target.beforeOptimizations(optimizedProgram, method);
+
+        if (optimizedProgram.basicBlockCount() > 0) {
+            runOptimizations(new MethodOptimizationContextImpl(method), method, optimizedProgram);
 
             target.afterOptimizations(optimizedProgram, method);
             if (target.requiresRegisterAllocation()) {
@@ -772,6 +1003,49 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         return optimizedProgram;
     }
 
+    private void runOptimizations(MethodOptimizationContext context, MethodHolder method, Program optimizedProgram) {
+        runOptimizationsUntilFixpoint(context, method, optimizedProgram);
+
+        // Loop transformations grow code and produce loops that could be transformed again,
+        // so they are applied once, followed by clean-up with regular optimizations
+        boolean changed = false;
+        for (MethodOptimization optimization : getLoopOptimizations()) {
+            changed |= applyOptimization(optimization, context, method, optimizedProgram);
+        }
+        if (changed) {
+            runOptimizationsUntilFixpoint(context, method, optimizedProgram);
+        }
+    }
+
+    private void runOptimizationsUntilFixpoint(MethodOptimizationContext context, MethodHolder method,
+            Program optimizedProgram) {
+        boolean changed;
+        do {
+            changed = false;
+            for (MethodOptimization optimization : getOptimizations()) {
+                changed |= applyOptimization(optimization, context, method, optimizedProgram);
+            }
+        } while (changed);
+    }
+
+    private boolean applyOptimization(MethodOptimization optimization, MethodOptimizationContext context,
+            MethodHolder method, Program optimizedProgram) {
+        try {
+            return optimization.optimize(context, optimizedProgram);
+        } catch (Exception | AssertionError e) {
+            ListingBuilder listingBuilder = new ListingBuilder();
+            try {
+                String listing = listingBuilder.buildListing(optimizedProgram, "");
+                System.err.println("Error optimizing program for method " + method.getReference()
+                        + ":\n" + listing);
+            } catch (RuntimeException e2) {
+                System.err.println("Error optimizing program for method " + method.getReference());
+                // do nothing
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
     class MethodOptimizationContextImpl implements MethodOptimizationContext {
         private MethodReader method;
 
@@ -800,13 +1074,48 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         }
     }
 
+    static class ConcurrentMethodOptimizationContext implements MethodOptimizationContext {
+        private final MethodReader method;
+        private final DependencyInfo dependencyInfo;
+        private final ClassReaderSource classSource;
+        private final ClassHierarchy hierarchy;
+
+        ConcurrentMethodOptimizationContext(MethodReader method, DependencyInfo dependencyInfo,
+                ClassReaderSource classSource, ClassHierarchy hierarchy) {
+            this.method = method;
+            this.dependencyInfo = dependencyInfo;
+            this.classSource = classSource;
+            this.hierarchy = hierarchy;
+        }
+
+        @Override
+        public MethodReader getMethod() {
+            return method;
+        }
+
+        @Override
+        public DependencyInfo getDependencyInfo() {
+            return dependencyInfo;
+        }
+
+        @Override
+        public ClassReaderSource getClassSource() {
+            return classSource;
+        }
+
+        @Override
+        public ClassHierarchy getHierarchy() {
+            return hierarchy;
+        }
+    }
+
     private List<MethodOptimization> getOptimizations() {
         List<MethodOptimization> optimizations = new ArrayList<>();
         optimizations.add(new RedundantJumpElimination());
         optimizations.add(new ArrayUnwrapMotion());
         if (optimizationLevel.ordinal() >= TeaVMOptimizationLevel.ADVANCED.ordinal()) {
             optimizations.add(new ScalarReplacement());
-            //optimizations.add(new LoopInversion());
+            optimizations.add(new LoopInversion());
             optimizations.add(new LoopInvariantMotion());
         }
         if (optimizationLevel.ordinal() >= TeaVMOptimizationLevel.ADVANCED.ordinal()) {
@@ -815,6 +1124,7 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         optimizations.add(new GlobalValueNumbering(optimizationLevel == TeaVMOptimizationLevel.SIMPLE));
         optimizations.add(new RedundantNullCheckElimination());
         if (optimizationLevel.ordinal() >= TeaVMOptimizationLevel.ADVANCED.ordinal()) {
+            optimizations.add(new SparseConditionalConstantPropagation());
             optimizations.add(new ConstantConditionElimination());
             optimizations.add(new RedundantJumpElimination());
             optimizations.add(new UnusedVariableElimination());
@@ -826,6 +1136,15 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         return optimizations;
     }
 
+    private List<MethodOptimization> getLoopOptimizations() {
+        List<MethodOptimization> optimizations = new ArrayList<>();
+        if (optimizationLevel == TeaVMOptimizationLevel.FULL) {
+            optimizations.add(new InductionVariableStrengthReduction());
+            optimizations.add(new LoopUnrolling(loopUnrollFactor));
+        }
+        return optimizations;
+    }
+
     public void build(File dir, String fileName) {
         build(new DirectoryBuildTarget(dir), fileName);
     }
@@ -968,6 +1287,38 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             return classInitializerInfo;
         }
 
+        @Override
+        public ParameterEscapeInfo getParameterEscapeInfo() {
+            if (parameterEscapeInfo == null) {
+                // Summaries depend on bodies of other methods, which is not tracked by program cache
+                if (optimizationLevel == TeaVMOptimizationLevel.SIMPLE
+                        || programCache != EmptyProgramCache.INSTANCE) {
+                    parameterEscapeInfo = ParameterEscapeInfo.EMPTY;
+                } else {
+                    var analysis = new ParameterEscapeAnalysis(writtenClasses);
+                    analysis.analyze();
+                    parameterEscapeInfo = analysis;
+                }
+            }
+            return parameterEscapeInfo;
+        }
+
+        @Override
+        public AllocationInfo getAllocationInfo() {
+            if (allocationInfo == null) {
+                // Same as above, whether a method allocates depends on bodies of the methods it calls
+                if (optimizationLevel == TeaVMOptimizationLevel.SIMPLE
+                        || programCache != EmptyProgramCache.INSTANCE) {
+                    allocationInfo = AllocationInfo.EMPTY;
+                } else {
+                    var analysis = new AllocationAnalysis(writtenClasses);
+                    analysis.analyze();
+                    allocationInfo = analysis;
+                }
+            }
+            return allocationInfo;
+        }
+
         @Override
         public TeaVMOptimizationLevel getOptimizationLevel() {
             return optimizationLevel;
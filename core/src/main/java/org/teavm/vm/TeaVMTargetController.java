@@ -24,7 +24,9 @@ import org.teavm.dependency.DependencyInfo;
 import org.teavm.diagnostics.Diagnostics;
 import org.teavm.model.ClassReaderSource;
 import org.teavm.model.MethodReference;
+import org.teavm.model.analysis.AllocationInfo;
 import org.teavm.model.analysis.ClassInitializerInfo;
+import org.teavm.model.analysis.ParameterEscapeInfo;
 
 public interface TeaVMTargetController {
     boolean wasCancelled();
@@ -61,4 +63,16 @@ public interface TeaVMTargetController {
 
     ClassInitializerInfo getClassInitializerInfo();
 
+    /**
+     * Escape summaries of method parameters. Must be requested no later than
+     * {@link TeaVMTarget#analyzeBeforeOptimizations}, since summaries are computed from unoptimized programs.
+     */
+    ParameterEscapeInfo getParameterEscapeInfo();
+
+    /**
+     * Tells which methods never reach the garbage collector. Like {@link #getParameterEscapeInfo()}, must be
+     * requested no later than {@link TeaVMTarget#analyzeBeforeOptimizations}.
+     */
+    AllocationInfo getAllocationInfo();
+
 }
@@ -2,6 +2,7 @@
 #include <stdint.h>
 #include <uchar.h>
 #include <math.h>
+#include <string.h>
 #include "definitions.h"
 #include "heapdump.h"
 #include "memory.h"
@@ -67,6 +68,9 @@ typedef struct TeaVM_String {
     TeaVM_Object parent;
     TeaVM_Array* characters;
     int32_t hashCode;
+    #if TEAVM_COMPACT_STRINGS
+        int8_t coder;
+    #endif
 } TeaVM_String;
 
 extern char* teavm_beforeClasses;
@@ -80,6 +84,12 @@ extern void teavm_throwArrayIndexOutOfBoundsException();
 #define TEAVM_CLASS_OF(obj) (TEAVM_UNPACK_CLASS(((TeaVM_Object*) (obj))->header))
 #define TEAVM_AS(ptr, type) ((type*) (ptr))
 
+static inline void* teavm_initStackObject(void* object, size_t size, int32_t header) {
+    memset(object, 0, size);
+    ((TeaVM_Object*) object)->header = header;
+    return object;
+}
+
 #if TEAVM_MEMORY_TRACE
     static inline void teavm_gc_assertAddress(void* address) {
         if ((unsigned int) (uintptr_t) address % sizeof(void*) != 0) {
@@ -193,6 +203,9 @@ extern TeaVM_Class* teavm_classClass;
 extern TeaVM_Class* teavm_objectClass;
 extern TeaVM_Class* teavm_stringClass;
 extern TeaVM_Class* teavm_charArrayClass;
+#if TEAVM_COMPACT_STRINGS
+    extern TeaVM_Class* teavm_byteArrayClass;
+#endif
 extern int32_t teavm_classReferencesCount;
 extern void teavm_initClasses();
 
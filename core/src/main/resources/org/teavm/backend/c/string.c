@@ -10,8 +10,21 @@
 
 int32_t teavm_hashCode(TeaVM_String* string) {
     int32_t hashCode = INT32_C(0);
-    int32_t length = string->characters->size;
-    char16_t* chars = TEAVM_ARRAY_DATA(string->characters, char16_t);
+    #if TEAVM_COMPACT_STRINGS
+        if (string->coder == TEAVM_STRING_LATIN1) {
+            int32_t length = string->characters->size;
+            uint8_t* chars = TEAVM_ARRAY_DATA(string->characters, uint8_t);
+            for (int32_t i = INT32_C(0); i < length; ++i) {
+                hashCode = 31 * hashCode + chars[i];
+            }
+            return hashCode;
+        }
+        int32_t length = string->characters->size / 2;
+        char16_t* chars = (char16_t*) TEAVM_ARRAY_DATA(string->characters, uint8_t);
+    #else
+        int32_t length = string->characters->size;
+        char16_t* chars = TEAVM_ARRAY_DATA(string->characters, char16_t);
+    #endif
     for (int32_t i = INT32_C(0); i < length; ++i) {
         hashCode = 31 * hashCode + chars[i];
     }
@@ -23,19 +36,39 @@ int32_t teavm_equals(TeaVM_String* first, TeaVM_String* second) {
         return 1;
     }
 
+    #if TEAVM_COMPACT_STRINGS
+        if (first->coder != second->coder) {
+            int32_t length = teavm_stringLength(first);
+            if (length != teavm_stringLength(second)) {
+                return 0;
+            }
+            for (int32_t i = INT32_C(0); i < length; ++i) {
+                if (teavm_stringCharAt(first, i) != teavm_stringCharAt(second, i)) {
+                    return 0;
+                }
+            }
+            return 1;
+        }
+    #endif
+
     if (first->characters->size != second->characters->size) {
         return 0;
     }
 
-    char16_t* firstChars = TEAVM_ARRAY_DATA(first->characters, char16_t);
-    char16_t* secondChars = TEAVM_ARRAY_DATA(second->characters, char16_t);
-    int32_t length = first->characters->size;
-    for (int32_t i = INT32_C(0); i < length; ++i) {
-        if (firstChars[i] != secondChars[i]) {
-            return 0;
+    #if TEAVM_COMPACT_STRINGS
+        return memcmp(TEAVM_ARRAY_DATA(first->characters, uint8_t), TEAVM_ARRAY_DATA(second->characters, uint8_t),
+                first->characters->size) == 0;
+    #else
+        char16_t* firstChars = TEAVM_ARRAY_DATA(first->characters, char16_t);
+        char16_t* secondChars = TEAVM_ARRAY_DATA(second->characters, char16_t);
+        int32_t length = first->characters->size;
+        for (int32_t i = INT32_C(0); i < length; ++i) {
+            if (firstChars[i] != secondChars[i]) {
+                return 0;
+            }
         }
-    }
-    return 1;
+        return 1;
+    #endif
 }
 
 size_t teavm_mbSize(char16_t* javaChars, int32_t javaCharsCount) {
@@ -69,6 +102,95 @@ int32_t teavm_c16Size(char* cstring, size_t count) {
     return sz;
 }
 
+#if TEAVM_COMPACT_STRINGS
+
+static TeaVM_String* teavm_char16ToString(char16_t* chars, int32_t size) {
+    TEAVM_ALLOC_STACK(1);
+    TEAVM_CALL_SITE(-1);
+    TEAVM_GC_ROOT_RELEASE(0);
+
+    int8_t coder = TEAVM_STRING_LATIN1;
+    for (int32_t i = 0; i < size; ++i) {
+        if (chars[i] > 0xFF) {
+            coder = TEAVM_STRING_UTF16;
+            break;
+        }
+    }
+
+    TeaVM_Array* byteArray = teavm_allocateByteArray(size << coder);
+    TEAVM_GC_ROOT(0, byteArray);
+    uint8_t* data = TEAVM_ARRAY_DATA(byteArray, uint8_t);
+    if (coder == TEAVM_STRING_LATIN1) {
+        for (int32_t i = 0; i < size; ++i) {
+            data[i] = (uint8_t) chars[i];
+        }
+    } else if (size > 0) {
+        memcpy(data, chars, size * sizeof(char16_t));
+    }
+
+    TeaVM_String* result = teavm_createString(byteArray, coder);
+    TEAVM_RELEASE_STACK;
+    return result;
+}
+
+char* teavm_stringToC(void* obj) {
+    if (obj == NULL) {
+        return NULL;
+    }
+
+    TeaVM_String* javaString = (TeaVM_String*) obj;
+    char16_t* javaChars = teavm_stringToC16(obj);
+    char* result = teavm_char16ToMb(javaChars, teavm_stringLength(javaString));
+    free(javaChars);
+    return result;
+}
+
+char16_t* teavm_stringToC16(void* obj) {
+    if (obj == NULL) {
+        return NULL;
+    }
+
+    TeaVM_String* javaString = (TeaVM_String*) obj;
+    int32_t sz = teavm_stringLength(javaString);
+    char16_t* result = malloc((sz + 1) * sizeof(char16_t));
+    if (javaString->coder == TEAVM_STRING_LATIN1) {
+        uint8_t* javaChars = TEAVM_ARRAY_DATA(javaString->characters, uint8_t);
+        for (int32_t i = 0; i < sz; ++i) {
+            result[i] = javaChars[i];
+        }
+    } else if (sz > 0) {
+        memcpy(result, TEAVM_ARRAY_DATA(javaString->characters, uint8_t), sz * sizeof(char16_t));
+    }
+    result[sz] = 0;
+    return result;
+}
+
+TeaVM_String* teavm_cToString(char* cstring) {
+    if (cstring == NULL) {
+        return NULL;
+    }
+
+    int32_t size;
+    char16_t* javaChars = teavm_mbToChar16(cstring, &size);
+    TeaVM_String* result = teavm_char16ToString(javaChars, size);
+    free(javaChars);
+    return result;
+}
+
+TeaVM_String* teavm_c16ToString(char16_t* cstring) {
+    if (cstring == NULL) {
+        return NULL;
+    }
+
+    int32_t size = 0;
+    while (cstring[size] != 0) {
+        ++size;
+    }
+    return teavm_char16ToString(cstring, size);
+}
+
+#else
+
 char* teavm_stringToC(void* obj) {
     if (obj == NULL) {
         return NULL;
@@ -166,6 +288,8 @@ TeaVM_String* teavm_c16ToString(char16_t* cstring) {
     return result;
 }
 
+#endif
+
 char16_t* teavm_mbToChar16(char* cstring, int32_t* length) {
     size_t clen = strlen(cstring);
     int32_t size = teavm_c16Size(cstring, clen);
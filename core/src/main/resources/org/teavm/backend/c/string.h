@@ -2,27 +2,90 @@
 #include <stdlib.h>
 #include "core.h"
 
-#define TEAVM_STRING(length, hash, s) &(TeaVM_String) { \
-    .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; char16_t data[(length) + 1]; }) { \
-        .hdr = { .size = length }, \
-        .data = s \
-    }, \
-    .hashCode = INT32_C(hash) \
-}
+#if TEAVM_COMPACT_STRINGS
+    #define TEAVM_STRING_LATIN1 0
+    #define TEAVM_STRING_UTF16 1
 
-#define TEAVM_STRING_FROM_CODES(length, hash, ...) &(TeaVM_String) { \
-    .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; char16_t data[(length) + 1]; }) { \
-        .hdr = { .size = length }, \
-        .data = { __VA_ARGS__ } \
-    }, \
-    .hashCode = INT32_C(hash) \
-}
+    #define TEAVM_STRING(length, hash, s) &(TeaVM_String) { \
+        .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; char16_t data[(length) + 1]; }) { \
+            .hdr = { .size = (length) * 2 }, \
+            .data = s \
+        }, \
+        .hashCode = INT32_C(hash), \
+        .coder = TEAVM_STRING_UTF16 \
+    }
+
+    #define TEAVM_STRING_FROM_CODES(length, hash, ...) &(TeaVM_String) { \
+        .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; char16_t data[(length) + 1]; }) { \
+            .hdr = { .size = (length) * 2 }, \
+            .data = { __VA_ARGS__ } \
+        }, \
+        .hashCode = INT32_C(hash), \
+        .coder = TEAVM_STRING_UTF16 \
+    }
+
+    #define TEAVM_LATIN1_STRING(length, hash, s) &(TeaVM_String) { \
+        .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; unsigned char data[(length) + 1]; }) { \
+            .hdr = { .size = length }, \
+            .data = s \
+        }, \
+        .hashCode = INT32_C(hash), \
+        .coder = TEAVM_STRING_LATIN1 \
+    }
+
+    #define TEAVM_LATIN1_STRING_FROM_CODES(length, hash, ...) &(TeaVM_String) { \
+        .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; unsigned char data[(length) + 1]; }) { \
+            .hdr = { .size = length }, \
+            .data = { __VA_ARGS__ } \
+        }, \
+        .hashCode = INT32_C(hash), \
+        .coder = TEAVM_STRING_LATIN1 \
+    }
+#else
+    #define TEAVM_STRING(length, hash, s) &(TeaVM_String) { \
+        .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; char16_t data[(length) + 1]; }) { \
+            .hdr = { .size = length }, \
+            .data = s \
+        }, \
+        .hashCode = INT32_C(hash) \
+    }
+
+    #define TEAVM_STRING_FROM_CODES(length, hash, ...) &(TeaVM_String) { \
+        .characters = (TeaVM_Array*) & (struct { TeaVM_Array hdr; char16_t data[(length) + 1]; }) { \
+            .hdr = { .size = length }, \
+            .data = { __VA_ARGS__ } \
+        }, \
+        .hashCode = INT32_C(hash) \
+    }
+#endif
 
 extern int32_t teavm_hashCode(TeaVM_String*);
 extern int32_t teavm_equals(TeaVM_String*, TeaVM_String*);
 extern TeaVM_Array* teavm_allocateStringArray(int32_t size);
 extern TeaVM_Array* teavm_allocateCharArray(int32_t size);
-extern TeaVM_String* teavm_createString(TeaVM_Array* chars);
+#if TEAVM_COMPACT_STRINGS
+    extern TeaVM_Array* teavm_allocateByteArray(int32_t size);
+    extern TeaVM_String* teavm_createString(TeaVM_Array* chars, int8_t coder);
+#else
+    extern TeaVM_String* teavm_createString(TeaVM_Array* chars);
+#endif
+
+static inline int32_t teavm_stringLength(TeaVM_String* string) {
+    #if TEAVM_COMPACT_STRINGS
+        return string->characters->size >> string->coder;
+    #else
+        return string->characters->size;
+    #endif
+}
+
+static inline char16_t teavm_stringCharAt(TeaVM_String* string, int32_t index) {
+    #if TEAVM_COMPACT_STRINGS
+        uint8_t* data = TEAVM_ARRAY_DATA(string->characters, uint8_t);
+        return string->coder == TEAVM_STRING_LATIN1 ? data[index] : ((char16_t*) data)[index];
+    #else
+        return TEAVM_ARRAY_AT(string->characters, char16_t, index);
+    #endif
+}
 
 extern char* teavm_stringToC(void*);
 extern TeaVM_String* teavm_cToString(char*);
@@ -7,6 +7,12 @@
     #include <Windows.h>
 #endif
 
+#if TEAVM_UNIX
+    #include <stdlib.h>
+    #include <string.h>
+    #include <unistd.h>
+#endif
+
 #if TEAVM_WINDOWS
     int64_t teavm_unixTimeOffset;
     int64_t teavm_perfFrequency, teavm_perfInitTime;
@@ -76,3 +82,41 @@ int32_t teavm_timeZoneOffset() {
     time_t utc = mktime(&tm);
     return (int32_t) (difftime(utc, local) / 60);
 }
+
+#if TEAVM_UNIX
+    static char teavm_timeZoneIdBuffer[512];
+
+    static char* teavm_timeZoneIdFromPath(char* path) {
+        char* id = strstr(path, "zoneinfo/");
+        if (id == NULL) {
+            return NULL;
+        }
+        id += 9;
+        if (strncmp(id, "posix/", 6) == 0) {
+            id += 6;
+        } else if (strncmp(id, "right/", 6) == 0) {
+            id += 6;
+        }
+        return id;
+    }
+
+    char* teavm_timeZoneId() {
+        char* id = getenv("TZ");
+        if (id != NULL && *id != '\0') {
+            if (*id == ':') {
+                id++;
+            }
+            return *id == '/' ? teavm_timeZoneIdFromPath(id) : id;
+        }
+        ssize_t length = readlink("/etc/localtime", teavm_timeZoneIdBuffer, sizeof(teavm_timeZoneIdBuffer) - 1);
+        if (length <= 0) {
+            return NULL;
+        }
+        teavm_timeZoneIdBuffer[length] = '\0';
+        return teavm_timeZoneIdFromPath(teavm_timeZoneIdBuffer);
+    }
+#else
+    char* teavm_timeZoneId() {
+        return NULL;
+    }
+#endif
@@ -10,4 +10,5 @@
 extern void teavm_initTime();
 extern int64_t teavm_currentTimeMillis();
 extern int64_t teavm_currentTimeNano();
-extern int32_t teavm_timeZoneOffset();
\ No newline at end of file
+extern int32_t teavm_timeZoneOffset();
+extern char* teavm_timeZoneId();
\ No newline at end of file
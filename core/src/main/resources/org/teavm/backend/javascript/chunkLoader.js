@@ -0,0 +1,47 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+function load(name) {
+    let thread = $rt_nativeThread();
+    let javaThread = $rt_getThread();
+    if (thread.isResuming()) {
+        thread.status = 0;
+        let error = thread.attribute;
+        thread.attribute = null;
+        if (error !== null) {
+            throw error;
+        }
+        return;
+    }
+
+    let chunkName = $rt_ustr(name);
+    if ($rt_loadedChunks.has(chunkName)) {
+        return;
+    }
+
+    thread.suspend(() => {
+        $rt_loadChunk(chunkName).then(() => {
+            $rt_loadedChunks.add(chunkName);
+            thread.attribute = null;
+            $rt_setThread(javaThread);
+            thread.resume();
+        }, e => {
+            thread.attribute = e instanceof teavm_globals.Error ? e : new teavm_globals.Error(e);
+            $rt_setThread(javaThread);
+            thread.resume();
+        });
+    });
+}
@@ -50,13 +50,35 @@ TeaVM.wasm = function() {
         let memory = instance.exports.memory.buffer;
         let arrayPtr = instance.exports.teavm_stringData(string);
         let length = instance.exports.teavm_arrayLength(arrayPtr);
+        let coder = instance.exports.teavm_stringCoder ? instance.exports.teavm_stringCoder(string) : -1;
+        if (coder === 0) {
+            let arrayData = new Uint8Array(memory, instance.exports.teavm_byteArrayData(arrayPtr), length);
+            for (let i = 0; i < length; ++i) {
+                putwchar(arrayData[i]);
+            }
+            return;
+        }
+        if (coder === 1) {
+            length >>= 1;
+        }
         let arrayData = new Uint16Array(memory, instance.exports.teavm_charArrayData(arrayPtr), length * 2);
         for (let i = 0; i < length; ++i) {
             putwchar(arrayData[i]);
         }
     }
+    function getNativeZoneId(controller) {
+        let id;
+        try {
+            id = Intl.DateTimeFormat().resolvedOptions().timeZone;
+        } catch (e) {
+            return 0;
+        }
+        return id ? createString(id, controller) : 0;
+    }
     function dateToString(timestamp, controller) {
-        const s = new Date(timestamp).toString();
+        return createString(new Date(timestamp).toString(), controller);
+    }
+    function createString(s, controller) {
         let instance = controller.instance;
         let result = instance.exports.teavm_allocateString(s.length);
         if (result === 0) {
@@ -105,6 +127,7 @@ TeaVM.wasm = function() {
             putwcharsOut: (chars, count) => putwchars(controller, chars, count),
             putwcharsErr: (chars, count) => putwchars(controller, chars, count),
             getNativeOffset: getNativeOffset,
+            getNativeZoneId: () => getNativeZoneId(controller),
             logString: string => logString(string, controller),
             logInt: logInt,
             logOutOfMemory: () => console.log("Out of memory"),
@@ -0,0 +1,152 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.List;
+import org.junit.Test;
+import org.teavm.backend.javascript.codegen.RememberedSource;
+import org.teavm.backend.javascript.codegen.RememberingSourceWriter;
+import org.teavm.model.MethodReference;
+import org.teavm.model.ValueType;
+
+public class IncrementalJavaScriptOutputTest {
+    private static final MethodReference FOO_GET = new MethodReference("Foo", "get", ValueType.object("java.lang.String"));
+    private static final MethodReference FOO_SET = new MethodReference("Foo", "set", ValueType.object("java.lang.String"), ValueType.VOID);
+    private static final MethodReference BAR_RUN = new MethodReference("Bar", "run", ValueType.VOID);
+    private IncrementalJavaScriptOutput output = new IncrementalJavaScriptOutput();
+
+    @Test
+    public void firstBuildHasNoDelta() {
+        assertNull(output.update(new SnapshotBuilder().build()));
+    }
+
+    @Test
+    public void onlyChangedMethodIsReported() {
+        commit(new SnapshotBuilder().build());
+
+        var changed = output.update(new SnapshotBuilder().fooGetBody("return 2;").build());
+
+        assertEquals(List.of(FOO_GET), changed);
+        assertFalse(output.constantsChanged());
+    }
+
+    @Test
+    public void unchangedBuildReportsNothing() {
+        commit(new SnapshotBuilder().build());
+
+        assertEquals(List.of(), output.update(new SnapshotBuilder().build()));
+    }
+
+    @Test
+    public void changedConstantsAreDetected() {
+        commit(new SnapshotBuilder().build());
+
+        var changed = output.update(new SnapshotBuilder().constants("\"b\"").build());
+
+        assertEquals(List.of(), changed);
+        assertTrue(output.constantsChanged());
+    }
+
+    @Test
+    public void removedClassRequiresReload() {
+        commit(new SnapshotBuilder().build());
+
+        assertNull(output.update(new SnapshotBuilder().withoutBar().build()));
+    }
+
+    @Test
+    public void renamedTopLevelNameRequiresReload() {
+        commit(new SnapshotBuilder().build());
+
+        assertNull(output.update(new SnapshotBuilder().runtimeFunction("$rt_other").build()));
+    }
+
+    @Test
+    public void discardedBuildIsNotCompared() {
+        commit(new SnapshotBuilder().build());
+        output.update(new SnapshotBuilder().fooGetBody("return 2;").build());
+        output.discard();
+
+        assertEquals(List.of(), output.update(new SnapshotBuilder().build()));
+    }
+
+    private void commit(IncrementalJavaScriptOutput.Snapshot snapshot) {
+        output.update(snapshot);
+        output.commit();
+    }
+
+    static class SnapshotBuilder {
+        private String fooGetBody = "return 1;";
+        private String constants = "\"a\"";
+        private String runtimeFunction = "$rt_init";
+        private boolean bar = true;
+        private RememberingSourceWriter writer = new RememberingSourceWriter(false);
+        private IncrementalJavaScriptOutput.Snapshot snapshot = new IncrementalJavaScriptOutput.Snapshot();
+
+        SnapshotBuilder fooGetBody(String fooGetBody) {
+            this.fooGetBody = fooGetBody;
+            return this;
+        }
+
+        SnapshotBuilder constants(String constants) {
+            this.constants = constants;
+            return this;
+        }
+
+        SnapshotBuilder runtimeFunction(String runtimeFunction) {
+            this.runtimeFunction = runtimeFunction;
+            return this;
+        }
+
+        SnapshotBuilder withoutBar() {
+            bar = false;
+            return this;
+        }
+
+        IncrementalJavaScriptOutput.Snapshot build() {
+            writer.appendFunction(runtimeFunction).append("();").softNewLine();
+            writer.startVariableDeclaration().appendClass("Foo").append("{}").endDeclaration();
+            method(FOO_GET, fooGetBody);
+            method(FOO_SET, "this.value = v;");
+            if (bar) {
+                writer.startVariableDeclaration().appendClass("Bar").append("{}").endDeclaration();
+                method(BAR_RUN, "");
+            }
+            snapshot.fragments.add(save());
+
+            writer.append(constants).append(";").softNewLine();
+            snapshot.constants = save();
+            return snapshot;
+        }
+
+        private void method(MethodReference method, String body) {
+            snapshot.fragments.add(save());
+            writer.startFunctionDeclaration().appendMethod(method).append("()").ws().append("{")
+                    .append(body).append("}").endDeclaration();
+            snapshot.methods.put(method, save());
+        }
+
+        private RememberedSource save() {
+            var result = writer.save();
+            writer.clear();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.rendering;
+
+import static org.junit.Assert.assertEquals;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class ChunkPartitioningTest {
+    private Map<String, Set<String>> references = new LinkedHashMap<>();
+
+    @Test
+    public void exclusiveClassesGoToChunk() {
+        references.put("Main", Set.of("Stub", "Util"));
+        references.put("Stub", Set.of("Chunk"));
+        references.put("Util", Set.of());
+        references.put("Chunk", Set.of("Impl", "Util"));
+        references.put("Impl", Set.of("ImplHelper"));
+        references.put("ImplHelper", Set.of());
+
+        var chunks = new ChunkPartitioning(references, List.of("Chunk")).partition(List.of("Main"));
+
+        assertEquals(List.of(Set.of("Chunk", "Impl", "ImplHelper")), chunks);
+    }
+
+    @Test
+    public void classesOfSeveralChunksGoToMain() {
+        references.put("Main", Set.of("A", "B"));
+        references.put("A", Set.of("Shared", "OnlyA"));
+        references.put("B", Set.of("Shared"));
+        references.put("Shared", Set.of("SharedDependency"));
+        references.put("SharedDependency", Set.of());
+        references.put("OnlyA", Set.of());
+
+        var chunks = new ChunkPartitioning(references, List.of("A", "B")).partition(List.of("Main"));
+
+        assertEquals(List.of(Set.of("A", "OnlyA"), Set.of("B")), chunks);
+    }
+
+    @Test
+    public void classesReachableFromMainStayInMain() {
+        references.put("Main", Set.of("A", "Runtime"));
+        references.put("A", Set.of("Impl", "Runtime"));
+        references.put("Impl", Set.of("Runtime"));
+        references.put("Runtime", Set.of("RuntimeDependency"));
+        references.put("RuntimeDependency", Set.of());
+        references.put("Used", Set.of("Impl"));
+
+        var chunks = new ChunkPartitioning(references, List.of("A")).partition(List.of("Main", "Used"));
+
+        assertEquals(List.of(Set.of("A")), chunks);
+    }
+}
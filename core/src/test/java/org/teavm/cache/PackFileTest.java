@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PackFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsCommittedRecords() throws IOException {
+        PackFile pack = new PackFile(folder.getRoot(), "test");
+        pack.open();
+        pack.write("a", bytes("first"));
+        pack.write("b", bytes("second"));
+        pack.commit();
+
+        PackFile reopened = new PackFile(folder.getRoot(), "test");
+        reopened.open();
+        assertEquals("first", read(reopened, "a"));
+        assertEquals("second", read(reopened, "b"));
+        assertNull(reopened.read("c"));
+    }
+
+    @Test
+    public void ignoresUncommittedTail() throws IOException {
+        PackFile pack = new PackFile(folder.getRoot(), "test");
+        pack.open();
+        pack.write("a", bytes("first"));
+        pack.commit();
+
+        try (RandomAccessFile file = new RandomAccessFile(new File(folder.getRoot(), "test.0.pack"), "rw")) {
+            file.seek(file.length());
+            file.write(bytes("garbage"));
+        }
+
+        PackFile reopened = new PackFile(folder.getRoot(), "test");
+        reopened.open();
+        reopened.write("b", bytes("second"));
+        reopened.commit();
+
+        PackFile result = new PackFile(folder.getRoot(), "test");
+        result.open();
+        assertEquals("first", read(result, "a"));
+        assertEquals("second", read(result, "b"));
+    }
+
+    @Test
+    public void compactsOverwrittenRecords() throws IOException {
+        PackFile pack = new PackFile(folder.getRoot(), "test");
+        pack.open();
+        pack.write("a", bytes("first"));
+        pack.write("b", bytes("second"));
+        pack.commit();
+        for (int i = 0; i < 5; ++i) {
+            pack.write("a", bytes("first" + i));
+            pack.commit();
+        }
+
+        PackFile reopened = new PackFile(folder.getRoot(), "test");
+        reopened.open();
+        assertEquals("first4", read(reopened, "a"));
+        assertEquals("second", read(reopened, "b"));
+        String[] files = folder.getRoot().list();
+        Arrays.sort(files);
+        assertArrayEquals(new String[] { "test.1.pack", "test.index" }, files);
+    }
+
+    @Test
+    public void readsAfterCompactionInSameInstance() throws IOException {
+        PackFile pack = new PackFile(folder.getRoot(), "test");
+        pack.open();
+        pack.write("a", bytes("first"));
+        pack.write("b", bytes("second"));
+        pack.commit();
+        assertEquals("first", read(pack, "a"));
+        for (int i = 0; i < 5; ++i) {
+            pack.write("a", bytes("first" + i));
+            pack.commit();
+            assertEquals("first" + i, read(pack, "a"));
+        }
+        assertEquals("second", read(pack, "b"));
+        pack.close();
+    }
+
+    @Test
+    public void readsRecordsAcrossSegments() throws IOException {
+        PackFile pack = new PackFile(folder.getRoot(), "test", 4);
+        pack.open();
+        pack.write("a", bytes("ab"));
+        pack.write("b", bytes("cdefghijk"));
+        pack.write("c", bytes("lm"));
+        pack.write("d", bytes(""));
+        pack.commit();
+
+        PackFile reopened = new PackFile(folder.getRoot(), "test", 4);
+        reopened.open();
+        assertEquals("ab", read(reopened, "a"));
+        assertEquals("cdefghijk", read(reopened, "b"));
+        assertEquals("lm", read(reopened, "c"));
+        assertEquals("", read(reopened, "d"));
+    }
+
+    @Test
+    public void failedCommitKeepsCommittedState() throws IOException {
+        PackFile pack = new PackFile(folder.getRoot(), "test");
+        pack.open();
+        pack.write("a", bytes("first"));
+        pack.commit();
+
+        File blocker = new File(folder.getRoot(), "test.index.tmp");
+        assertTrue(blocker.mkdir());
+        pack.write("a", bytes("second"));
+        try {
+            pack.commit();
+            fail("Commit should fail when index can't be written");
+        } catch (IOException e) {
+            // expected
+        }
+        assertTrue(blocker.delete());
+
+        PackFile reopened = new PackFile(folder.getRoot(), "test");
+        reopened.open();
+        assertEquals("first", read(reopened, "a"));
+
+        pack.commit();
+        reopened.open();
+        assertEquals("second", read(reopened, "a"));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(PackFile pack, String key) throws IOException {
+        try (InputStream input = pack.read(key)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
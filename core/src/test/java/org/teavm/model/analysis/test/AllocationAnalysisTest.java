@@ -0,0 +1,160 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.ValueType;
+import org.teavm.model.analysis.AllocationAnalysis;
+
+public class AllocationAnalysisTest {
+    private static final String PREFIX = "model/analysis/allocation/";
+    private static final ValueType OBJECT = ValueType.object("java.lang.Object");
+    @Rule
+    public TestName name = new TestName();
+    private MutableClassHolderSource classSource = new MutableClassHolderSource();
+    private ClassHolder cls = new ClassHolder("Foo");
+
+    @Test
+    public void plain() {
+        addMethod("read", ValueType.INTEGER);
+        addMethod("create", OBJECT);
+        addMethod("instanceField", ValueType.INTEGER);
+        addMethod("foreignField", ValueType.INTEGER);
+        AllocationAnalysis analysis = analyze();
+
+        assertFalse(analysis.mayAllocate(method("read", ValueType.INTEGER)));
+        assertTrue(analysis.mayAllocate(method("create", OBJECT)));
+        assertTrue(analysis.mayAllocate(method("instanceField", ValueType.INTEGER)));
+        assertTrue(analysis.mayAllocate(method("foreignField", ValueType.INTEGER)));
+    }
+
+    @Test
+    public void transitive() {
+        addMethod("create", OBJECT);
+        addMethod("read", ValueType.INTEGER);
+        addMethod("pass", ValueType.VOID);
+        addMethod("passSafe", ValueType.VOID);
+        AllocationAnalysis analysis = analyze();
+
+        assertTrue(analysis.mayAllocate(method("pass", ValueType.VOID)));
+        assertFalse(analysis.mayAllocate(method("passSafe", ValueType.VOID)));
+    }
+
+    @Test
+    public void recursive() {
+        addMethod("a", ValueType.VOID);
+        addMethod("b", ValueType.VOID);
+        addMethod("create", OBJECT);
+        addMethod("self", ValueType.VOID);
+        AllocationAnalysis analysis = analyze();
+
+        assertTrue(analysis.mayAllocate(method("a", ValueType.VOID)));
+        assertTrue(analysis.mayAllocate(method("b", ValueType.VOID)));
+        assertFalse(analysis.mayAllocate(method("self", ValueType.VOID)));
+    }
+
+    @Test
+    public void virtualCall() {
+        addMethod("call", ValueType.VOID);
+        AllocationAnalysis analysis = analyze();
+
+        assertTrue(analysis.mayAllocate(method("call", ValueType.VOID)));
+    }
+
+    @Test
+    public void division() {
+        addMethod("divide", ValueType.INTEGER);
+        addMethod("divideByConstant", ValueType.INTEGER);
+        addMethod("add", ValueType.INTEGER);
+        AllocationAnalysis analysis = analyze();
+
+        assertTrue(analysis.mayAllocate(method("divide", ValueType.INTEGER)));
+        assertFalse(analysis.mayAllocate(method("divideByConstant", ValueType.INTEGER)));
+        assertFalse(analysis.mayAllocate(method("add", ValueType.INTEGER)));
+    }
+
+    @Test
+    public void checks() {
+        addMethod("sumGuarded", ValueType.INTEGER);
+        addMethod("sumPastEnd", ValueType.INTEGER);
+        addMethod("unknownIndex", ValueType.INTEGER);
+        addMethod("readGuarded", ValueType.INTEGER);
+        AllocationAnalysis analysis = analyze();
+
+        assertFalse(analysis.mayAllocate(method("sumGuarded", ValueType.INTEGER)));
+        assertTrue(analysis.mayAllocate(method("sumPastEnd", ValueType.INTEGER)));
+        assertTrue(analysis.mayAllocate(method("unknownIndex", ValueType.INTEGER)));
+        assertFalse(analysis.mayAllocate(method("readGuarded", ValueType.INTEGER)));
+    }
+
+    @Test
+    public void instance() {
+        addInstanceMethod("readThis", ValueType.INTEGER);
+        addInstanceMethod("writeThis", ValueType.VOID);
+        addInstanceMethod("readOther", ValueType.INTEGER);
+        addInstanceMethod("callThis", ValueType.VOID);
+        addInstanceMethod("callOther", ValueType.VOID);
+        addInstanceMethod("callVirtualThis", ValueType.VOID);
+        AllocationAnalysis analysis = analyze();
+
+        assertFalse(analysis.mayAllocate(method("readThis", ValueType.INTEGER)));
+        assertFalse(analysis.mayAllocate(method("writeThis", ValueType.VOID)));
+        assertTrue(analysis.mayAllocate(method("readOther", ValueType.INTEGER)));
+        assertFalse(analysis.mayAllocate(method("callThis", ValueType.VOID)));
+        assertTrue(analysis.mayAllocate(method("callOther", ValueType.VOID)));
+        assertTrue(analysis.mayAllocate(method("callVirtualThis", ValueType.VOID)));
+    }
+
+    @Test
+    public void unknownMethod() {
+        AllocationAnalysis analysis = analyze();
+
+        assertTrue(analysis.mayAllocate(method("missing", ValueType.VOID)));
+    }
+
+    private void addMethod(String methodName, ValueType returnType) {
+        addInstanceMethod(methodName, returnType).getModifiers().add(ElementModifier.STATIC);
+    }
+
+    private MethodHolder addInstanceMethod(String methodName, ValueType returnType) {
+        MethodHolder method = new MethodHolder(methodName, OBJECT, returnType);
+        method.setProgram(ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + "."
+                + methodName + ".txt"));
+        cls.addMethod(method);
+        return method;
+    }
+
+    private AllocationAnalysis analyze() {
+        classSource.putClassHolder(cls);
+        AllocationAnalysis analysis = new AllocationAnalysis(classSource);
+        analysis.analyze();
+        return analysis;
+    }
+
+    private static MethodReference method(String methodName, ValueType returnType) {
+        return new MethodReference("Foo", methodName, OBJECT, returnType);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.ValueType;
+import org.teavm.model.analysis.ParameterEscapeAnalysis;
+
+public class ParameterEscapeAnalysisTest {
+    private static final String PREFIX = "model/analysis/parameter-escape/";
+    private static final ValueType OBJECT = ValueType.object("java.lang.Object");
+    @Rule
+    public TestName name = new TestName();
+    private MutableClassHolderSource classSource = new MutableClassHolderSource();
+    private ClassHolder cls = new ClassHolder("Foo");
+
+    @Test
+    public void returned() {
+        addMethod("id", OBJECT);
+        addMethod("use", ValueType.INTEGER);
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertTrue(analysis.parameterEscapes(method("id", OBJECT), 1));
+        assertFalse(analysis.parameterEscapes(method("use", ValueType.INTEGER), 1));
+    }
+
+    @Test
+    public void transitive() {
+        addMethod("store", ValueType.VOID);
+        addMethod("pass", ValueType.VOID);
+        addMethod("passSafe", ValueType.VOID);
+        addMethod("use", ValueType.INTEGER);
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertTrue(analysis.parameterEscapes(method("store", ValueType.VOID), 1));
+        assertTrue(analysis.parameterEscapes(method("pass", ValueType.VOID), 1));
+        assertFalse(analysis.parameterEscapes(method("passSafe", ValueType.VOID), 1));
+    }
+
+    @Test
+    public void recursive() {
+        addMethod("a", ValueType.VOID);
+        addMethod("b", ValueType.VOID);
+        addMethod("store", ValueType.VOID);
+        addMethod("self", ValueType.VOID);
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertTrue(analysis.parameterEscapes(method("a", ValueType.VOID), 1));
+        assertTrue(analysis.parameterEscapes(method("b", ValueType.VOID), 1));
+        assertFalse(analysis.parameterEscapes(method("self", ValueType.VOID), 1));
+    }
+
+    @Test
+    public void virtualCall() {
+        addMethod("call", ValueType.VOID);
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertTrue(analysis.parameterEscapes(method("call", ValueType.VOID), 1));
+    }
+
+    @Test
+    public void primitiveField() {
+        addMethod("write", ValueType.VOID);
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertFalse(analysis.parameterEscapes(method("write", ValueType.VOID), 1));
+    }
+
+    @Test
+    public void referenceField() {
+        addMethod("write", ValueType.VOID);
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertTrue(analysis.parameterEscapes(method("write", ValueType.VOID), 1));
+    }
+
+    @Test
+    public void unknownMethod() {
+        ParameterEscapeAnalysis analysis = analyze();
+
+        assertTrue(analysis.parameterEscapes(method("missing", ValueType.VOID), 1));
+    }
+
+    private void addMethod(String methodName, ValueType returnType) {
+        MethodHolder method = new MethodHolder(methodName, OBJECT, returnType);
+        method.getModifiers().add(ElementModifier.STATIC);
+        method.setProgram(ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + "."
+                + methodName + ".txt"));
+        cls.addMethod(method);
+    }
+
+    private ParameterEscapeAnalysis analyze() {
+        classSource.putClassHolder(cls);
+        ParameterEscapeAnalysis analysis = new ParameterEscapeAnalysis(classSource);
+        analysis.analyze();
+        return analysis;
+    }
+
+    private static MethodReference method(String methodName, ValueType returnType) {
+        return new MethodReference("Foo", methodName, OBJECT, returnType);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.optimization.ClassInitializerEvaluation;
+import org.teavm.model.text.ListingBuilder;
+
+public class ClassInitializerEvaluationTest {
+    private static final String PREFIX = "model/optimization/class-initializer-evaluation/";
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void primitiveFields() {
+        ClassHolder cls = createClass();
+        assertTrue(doTest(cls));
+        assertEquals(45, cls.getField("sum").getInitialValue());
+        assertEquals(45L << 40, cls.getField("big").getInitialValue());
+        assertEquals("foo", cls.getField("name").getInitialValue());
+        assertEquals(3, cls.getField("count").getInitialValue());
+    }
+
+    @Test
+    public void lookupTable() {
+        ClassHolder cls = createClass();
+        assertTrue(doTest(cls));
+        assertNull(cls.getField("table").getInitialValue());
+    }
+
+    @Test
+    public void invocation() {
+        ClassHolder cls = createClass();
+        assertFalse(doTest(cls));
+        assertNull(cls.getField("sum").getInitialValue());
+    }
+
+    @Test
+    public void divisionByZero() {
+        ClassHolder cls = createClass();
+        assertFalse(doTest(cls));
+        assertNull(cls.getField("sum").getInitialValue());
+    }
+
+    private boolean doTest(ClassHolder cls) {
+        String originalPath = PREFIX + name.getMethodName() + ".original.txt";
+        String expectedPath = PREFIX + name.getMethodName() + ".expected.txt";
+        Program original = ListingParseUtils.parseFromResource(originalPath);
+        Program expected = ListingParseUtils.parseFromResource(expectedPath);
+
+        MethodHolder clinit = new MethodHolder("<clinit>", ValueType.VOID);
+        clinit.getModifiers().add(ElementModifier.STATIC);
+        clinit.setProgram(original);
+        cls.addMethod(clinit);
+
+        boolean result = new ClassInitializerEvaluation().apply(cls);
+
+        String actualText = new ListingBuilder().buildListing(clinit.getProgram(), "");
+        String expectedText = new ListingBuilder().buildListing(expected, "");
+        assertEquals(expectedText, actualText);
+        return result;
+    }
+
+    private ClassHolder createClass() {
+        ClassHolder cls = new ClassHolder("Foo");
+        addField(cls, "sum", ValueType.INTEGER);
+        addField(cls, "big", ValueType.LONG);
+        addField(cls, "name", ValueType.object("java.lang.String"));
+        addField(cls, "table", ValueType.arrayOf(ValueType.INTEGER));
+        FieldHolder count = addField(cls, "count", ValueType.INTEGER);
+        count.setInitialValue(2);
+        return cls;
+    }
+
+    private FieldHolder addField(ClassHolder cls, String name, ValueType type) {
+        FieldHolder field = new FieldHolder(name);
+        field.setType(type);
+        field.getModifiers().add(ElementModifier.STATIC);
+        cls.addField(field);
+        return field;
+    }
+}
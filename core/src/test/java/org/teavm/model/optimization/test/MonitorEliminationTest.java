@@ -0,0 +1,63 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.optimization.MonitorElimination;
+import org.teavm.model.text.ListingBuilder;
+
+public class MonitorEliminationTest {
+    private static final String PREFIX = "model/optimization/monitor-elimination/";
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void monitors() {
+        doTest();
+    }
+
+    @Test
+    public void synchronizedModifier() {
+        MethodHolder method = new MethodHolder("foo", ValueType.VOID);
+        method.getModifiers().add(ElementModifier.SYNCHRONIZED);
+        new MonitorElimination().apply(method);
+        assertFalse(method.hasModifier(ElementModifier.SYNCHRONIZED));
+    }
+
+    private void doTest() {
+        String originalPath = PREFIX + name.getMethodName() + ".original.txt";
+        String expectedPath = PREFIX + name.getMethodName() + ".expected.txt";
+        Program original = ListingParseUtils.parseFromResource(originalPath);
+        Program expected = ListingParseUtils.parseFromResource(expectedPath);
+
+        MethodHolder method = new MethodHolder("foo", ValueType.INTEGER);
+        method.setProgram(original);
+        new MonitorElimination().apply(method);
+
+        String actualText = new ListingBuilder().buildListing(method.getProgram(), "");
+        String expectedText = new ListingBuilder().buildListing(expected, "");
+        assertEquals(expectedText, actualText);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization.test;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.Program;
+import org.teavm.model.optimization.SparseConditionalConstantPropagation;
+import org.teavm.model.text.ListingBuilder;
+
+public class SparseConditionalConstantPropagationTest {
+    private static final String PREFIX = "model/optimization/sccp/";
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void constantPhi() {
+        doTest();
+    }
+
+    @Test
+    public void loop() {
+        doTest();
+    }
+
+    @Test
+    public void conversions() {
+        doTest();
+    }
+
+    @Test
+    public void instanceOf() {
+        doTest();
+    }
+
+    private void doTest() {
+        String originalPath = PREFIX + name.getMethodName() + ".original.txt";
+        String expectedPath = PREFIX + name.getMethodName() + ".expected.txt";
+        Program original = ListingParseUtils.parseFromResource(originalPath);
+        Program expected = ListingParseUtils.parseFromResource(expectedPath);
+
+        new SparseConditionalConstantPropagation().optimize(createHierarchy(), original);
+
+        String originalText = new ListingBuilder().buildListing(original, "");
+        String expectedText = new ListingBuilder().buildListing(expected, "");
+        Assert.assertEquals(expectedText, originalText);
+    }
+
+    private ClassHierarchy createHierarchy() {
+        MutableClassHolderSource classSource = new MutableClassHolderSource();
+        ClassHolder a = new ClassHolder("A");
+        a.setParent("java.lang.Object");
+        classSource.putClassHolder(a);
+        ClassHolder b = new ClassHolder("B");
+        b.setParent("A");
+        classSource.putClassHolder(b);
+        return new ClassHierarchy(classSource);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarFileResourceProviderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsEntriesInAnyOrder() throws IOException {
+        File jar = createJar("a/First.class", "first", "b/Second.class", "second");
+        try (JarFileResourceProvider provider = new JarFileResourceProvider(jar)) {
+            assertEquals("second", read(provider, "b/Second.class"));
+            assertEquals("first", read(provider, "a/First.class"));
+            assertEquals("second", read(provider, "/b/Second.class"));
+        }
+    }
+
+    @Test
+    public void checksPresence() throws IOException {
+        File jar = createJar("a/First.class", "first");
+        try (JarFileResourceProvider provider = new JarFileResourceProvider(jar)) {
+            assertTrue(provider.hasResource("a/First.class"));
+            assertTrue(provider.hasResource("/a/First.class"));
+            assertFalse(provider.hasResource("a/Second.class"));
+            assertFalse(provider.hasResource("a/"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsOnMissingEntry() throws IOException {
+        File jar = createJar("a/First.class", "first");
+        try (JarFileResourceProvider provider = new JarFileResourceProvider(jar)) {
+            provider.openResource("a/Second.class");
+        }
+    }
+
+    @Test
+    public void reopensAfterClose() throws IOException {
+        File jar = createJar("a/First.class", "first");
+        JarFileResourceProvider provider = new JarFileResourceProvider(jar);
+        assertEquals("first", read(provider, "a/First.class"));
+        provider.close();
+        assertEquals("first", read(provider, "a/First.class"));
+        provider.close();
+    }
+
+    private File createJar(String... entries) throws IOException {
+        File file = folder.newFile("test.jar");
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(file))) {
+            output.putNextEntry(new ZipEntry("a/"));
+            output.closeEntry();
+            for (int i = 0; i < entries.length; i += 2) {
+                output.putNextEntry(new ZipEntry(entries[i]));
+                output.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                output.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static String read(ResourceProvider provider, String name) throws IOException {
+        try (InputStream input = provider.openResource(name)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.parsing.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClasspathResourceReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsFromJar() throws IOException {
+        File jar = createJar("first.jar", "a/First.class", "first");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+                ClasspathResourceReader reader = new ClasspathResourceReader(classLoader)) {
+            assertTrue(reader.hasResource("a/First.class"));
+            assertFalse(reader.hasResource("a/Second.class"));
+            assertEquals("first", read(reader, "a/First.class"));
+            assertNull(reader.openResource("a/Second.class"));
+        }
+    }
+
+    @Test
+    public void respectsClassLoaderOrder() throws IOException {
+        File first = createJar("first.jar", "a/Foo.class", "first");
+        File second = createJar("second.jar", "a/Foo.class", "second", "a/Bar.class", "bar");
+        URL[] urls = { first.toURI().toURL(), second.toURI().toURL() };
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null);
+                ClasspathResourceReader reader = new ClasspathResourceReader(classLoader)) {
+            assertEquals("first", read(reader, "a/Foo.class"));
+            assertEquals("bar", read(reader, "a/Bar.class"));
+        }
+    }
+
+    @Test
+    public void readsAfterClose() throws IOException {
+        File jar = createJar("first.jar", "a/First.class", "first");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+            ClasspathResourceReader reader = new ClasspathResourceReader(classLoader);
+            assertEquals("first", read(reader, "a/First.class"));
+            reader.close();
+            assertEquals("first", read(reader, "a/First.class"));
+            reader.close();
+        }
+    }
+
+    private File createJar(String fileName, String... entries) throws IOException {
+        File file = folder.newFile(fileName);
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                output.putNextEntry(new ZipEntry(entries[i]));
+                output.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                output.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static String read(ResourceReader reader, String name) throws IOException {
+        try (InputStream input = reader.openResource(name)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.parsing.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.ReferenceCache;
+import org.teavm.model.text.ListingBuilder;
+
+public class ResourceClassHolderMapperTest {
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+    private ResourceReader reader = new ClasspathResourceReader(ResourceClassHolderMapperTest.class.getClassLoader());
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void prefetchedClassMatchesParsedOne() {
+        ResourceClassHolderMapper mapper = new ResourceClassHolderMapper(reader, new ReferenceCache(), executor);
+        List<String> references = new ArrayList<>();
+        mapper.setReferenceListener(reference -> {
+            references.add(reference);
+            mapper.prefetch(reference);
+        });
+
+        assertNotNull(mapper.apply(Sample.class.getName()));
+        assertTrue(references.contains(Referenced.class.getName()));
+        ClassHolder prefetched = mapper.apply(Referenced.class.getName());
+
+        ResourceClassHolderMapper sequentialMapper = new ResourceClassHolderMapper(reader, new ReferenceCache());
+        ClassHolder parsed = sequentialMapper.apply(Referenced.class.getName());
+        assertEquals(describe(parsed), describe(prefetched));
+    }
+
+    @Test
+    public void missingClassIsPrefetched() {
+        ResourceClassHolderMapper mapper = new ResourceClassHolderMapper(reader, new ReferenceCache(), executor);
+        mapper.prefetch("org.teavm.parsing.resource.Missing");
+        assertNull(mapper.apply("org.teavm.parsing.resource.Missing"));
+    }
+
+    private static Set<String> describe(ClassHolder cls) {
+        Set<String> result = new TreeSet<>();
+        for (MethodHolder method : cls.getMethods()) {
+            String body = method.getProgram() != null
+                    ? new ListingBuilder().buildListing(method.getProgram(), "")
+                    : "";
+            result.add(method.getDescriptor() + body);
+        }
+        return result;
+    }
+
+    static class Sample {
+        int compute(int n) {
+            return new Referenced().sum(n);
+        }
+    }
+
+    static class Referenced {
+        int sum(int n) {
+            int result = 0;
+            for (int i = 0; i < n; ++i) {
+                result += i;
+            }
+            return result;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.teavm.jso.typedarrays;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSClass;
 import org.teavm.jso.JSIndexer;
 
@@ -42,6 +43,20 @@ public class Float32Array extends ArrayBufferView {
     @JSIndexer
     public native void set(int index, float value);
 
+    /**
+     * Returns a view of the given Java array that shares its storage, so that changes made through
+     * either of them are visible through the other one. No data is copied.
+     */
+    @JSBody(params = "array", script = "return array;")
+    public static native Float32Array fromJavaArray(@JSByRef float[] array);
+
+    /**
+     * Returns a Java array backed by the given typed array, without copying its content.
+     */
+    @JSByRef
+    @JSBody(params = "array", script = "return array;")
+    public static native float[] toJavaArray(Float32Array array);
+
     @JSBody(params = "length", script = "return new Float32Array(length);")
     @Deprecated
     public static native Float32Array create(int length);
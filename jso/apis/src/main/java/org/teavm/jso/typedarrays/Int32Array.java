@@ -49,6 +49,20 @@ public class Int32Array extends ArrayBufferView {
     @Override
     public native void set(@JSByRef int[] data);
 
+    /**
+     * Returns a view of the given Java array that shares its storage, so that changes made through
+     * either of them are visible through the other one. No data is copied.
+     */
+    @JSBody(params = "array", script = "return array;")
+    public static native Int32Array fromJavaArray(@JSByRef int[] array);
+
+    /**
+     * Returns a Java array backed by the given typed array, without copying its content.
+     */
+    @JSByRef
+    @JSBody(params = "array", script = "return array;")
+    public static native int[] toJavaArray(Int32Array array);
+
     @JSBody(params = "length", script = "return new Int32Array(length);")
     @Deprecated
     public static native Int32Array create(int length);
@@ -16,6 +16,7 @@
 package org.teavm.jso.typedarrays;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSClass;
 import org.teavm.jso.JSIndexer;
 
@@ -42,6 +43,21 @@ public class Uint8ClampedArray extends ArrayBufferView {
     @JSIndexer
     public native void set(int index, int value);
 
+    /**
+     * Returns an unsigned view of the given Java array that shares its storage, so that changes made through
+     * either of them are visible through the other one. No data is copied.
+     */
+    @JSBody(params = "array", script = "return new Uint8ClampedArray(array.buffer, array.byteOffset, array.length);")
+    public static native Uint8ClampedArray fromJavaArray(@JSByRef byte[] array);
+
+    /**
+     * Returns a Java array backed by the same buffer as the given typed array, without copying its content.
+     * Elements are read back as signed bytes.
+     */
+    @JSByRef
+    @JSBody(params = "array", script = "return new Int8Array(array.buffer, array.byteOffset, array.length);")
+    public static native byte[] toJavaArray(Uint8ClampedArray array);
+
     @JSBody(params = "length", script = "return new Uint8ClampedArray(length);")
     @Deprecated
     public static native Uint8ClampedArray create(int length);
@@ -45,12 +45,12 @@ dependencies {
     testImplementation(libs.testng)
 }
 
-tasks.test {
-    systemProperty("teavm.junit.target", layout.buildDirectory.dir("teavm-tests").get().asFile.absolutePath)
+tasks.withType<Test>().configureEach {
     val browser = providers.gradleProperty("teavm.tests.browser").orElse("browser-chrome").get()
 
     systemProperty("teavm.junit.js", providers.gradleProperty("teavm.tests.js").orElse("true").get())
     systemProperty("teavm.junit.js.runner", browser)
+    systemProperty("teavm.junit.js.node", providers.gradleProperty("teavm.tests.node").orElse("node").get())
     systemProperty("teavm.junit.minified", providers.gradleProperty("teavm.tests.minified").orElse("true").get())
     systemProperty("teavm.junit.optimized", providers.gradleProperty("teavm.tests.optimized").orElse("true").get())
     systemProperty("teavm.junit.js.decodeStack", providers.gradleProperty("teavm.tests.decodeStack")
@@ -86,4 +86,24 @@ tasks.test {
             .joinToString(File.pathSeparator))
 
     maxParallelForks = (Runtime.getRuntime().availableProcessors() / 2).coerceAtLeast(1)
+}
+
+tasks.test {
+    systemProperty("teavm.junit.target", layout.buildDirectory.dir("teavm-tests").get().asFile.absolutePath)
+    systemProperty("teavm.junit.optimizationThreads", providers.gradleProperty("teavm.tests.optimizationThreads")
+            .orElse("1").get())
+}
+
+val parallelOptimizationTest by tasks.registering(Test::class) {
+    description = "Runs VM tests with optimized configurations compiled on several optimization threads."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    systemProperty("teavm.junit.target",
+            layout.buildDirectory.dir("teavm-parallel-tests").get().asFile.absolutePath)
+    systemProperty("teavm.junit.optimizationThreads",
+            providers.gradleProperty("teavm.tests.parallelOptimizationThreads").orElse("4").get())
+    filter {
+        includeTestsMatching("org.teavm.vm.*")
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Locale;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.OnlyPlatform;
+import org.teavm.junit.TeaVMProperties;
+import org.teavm.junit.TeaVMProperty;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@TeaVMProperties({
+        @TeaVMProperty(key = "java.lang.String.compact", value = "true"),
+        @TeaVMProperty(key = "java.util.Locale.available", value = "en, en_US, ru, ru_RU")
+})
+@OnlyPlatform({ TestPlatform.C, TestPlatform.WEBASSEMBLY, TestPlatform.WASI })
+public class CompactStringTest {
+    @Test
+    public void mixedCodersCompareByContent() {
+        String utf16 = "Привет, world";
+        String latin1 = utf16.substring(8);
+        assertEquals("world", latin1);
+        assertEquals("world".hashCode(), latin1.hashCode());
+        assertEquals("Привет", utf16.substring(0, 6));
+        assertEquals("Привет".hashCode(), utf16.substring(0, 6).hashCode());
+        assertNotEquals("Привет", utf16.substring(0, 5));
+        assertNotEquals("worle", latin1);
+    }
+
+    @Test
+    public void constructionPathsProduceEqualStrings() {
+        String literal = "café";
+        String fromChars = new String(new char[] { 'c', 'a', 'f', 'é' });
+        String fromBuilder = new StringBuilder().append("ca").append('f').append('é').toString();
+        String fromSubstring = "Жcafé".substring(1);
+        String fromConcat = "ca".concat("fé");
+        for (String s : new String[] { fromChars, fromBuilder, fromSubstring, fromConcat }) {
+            assertEquals(literal, s);
+            assertEquals(s, literal);
+            assertEquals(literal.hashCode(), s.hashCode());
+            assertEquals(4, s.length());
+            assertEquals('é', s.charAt(3));
+        }
+    }
+
+    @Test
+    public void concatMixesCoders() {
+        assertEquals("abcdef", "abc".concat("def"));
+        assertEquals("abcйцу", "abc".concat("йцу"));
+        assertEquals("йцуabc", "йцу".concat("abc"));
+        assertEquals("йцуфыв", "йцу".concat("фыв"));
+
+        String mixed = "abc".concat("йцу");
+        assertEquals(6, mixed.length());
+        assertEquals('c', mixed.charAt(2));
+        assertEquals('й', mixed.charAt(3));
+        assertEquals("abcйцу".hashCode(), mixed.hashCode());
+        assertEquals("abc", mixed.substring(0, 3));
+        assertEquals("цу", mixed.substring(4));
+        assertSame(mixed, mixed.concat(""));
+    }
+
+    @Test
+    public void substringKeepsRange() {
+        String str = "abcЖdef";
+        assertEquals("abc", str.substring(0, 3));
+        assertEquals("cЖd", str.substring(2, 5));
+        assertEquals("def", str.substring(4));
+        assertEquals("", str.substring(3, 3));
+        assertEquals("bc", "abcdef".substring(1, 3));
+        try {
+            str.substring(5, 4);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            str.substring(2, 8);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void hashMapLookupAcrossCoders() {
+        var map = new HashMap<String, Integer>();
+        map.put("key", 1);
+        map.put("ключ", 2);
+        assertEquals(Integer.valueOf(1), map.get("Жkey".substring(1)));
+        assertEquals(Integer.valueOf(2), map.get("клю".concat("ч")));
+        assertEquals(Integer.valueOf(2), map.get("-ключ".substring(1)));
+    }
+
+    @Test
+    public void resourceMapLookup() {
+        Locale english = new Locale("en");
+        Locale russian = new Locale("ru", "ЖRU".substring(1));
+        assertEquals("RUB", Currency.getInstance(russian).getCurrencyCode());
+        assertEquals("Russian", new Locale("Жru".substring(1)).getDisplayLanguage(english));
+        assertEquals("русский", russian.getDisplayLanguage(russian));
+        assertEquals("английский", english.getDisplayLanguage(russian));
+    }
+}
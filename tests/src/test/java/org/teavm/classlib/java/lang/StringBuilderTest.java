@@ -284,4 +284,27 @@ public class StringBuilderTest {
                 new char[] { (char) 56972, (char) 56178 }).codePoints().toArray());
         assertArrayEquals(new int[] { 56178 }, new StringBuilder().append((char) 56178).codePoints().toArray());
     }
+
+    @Test
+    public void modifiedInTheMiddleAfterAppending() {
+        var sb = new StringBuilder().append("abc").append('d').append(1);
+        sb.setCharAt(0, 'A');
+        sb.insert(1, "-");
+        sb.append("e").append(2.5);
+        assertEquals("A-bcd1e2.5", sb.toString());
+        sb.reverse().append('!');
+        assertEquals("5.2e1dcb-A!", sb.toString());
+    }
+
+    @Test
+    public void lengthChanged() {
+        var sb = new StringBuilder("abcdef");
+        sb.setLength(3);
+        assertEquals("abc", sb.toString());
+        sb.append("x").deleteCharAt(0);
+        assertEquals("bcx", sb.toString());
+        sb.setLength(5);
+        assertEquals("bcx\0\0", sb.toString());
+        assertEquals('x', sb.charAt(2));
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.jso.JSBody;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.OnlyPlatform;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.TeaVMProperties;
+import org.teavm.junit.TeaVMProperty;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@TeaVMProperties(@TeaVMProperty(key = "java.util.TimeZone.autodetect", value = "true"))
+@EachTestCompiledSeparately
+public class TimeZoneAutodetectTest {
+    @Test
+    public void detectsKnownZone() {
+        TimeZone tz = TimeZone.getDefault();
+        List<String> ids = Arrays.asList(TimeZone.getAvailableIDs());
+        assertTrue("Unknown zone detected: " + tz.getID(), ids.contains(tz.getID()));
+        long time = System.currentTimeMillis();
+        assertEquals(TimeZone.getTimeZone(tz.getID()).getOffset(time), tz.getOffset(time));
+    }
+
+    @Test
+    @SkipJVM
+    @OnlyPlatform(TestPlatform.JAVASCRIPT)
+    public void prefersHostZoneId() {
+        String hostId = getHostZoneId();
+        if (hostId == null || !Arrays.asList(TimeZone.getAvailableIDs()).contains(hostId)) {
+            return;
+        }
+        assertEquals(TimeZone.getTimeZone(hostId).getID(), TimeZone.getDefault().getID());
+    }
+
+    @JSBody(script = "try { return Intl.DateTimeFormat().resolvedOptions().timeZone || null; } "
+            + "catch (e) { return null; }")
+    private static native String getHostZoneId();
+}
@@ -42,6 +42,7 @@ import java.util.TimeZone;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.SkipJVM;
 import org.teavm.junit.TeaVMTestRunner;
 
 @RunWith(TeaVMTestRunner.class)
@@ -54,6 +55,12 @@ public class TimeZoneTest {
         assertNotSame("returns identical", TimeZone.getDefault(), TimeZone.getDefault());
     }
 
+    @Test
+    @SkipJVM
+    public void defaultIsGmtWithoutAutodetect() {
+        assertEquals("GMT", TimeZone.getDefault().getID());
+    }
+
     @Test
     public void test_getOffset_long() {
         // Test for method int java.util.TimeZone.getOffset(long time)
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.regex;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.TeaVMTestRunner;
+
+@RunWith(TeaVMTestRunner.class)
+public class ConstantPatternTest {
+    @Test
+    @SkipJVM
+    public void constantPatternCompiledOncePerCallSite() {
+        Pattern first = compileConstant();
+        Pattern second = compileConstant();
+        assertSame(first, second);
+        assertNotSame(first, compileConstantAtOtherSite());
+        assertTrue(first.matcher("aab").matches());
+    }
+
+    @Test
+    @SkipJVM
+    public void constantPatternWithFlagsCompiledOnce() {
+        Pattern first = compileWithFlags();
+        assertSame(first, compileWithFlags());
+        assertEquals(Pattern.CASE_INSENSITIVE, first.flags());
+        assertTrue(first.matcher("AAB").matches());
+    }
+
+    @Test
+    public void nonConstantPatternCompiledEachTime() {
+        assertNotSame(compile("a+b"), compile("a+b"));
+    }
+
+    @Test
+    public void invalidConstantPatternFailsOnEachCall() {
+        for (int i = 0; i < 2; ++i) {
+            try {
+                Pattern.compile("a(b");
+                fail("Exception expected");
+            } catch (PatternSyntaxException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void stringMethodsWithConstantPattern() {
+        for (int i = 0; i < 2; ++i) {
+            assertTrue("aab".matches("a+b"));
+            assertFalse("abc".matches("a+b"));
+            assertTrue(Pattern.matches("[0-9]+", "123"));
+            assertEquals("x-y-z", "x1y22z".replaceAll("[0-9]+", "-"));
+            assertEquals("x-y22z", "x1y22z".replaceFirst("[0-9]+", "-"));
+            assertArrayEquals(new String[] { "a", "b", "c" }, "a, b,c".split(", *"));
+            assertArrayEquals(new String[] { "a", "b,c" }, "a,b,c".split(",", 2));
+        }
+    }
+
+    private static Pattern compileConstant() {
+        return Pattern.compile("a+b");
+    }
+
+    private static Pattern compileConstantAtOtherSite() {
+        return Pattern.compile("a+b");
+    }
+
+    private static Pattern compileWithFlags() {
+        return Pattern.compile("a+b", Pattern.CASE_INSENSITIVE);
+    }
+
+    private static Pattern compile(String regex) {
+        return Pattern.compile(regex);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.jso.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.jso.typedarrays.Float64Array;
+import org.teavm.jso.typedarrays.Int32Array;
+import org.teavm.jso.typedarrays.Uint16Array;
+import org.teavm.jso.typedarrays.Uint8Array;
+import org.teavm.junit.OnlyPlatform;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@SkipJVM
+@OnlyPlatform(TestPlatform.JAVASCRIPT)
+public class TypedArrayViewTest {
+    @Test
+    public void javaArrayViewSharesStorage() {
+        var array = new int[] { 1, 2, 3 };
+        var view = Int32Array.fromJavaArray(array);
+        assertEquals(3, view.getLength());
+
+        view.set(1, 42);
+        assertEquals(42, array[1]);
+
+        array[2] = 23;
+        assertEquals(23, view.get(2));
+    }
+
+    @Test
+    public void typedArrayWrappedWithoutCopying() {
+        var view = new Float64Array(2);
+        var array = Float64Array.toJavaArray(view);
+        assertEquals(2, array.length);
+
+        array[0] = 1.5;
+        assertEquals(1.5, view.get(0), 0.0);
+
+        view.set(1, 2.5);
+        assertArrayEquals(new double[] { 1.5, 2.5 }, array, 0.0);
+    }
+
+    @Test
+    public void unsignedViewOfByteArray() {
+        var array = new byte[] { -1, 2 };
+        var view = Uint8Array.fromJavaArray(array);
+        assertEquals(255, view.get(0));
+
+        view.set(1, (short) 200);
+        assertEquals((byte) 200, array[1]);
+
+        var wrapped = Uint8Array.toJavaArray(view);
+        wrapped[0] = 7;
+        assertEquals(7, view.get(0));
+    }
+
+    @Test
+    public void charArrayView() {
+        var array = new char[] { 'a', 'b' };
+        var view = Uint16Array.fromJavaArray(array);
+        view.set(0, 'z');
+        assertEquals('z', array[0]);
+        assertEquals('b', Uint16Array.toJavaArray(view)[1]);
+    }
+}
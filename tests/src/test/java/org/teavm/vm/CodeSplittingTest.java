@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.interop.SplitPoint;
+
+public class CodeSplittingTest {
+    private static final String NODE = System.getProperty("teavm.junit.js.node", "node");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void splitPointLoadsChunk() throws IOException, InterruptedException {
+        File directory = temporaryFolder.newFolder();
+        var target = new JavaScriptTarget();
+        target.setModuleType(JSModuleType.ES2015);
+        target.setCodeSplitting(true);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(TeaVMOptimizationLevel.ADVANCED);
+        vm.installPlugins();
+        vm.setEntryPoint(EntryPoint.class.getName());
+        vm.build(new DirectoryBuildTarget(directory), "classes.mjs");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+
+        File chunk = new File(directory, "classes-1.mjs");
+        assertTrue("Chunk was not emitted", chunk.exists());
+        assertTrue(Files.readString(chunk.toPath()).contains("export default function"));
+
+        Files.writeString(new File(directory, "run.mjs").toPath(),
+                "import { main } from \"./classes.mjs\";\nmain([]);\n");
+        assertEquals(List.of("before", "chunk result: 55", "after"), run(directory));
+    }
+
+    private List<String> run(File directory) throws IOException, InterruptedException {
+        Process process;
+        try {
+            process = new ProcessBuilder(NODE, "run.mjs")
+                    .directory(directory)
+                    .redirectErrorStream(true)
+                    .start();
+        } catch (IOException e) {
+            Assume.assumeNoException("Node.js is not available", e);
+            throw e;
+        }
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue("Node.js did not exit in time", process.waitFor(30, TimeUnit.SECONDS));
+        assertEquals(output, 0, process.exitValue());
+        return output.lines().toList();
+    }
+
+    public static class EntryPoint {
+        public static void main(String[] args) {
+            System.out.println("before");
+            System.out.println(Feature.run(args.length + 10));
+            System.out.println("after");
+        }
+    }
+
+    static class Feature {
+        @SplitPoint
+        static String run(int n) {
+            return "chunk result: " + new Fibonacci().compute(n);
+        }
+    }
+
+    static class Fibonacci {
+        int compute(int n) {
+            int a = 0;
+            int b = 1;
+            for (int i = 0; i < n; ++i) {
+                int next = a + b;
+                a = b;
+                b = next;
+            }
+            return a;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.TeaVMTestRunner;
+
+@RunWith(TeaVMTestRunner.class)
+public class InliningTest {
+    private int value;
+
+    @Test
+    public void callChainInlined() {
+        assertEquals(10, outer(2));
+        assertEquals(20, outer(7));
+    }
+
+    @Test
+    public void sharedCalleeInlinedIntoEveryCaller() {
+        assertEquals(6, first(3));
+        assertEquals(9, second(3));
+        assertEquals(15, first(3) + second(3));
+    }
+
+    @Test
+    public void mutuallyRecursiveMethods() {
+        assertTrue(isEven(10));
+        assertFalse(isEven(7));
+        assertTrue(isOdd(7));
+        assertEquals(55, fib(10));
+    }
+
+    @Test
+    public void instanceAccessorsInlined() {
+        InliningTest test = new InliningTest();
+        test.setValue(5);
+        test.increment();
+        test.increment();
+        assertEquals(7, test.getValue());
+    }
+
+    @Test
+    public void exceptionFromInlinedMethod() {
+        try {
+            checkPositive(-1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("-1", e.getMessage());
+        }
+        assertEquals(2, checkPositive(2));
+    }
+
+    private static int outer(int x) {
+        return middle(x) + 2;
+    }
+
+    private static int middle(int x) {
+        return inner(x) * 2;
+    }
+
+    private static int inner(int x) {
+        return x + 2;
+    }
+
+    private static int first(int x) {
+        return shared(x) + x;
+    }
+
+    private static int second(int x) {
+        return shared(x) * 3;
+    }
+
+    private static int shared(int x) {
+        return x;
+    }
+
+    private static boolean isEven(int n) {
+        return n == 0 || isOdd(n - 1);
+    }
+
+    private static boolean isOdd(int n) {
+        return n != 0 && isEven(n - 1);
+    }
+
+    private static int fib(int n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    private static int checkPositive(int x) {
+        if (x < 0) {
+            throw new IllegalArgumentException(String.valueOf(x));
+        }
+        return x;
+    }
+
+    private int getValue() {
+        return value;
+    }
+
+    private void setValue(int value) {
+        this.value = value;
+    }
+
+    private void increment() {
+        setValue(getValue() + 1);
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.TeaVMTestRunner;
+
+@RunWith(TeaVMTestRunner.class)
+public class LoopTest {
+    private int[] field;
+
+    @Test
+    public void emptyLoop() {
+        assertEquals(0, sumWithLength(new int[0], 0));
+        assertEquals(0, sumWithLength(null, 0));
+    }
+
+    @Test
+    public void invariantWithSideEffectNotHoistedBeforeCondition() {
+        assertEquals(15, sumWithLength(new int[5], 3));
+        try {
+            sumWithLength(null, 1);
+            fail("NPE expected");
+        } catch (NullPointerException e) {
+            // ok
+        }
+    }
+
+    private static int sumWithLength(int[] array, int count) {
+        int result = 0;
+        for (int i = 0; i < count; ++i) {
+            result += array.length;
+        }
+        return result;
+    }
+
+    @Test
+    public void divisionByZeroInBody() {
+        assertEquals(0, divideInLoop(100, 0, 0));
+        assertEquals(60, divideInLoop(100, 5, 3));
+        try {
+            divideInLoop(100, 0, 1);
+            fail("ArithmeticException expected");
+        } catch (ArithmeticException e) {
+            // ok
+        }
+    }
+
+    private static int divideInLoop(int a, int b, int count) {
+        int result = 0;
+        int i = 0;
+        while (i < count) {
+            result += a / b;
+            ++i;
+        }
+        return result;
+    }
+
+    @Test
+    public void nestedLoops() {
+        int[] array = { 1, 2, 3 };
+        assertEquals(0, triangle(array, 0));
+        assertEquals(0, triangle(array, 1));
+        assertEquals(array.length * 10, triangle(array, 5));
+    }
+
+    private static int triangle(int[] array, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < i; ++j) {
+                sum += array.length;
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void loopWithMultipleExits() {
+        int[] array = { 5, 3, -1, 8 };
+        assertEquals(2, firstNegative(array, array.length));
+        assertEquals(-1, firstNegative(array, 2));
+        assertEquals(-1, firstNegative(array, 0));
+    }
+
+    private static int firstNegative(int[] array, int limit) {
+        int i = 0;
+        while (i < limit) {
+            if (array[i] < 0) {
+                return i;
+            }
+            ++i;
+        }
+        return -1;
+    }
+
+    @Test
+    public void exceptionJumpsToLoopHead() {
+        assertEquals(25, retryingLoop(new int[] { 1, 0, 2, 0, 3, 4 }, 6));
+        assertEquals(0, retryingLoop(new int[0], 0));
+    }
+
+    private static int retryingLoop(int[] values, int count) {
+        int sum = 0;
+        int i = 0;
+        while (i < count) {
+            int value = values[i++];
+            try {
+                sum += 12 / value;
+            } catch (ArithmeticException e) {
+                continue;
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void exceptionInCondition() {
+        field = new int[] { 1, 2, 3 };
+        assertEquals(3, countWhileFieldReadable(10));
+        field = null;
+        assertEquals(-1, countWhileFieldReadable(10));
+    }
+
+    private int countWhileFieldReadable(int limit) {
+        int i = 0;
+        try {
+            while (i < field.length && i < limit) {
+                ++i;
+            }
+        } catch (NullPointerException e) {
+            return -1;
+        }
+        return i;
+    }
+
+    @Test
+    public void labeledContinue() {
+        int[][] matrix = { { 1, 2 }, { -1, 5 }, { 3, 4 } };
+        assertEquals(10, sumOfRowsWithoutNegatives(matrix));
+    }
+
+    private static int sumOfRowsWithoutNegatives(int[][] matrix) {
+        int sum = 0;
+        outer:
+        for (int i = 0; i < matrix.length; ++i) {
+            int rowSum = 0;
+            for (int j = 0; j < matrix[i].length; ++j) {
+                if (matrix[i][j] < 0) {
+                    continue outer;
+                }
+                rowSum += matrix[i][j];
+            }
+            sum += rowSum;
+        }
+        return sum;
+    }
+
+    @Test
+    public void constantTripCount() {
+        assertEquals(6, sumUpTo(4));
+        assertEquals(4950, sumUpTo(100));
+        assertEquals(2, countDown());
+        int[] values = new int[3];
+        fillSquares(values);
+        assertEquals(4, values[2]);
+    }
+
+    private static int sumUpTo(int count) {
+        int sum = 0;
+        for (int i = 0; i < count; ++i) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    private static int countDown() {
+        int count = 0;
+        for (int i = 10; i > 0; i -= 4) {
+            ++count;
+        }
+        return count - 1;
+    }
+
+    private static void fillSquares(int[] values) {
+        for (int i = 0; i < 3; ++i) {
+            values[i] = i * i;
+        }
+    }
+
+    @Test
+    public void stridedAccess() {
+        int width = 3;
+        int[] matrix = new int[width * 4];
+        for (int i = 0; i < matrix.length; ++i) {
+            matrix[i] = i;
+        }
+        assertEquals(0 + 3 + 6 + 9, column(matrix, width, 0, 4));
+        assertEquals(2 + 5 + 8 + 11, column(matrix, width, 2, 4));
+        assertEquals(0, column(matrix, width, 1, 0));
+        assertEquals(4 + 8, shifted(1, 3));
+    }
+
+    private static int column(int[] matrix, int width, int column, int rows) {
+        int sum = 0;
+        for (int row = 0; row < rows; ++row) {
+            sum += matrix[row * width + column];
+        }
+        return sum;
+    }
+
+    private static int shifted(int from, int to) {
+        int sum = 0;
+        for (int i = from; i < to; ++i) {
+            sum += i << 2;
+        }
+        return sum;
+    }
+
+    @Test
+    public void loopsAgreeWithReference() {
+        int seed = 0x2545F491;
+        for (int iteration = 0; iteration < 200; ++iteration) {
+            seed = seed * 1103515245 + 12345;
+            int size = (seed >>> 16) % 17;
+            int[] array = new int[size];
+            for (int i = 0; i < size; ++i) {
+                seed = seed * 1103515245 + 12345;
+                array[i] = (seed >>> 8) % 100 - 50;
+            }
+            seed = seed * 1103515245 + 12345;
+            int limit = (seed >>> 16) % 20;
+            int bound = Math.min(limit, size);
+            String message = "iteration " + iteration;
+
+            assertEquals(message, referenceSum(array, 0, bound), loopSum(array, limit));
+            assertEquals(message, referenceFirstNegative(array, 0, bound), firstNegative(array, bound));
+            assertEquals(message, bound * (bound - 1) / 2 * 3, triangle(new int[3], bound));
+            assertEquals(message, referenceMax(array, 0, bound), loopMax(array, limit));
+            assertEquals(message, bound * (bound - 1) / 2, sumUpTo(bound));
+        }
+    }
+
+    private static int loopSum(int[] array, int limit) {
+        int sum = 0;
+        for (int i = 0; i < limit && i < array.length; ++i) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    private static int loopMax(int[] array, int limit) {
+        int max = Integer.MIN_VALUE;
+        int i = 0;
+        while (i < array.length) {
+            if (i >= limit) {
+                break;
+            }
+            max = Math.max(max, array[i++]);
+        }
+        return max;
+    }
+
+    private static int referenceSum(int[] array, int from, int to) {
+        return from >= to ? 0 : array[from] + referenceSum(array, from + 1, to);
+    }
+
+    private static int referenceFirstNegative(int[] array, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        return array[from] < 0 ? from : referenceFirstNegative(array, from + 1, to);
+    }
+
+    private static int referenceMax(int[] array, int from, int to) {
+        return from >= to ? Integer.MIN_VALUE : Math.max(array[from], referenceMax(array, from + 1, to));
+    }
+}
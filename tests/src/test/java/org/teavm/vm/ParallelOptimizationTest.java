@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.Test;
+import org.teavm.backend.c.CTarget;
+import org.teavm.backend.c.generate.CNameProvider;
+import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.backend.wasm.WasmTarget;
+
+public class ParallelOptimizationTest {
+    @Test
+    public void javaScriptOutputMatchesSequential() {
+        check(JavaScriptTarget::new);
+    }
+
+    @Test
+    public void webAssemblyOutputMatchesSequential() {
+        check(WasmTarget::new);
+    }
+
+    @Test
+    public void cOutputMatchesSequential() {
+        check(() -> new CTarget(new CNameProvider()));
+    }
+
+    @Test
+    public void devirtualizedCycleMatchesSequential() {
+        check(JavaScriptTarget::new, TeaVMOptimizationLevel.FULL, CycleEntryPoint.class);
+        check(WasmTarget::new, TeaVMOptimizationLevel.FULL, CycleEntryPoint.class);
+    }
+
+    private void check(Supplier<TeaVMTarget> targetFactory) {
+        check(targetFactory, TeaVMOptimizationLevel.ADVANCED, EntryPoint.class);
+    }
+
+    private void check(Supplier<TeaVMTarget> targetFactory, TeaVMOptimizationLevel level, Class<?> entryPoint) {
+        Map<String, byte[]> sequential = build(targetFactory.get(), level, entryPoint, 1);
+        Map<String, byte[]> parallel = build(targetFactory.get(), level, entryPoint, 4);
+
+        assertEquals(sequential.keySet(), parallel.keySet());
+        for (String fileName : sequential.keySet()) {
+            assertArrayEquals(fileName, sequential.get(fileName), parallel.get(fileName));
+        }
+    }
+
+    private Map<String, byte[]> build(TeaVMTarget target, TeaVMOptimizationLevel level, Class<?> entryPoint,
+            int threadCount) {
+        Map<String, ByteArrayOutputStream> files = new TreeMap<>();
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(level);
+        vm.setOptimizationThreadCount(threadCount);
+        vm.installPlugins();
+        vm.setEntryPoint(entryPoint.getName());
+        vm.build(fileName -> files.computeIfAbsent(fileName, k -> new ByteArrayOutputStream()), "out");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+
+        Map<String, byte[]> result = new TreeMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : files.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return result;
+    }
+
+    public static class EntryPoint {
+        public static void main(String[] args) {
+            List<Object> list = new ArrayList<>();
+            Map<String, Integer> map = new HashMap<>();
+            Function<String, Integer> parser = Integer::parseInt;
+            for (String arg : args) {
+                list.add(arg);
+                map.merge(arg, parser.apply(arg), (a, b) -> a + b);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Object item : list) {
+                sb.append(item).append(map.get(item.toString()));
+            }
+            System.out.println(sb);
+        }
+    }
+
+    public static class CycleEntryPoint {
+        public static void main(String[] args) {
+            Shape shape = new Square(args.length);
+            System.out.println(walk(shape, args.length + 3));
+        }
+
+        static int walk(Shape shape, int depth) {
+            return depth <= 0 ? 0 : shape.area(depth) + step(shape, depth);
+        }
+
+        static int step(Shape shape, int depth) {
+            return walk(shape, depth - 1) + 1;
+        }
+    }
+
+    interface Shape {
+        int area(int depth);
+    }
+
+    static class Square implements Shape {
+        private final int side;
+
+        Square(int side) {
+            this.side = side;
+        }
+
+        @Override
+        public int area(int depth) {
+            return depth % 3 == 0 ? side * side : CycleEntryPoint.step(this, depth - 2);
+        }
+    }
+}
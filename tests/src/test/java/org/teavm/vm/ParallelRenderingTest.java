@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Test;
+import org.teavm.backend.javascript.JavaScriptTarget;
+
+public class ParallelRenderingTest {
+    @Test
+    public void outputMatchesSequential() {
+        check(ParallelOptimizationTest.EntryPoint.class, TeaVMOptimizationLevel.ADVANCED);
+    }
+
+    @Test
+    public void outputWithoutOptimizationsMatchesSequential() {
+        check(ParallelOptimizationTest.EntryPoint.class, TeaVMOptimizationLevel.SIMPLE);
+    }
+
+    @Test
+    public void asyncOutputMatchesSequential() {
+        check(AsyncEntryPoint.class, TeaVMOptimizationLevel.ADVANCED);
+    }
+
+    private void check(Class<?> entryPoint, TeaVMOptimizationLevel optimizationLevel) {
+        Map<String, byte[]> sequential = build(entryPoint, optimizationLevel, 1);
+        Map<String, byte[]> parallel = build(entryPoint, optimizationLevel, 4);
+
+        assertEquals(sequential.keySet(), parallel.keySet());
+        for (String fileName : sequential.keySet()) {
+            assertArrayEquals(fileName, sequential.get(fileName), parallel.get(fileName));
+        }
+    }
+
+    private Map<String, byte[]> build(Class<?> entryPoint, TeaVMOptimizationLevel optimizationLevel,
+            int threadCount) {
+        Map<String, ByteArrayOutputStream> files = new TreeMap<>();
+        JavaScriptTarget target = new JavaScriptTarget();
+        target.setRenderingThreadCount(threadCount);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(optimizationLevel);
+        vm.installPlugins();
+        vm.setEntryPoint(entryPoint.getName());
+        vm.build(fileName -> files.computeIfAbsent(fileName, k -> new ByteArrayOutputStream()), "out");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+
+        Map<String, byte[]> result = new TreeMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : files.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return result;
+    }
+
+    public static class AsyncEntryPoint {
+        public static void main(String[] args) throws InterruptedException {
+            Object lock = new Object();
+            Thread thread = new Thread(() -> {
+                synchronized (lock) {
+                    lock.notifyAll();
+                }
+            });
+            synchronized (lock) {
+                thread.start();
+                lock.wait(100);
+            }
+            Thread.sleep(10);
+            System.out.println(args.length);
+        }
+    }
+}
@@ -87,6 +87,24 @@ public final class TeaVMRunner {
                 .hasArg()
                 .argName("number")
                 .build());
+        options.addOption(Option.builder()
+                .longOpt("optimization-threads")
+                .desc("number of threads used to optimize methods")
+                .hasArg()
+                .argName("number")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("loop-unroll-factor")
+                .desc("how many times bodies of counted loops are replicated at full optimization level")
+                .hasArg()
+                .argName("number")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("class-parsing-threads")
+                .desc("number of threads used to parse class files")
+                .hasArg()
+                .argName("number")
+                .build());
         options.addOption(Option.builder("g")
                 .desc("Generate debug information")
                 .longOpt("debug")
@@ -105,6 +123,10 @@ public final class TeaVMRunner {
                 .desc("Incremental build cache directory")
                 .longOpt("cachedir")
                 .build());
+        options.addOption(Option.builder()
+                .desc("Store incremental build cache in pack files instead of a file per method")
+                .longOpt("packed-cache")
+                .build());
         options.addOption(Option.builder("w")
                 .desc("Wait for command after compilation, in order to enable hot recompilation")
                 .longOpt("wait")
@@ -155,6 +177,16 @@ public final class TeaVMRunner {
                 .hasArg()
                 .desc("JavaScript module type (umd, common-js, none, es2015).")
                 .build());
+        options.addOption(Option.builder()
+                .longOpt("js-code-splitting")
+                .desc("emit methods marked with @SplitPoint to separate lazily loaded files (es2015 modules only)")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("rendering-threads")
+                .desc("number of threads used to decompile methods when generating JavaScript")
+                .hasArg()
+                .argName("number")
+                .build());
     }
 
     private TeaVMRunner(CommandLine commandLine) {
@@ -245,6 +277,11 @@ public final class TeaVMRunner {
         tool.setObfuscated(commandLine.hasOption("m"));
         tool.setStrict(commandLine.hasOption("strict"));
         parseJsModuleOption();
+        tool.setJsCodeSplitting(commandLine.hasOption("js-code-splitting"));
+
+        if (commandLine.hasOption("rendering-threads")) {
+            tool.setRenderingThreadCount(parsePositiveInt(commandLine, "rendering-threads"));
+        }
 
         if (commandLine.hasOption("max-toplevel-names")) {
             try {
@@ -319,12 +356,38 @@ public final class TeaVMRunner {
                     printUsage();
             }
         }
+        if (commandLine.hasOption("optimization-threads")) {
+            tool.setOptimizationThreadCount(parsePositiveInt(commandLine, "optimization-threads"));
+        }
+        if (commandLine.hasOption("loop-unroll-factor")) {
+            tool.setLoopUnrollFactor(parsePositiveInt(commandLine, "loop-unroll-factor"));
+        }
+        if (commandLine.hasOption("class-parsing-threads")) {
+            tool.setClassParsingThreadCount(parsePositiveInt(commandLine, "class-parsing-threads"));
+        }
+    }
+
+    private static int parsePositiveInt(CommandLine commandLine, String option) {
+        int value;
+        try {
+            value = Integer.parseInt(commandLine.getOptionValue(option));
+        } catch (NumberFormatException e) {
+            value = 0;
+        }
+        if (value < 1) {
+            System.err.println("'--" + option + "' must be positive integer number");
+            printUsage();
+        }
+        return value;
     }
 
     private void parseIncrementalOptions() {
         if (commandLine.hasOption('i')) {
             tool.setIncremental(true);
         }
+        if (commandLine.hasOption("packed-cache")) {
+            tool.setPackedCache(true);
+        }
         if (commandLine.hasOption('c')) {
             tool.setCacheDirectory(new File(commandLine.getOptionValue('c')));
         } else {
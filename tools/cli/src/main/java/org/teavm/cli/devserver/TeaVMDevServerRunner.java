@@ -105,6 +105,10 @@ public final class TeaVMDevServerRunner {
                 .desc("automatically reload page when compilation completes")
                 .longOpt("auto-reload")
                 .build());
+        options.addOption(Option.builder()
+                .desc("replace changed methods in running page instead of reloading it, when possible")
+                .longOpt("hot-swap")
+                .build());
         options.addOption(Option.builder("v")
                 .desc("display more messages on server log")
                 .longOpt("verbose")
@@ -172,6 +176,7 @@ public final class TeaVMDevServerRunner {
         devServer.setIndicator(commandLine.hasOption("indicator"));
         devServer.setDeobfuscateStack(commandLine.hasOption("deobfuscate-stack"));
         devServer.setReloadedAutomatically(commandLine.hasOption("auto-reload"));
+        devServer.setHotSwap(commandLine.hasOption("hot-swap"));
         if (commandLine.hasOption("port")) {
             try {
                 devServer.setPort(Integer.parseInt(commandLine.getOptionValue("port")));
@@ -18,6 +18,7 @@ package org.teavm.tooling;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -48,6 +49,9 @@ import org.teavm.cache.DiskMethodNodeCache;
 import org.teavm.cache.DiskProgramCache;
 import org.teavm.cache.EmptyProgramCache;
 import org.teavm.cache.FileSymbolTable;
+import org.teavm.cache.MethodNodeCache;
+import org.teavm.cache.PackMethodNodeCache;
+import org.teavm.cache.PackProgramCache;
 import org.teavm.debugging.information.DebugInformation;
 import org.teavm.debugging.information.DebugInformationBuilder;
 import org.teavm.debugging.information.SourceMapsWriter;
@@ -59,7 +63,9 @@ import org.teavm.model.ClassHolderSource;
 import org.teavm.model.ClassHolderTransformer;
 import org.teavm.model.ClassReader;
 import org.teavm.model.PreOptimizingClassHolderSource;
+import org.teavm.model.ProgramCache;
 import org.teavm.model.ReferenceCache;
+import org.teavm.model.optimization.LoopUnrolling;
 import org.teavm.model.transformation.AssertionRemoval;
 import org.teavm.parsing.ClasspathClassHolderSource;
 import org.teavm.tooling.sources.SourceFileProvider;
@@ -79,6 +85,8 @@ public class TeaVMTool {
     private JSModuleType jsModuleType = JSModuleType.UMD;
     private boolean strict;
     private int maxTopLevelNames = 80_000;
+    private boolean jsCodeSplitting;
+    private int renderingThreadCount = 1;
     private String mainClass;
     private String entryPointName = "main";
     private Properties properties = new Properties();
@@ -92,8 +100,10 @@ public class TeaVMTool {
     private TeaVMToolLog log = new EmptyTeaVMToolLog();
     private ClassLoader classLoader = TeaVMTool.class.getClassLoader();
     private DiskCachedClassReaderSource cachedClassSource;
-    private DiskProgramCache programCache;
-    private DiskMethodNodeCache astCache;
+    private boolean packedCache;
+    private ProgramCache programCache;
+    private MethodNodeCache astCache;
+    private List<Flushable> cachesToFlush = new ArrayList<>();
     private FileSymbolTable symbolTable;
     private FileSymbolTable fileTable;
     private FileSymbolTable variableTable;
@@ -101,7 +111,10 @@ public class TeaVMTool {
     private TeaVMProgressListener progressListener;
     private TeaVM vm;
     private boolean fastDependencyAnalysis;
+    private int classParsingThreadCount = 1;
     private TeaVMOptimizationLevel optimizationLevel = TeaVMOptimizationLevel.SIMPLE;
+    private int optimizationThreadCount = 1;
+    private int loopUnrollFactor = LoopUnrolling.DEFAULT_FACTOR;
     private List<SourceFileProvider> sourceFileProviders = new ArrayList<>();
     private DebugInformationBuilder debugEmitter;
     private JavaScriptTarget javaScriptTarget;
@@ -145,6 +158,18 @@ public class TeaVMTool {
         this.maxTopLevelNames = maxTopLevelNames;
     }
 
+    public void setJsCodeSplitting(boolean jsCodeSplitting) {
+        this.jsCodeSplitting = jsCodeSplitting;
+    }
+
+    public int getRenderingThreadCount() {
+        return renderingThreadCount;
+    }
+
+    public void setRenderingThreadCount(int renderingThreadCount) {
+        this.renderingThreadCount = renderingThreadCount;
+    }
+
     public boolean isIncremental() {
         return incremental;
     }
@@ -153,6 +178,18 @@ public class TeaVMTool {
         this.incremental = incremental;
     }
 
+    public boolean isPackedCache() {
+        return packedCache;
+    }
+
+    /**
+     * Makes incremental build store programs and ASTs in a single memory-mapped pack file per cache,
+     * instead of a separate file per method.
+     */
+    public void setPackedCache(boolean packedCache) {
+        this.packedCache = packedCache;
+    }
+
     public String getMainClass() {
         return mainClass;
     }
@@ -244,6 +281,22 @@ public class TeaVMTool {
         this.optimizationLevel = optimizationLevel;
     }
 
+    public int getOptimizationThreadCount() {
+        return optimizationThreadCount;
+    }
+
+    public void setOptimizationThreadCount(int optimizationThreadCount) {
+        this.optimizationThreadCount = optimizationThreadCount;
+    }
+
+    public int getLoopUnrollFactor() {
+        return loopUnrollFactor;
+    }
+
+    public void setLoopUnrollFactor(int loopUnrollFactor) {
+        this.loopUnrollFactor = loopUnrollFactor;
+    }
+
     public boolean isFastDependencyAnalysis() {
         return fastDependencyAnalysis;
     }
@@ -252,6 +305,14 @@ public class TeaVMTool {
         this.fastDependencyAnalysis = fastDependencyAnalysis;
     }
 
+    public int getClassParsingThreadCount() {
+        return classParsingThreadCount;
+    }
+
+    public void setClassParsingThreadCount(int classParsingThreadCount) {
+        this.classParsingThreadCount = classParsingThreadCount;
+    }
+
     public void setMinHeapSize(int minHeapSize) {
         this.minHeapSize = minHeapSize;
     }
@@ -352,6 +413,8 @@ public class TeaVMTool {
                 ? new DebugInformationBuilder(referenceCache) : null;
         javaScriptTarget.setDebugEmitter(debugEmitter);
         javaScriptTarget.setModuleType(jsModuleType);
+        javaScriptTarget.setCodeSplitting(jsCodeSplitting);
+        javaScriptTarget.setRenderingThreadCount(renderingThreadCount);
 
         return javaScriptTarget;
     }
@@ -395,6 +458,7 @@ public class TeaVMTool {
     }
 
     public void generate() throws TeaVMToolException {
+        ClasspathClassHolderSource classpathClassSource = null;
         try {
             cancelled = false;
             log.info("Running TeaVM");
@@ -407,16 +471,35 @@ public class TeaVMTool {
                 symbolTable = new FileSymbolTable(new File(cacheDirectory, "symbols"));
                 fileTable = new FileSymbolTable(new File(cacheDirectory, "files"));
                 variableTable = new FileSymbolTable(new File(cacheDirectory, "variables"));
-                ClasspathClassHolderSource innerClassSource = new ClasspathClassHolderSource(classLoader,
-                        referenceCache);
-                ClassHolderSource classSource = new PreOptimizingClassHolderSource(innerClassSource);
+                classpathClassSource = new ClasspathClassHolderSource(classLoader, referenceCache,
+                        classParsingThreadCount);
+                ClassHolderSource classSource = new PreOptimizingClassHolderSource(classpathClassSource);
                 cachedClassSource = new DiskCachedClassReaderSource(cacheDirectory, referenceCache, symbolTable,
-                        fileTable, variableTable, classSource, innerClassSource);
-                programCache = new DiskProgramCache(cacheDirectory, referenceCache, symbolTable, fileTable,
-                        variableTable);
+                        fileTable, variableTable, classSource, classpathClassSource);
+                cachesToFlush.clear();
+                if (packedCache) {
+                    PackProgramCache packProgramCache = new PackProgramCache(cacheDirectory, referenceCache,
+                            symbolTable, fileTable, variableTable);
+                    programCache = packProgramCache;
+                    cachesToFlush.add(packProgramCache::flush);
+                } else {
+                    DiskProgramCache diskProgramCache = new DiskProgramCache(cacheDirectory, referenceCache,
+                            symbolTable, fileTable, variableTable);
+                    programCache = diskProgramCache;
+                    cachesToFlush.add(diskProgramCache::flush);
+                }
                 if (targetType == TeaVMTargetType.JAVASCRIPT) {
-                    astCache = new DiskMethodNodeCache(cacheDirectory, referenceCache, symbolTable, fileTable,
-                            variableTable);
+                    if (packedCache) {
+                        PackMethodNodeCache packAstCache = new PackMethodNodeCache(cacheDirectory, referenceCache,
+                                symbolTable, fileTable, variableTable);
+                        astCache = packAstCache;
+                        cachesToFlush.add(packAstCache::flush);
+                    } else {
+                        DiskMethodNodeCache diskAstCache = new DiskMethodNodeCache(cacheDirectory, referenceCache,
+                                symbolTable, fileTable, variableTable);
+                        astCache = diskAstCache;
+                        cachesToFlush.add(diskAstCache::flush);
+                    }
                     javaScriptTarget.setAstCache(astCache);
                 }
                 try {
@@ -429,8 +512,10 @@ public class TeaVMTool {
                 vmBuilder.setClassLoader(classLoader).setClassSource(cachedClassSource);
                 cacheStatus = cachedClassSource;
             } else {
-                vmBuilder.setClassLoader(classLoader).setClassSource(new PreOptimizingClassHolderSource(
-                        new ClasspathClassHolderSource(classLoader, referenceCache)));
+                classpathClassSource = new ClasspathClassHolderSource(classLoader, referenceCache,
+                        classParsingThreadCount);
+                vmBuilder.setClassLoader(classLoader).setClassSource(
+                        new PreOptimizingClassHolderSource(classpathClassSource));
                 cacheStatus = AlwaysStaleCacheStatus.INSTANCE;
             }
 
@@ -455,6 +540,8 @@ public class TeaVMTool {
             vm.setOptimizationLevel(!fastDependencyAnalysis && !incremental
                     ? optimizationLevel
                     : TeaVMOptimizationLevel.SIMPLE);
+            vm.setOptimizationThreadCount(optimizationThreadCount);
+            vm.setLoopUnrollFactor(loopUnrollFactor);
             if (incremental) {
                 vm.addVirtualMethods(m -> true);
             }
@@ -505,9 +592,8 @@ public class TeaVMTool {
             }
 
             if (incremental) {
-                programCache.flush();
-                if (astCache != null) {
-                    astCache.flush();
+                for (Flushable cache : cachesToFlush) {
+                    cache.flush();
                 }
                 cachedClassSource.flush();
                 symbolTable.flush();
@@ -519,6 +605,14 @@ public class TeaVMTool {
             printStats();
         } catch (IOException e) {
             throw new TeaVMToolException("IO error occurred", e);
+        } finally {
+            if (classpathClassSource != null) {
+                try {
+                    classpathClassSource.close();
+                } catch (IOException e) {
+                    log.warning("Could not close class path jar files", e);
+                }
+            }
         }
     }
 
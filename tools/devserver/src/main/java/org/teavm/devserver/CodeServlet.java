@@ -67,6 +67,7 @@ import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
 import org.eclipse.jetty.websocket.client.io.UpgradeListener;
 import org.eclipse.jetty.websocket.servlet.WebSocketServletFactory;
+import org.teavm.backend.javascript.IncrementalJavaScriptOutput;
 import org.teavm.backend.javascript.JSModuleType;
 import org.teavm.backend.javascript.JavaScriptTarget;
 import org.teavm.cache.InMemoryMethodNodeCache;
@@ -113,6 +114,7 @@ public class CodeServlet extends HttpServlet {
     private boolean indicator;
     private boolean deobfuscateStack;
     private boolean automaticallyReloaded;
+    private boolean hotSwap;
     private int port;
     private int debugPort;
     private String proxyUrl;
@@ -132,6 +134,8 @@ public class CodeServlet extends HttpServlet {
     private MemoryCachedClassReaderSource classSource;
     private InMemoryProgramCache programCache;
     private InMemoryMethodNodeCache astCache;
+    private IncrementalJavaScriptOutput incrementalOutput;
+    private volatile int buildVersion;
     private int lastReachedClasses;
     private boolean firstTime = true;
 
@@ -201,6 +205,10 @@ public class CodeServlet extends HttpServlet {
         this.automaticallyReloaded = automaticallyReloaded;
     }
 
+    public void setHotSwap(boolean hotSwap) {
+        this.hotSwap = hotSwap;
+    }
+
     public void setProxyUrl(String proxyUrl) {
         this.proxyUrl = proxyUrl;
     }
@@ -265,6 +273,9 @@ public class CodeServlet extends HttpServlet {
                 return;
             }
             astCache.invalidate();
+            if (incrementalOutput != null) {
+                incrementalOutput.invalidate();
+            }
             programCache.invalidate();
             classSource.invalidate();
             symbolTable.invalidate();
@@ -758,7 +769,7 @@ public class CodeServlet extends HttpServlet {
             resp.setContentType("text/plain");
             noCache(resp);
             resp.getWriter().write("function main() { }\n");
-            resp.getWriter().write(getIndicatorScript(true));
+            resp.getWriter().write(getIndicatorScript(true, buildVersion));
         }
         resp.getWriter().flush();
         log.debug("Served boot file");
@@ -834,6 +845,9 @@ public class CodeServlet extends HttpServlet {
         classSource = createCachedSource();
         astCache = new InMemoryMethodNodeCache(referenceCache, symbolTable, fileSymbolTable, variableSymbolTable);
         programCache = new InMemoryProgramCache(referenceCache, symbolTable, fileSymbolTable, variableSymbolTable);
+        if (hotSwap) {
+            incrementalOutput = new IncrementalJavaScriptOutput();
+        }
     }
 
     private MemoryCachedClassReaderSource createCachedSource() {
@@ -851,6 +865,7 @@ public class CodeServlet extends HttpServlet {
         watcher = null;
         astCache = null;
         programCache = null;
+        incrementalOutput = null;
         synchronized (content) {
             content.clear();
         }
@@ -887,6 +902,9 @@ public class CodeServlet extends HttpServlet {
         jsTarget.setStackTraceIncluded(true);
         jsTarget.setObfuscated(false);
         jsTarget.setAstCache(astCache);
+        if (incrementalOutput != null) {
+            jsTarget.setIncrementalOutput(incrementalOutput);
+        }
         jsTarget.setDebugEmitter(debugInformationBuilder);
         if (jsModuleType != null) {
             jsTarget.setModuleType(jsModuleType);
@@ -910,7 +928,7 @@ public class CodeServlet extends HttpServlet {
         progressListener.last = 0;
         progressListener.lastTime = System.currentTimeMillis();
         vm.build(buildTarget, fileName);
-        addIndicator();
+        addIndicator(buildVersion + 1);
         generateDebug(debugInformationBuilder);
 
         postBuild(vm, startTime);
@@ -932,8 +950,8 @@ public class CodeServlet extends HttpServlet {
         return packedSource;
     }
 
-    private void addIndicator() {
-        String script = getIndicatorScript(false);
+    private void addIndicator(int version) {
+        String script = getIndicatorScript(false, version);
         try (Writer writer = new OutputStreamWriter(buildTarget.appendToResource(fileName), StandardCharsets.UTF_8)) {
             writer.append("\n");
             writer.append(script);
@@ -942,13 +960,14 @@ public class CodeServlet extends HttpServlet {
         }
     }
 
-    private String getIndicatorScript(boolean boot) {
+    private String getIndicatorScript(boolean boot, int version) {
         try (Reader reader = new InputStreamReader(CodeServlet.class.getResourceAsStream("indicator.js"),
                 StandardCharsets.UTF_8)) {
             String script = IOUtils.toString(reader);
             script = script.substring(script.indexOf("*/") + 2);
             script = script.replace("WS_PATH", "localhost:" + port + pathToFile + fileName + ".ws");
             script = script.replace("BOOT_FLAG", Boolean.toString(boot));
+            script = script.replace("BUILD_VERSION", Integer.toString(version));
             script = script.replace("RELOAD_FLAG", Boolean.toString(automaticallyReloaded));
             script = script.replace("INDICATOR_FLAG", Boolean.toString(indicator));
             script = script.replace("DEBUG_PORT", Integer.toString(debugPort));
@@ -991,6 +1010,16 @@ public class CodeServlet extends HttpServlet {
                 classSource.commit();
                 programCache.commit();
                 astCache.commit();
+                String delta = null;
+                if (incrementalOutput != null) {
+                    delta = incrementalOutput.getDelta();
+                    incrementalOutput.commit();
+                }
+                buildVersion++;
+                if (delta != null) {
+                    log.info("Changed methods can be replaced without reloading page");
+                    reportHotSwap(buildVersion - 1, buildVersion, delta);
+                }
                 reportCompilationComplete(true);
             } else {
                 log.info("Build complete with errors");
@@ -1008,6 +1037,9 @@ public class CodeServlet extends HttpServlet {
 
         astCache.discard();
         programCache.discard();
+        if (incrementalOutput != null) {
+            incrementalOutput.discard();
+        }
         buildTarget.clear();
         cancelRequested = false;
     }
@@ -1117,6 +1149,23 @@ public class CodeServlet extends HttpServlet {
         }
     }
 
+    private void reportHotSwap(int fromVersion, int toVersion, String script) {
+        synchronized (statusLock) {
+            if (!compiling) {
+                return;
+            }
+        }
+
+        ProgressHandler[] handlers;
+        synchronized (progressHandlers) {
+            handlers = progressHandlers.toArray(new ProgressHandler[0]);
+        }
+
+        for (ProgressHandler handler : handlers) {
+            handler.hotSwap(fromVersion, toVersion, script);
+        }
+    }
+
     private void fireBuildStarted() {
         for (DevServerListener listener : listeners) {
             listener.compilationStarted();
@@ -21,6 +21,8 @@
     let deobfuscate = DEOBFUSCATE_FLAG;
     let fileName = FILE_NAME;
     let pathToFile = PATH_TO_FILE;
+    let version = BUILD_VERSION;
+    let hotSwapped = false;
 
     function createWebSocket() {
         return new WebSocket("ws://WS_PATH");
@@ -173,8 +175,22 @@
                 indicator.show("Compiling...");
                 indicator.showProgress(message.progress || 0);
                 break;
+            case "hotSwap":
+                if (!boot && message.from === version && typeof globalThis.$teavm_hotSwap === "function") {
+                    try {
+                        globalThis.$teavm_hotSwap(message.script);
+                        version = message.to;
+                        hotSwapped = true;
+                    } catch (e) {
+                        console.error("Could not replace changed code", e);
+                    }
+                }
+                break;
             case "complete":
-                if (message.success) {
+                if (message.success && hotSwapped) {
+                    hotSwapped = false;
+                    indicator.show("Changed code replaced", 10);
+                } else if (message.success) {
                     indicator.show("Compilation complete", 10);
                     if (reload) {
                         window.location.reload();
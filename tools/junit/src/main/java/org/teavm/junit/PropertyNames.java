@@ -29,6 +29,7 @@ final class PropertyNames {
     static final String C_LINE_NUMBERS = "teavm.junit.c.lineNumbers";
     static final String MINIFIED = "teavm.junit.minified";
     static final String OPTIMIZED = "teavm.junit.optimized";
+    static final String OPTIMIZATION_THREADS = "teavm.junit.optimizationThreads";
     static final String SOURCE_DIRS = "teavm.junit.sourceDirs";
 
     private PropertyNames() {
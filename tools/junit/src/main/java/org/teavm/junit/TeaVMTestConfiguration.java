@@ -15,6 +15,7 @@
  */
 package org.teavm.junit;
 
+import static org.teavm.junit.PropertyNames.OPTIMIZATION_THREADS;
 import org.teavm.backend.c.CTarget;
 import org.teavm.backend.javascript.JavaScriptTarget;
 import org.teavm.backend.wasm.WasmTarget;
@@ -55,6 +56,7 @@ interface TeaVMTestConfiguration<T extends TeaVMTarget> {
         @Override
         public void apply(TeaVM vm) {
             vm.setOptimizationLevel(TeaVMOptimizationLevel.FULL);
+            vm.setOptimizationThreadCount(Integer.getInteger(OPTIMIZATION_THREADS, 1));
         }
 
         @Override
@@ -108,6 +110,7 @@ interface TeaVMTestConfiguration<T extends TeaVMTarget> {
         @Override
         public void apply(TeaVM vm) {
             vm.setOptimizationLevel(TeaVMOptimizationLevel.FULL);
+            vm.setOptimizationThreadCount(Integer.getInteger(OPTIMIZATION_THREADS, 1));
         }
 
         @Override
@@ -140,6 +143,7 @@ interface TeaVMTestConfiguration<T extends TeaVMTarget> {
         @Override
         public void apply(TeaVM vm) {
             vm.setOptimizationLevel(TeaVMOptimizationLevel.FULL);
+            vm.setOptimizationThreadCount(Integer.getInteger(OPTIMIZATION_THREADS, 1));
         }
 
         @Override